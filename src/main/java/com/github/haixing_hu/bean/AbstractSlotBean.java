@@ -0,0 +1,1292 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * A skeletal implementation of the {@link SlotBean} interface.
+ * <p>
+ * This class resolves the names of properties to their slots, checks the kinds
+ * and types of the properties, and delegates the storage of the property
+ * values to the subclasses. The subclasses only need to implement the
+ * {@link #getValue(int)} and {@link #setValue(int, Object)} functions. The
+ * value stored in the slot of an indexed property must be the list created by
+ * {@link PrimitiveList#create(Class)}, and the value stored in the slot of a
+ * mapped property must be a {@link CompactMap}.
+ *
+ * @author Haixing Hu
+ */
+public abstract class AbstractSlotBean
+    implements SlotBean, ToStringAppendable {
+
+  protected final BeanClass beanClass;
+  protected final PropertyDescriptor[] descriptors;
+
+  /**
+   * Whether this bean tracks its dirty properties.
+   */
+  private final boolean trackDirty;
+
+  /**
+   * The bitset of the slots of the dirty properties, which is allocated on the
+   * first write.
+   */
+  private long[] dirty;
+
+  /**
+   * Constructs a {@link AbstractSlotBean}.
+   *
+   * @param beanClass
+   *          the class of the bean.
+   */
+  protected AbstractSlotBean(final BeanClass beanClass) {
+    this(beanClass, true);
+  }
+
+  /**
+   * Constructs a {@link AbstractSlotBean} which may not track its dirty
+   * properties, e.g., because it is the storage of another bean tracking them.
+   *
+   * @param beanClass
+   *          the class of the bean.
+   * @param trackDirty
+   *          whether the new bean tracks its dirty properties; if not, its
+   *          {@link #getDirtyProperties()} always returns an empty set.
+   */
+  AbstractSlotBean(final BeanClass beanClass, final boolean trackDirty) {
+    this.beanClass = requireNonNull("beanClass", beanClass);
+    descriptors = beanClass.getPropertyDescriptors();
+    this.trackDirty = trackDirty;
+  }
+
+  /**
+   * Gets the value stored in a slot.
+   *
+   * @param slot
+   *          the slot of a property.
+   * @return the value stored in the specified slot.
+   */
+  protected abstract Object getValue(int slot);
+
+  /**
+   * Stores a value in a slot.
+   * <p>
+   * The value has already been checked by the caller.
+   *
+   * @param slot
+   *          the slot of a property.
+   * @param value
+   *          the value to be stored in the specified slot.
+   */
+  protected abstract void setValue(int slot, @Nullable Object value);
+
+  /**
+   * Gets the bit pattern of the value of a simple property of a primitive
+   * type.
+   * <p>
+   * The kind and the type of the property have already been checked by the
+   * caller. The default implementation unboxes the value returned by
+   * {@link #getValue(int)}; the subclasses storing the primitive values without
+   * boxing should override this function as well as
+   * {@link #storeBits(int, PrimitiveType, long)}.
+   *
+   * @param slot
+   *          the slot of a simple property.
+   * @param type
+   *          the primitive type of the property.
+   * @return the bit pattern of the value stored in the specified slot, as
+   *         converted by {@link PrimitiveType#toBits(Object)}.
+   * @throws NullPointerException
+   *           if the value stored in the specified slot is {@code null}.
+   */
+  protected long loadBits(final int slot, final PrimitiveType type) {
+    final Object value = getValue(slot);
+    if (value == null) {
+      throw new NullPointerException("The value of the property '"
+          + descriptors[slot].getName() + "' is null.");
+    }
+    return type.toBits(value);
+  }
+
+  /**
+   * Stores the bit pattern of the value of a simple property of a primitive
+   * type.
+   * <p>
+   * The kind and the type of the property have already been checked by the
+   * caller. The default implementation boxes the value and stores it by
+   * {@link #setValue(int, Object)}.
+   *
+   * @param slot
+   *          the slot of a simple property.
+   * @param type
+   *          the primitive type of the property.
+   * @param bits
+   *          the bit pattern of the value to be stored, as converted by
+   *          {@link PrimitiveType#toBits(Object)}.
+   */
+  protected void storeBits(final int slot, final PrimitiveType type,
+      final long bits) {
+    setValue(slot, type.fromBits(bits));
+  }
+
+  private long getBits(final int slot, final PrimitiveType type) {
+    type.check(checkKind(slot, PropertyKind.SIMPLE));
+    return loadBits(slot, type);
+  }
+
+  private void setBits(final int slot, final PrimitiveType type,
+      final long bits) {
+    type.check(checkKind(slot, PropertyKind.SIMPLE));
+    storeBits(slot, type, bits);
+    markDirty(slot);
+  }
+
+  /**
+   * Gets the slot of a property.
+   *
+   * @param name
+   *          the name of a property.
+   * @return the slot of the property with the specified name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   */
+  protected final int slotOf(final String name) {
+    requireNonNull("name", name);
+    final int slot = beanClass.getPropertyIndex(name);
+    if (slot < 0) {
+      throw new PropertyNotExistException(name);
+    }
+    return slot;
+  }
+
+  /**
+   * Checks the kind of a property.
+   *
+   * @param slot
+   *          the slot of a property.
+   * @param expectedKind
+   *          the expected kind of the property.
+   * @return the descriptor of the property in the specified slot.
+   * @throws InvalidPropertyKindException
+   *           if the kind of the property is not the expected kind.
+   */
+  protected final PropertyDescriptor checkKind(final int slot,
+      final PropertyKind expectedKind) {
+    final PropertyDescriptor descriptor = descriptors[slot];
+    if (descriptor.getKind() != expectedKind) {
+      throw new InvalidPropertyKindException(descriptor.getName(),
+          descriptor.getKind(), expectedKind);
+    }
+    return descriptor;
+  }
+
+  /**
+   * Checks the type of a value.
+   *
+   * @param descriptor
+   *          the descriptor of a property.
+   * @param value
+   *          the value to be checked, which could be {@code null}.
+   * @throws ClassCastException
+   *           if the value is not an instance of the type of the property.
+   */
+  protected static void checkType(final PropertyDescriptor descriptor,
+      @Nullable final Object value) {
+    if (! descriptor.accepts(value)) {
+      throw new ClassCastException("Cannot cast the value of type "
+          + value.getClass().getName() + " to the value of type "
+          + descriptor.getType().getName());
+    }
+  }
+
+  /**
+   * Checks the keys of a map to be set to a mapped property.
+   *
+   * @param map
+   *          the map to be checked.
+   * @throws ClassCastException
+   *           if some key of the map is not a {@link String}.
+   */
+  static void checkKeys(final Map<?, ?> map) {
+    for (final Object key : map.keySet()) {
+      if (! (key instanceof String)) {
+        throw new ClassCastException(
+            "The keys of a mapped property must be non-null strings.");
+      }
+    }
+  }
+
+  /**
+   * Creates the initial value stored in the slot of a property.
+   *
+   * @param descriptor
+   *          the descriptor of a property.
+   * @return the initial value of the property, i.e., an empty list created by
+   *         {@link PrimitiveList#create(Class)} for an indexed property, an
+   *         empty {@link CompactMap} for a mapped property, and {@code null} for
+   *         a simple property.
+   */
+  protected static Object newValue(final PropertyDescriptor descriptor) {
+    switch (descriptor.getKind()) {
+      case INDEXED:
+        return PrimitiveList.create(descriptor.getType());
+      case MAPPED:
+        return new CompactMap();
+      case SIMPLE:
+      default:
+        return null;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Object> getList(final int slot) {
+    checkKind(slot, PropertyKind.INDEXED);
+    return (List<Object>) getValue(slot);
+  }
+
+  /**
+   * Gets the list of an indexed property of a primitive type.
+   * <p>
+   * The list is usually the {@link PrimitiveList} created by
+   * {@link #newValue(PropertyDescriptor)}, whose elements are accessed without
+   * boxing; but the subclasses wrapping the existing objects may store any
+   * other list, whose elements are accessed as boxed values.
+   *
+   * @param slot
+   *          the slot of an indexed property.
+   * @param type
+   *          the expected primitive type of the elements.
+   * @return the list stored in the specified slot.
+   */
+  @SuppressWarnings("unchecked")
+  private List<Object> getList(final int slot, final PrimitiveType type) {
+    type.check(checkKind(slot, PropertyKind.INDEXED));
+    return (List<Object>) getValue(slot);
+  }
+
+  private static Object getElement(final List<Object> list, final int index) {
+    final Object value = list.get(index);
+    if (value == null) {
+      throw new NullPointerException("The element at index " + index
+          + " is null.");
+    }
+    return value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> getMap(final int slot) {
+    checkKind(slot, PropertyKind.MAPPED);
+    return (Map<String, Object>) getValue(slot);
+  }
+
+  @Override
+  public final BeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  @Override
+  public final Property getProperty(final String name) {
+    requireNonNull("name", name);
+    final int slot = beanClass.getPropertyIndex(name);
+    return (slot < 0 ? null : new SlotProperty(this, slot));
+  }
+
+  @Override
+  public final Property getProperty(final int slot) {
+    if ((slot < 0) || (slot >= descriptors.length)) {
+      throw new IndexOutOfBoundsException("Invalid slot: " + slot);
+    }
+    return new SlotProperty(this, slot);
+  }
+
+  @Override
+  public final Object getRawValue(final int slot) {
+    return getValue(slot);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public final void setRawValue(final int slot, @Nullable final Object value) {
+    final PropertyDescriptor descriptor = descriptors[slot];
+    switch (descriptor.getKind()) {
+      case INDEXED: {
+        if (value == null) {
+          throw new NullPointerException("value is null.");
+        }
+        if (! (value instanceof List)) {
+          throw new ClassCastException(
+              "The value of an indexed property must be a java.util.List.");
+        }
+        final List<Object> list = (List<Object>) value;
+        final List<Object> valueList = (List<Object>) getValue(slot);
+        if (list == valueList) {
+          //  e.g., the list returned by getAll(); clearing it would lose it
+          markDirty(slot);
+          return;
+        }
+        if ((valueList instanceof PrimitiveList)
+            && ((PrimitiveList) valueList).copyFrom(list)) {
+          markDirty(slot);
+          return;
+        }
+        for (final Object obj : list) {
+          checkType(descriptor, obj);
+        }
+        valueList.clear();
+        valueList.addAll(list);
+        markDirty(slot);
+        return;
+      }
+      case MAPPED: {
+        if (value == null) {
+          throw new NullPointerException("value is null.");
+        }
+        if (! (value instanceof Map)) {
+          throw new ClassCastException(
+              "The value of a mapped property must be a java.util.Map.");
+        }
+        final Map<String, Object> map = (Map<String, Object>) value;
+        final Map<String, Object> valueMap =
+            (Map<String, Object>) getValue(slot);
+        if (map == valueMap) {
+          markDirty(slot);
+          return;
+        }
+        checkKeys(map);
+        for (final Object obj : map.values()) {
+          checkType(descriptor, obj);
+        }
+        valueMap.clear();
+        valueMap.putAll(map);
+        markDirty(slot);
+        return;
+      }
+      case SIMPLE:
+      default:
+        checkType(descriptor, value);
+        setValue(slot, value);
+        markDirty(slot);
+        return;
+    }
+  }
+
+  @Override
+  public final Object get(final String name) {
+    return get(slotOf(name));
+  }
+
+  @Override
+  public final Object get(final int slot) {
+    checkKind(slot, PropertyKind.SIMPLE);
+    return getValue(slot);
+  }
+
+  @Override
+  public final void set(final String name, @Nullable final Object value) {
+    set(slotOf(name), value);
+  }
+
+  @Override
+  public final void set(final int slot, @Nullable final Object value) {
+    final PropertyDescriptor descriptor = checkKind(slot, PropertyKind.SIMPLE);
+    checkType(descriptor, value);
+    setValue(slot, value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final boolean getBoolean(final String name) {
+    return getBoolean(slotOf(name));
+  }
+
+  @Override
+  public final boolean getBoolean(final int slot) {
+    return (getBits(slot, PrimitiveType.BOOLEAN) != 0);
+  }
+
+  @Override
+  public final void setBoolean(final String name, final boolean value) {
+    setBoolean(slotOf(name), value);
+  }
+
+  @Override
+  public final void setBoolean(final int slot, final boolean value) {
+    setBits(slot, PrimitiveType.BOOLEAN, (value ? 1L : 0L));
+  }
+
+  @Override
+  public final byte getByte(final String name) {
+    return getByte(slotOf(name));
+  }
+
+  @Override
+  public final byte getByte(final int slot) {
+    return (byte) getBits(slot, PrimitiveType.BYTE);
+  }
+
+  @Override
+  public final void setByte(final String name, final byte value) {
+    setByte(slotOf(name), value);
+  }
+
+  @Override
+  public final void setByte(final int slot, final byte value) {
+    setBits(slot, PrimitiveType.BYTE, value);
+  }
+
+  @Override
+  public final short getShort(final String name) {
+    return getShort(slotOf(name));
+  }
+
+  @Override
+  public final short getShort(final int slot) {
+    return (short) getBits(slot, PrimitiveType.SHORT);
+  }
+
+  @Override
+  public final void setShort(final String name, final short value) {
+    setShort(slotOf(name), value);
+  }
+
+  @Override
+  public final void setShort(final int slot, final short value) {
+    setBits(slot, PrimitiveType.SHORT, value);
+  }
+
+  @Override
+  public final int getInt(final String name) {
+    return getInt(slotOf(name));
+  }
+
+  @Override
+  public final int getInt(final int slot) {
+    return (int) getBits(slot, PrimitiveType.INT);
+  }
+
+  @Override
+  public final void setInt(final String name, final int value) {
+    setInt(slotOf(name), value);
+  }
+
+  @Override
+  public final void setInt(final int slot, final int value) {
+    setBits(slot, PrimitiveType.INT, value);
+  }
+
+  @Override
+  public final long getLong(final String name) {
+    return getLong(slotOf(name));
+  }
+
+  @Override
+  public final long getLong(final int slot) {
+    return getBits(slot, PrimitiveType.LONG);
+  }
+
+  @Override
+  public final void setLong(final String name, final long value) {
+    setLong(slotOf(name), value);
+  }
+
+  @Override
+  public final void setLong(final int slot, final long value) {
+    setBits(slot, PrimitiveType.LONG, value);
+  }
+
+  @Override
+  public final float getFloat(final String name) {
+    return getFloat(slotOf(name));
+  }
+
+  @Override
+  public final float getFloat(final int slot) {
+    return Float.intBitsToFloat((int) getBits(slot, PrimitiveType.FLOAT));
+  }
+
+  @Override
+  public final void setFloat(final String name, final float value) {
+    setFloat(slotOf(name), value);
+  }
+
+  @Override
+  public final void setFloat(final int slot, final float value) {
+    setBits(slot, PrimitiveType.FLOAT, Float.floatToRawIntBits(value));
+  }
+
+  @Override
+  public final double getDouble(final String name) {
+    return getDouble(slotOf(name));
+  }
+
+  @Override
+  public final double getDouble(final int slot) {
+    return Double.longBitsToDouble(getBits(slot, PrimitiveType.DOUBLE));
+  }
+
+  @Override
+  public final void setDouble(final String name, final double value) {
+    setDouble(slotOf(name), value);
+  }
+
+  @Override
+  public final void setDouble(final int slot, final double value) {
+    setBits(slot, PrimitiveType.DOUBLE, Double.doubleToRawLongBits(value));
+  }
+
+  @Override
+  public final int getSize(final String name) {
+    return getSize(slotOf(name));
+  }
+
+  @Override
+  public final int getSize(final int slot) {
+    final PropertyDescriptor descriptor = descriptors[slot];
+    switch (descriptor.getKind()) {
+      case INDEXED:
+        return ((List<?>) getValue(slot)).size();
+      case MAPPED:
+        return ((Map<?, ?>) getValue(slot)).size();
+      case SIMPLE:
+      default:
+        throw new InvalidPropertyKindException(descriptor.getName(),
+            descriptor.getKind(), PropertyKind.INDEXED, PropertyKind.MAPPED);
+    }
+  }
+
+  @Override
+  public final Object get(final String name, final int index) {
+    return get(slotOf(name), index);
+  }
+
+  @Override
+  public final Object get(final int slot, final int index) {
+    return getList(slot).get(index);
+  }
+
+  @Override
+  public final void set(final String name, final int index,
+      @Nullable final Object value) {
+    set(slotOf(name), index, value);
+  }
+
+  @Override
+  public final void set(final int slot, final int index,
+      @Nullable final Object value) {
+    final List<Object> list = getList(slot);
+    checkType(descriptors[slot], value);
+    list.set(index, value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final void add(final String name, final int index,
+      @Nullable final Object value) {
+    add(slotOf(name), index, value);
+  }
+
+  @Override
+  public final void add(final int slot, final int index,
+      @Nullable final Object value) {
+    final List<Object> list = getList(slot);
+    checkType(descriptors[slot], value);
+    list.add(index, value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final void add(final String name, @Nullable final Object value) {
+    add(slotOf(name), value);
+  }
+
+  @Override
+  public final void add(final int slot, @Nullable final Object value) {
+    final List<Object> list = getList(slot);
+    checkType(descriptors[slot], value);
+    list.add(value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final Object remove(final String name, final int index) {
+    return remove(slotOf(name), index);
+  }
+
+  @Override
+  public final Object remove(final int slot, final int index) {
+    final Object result = getList(slot).remove(index);
+    markDirty(slot);
+    return result;
+  }
+
+  @Override
+  public final int getInt(final String name, final int index) {
+    return getInt(slotOf(name), index);
+  }
+
+  @Override
+  public final int getInt(final int slot, final int index) {
+    final List<Object> list = getList(slot, PrimitiveType.INT);
+    if (list instanceof IntList) {
+      return ((IntList) list).getInt(index);
+    }
+    return ((Integer) getElement(list, index)).intValue();
+  }
+
+  @Override
+  public final void setInt(final String name, final int index,
+      final int value) {
+    setInt(slotOf(name), index, value);
+  }
+
+  @Override
+  public final void setInt(final int slot, final int index,
+      final int value) {
+    final List<Object> list = getList(slot, PrimitiveType.INT);
+    if (list instanceof IntList) {
+      ((IntList) list).setInt(index, value);
+    } else {
+      list.set(index, value);
+    }
+    markDirty(slot);
+  }
+
+  @Override
+  public final void addInt(final String name, final int value) {
+    addInt(slotOf(name), value);
+  }
+
+  @Override
+  public final void addInt(final int slot, final int value) {
+    final List<Object> list = getList(slot, PrimitiveType.INT);
+    if (list instanceof IntList) {
+      ((IntList) list).addInt(value);
+    } else {
+      list.add(value);
+    }
+    markDirty(slot);
+  }
+
+  @Override
+  public final int[] getIntArray(final String name) {
+    return getIntArray(slotOf(name));
+  }
+
+  @Override
+  public final int[] getIntArray(final int slot) {
+    final List<Object> list = getList(slot, PrimitiveType.INT);
+    if (list instanceof IntList) {
+      return ((IntList) list).toIntArray();
+    }
+    final int[] result = new int[list.size()];
+    for (int i = 0; i < result.length; ++i) {
+      result[i] = ((Integer) getElement(list, i)).intValue();
+    }
+    return result;
+  }
+
+  @Override
+  public final void setIntArray(final String name, final int[] values) {
+    setIntArray(slotOf(name), values);
+  }
+
+  @Override
+  public final void setIntArray(final int slot, final int[] values) {
+    final List<Object> list = getList(slot, PrimitiveType.INT);
+    if (list instanceof IntList) {
+      ((IntList) list).setAll(values);
+    } else {
+      requireNonNull("values", values);
+      list.clear();
+      for (final int value : values) {
+        list.add(value);
+      }
+    }
+    markDirty(slot);
+  }
+
+  @Override
+  public final long getLong(final String name, final int index) {
+    return getLong(slotOf(name), index);
+  }
+
+  @Override
+  public final long getLong(final int slot, final int index) {
+    final List<Object> list = getList(slot, PrimitiveType.LONG);
+    if (list instanceof LongList) {
+      return ((LongList) list).getLong(index);
+    }
+    return ((Long) getElement(list, index)).longValue();
+  }
+
+  @Override
+  public final void setLong(final String name, final int index,
+      final long value) {
+    setLong(slotOf(name), index, value);
+  }
+
+  @Override
+  public final void setLong(final int slot, final int index,
+      final long value) {
+    final List<Object> list = getList(slot, PrimitiveType.LONG);
+    if (list instanceof LongList) {
+      ((LongList) list).setLong(index, value);
+    } else {
+      list.set(index, value);
+    }
+    markDirty(slot);
+  }
+
+  @Override
+  public final void addLong(final String name, final long value) {
+    addLong(slotOf(name), value);
+  }
+
+  @Override
+  public final void addLong(final int slot, final long value) {
+    final List<Object> list = getList(slot, PrimitiveType.LONG);
+    if (list instanceof LongList) {
+      ((LongList) list).addLong(value);
+    } else {
+      list.add(value);
+    }
+    markDirty(slot);
+  }
+
+  @Override
+  public final long[] getLongArray(final String name) {
+    return getLongArray(slotOf(name));
+  }
+
+  @Override
+  public final long[] getLongArray(final int slot) {
+    final List<Object> list = getList(slot, PrimitiveType.LONG);
+    if (list instanceof LongList) {
+      return ((LongList) list).toLongArray();
+    }
+    final long[] result = new long[list.size()];
+    for (int i = 0; i < result.length; ++i) {
+      result[i] = ((Long) getElement(list, i)).longValue();
+    }
+    return result;
+  }
+
+  @Override
+  public final void setLongArray(final String name, final long[] values) {
+    setLongArray(slotOf(name), values);
+  }
+
+  @Override
+  public final void setLongArray(final int slot, final long[] values) {
+    final List<Object> list = getList(slot, PrimitiveType.LONG);
+    if (list instanceof LongList) {
+      ((LongList) list).setAll(values);
+    } else {
+      requireNonNull("values", values);
+      list.clear();
+      for (final long value : values) {
+        list.add(value);
+      }
+    }
+    markDirty(slot);
+  }
+
+  @Override
+  public final double getDouble(final String name, final int index) {
+    return getDouble(slotOf(name), index);
+  }
+
+  @Override
+  public final double getDouble(final int slot, final int index) {
+    final List<Object> list = getList(slot, PrimitiveType.DOUBLE);
+    if (list instanceof DoubleList) {
+      return ((DoubleList) list).getDouble(index);
+    }
+    return ((Double) getElement(list, index)).doubleValue();
+  }
+
+  @Override
+  public final void setDouble(final String name, final int index,
+      final double value) {
+    setDouble(slotOf(name), index, value);
+  }
+
+  @Override
+  public final void setDouble(final int slot, final int index,
+      final double value) {
+    final List<Object> list = getList(slot, PrimitiveType.DOUBLE);
+    if (list instanceof DoubleList) {
+      ((DoubleList) list).setDouble(index, value);
+    } else {
+      list.set(index, value);
+    }
+    markDirty(slot);
+  }
+
+  @Override
+  public final void addDouble(final String name, final double value) {
+    addDouble(slotOf(name), value);
+  }
+
+  @Override
+  public final void addDouble(final int slot, final double value) {
+    final List<Object> list = getList(slot, PrimitiveType.DOUBLE);
+    if (list instanceof DoubleList) {
+      ((DoubleList) list).addDouble(value);
+    } else {
+      list.add(value);
+    }
+    markDirty(slot);
+  }
+
+  @Override
+  public final double[] getDoubleArray(final String name) {
+    return getDoubleArray(slotOf(name));
+  }
+
+  @Override
+  public final double[] getDoubleArray(final int slot) {
+    final List<Object> list = getList(slot, PrimitiveType.DOUBLE);
+    if (list instanceof DoubleList) {
+      return ((DoubleList) list).toDoubleArray();
+    }
+    final double[] result = new double[list.size()];
+    for (int i = 0; i < result.length; ++i) {
+      result[i] = ((Double) getElement(list, i)).doubleValue();
+    }
+    return result;
+  }
+
+  @Override
+  public final void setDoubleArray(final String name, final double[] values) {
+    setDoubleArray(slotOf(name), values);
+  }
+
+  @Override
+  public final void setDoubleArray(final int slot, final double[] values) {
+    final List<Object> list = getList(slot, PrimitiveType.DOUBLE);
+    if (list instanceof DoubleList) {
+      ((DoubleList) list).setAll(values);
+    } else {
+      requireNonNull("values", values);
+      list.clear();
+      for (final double value : values) {
+        list.add(value);
+      }
+    }
+    markDirty(slot);
+  }
+
+  @Override
+  public final Set<String> getKeySet(final String name) {
+    return getKeySet(slotOf(name));
+  }
+
+  @Override
+  public final Set<String> getKeySet(final int slot) {
+    return getMap(slot).keySet();
+  }
+
+  @Override
+  public final boolean containsKey(final String name, final String key) {
+    requireNonNull("name", name);
+    requireNonNull("key", key);
+    return containsKey(slotOf(name), key);
+  }
+
+  @Override
+  public final boolean containsKey(final int slot, final String key) {
+    requireNonNull("key", key);
+    return getMap(slot).containsKey(key);
+  }
+
+  @Override
+  public final Object get(final String name, final String key) {
+    requireNonNull("name", name);
+    requireNonNull("key", key);
+    return get(slotOf(name), key);
+  }
+
+  @Override
+  public final Object get(final int slot, final String key) {
+    requireNonNull("key", key);
+    return getMap(slot).get(key);
+  }
+
+  @Override
+  public final void set(final String name, final String key,
+      @Nullable final Object value) {
+    requireNonNull("name", name);
+    requireNonNull("key", key);
+    set(slotOf(name), key, value);
+  }
+
+  @Override
+  public final void set(final int slot, final String key,
+      @Nullable final Object value) {
+    requireNonNull("key", key);
+    final Map<String, Object> map = getMap(slot);
+    checkType(descriptors[slot], value);
+    map.put(key, value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final Object remove(final String name, final String key) {
+    requireNonNull("name", name);
+    requireNonNull("key", key);
+    return remove(slotOf(name), key);
+  }
+
+  @Override
+  public final Object remove(final int slot, final String key) {
+    requireNonNull("key", key);
+    final Map<String, Object> map = getMap(slot);
+    final int size = map.size();
+    final Object result = map.remove(key);
+    if (map.size() != size) {
+      markDirty(slot);
+    }
+    return result;
+  }
+
+  @Override
+  public final void clear(final String name) {
+    clear(slotOf(name));
+  }
+
+  @Override
+  public final void clear(final int slot) {
+    final PropertyDescriptor descriptor = descriptors[slot];
+    switch (descriptor.getKind()) {
+      case INDEXED: {
+        final List<?> list = (List<?>) getValue(slot);
+        if (! list.isEmpty()) {
+          list.clear();
+          markDirty(slot);
+        }
+        break;
+      }
+      case MAPPED: {
+        final Map<?, ?> map = (Map<?, ?>) getValue(slot);
+        if (! map.isEmpty()) {
+          map.clear();
+          markDirty(slot);
+        }
+        break;
+      }
+      case SIMPLE:
+      default:
+        throw new InvalidPropertyKindException(descriptor.getName(),
+            descriptor.getKind(), PropertyKind.INDEXED, PropertyKind.MAPPED);
+    }
+  }
+
+  @Override
+  public void reset() {
+    for (int slot = 0; slot < descriptors.length; ++slot) {
+      resetSlot(slot);
+    }
+    clearDirty();
+  }
+
+  @Override
+  public final void setAll(final Object[] values) {
+    requireNonNull("values", values);
+    if (values.length != descriptors.length) {
+      throw new IllegalArgumentException("The bean has " + descriptors.length
+          + " properties, but " + values.length + " values are provided.");
+    }
+    for (int slot = 0; slot < values.length; ++slot) {
+      setRawValue(slot, values[slot]);
+    }
+  }
+
+  @Override
+  public final void getAll(final Object[] values) {
+    requireNonNull("values", values);
+    if (values.length != descriptors.length) {
+      throw new IllegalArgumentException("The bean has " + descriptors.length
+          + " properties, but " + values.length + " values are provided.");
+    }
+    for (int slot = 0; slot < values.length; ++slot) {
+      values[slot] = getValue(slot);
+    }
+  }
+
+  @Override
+  public final Bean copy() {
+    return copy(false);
+  }
+
+  @Override
+  public final Bean deepCopy() {
+    return copy(true);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public final void forEach(final PropertyVisitor visitor) {
+    requireNonNull("visitor", visitor);
+    MapEntryCursor cursor = null;
+    for (int slot = 0; slot < descriptors.length; ++slot) {
+      final PropertyDescriptor descriptor = descriptors[slot];
+      switch (descriptor.getKind()) {
+        case INDEXED:
+          visitor.visitIndexed(descriptor, slot, (List<?>) getValue(slot));
+          break;
+        case MAPPED:
+          if (cursor == null) {
+            cursor = new MapEntryCursor();
+          }
+          visitor.visitMapped(descriptor, slot,
+              cursor.reset((Map<String, ?>) getValue(slot)));
+          break;
+        case SIMPLE:
+        default:
+          visitor.visitSimple(descriptor, slot, getValue(slot));
+          break;
+      }
+    }
+  }
+
+  /**
+   * Creates a copy of this bean.
+   * <p>
+   * The default implementation creates a new bean by
+   * {@link BeanClass#newInstance()}, and copies the values of this bean slot by
+   * slot if the new bean is a {@link AbstractSlotBean} of the same bean class,
+   * or through {@link #getAll(Object[])} and {@link #setAll(Object[])}
+   * otherwise. The subclasses could override this function to copy their
+   * storage directly.
+   *
+   * @param deep
+   *          whether to copy the {@link Bean} values deeply.
+   * @return a copy of this bean.
+   * @see #copy()
+   * @see #deepCopy()
+   */
+  protected Bean copy(final boolean deep) {
+    final Bean bean = beanClass.newInstance();
+    if ((bean instanceof AbstractSlotBean)
+        && (bean.getBeanClass() == beanClass)) {
+      final AbstractSlotBean target = (AbstractSlotBean) bean;
+      for (int slot = 0; slot < descriptors.length; ++slot) {
+        target.copySlot(this, slot, deep);
+      }
+    } else {
+      BeanCopier.copyTo(this, bean, deep);
+    }
+    return bean;
+  }
+
+  /**
+   * Copies the value of a slot of another bean of the same bean class to the
+   * same slot of this bean, without marking it as dirty.
+   *
+   * @param source
+   *          the bean to be copied, which must be of the same bean class.
+   * @param slot
+   *          the slot of a property.
+   * @param deep
+   *          whether to copy the {@link Bean} values deeply.
+   */
+  @SuppressWarnings("unchecked")
+  protected final void copySlot(final AbstractSlotBean source, final int slot,
+      final boolean deep) {
+    switch (descriptors[slot].getKind()) {
+      case INDEXED:
+        BeanCopier.copyList((List<?>) source.getValue(slot),
+            (List<Object>) getValue(slot), deep);
+        break;
+      case MAPPED:
+        BeanCopier.copyMap((Map<String, ?>) source.getValue(slot),
+            (Map<String, Object>) getValue(slot), deep);
+        break;
+      case SIMPLE:
+      default:
+        setValue(slot, BeanCopier.copySimple(source.getValue(slot), deep));
+        break;
+    }
+  }
+
+  /**
+   * Resets the value of a property to its initial value, i.e., clears the
+   * container of an indexed or mapped property, or sets the value of a simple
+   * property to {@code null}.
+   *
+   * @param slot
+   *          the slot of a property.
+   */
+  protected final void resetSlot(final int slot) {
+    switch (descriptors[slot].getKind()) {
+      case INDEXED:
+        ((List<?>) getValue(slot)).clear();
+        break;
+      case MAPPED:
+        ((Map<?, ?>) getValue(slot)).clear();
+        break;
+      case SIMPLE:
+      default:
+        setValue(slot, null);
+        break;
+    }
+  }
+
+  /**
+   * Marks a property as dirty.
+   *
+   * @param slot
+   *          the slot of a property, which must be valid.
+   */
+  protected final void markDirty(final int slot) {
+    if (! trackDirty) {
+      return;
+    }
+    if (dirty == null) {
+      dirty = new long[(descriptors.length + 63) >>> 6];
+    }
+    dirty[slot >>> 6] |= (1L << slot);
+  }
+
+  @Override
+  public final BitSet getDirtyProperties() {
+    return (dirty == null ? new BitSet() : BitSet.valueOf(dirty));
+  }
+
+  @Override
+  public final void clearDirty() {
+    if (dirty != null) {
+      Arrays.fill(dirty, 0L);
+    }
+  }
+  /**
+   * Gets the hash code of a primitive value without boxing it, so that the
+   * subclasses storing the primitive values in their own fields could
+   * implement {@code hashCode()} consistently with the boxed values.
+   *
+   * @param type
+   *          the primitive type of the value.
+   * @param bits
+   *          the bit pattern of the value, as converted by
+   *          {@link PrimitiveType#toBits(Object)}.
+   * @return the hash code of the boxed value.
+   */
+  protected static int hashBits(final PrimitiveType type, final long bits) {
+    return BeanObjects.hashBits(type, bits);
+  }
+
+  /**
+   * Gets the hash code of a nullable value.
+   *
+   * @param value
+   *          a value, which could be {@code null}.
+   * @return the hash code of the value, or 0 if it is {@code null}.
+   */
+  protected static int hashValue(@Nullable final Object value) {
+    return BeanObjects.hash(value);
+  }
+
+  /**
+   * Tests whether two primitive values are equal without boxing them.
+   *
+   * @param type
+   *          the primitive type of the values.
+   * @param bits1
+   *          the bit pattern of the first value.
+   * @param bits2
+   *          the bit pattern of the second value.
+   * @return {@code true} if the boxed values are equal; {@code false}
+   *         otherwise.
+   */
+  protected static boolean equalBits(final PrimitiveType type,
+      final long bits1, final long bits2) {
+    return BeanObjects.equalBits(type, bits1, bits2);
+  }
+
+  /**
+   * Tests whether two nullable values are equal.
+   *
+   * @param value1
+   *          the first value, which could be {@code null}.
+   * @param value2
+   *          the second value, which could be {@code null}.
+   * @return {@code true} if the two values are both {@code null} or equal;
+   *         {@code false} otherwise.
+   */
+  protected static boolean equalValues(@Nullable final Object value1,
+      @Nullable final Object value2) {
+    return BeanObjects.equal(value1, value2);
+  }
+
+  /**
+   * Writes the string representation of this bean, which is the same as
+   * the string returned by {@link #toString()}, to an {@link Appendable}.
+   * <p>
+   * The default implementation writes the class of this bean and the values
+   * returned by {@link #getValue(int)}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "beanClass", beanClass, true);
+    appendValues(out);
+    BeanObjects.appendEnd(out);
+  }
+
+  /**
+   * Writes the values returned by {@link #getValue(int)} as the field named
+   * {@code values} of the string representation of this bean.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  final void appendValues(final Appendable out) throws IOException {
+    out.append(",values={");
+    for (int slot = 0; slot < descriptors.length; ++slot) {
+      if (slot > 0) {
+        out.append(',');
+      }
+      BeanObjects.appendValue(out, getValue(slot));
+    }
+    out.append('}');
+  }
+
+  @Override
+  public String toString() {
+    return BeanObjects.toString(this);
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.IOException;
+
+import javax.annotation.Nullable;
+
+/**
+ * An implementation of {@link Bean} interface which stores the values of its
+ * properties in a flat array.
+ * <p>
+ * The value of each property is stored in the array element whose index is the
+ * slot of the property, i.e., the index of its descriptor in the array
+ * returned by {@link BeanClass#getPropertyDescriptors()}. Comparing with the
+ * {@link DefaultBean}, this implementation does not allocate a map nor a
+ * {@link Property} object for each bean instance.
+ * <p>
+ * The values of the simple properties of primitive wrapper types set by the
+ * primitive accessors, e.g., {@link #setInt(int, int)}, are stored without
+ * boxing in a parallel {@code long} array.
+ *
+ * @author Haixing Hu
+ */
+public class ArrayBean extends AbstractSlotBean {
+
+  /**
+   * The marker stored in {@link #values} indicating that the value of a slot
+   * is a primitive value stored in {@link #bits}.
+   */
+  private static final Object PRIMITIVE = new Object();
+
+  private final Object[] values;
+  private final long[] bits;
+
+  /**
+   * The cached hash code of this bean, or 0 if it is not computed yet. The
+   * hash code is cached only if the values of all properties are immutable,
+   * and must be reset once a value is changed.
+   */
+  private int hash;
+
+  /**
+   * Constructs a {@link ArrayBean}.
+   *
+   * @param beanClass
+   *          the class of the bean.
+   */
+  public ArrayBean(final BeanClass beanClass) {
+    super(beanClass);
+    values = new Object[descriptors.length];
+    boolean hasPrimitive = false;
+    for (int i = 0; i < descriptors.length; ++i) {
+      values[i] = newValue(descriptors[i]);
+      if ((descriptors[i].getKind() == PropertyKind.SIMPLE)
+          && (PrimitiveType.of(descriptors[i].getType()) != null)) {
+        hasPrimitive = true;
+      }
+    }
+    bits = (hasPrimitive ? new long[descriptors.length] : null);
+  }
+
+  /**
+   * Constructs a {@link ArrayBean} by copying the arrays of another
+   * {@link ArrayBean}.
+   *
+   * @param prototype
+   *          the bean to be copied.
+   * @param deep
+   *          whether to copy the {@link Bean} values deeply.
+   */
+  private ArrayBean(final ArrayBean prototype, final boolean deep) {
+    super(prototype.beanClass);
+    values = prototype.values.clone();
+    bits = (prototype.bits == null ? null : prototype.bits.clone());
+    for (int i = 0; i < values.length; ++i) {
+      if (values[i] != PRIMITIVE) {
+        values[i] = BeanCopier.copyValue(descriptors[i], values[i], deep);
+      }
+    }
+    //  the hash code is cached only if all values are immutable, which are
+    //  shared by the copy
+    hash = prototype.hash;
+  }
+
+  @Override
+  protected final Object getValue(final int slot) {
+    final Object value = values[slot];
+    if (value == PRIMITIVE) {
+      return PrimitiveType.of(descriptors[slot].getType()).fromBits(bits[slot]);
+    } else {
+      return value;
+    }
+  }
+
+  @Override
+  protected final void setValue(final int slot, @Nullable final Object value) {
+    values[slot] = value;
+    hash = 0;
+  }
+
+  @Override
+  protected final long loadBits(final int slot, final PrimitiveType type) {
+    if (values[slot] == PRIMITIVE) {
+      return bits[slot];
+    } else {
+      return super.loadBits(slot, type);
+    }
+  }
+
+  @Override
+  protected final void storeBits(final int slot, final PrimitiveType type,
+      final long bits) {
+    this.bits[slot] = bits;
+    values[slot] = PRIMITIVE;
+    hash = 0;
+  }
+
+  @Override
+  protected Bean copy(final boolean deep) {
+    if (getClass() == ArrayBean.class) {
+      return new ArrayBean(this, deep);
+    } else {
+      return super.copy(deep);
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h != 0) {
+      return h;
+    }
+    h = beanClass.hashCode();
+    boolean immutable = true;
+    for (int i = 0; i < values.length; ++i) {
+      final Object value = values[i];
+      if (value == PRIMITIVE) {
+        h = 31 * h + BeanObjects.hashBits(
+            PrimitiveType.of(descriptors[i].getType()), bits[i]);
+      } else {
+        h = 31 * h + BeanObjects.hash(value);
+        immutable = immutable && BeanObjects.isImmutable(value);
+      }
+    }
+    //  the hash code of a mutable value, e.g., a list, may be changed without
+    //  notifying this bean
+    if (immutable) {
+      hash = h;
+    }
+    return h;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj == null) {
+      return false;
+    }
+    if (obj == this) {
+      return true;
+    }
+    if (obj.getClass() != getClass()) {
+      return false;
+    }
+    final ArrayBean rhs = (ArrayBean) obj;
+    if ((hash != 0) && (rhs.hash != 0) && (hash != rhs.hash)) {
+      return false;
+    }
+    if (! beanClass.equals(rhs.beanClass)) {
+      return false;
+    }
+    //  the equal bean classes have the same properties in the same order
+    if (values.length != rhs.values.length) {
+      return false;
+    }
+    for (int i = 0; i < values.length; ++i) {
+      if ((values[i] == PRIMITIVE) && (rhs.values[i] == PRIMITIVE)) {
+        if (! BeanObjects.equalBits(PrimitiveType.of(descriptors[i].getType()),
+            bits[i], rhs.bits[i])) {
+          return false;
+        }
+      } else if (! BeanObjects.equal(getValue(i), rhs.getValue(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes the string representation of this bean, which is the same as
+   * the string returned by {@link #toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "beanClass", beanClass, true);
+    out.append(",values={");
+    for (int i = 0; i < values.length; ++i) {
+      if (i > 0) {
+        out.append(',');
+      }
+      if (values[i] == PRIMITIVE) {
+        BeanObjects.appendBits(out, PrimitiveType.of(descriptors[i].getType()),
+            bits[i]);
+      } else {
+        BeanObjects.appendValue(out, values[i]);
+      }
+    }
+    out.append('}');
+    BeanObjects.appendEnd(out);
+  }
+
+  @Override
+  public String toString() {
+    return BeanObjects.toString(this);
+  }
+}
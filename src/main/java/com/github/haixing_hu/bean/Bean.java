@@ -16,6 +16,7 @@
  */
 package com.github.haixing_hu.bean;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Set;
 
@@ -113,6 +114,279 @@ public interface Bean {
    */
   void set(String name, @Nullable Object value);
 
+  /**
+   * Gets the value of a simple property of the type {@link Boolean} as a
+   * {@code boolean} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Boolean}.
+   * @return the value of the simple property with the specified name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}, or the value of the specified
+   *           property is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Boolean}.
+   */
+  boolean getBoolean(String name);
+
+  /**
+   * Sets the value of a simple property of the type {@link Boolean} from a
+   * {@code boolean} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Boolean}.
+   * @param value
+   *          the value to be set to the simple property with the specified
+   *          name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Boolean}.
+   */
+  void setBoolean(String name, boolean value);
+
+  /**
+   * Gets the value of a simple property of the type {@link Byte} as a
+   * {@code byte} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Byte}.
+   * @return the value of the simple property with the specified name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}, or the value of the specified
+   *           property is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Byte}.
+   */
+  byte getByte(String name);
+
+  /**
+   * Sets the value of a simple property of the type {@link Byte} from a
+   * {@code byte} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Byte}.
+   * @param value
+   *          the value to be set to the simple property with the specified
+   *          name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Byte}.
+   */
+  void setByte(String name, byte value);
+
+  /**
+   * Gets the value of a simple property of the type {@link Short} as a
+   * {@code short} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Short}.
+   * @return the value of the simple property with the specified name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}, or the value of the specified
+   *           property is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Short}.
+   */
+  short getShort(String name);
+
+  /**
+   * Sets the value of a simple property of the type {@link Short} from a
+   * {@code short} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Short}.
+   * @param value
+   *          the value to be set to the simple property with the specified
+   *          name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Short}.
+   */
+  void setShort(String name, short value);
+
+  /**
+   * Gets the value of a simple property of the type {@link Integer} as a
+   * {@code int} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Integer}.
+   * @return the value of the simple property with the specified name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}, or the value of the specified
+   *           property is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Integer}.
+   */
+  int getInt(String name);
+
+  /**
+   * Sets the value of a simple property of the type {@link Integer} from a
+   * {@code int} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Integer}.
+   * @param value
+   *          the value to be set to the simple property with the specified
+   *          name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Integer}.
+   */
+  void setInt(String name, int value);
+
+  /**
+   * Gets the value of a simple property of the type {@link Long} as a
+   * {@code long} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Long}.
+   * @return the value of the simple property with the specified name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}, or the value of the specified
+   *           property is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Long}.
+   */
+  long getLong(String name);
+
+  /**
+   * Sets the value of a simple property of the type {@link Long} from a
+   * {@code long} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Long}.
+   * @param value
+   *          the value to be set to the simple property with the specified
+   *          name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Long}.
+   */
+  void setLong(String name, long value);
+
+  /**
+   * Gets the value of a simple property of the type {@link Float} as a
+   * {@code float} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Float}.
+   * @return the value of the simple property with the specified name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}, or the value of the specified
+   *           property is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Float}.
+   */
+  float getFloat(String name);
+
+  /**
+   * Sets the value of a simple property of the type {@link Float} from a
+   * {@code float} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Float}.
+   * @param value
+   *          the value to be set to the simple property with the specified
+   *          name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Float}.
+   */
+  void setFloat(String name, float value);
+
+  /**
+   * Gets the value of a simple property of the type {@link Double} as a
+   * {@code double} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Double}.
+   * @return the value of the simple property with the specified name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}, or the value of the specified
+   *           property is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Double}.
+   */
+  double getDouble(String name);
+
+  /**
+   * Sets the value of a simple property of the type {@link Double} from a
+   * {@code double} value, without boxing it if possible.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Double}.
+   * @param value
+   *          the value to be set to the simple property with the specified
+   *          name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Double}.
+   */
+  void setDouble(String name, double value);
+
   /**
    * Gets the size of an indexed property or a mapped property.
    *
@@ -267,6 +541,321 @@ public interface Bean {
    */
   Object remove(String name, int index);
 
+  /**
+   * Gets a value of an indexed property of the type {@link Integer} as a
+   * {@code int} value, without boxing it.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Integer}.
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of the indexed property.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}, or the value at the specified
+   *           index is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Integer}.
+   * @throws IndexOutOfBoundsException
+   *           if the {@code index} is outside the range of the indexed
+   *           property.
+   */
+  int getInt(String name, int index);
+
+  /**
+   * Sets a value of an indexed property of the type {@link Integer} from a
+   * {@code int} value, without boxing it.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Integer}.
+   * @param index
+   *          the index of the value to be set.
+   * @param value
+   *          the value to be set.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Integer}.
+   * @throws IndexOutOfBoundsException
+   *           if the {@code index} is outside the range of the indexed
+   *           property.
+   */
+  void setInt(String name, int index, int value);
+
+  /**
+   * Adds a {@code int} value at the end of an indexed property of the type
+   * {@link Integer}, without boxing it.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Integer}.
+   * @param value
+   *          the value to be added.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Integer}.
+   */
+  void addInt(String name, int value);
+
+  /**
+   * Copies the values of an indexed property of the type {@link Integer} to a
+   * {@code int} array.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Integer}.
+   * @return a new array containing the values of the indexed property.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}, or the indexed property
+   *           contains a {@code null} value.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Integer}.
+   */
+  int[] getIntArray(String name);
+
+  /**
+   * Replaces the values of an indexed property of the type {@link Integer} with
+   * the values in a {@code int} array.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Integer}.
+   * @param values
+   *          the array of the new values, which will be copied.
+   * @throws NullPointerException
+   *           if {@code name} or {@code values} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Integer}.
+   */
+  void setIntArray(String name, int[] values);
+
+  /**
+   * Gets a value of an indexed property of the type {@link Long} as a
+   * {@code long} value, without boxing it.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Long}.
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of the indexed property.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}, or the value at the specified
+   *           index is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Long}.
+   * @throws IndexOutOfBoundsException
+   *           if the {@code index} is outside the range of the indexed
+   *           property.
+   */
+  long getLong(String name, int index);
+
+  /**
+   * Sets a value of an indexed property of the type {@link Long} from a
+   * {@code long} value, without boxing it.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Long}.
+   * @param index
+   *          the index of the value to be set.
+   * @param value
+   *          the value to be set.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Long}.
+   * @throws IndexOutOfBoundsException
+   *           if the {@code index} is outside the range of the indexed
+   *           property.
+   */
+  void setLong(String name, int index, long value);
+
+  /**
+   * Adds a {@code long} value at the end of an indexed property of the type
+   * {@link Long}, without boxing it.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Long}.
+   * @param value
+   *          the value to be added.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Long}.
+   */
+  void addLong(String name, long value);
+
+  /**
+   * Copies the values of an indexed property of the type {@link Long} to a
+   * {@code long} array.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Long}.
+   * @return a new array containing the values of the indexed property.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}, or the indexed property
+   *           contains a {@code null} value.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Long}.
+   */
+  long[] getLongArray(String name);
+
+  /**
+   * Replaces the values of an indexed property of the type {@link Long} with
+   * the values in a {@code long} array.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Long}.
+   * @param values
+   *          the array of the new values, which will be copied.
+   * @throws NullPointerException
+   *           if {@code name} or {@code values} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Long}.
+   */
+  void setLongArray(String name, long[] values);
+
+  /**
+   * Gets a value of an indexed property of the type {@link Double} as a
+   * {@code double} value, without boxing it.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Double}.
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of the indexed property.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}, or the value at the specified
+   *           index is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Double}.
+   * @throws IndexOutOfBoundsException
+   *           if the {@code index} is outside the range of the indexed
+   *           property.
+   */
+  double getDouble(String name, int index);
+
+  /**
+   * Sets a value of an indexed property of the type {@link Double} from a
+   * {@code double} value, without boxing it.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Double}.
+   * @param index
+   *          the index of the value to be set.
+   * @param value
+   *          the value to be set.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Double}.
+   * @throws IndexOutOfBoundsException
+   *           if the {@code index} is outside the range of the indexed
+   *           property.
+   */
+  void setDouble(String name, int index, double value);
+
+  /**
+   * Adds a {@code double} value at the end of an indexed property of the type
+   * {@link Double}, without boxing it.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Double}.
+   * @param value
+   *          the value to be added.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Double}.
+   */
+  void addDouble(String name, double value);
+
+  /**
+   * Copies the values of an indexed property of the type {@link Double} to a
+   * {@code double} array.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Double}.
+   * @return a new array containing the values of the indexed property.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}, or the indexed property
+   *           contains a {@code null} value.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Double}.
+   */
+  double[] getDoubleArray(String name);
+
+  /**
+   * Replaces the values of an indexed property of the type {@link Double} with
+   * the values in a {@code double} array.
+   *
+   * @param name
+   *          the name of an indexed property of the type {@link Double}.
+   * @param values
+   *          the array of the new values, which will be copied.
+   * @throws NullPointerException
+   *           if {@code name} or {@code values} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Double}.
+   */
+  void setDoubleArray(String name, double[] values);
+
   /**
    * Gets the key set of a mapped property.
    *
@@ -388,4 +977,141 @@ public interface Bean {
    *           if any other error occurs during the reflection operation.
    */
   void clear(String name);
+
+  /**
+   * Resets this bean to the state just after it was constructed.
+   * <p>
+   * The values of all simple properties are set to {@code null}, and all values
+   * of the indexed and mapped properties are cleared. The containers already
+   * allocated for the indexed and mapped properties are kept, so that a reset
+   * bean could be reused without allocating new containers. No property is
+   * dirty after the bean is reset.
+   *
+   * @throws ReflectionException
+   *           if any error occurs during the reflection operation.
+   * @see BeanPool
+   */
+  void reset();
+
+  /**
+   * Sets the raw values of all properties of this bean.
+   * <p>
+   * This function is equivalent to setting the raw value of each property by
+   * {@link Property#setRawValue(Object)}, but it neither looks up the
+   * properties by their names nor allocates the {@link Property} objects.
+   *
+   * @param values
+   *          the new raw values of the properties of this bean, in the order of
+   *          the descriptors returned by
+   *          {@link BeanClass#getPropertyDescriptors()}. The values of the
+   *          indexed and mapped properties are the lists and maps whose
+   *          contents are copied to the properties.
+   * @throws NullPointerException
+   *           if {@code values} is {@code null}, or the value of an indexed or
+   *           mapped property is {@code null}.
+   * @throws IllegalArgumentException
+   *           if the length of {@code values} is not the number of properties
+   *           of this bean.
+   * @throws ClassCastException
+   *           if a value does not match the type of its property. The
+   *           properties before that property have already been set.
+   * @see #getAll(Object[])
+   * @see MultiPropertyHandle
+   */
+  void setAll(Object[] values);
+
+  /**
+   * Gets the raw values of all properties of this bean.
+   *
+   * @param values
+   *          the array to store the raw values of the properties of this bean,
+   *          in the order of the descriptors returned by
+   *          {@link BeanClass#getPropertyDescriptors()}.
+   * @throws NullPointerException
+   *           if {@code values} is {@code null}.
+   * @throws IllegalArgumentException
+   *           if the length of {@code values} is not the number of properties
+   *           of this bean.
+   * @see #setAll(Object[])
+   * @see Property#getRawValue()
+   */
+  void getAll(Object[] values);
+
+  /**
+   * Creates a shallow copy of this bean.
+   * <p>
+   * The copy is a new bean of the same bean class, usually of the same
+   * implementation class as this bean, whose properties have the same values
+   * as the properties of this bean. The indexed and mapped
+   * properties of the copy have their own lists and maps, i.e., modifying the
+   * elements of a property of the copy does not affect this bean, but the
+   * elements themselves are shared by both beans. No property of the copy is
+   * dirty.
+   *
+   * @return a shallow copy of this bean.
+   * @see #deepCopy()
+   * @see BeanClass#newInstance(Bean)
+   */
+  Bean copy();
+
+  /**
+   * Creates a deep copy of this bean.
+   * <p>
+   * The deep copy is the same as the one returned by {@link #copy()}, except
+   * that the {@link Bean} values stored in the properties, including the
+   * {@link Bean} elements of the indexed and mapped properties, are replaced
+   * by their deep copies. Other values are still shared by both beans.
+   *
+   * @return a deep copy of this bean.
+   * @see #copy()
+   */
+  Bean deepCopy();
+
+  /**
+   * Visits all properties of this bean, in the order of the descriptors
+   * returned by {@link BeanClass#getPropertyDescriptors()}.
+   * <p>
+   * The values are passed to the visitor as they are stored in this bean,
+   * without looking up the properties by their names. The entries of the
+   * mapped properties are passed through an {@link EntryCursor}, which is
+   * shared by all mapped properties of this bean during the traversal.
+   *
+   * @param visitor
+   *          the visitor of the properties.
+   * @throws NullPointerException
+   *           if {@code visitor} is {@code null}.
+   */
+  void forEach(PropertyVisitor visitor);
+
+  /**
+   * Gets the slots of the dirty properties of this bean.
+   * <p>
+   * A property becomes dirty when it is successfully written by a method of
+   * this bean, e.g., {@link #set(String, Object)},
+   * {@link #add(String, Object)}, {@link #remove(String, int)},
+   * {@link #set(String, String, Object)} or {@link #clear(String)}, even if
+   * the new value equals to the old one. A method throwing an exception,
+   * removing a key absent from a mapped property, or clearing an empty
+   * property does not mark the property dirty. The modifications made through
+   * the lists or maps returned by this bean are not tracked, and whether the
+   * modifications made through the {@link Property} objects returned by
+   * {@link #getProperty(String)} are tracked depends on the implementation.
+   * The slot of a property is the index of its descriptor in the array
+   * returned by {@link BeanClass#getPropertyDescriptors()}.
+   *
+   * @return a new {@link BitSet} containing the slots of the properties which
+   *         have been written since this bean was constructed, or since
+   *         {@link #clearDirty()} or {@link #reset()} was last called.
+   */
+  BitSet getDirtyProperties();
+
+  /**
+   * Clears the dirty flags of all properties of this bean.
+   * <p>
+   * This function should be called after the changes of the bean are
+   * persisted or propagated.
+   *
+   * @see #getDirtyProperties()
+   */
+  void clearDirty();
 }
@@ -75,6 +75,36 @@ public interface BeanClass {
    */
   PropertyDescriptor[] getPropertyDescriptors();
 
+  /**
+   * Gets the index of the descriptor of a property.
+   * <p>
+   * The index of a property is fixed once this bean class is constructed, and
+   * could be used as the slot of the property by the {@link SlotBean}
+   * implementations.
+   *
+   * @param name
+   *          the name of a property.
+   * @return the index of the descriptor of the property with the specified name
+   *         in the array returned by {@link #getPropertyDescriptors()}, or
+   *         {@code -1} if no such property.
+   */
+  int getPropertyIndex(String name);
+
+  /**
+   * Gets the handle of a property.
+   * <p>
+   * The handle of a property could be used to access the property of the beans
+   * created by this bean class repeatedly, without resolving the name of the
+   * property on each access.
+   *
+   * @param name
+   *          the name of a property.
+   * @return the handle of the property with the specified name.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   */
+  PropertyHandle getPropertyHandle(String name);
+
   /**
    * Creates a new {@link Bean} instance, associated with this bean class.
    *
@@ -83,4 +113,25 @@ public interface BeanClass {
    *           if any error occurs.
    */
   Bean newInstance();
+
+  /**
+   * Creates a new {@link Bean} instance by copying a prototype of this bean
+   * class.
+   * <p>
+   * This function is the same as {@link Bean#copy()} of the prototype, which
+   * copies the storage of the prototype directly instead of setting the
+   * properties of a new instance one by one.
+   *
+   * @param prototype
+   *          a bean of this bean class.
+   * @return a new {@link Bean} instance, which is a shallow copy of the
+   *         prototype.
+   * @throws NullPointerException
+   *           if {@code prototype} is {@code null}.
+   * @throws IllegalArgumentException
+   *           if the prototype is not a bean of this bean class.
+   * @throws ReflectionException
+   *           if any error occurs.
+   */
+  Bean newInstance(Bean prototype);
 }
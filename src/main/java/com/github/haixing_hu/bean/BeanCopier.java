@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * Provides the utility functions used to copy the beans.
+ * <p>
+ * A shallow copy of a bean has its own lists and maps for the indexed and
+ * mapped properties, but shares their elements and the values of the simple
+ * properties with the original bean. A deep copy additionally replaces the
+ * {@link Bean} values with their deep copies.
+ *
+ * @author Haixing Hu
+ */
+final class BeanCopier {
+
+  private BeanCopier() {}
+
+  /**
+   * Creates a new bean by copying a prototype.
+   *
+   * @param beanClass
+   *          the class of the new bean.
+   * @param prototype
+   *          a bean of the specified bean class.
+   * @return a shallow copy of the prototype, whose bean class is the
+   *         specified bean class.
+   * @throws NullPointerException
+   *           if {@code prototype} is {@code null}.
+   * @throws IllegalArgumentException
+   *           if the prototype is not a bean of the specified bean class.
+   * @see BeanClass#newInstance(Bean)
+   */
+  static Bean newInstance(final BeanClass beanClass, final Bean prototype) {
+    requireNonNull("prototype", prototype);
+    final BeanClass prototypeClass = prototype.getBeanClass();
+    if (prototypeClass == beanClass) {
+      return prototype.copy();
+    }
+    if (! beanClass.equals(prototypeClass)) {
+      throw new IllegalArgumentException("The prototype is not a bean of the "
+          + "class " + beanClass.getName());
+    }
+    //  the copy of the prototype would belong to the equal but distinct bean
+    //  class of the prototype, e.g., the one not interned
+    final Bean bean = beanClass.newInstance();
+    copyTo(prototype, bean, false);
+    return bean;
+  }
+
+  /**
+   * Copies all properties of a bean to another bean of the same bean class,
+   * through the {@link Bean#getAll(Object[])} and
+   * {@link Bean#setAll(Object[])} functions.
+   * <p>
+   * This function is used when the storage of the beans could not be copied
+   * directly. The dirty flags of the target bean are cleared.
+   *
+   * @param source
+   *          the bean to be copied.
+   * @param target
+   *          the bean to be copied to.
+   * @param deep
+   *          whether to copy the {@link Bean} values deeply.
+   */
+  static void copyTo(final Bean source, final Bean target,
+      final boolean deep) {
+    final PropertyDescriptor[] descriptors =
+        source.getBeanClass().getPropertyDescriptors();
+    final Object[] values = new Object[descriptors.length];
+    source.getAll(values);
+    if (deep) {
+      for (int i = 0; i < values.length; ++i) {
+        values[i] = copyValue(descriptors[i], values[i], true);
+      }
+    }
+    target.setAll(values);
+    target.clearDirty();
+  }
+
+  /**
+   * Copies the raw value of a property.
+   *
+   * @param descriptor
+   *          the descriptor of a property.
+   * @param value
+   *          the raw value of the property.
+   * @param deep
+   *          whether to copy the {@link Bean} values deeply.
+   * @return a copy of the raw value, i.e., a new list created by
+   *         {@link PrimitiveList#create(Class)} for an indexed property, a new
+   *         {@link CompactMap} for a mapped property, and the value itself,
+   *         or its deep copy if it is a {@link Bean}, for a simple property.
+   */
+  @SuppressWarnings("unchecked")
+  static Object copyValue(final PropertyDescriptor descriptor,
+      @Nullable final Object value, final boolean deep) {
+    switch (descriptor.getKind()) {
+      case INDEXED: {
+        final List<Object> list = PrimitiveList.create(descriptor.getType());
+        copyList((List<?>) value, list, deep);
+        return list;
+      }
+      case MAPPED: {
+        if ((value instanceof CompactMap) && (! deep)) {
+          return new CompactMap((CompactMap) value);
+        }
+        final Map<String, Object> map = new CompactMap();
+        copyMap((Map<String, ?>) value, map, deep);
+        return map;
+      }
+      case SIMPLE:
+      default:
+        return copySimple(value, deep);
+    }
+  }
+
+  /**
+   * Copies the value of a simple property.
+   *
+   * @param value
+   *          the value of a simple property, which could be {@code null}.
+   * @param deep
+   *          whether to copy the {@link Bean} values deeply.
+   * @return the deep copy of the value if {@code deep} is {@code true} and the
+   *         value is a {@link Bean}; the value itself otherwise.
+   */
+  static Object copySimple(@Nullable final Object value, final boolean deep) {
+    if (deep && (value instanceof Bean)) {
+      return ((Bean) value).deepCopy();
+    } else {
+      return value;
+    }
+  }
+
+  /**
+   * Replaces the elements of a list with the elements of another list.
+   *
+   * @param source
+   *          the list to be copied.
+   * @param target
+   *          the list to be copied to.
+   * @param deep
+   *          whether to copy the {@link Bean} elements deeply.
+   */
+  static void copyList(final List<?> source, final List<Object> target,
+      final boolean deep) {
+    //  the elements of a primitive list are never beans
+    if ((target instanceof PrimitiveList)
+        && ((PrimitiveList) target).copyFrom(source)) {
+      return;
+    }
+    target.clear();
+    if (deep) {
+      for (final Object value : source) {
+        target.add(copySimple(value, true));
+      }
+    } else {
+      target.addAll(source);
+    }
+  }
+
+  /**
+   * Replaces the entries of a map with the entries of another map.
+   *
+   * @param source
+   *          the map to be copied.
+   * @param target
+   *          the map to be copied to.
+   * @param deep
+   *          whether to copy the {@link Bean} values deeply.
+   */
+  static void copyMap(final Map<String, ?> source,
+      final Map<String, Object> target, final boolean deep) {
+    target.clear();
+    for (final Map.Entry<String, ?> entry : source.entrySet()) {
+      target.put(entry.getKey(), copySimple(entry.getValue(), deep));
+    }
+  }
+}
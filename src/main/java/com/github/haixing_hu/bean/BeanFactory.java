@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+
+import javax.annotation.concurrent.Immutable;
+
+import com.github.haixing_hu.reflect.ReflectionException;
+
+/**
+ * A factory creating the beans by a constructor of a bean type.
+ * <p>
+ * The factory is resolved once when the bean type of a bean class is set, so
+ * that creating a bean does not pay for the reflective access checks of
+ * {@link Constructor#newInstance(Object...)}:
+ * <ul>
+ * <li>the beans of the bean types defined in this package are created by
+ * invoking their constructors directly;</li>
+ * <li>the beans of the other bean types with a constructor taking a
+ * {@link BeanClass} are created by invoking a {@link MethodHandle} of the
+ * constructor;</li>
+ * <li>the other constructors are invoked reflectively.</li>
+ * </ul>
+ *
+ * @author Haixing Hu
+ */
+@Immutable
+abstract class BeanFactory {
+
+  private static final Class<?>[] BEAN_CLASS_SIGNATURE = { BeanClass.class };
+
+  private static final MethodType BEAN_CLASS_METHOD_TYPE =
+      MethodType.methodType(Bean.class, BeanClass.class);
+
+  private static final BeanFactory DEFAULT_BEAN_FACTORY = new BeanFactory() {
+    @Override
+    Bean newInstance(final Object[] arguments) {
+      return new DefaultBean((BeanClass) arguments[0]);
+    }
+  };
+
+  private static final BeanFactory ARRAY_BEAN_FACTORY = new BeanFactory() {
+    @Override
+    Bean newInstance(final Object[] arguments) {
+      return new ArrayBean((BeanClass) arguments[0]);
+    }
+  };
+
+  /**
+   * Creates a {@link BeanFactory} for a constructor.
+   *
+   * @param constructor
+   *          a public constructor of a bean type.
+   * @return the {@link BeanFactory} creating the beans by the specified
+   *         constructor.
+   */
+  static BeanFactory create(final Constructor<? extends Bean> constructor) {
+    if (! Arrays.equals(BEAN_CLASS_SIGNATURE, constructor.getParameterTypes())) {
+      return new ReflectiveFactory(constructor);
+    }
+    final Class<?> type = constructor.getDeclaringClass();
+    if (type == DefaultBean.class) {
+      return DEFAULT_BEAN_FACTORY;
+    } else if (type == ArrayBean.class) {
+      return ARRAY_BEAN_FACTORY;
+    }
+    try {
+      final MethodHandle handle = MethodHandles.lookup()
+          .unreflectConstructor(constructor)
+          .asType(BEAN_CLASS_METHOD_TYPE);
+      return new MethodHandleFactory(handle);
+    } catch (final IllegalAccessException e) {
+      return new ReflectiveFactory(constructor);
+    }
+  }
+
+  /**
+   * Creates a new bean.
+   *
+   * @param arguments
+   *          the arguments passed to the constructor of the bean type.
+   * @return the new bean.
+   * @throws ReflectionException
+   *           if any error occurs.
+   */
+  abstract Bean newInstance(Object[] arguments);
+
+  private static final class MethodHandleFactory extends BeanFactory {
+
+    private final MethodHandle handle;
+
+    MethodHandleFactory(final MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override
+    Bean newInstance(final Object[] arguments) {
+      try {
+        return (Bean) handle.invokeExact((BeanClass) arguments[0]);
+      } catch (final Throwable e) {
+        throw new ReflectionException(e);
+      }
+    }
+  }
+
+  private static final class ReflectiveFactory extends BeanFactory {
+
+    private final Constructor<? extends Bean> constructor;
+
+    ReflectiveFactory(final Constructor<? extends Bean> constructor) {
+      this.constructor = constructor;
+    }
+
+    @Override
+    Bean newInstance(final Object[] arguments) {
+      try {
+        return constructor.newInstance(arguments);
+      } catch (final Exception e) {
+        throw new ReflectionException(e);
+      }
+    }
+  }
+}
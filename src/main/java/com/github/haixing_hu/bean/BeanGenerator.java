@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.github.haixing_hu.bean.BeanSourceWriter.Slot;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * Generates a concrete {@link Bean} implementation for a {@link BeanClass} at
+ * runtime.
+ * <p>
+ * The generated class extends {@link AbstractSlotBean} and declares one typed
+ * field for each property of the bean class: a simple property of a primitive
+ * wrapper type is stored in a primitive field together with a flag indicating
+ * whether its value is {@code null}, a simple property of other types is
+ * stored in a field of its type, and an indexed or mapped property is stored
+ * in a field referencing its container. The values are accessed by switching
+ * on the slot of the property, so that accessing a property of a generated
+ * bean neither boxes its value nor looks up any map or array.
+ * <p>
+ * The source code of the generated class is compiled by the system Java
+ * compiler, therefore the generator requires a JDK rather than a JRE. Each
+ * call of {@link #generate(BeanClass)} compiles and loads a new class, so the
+ * generated classes should be cached by the caller, typically by installing
+ * them into the bean classes with {@link #install(DefaultBeanClass)} or
+ * {@link #install(GroupedBeanClass)}.
+ *
+ * @author Haixing Hu
+ */
+@ThreadSafe
+public final class BeanGenerator {
+
+  /**
+   * The name of the package of the generated classes.
+   */
+  public static final String PACKAGE = "com.github.haixing_hu.bean.generated";
+
+  private static final String CLASS_PREFIX = "GeneratedBean";
+
+  private static final AtomicInteger COUNTER = new AtomicInteger();
+
+  private final MemoryCompiler compiler;
+
+  /**
+   * Constructs a {@link BeanGenerator} which loads the generated classes by
+   * a child of the class loader of this class.
+   *
+   * @throws IllegalStateException
+   *           if no system Java compiler is available.
+   */
+  public BeanGenerator() {
+    this(BeanGenerator.class.getClassLoader());
+  }
+
+  /**
+   * Constructs a {@link BeanGenerator}.
+   *
+   * @param parent
+   *          the parent class loader of the class loaders loading the
+   *          generated classes, which must be able to load this library.
+   * @throws IllegalStateException
+   *           if no system Java compiler is available.
+   */
+  public BeanGenerator(final ClassLoader parent) {
+    compiler = new MemoryCompiler(requireNonNull("parent", parent));
+  }
+
+  /**
+   * Generates a concrete {@link Bean} implementation for a bean class.
+   * <p>
+   * The generated class has a public constructor taking the bean class as its
+   * only argument, and it could only be instantiated with the bean classes
+   * having the same property descriptors as the specified bean class.
+   *
+   * @param beanClass
+   *          a bean class.
+   * @return the generated class.
+   * @throws IllegalStateException
+   *           if failed to compile or load the generated class.
+   */
+  public Class<? extends AbstractSlotBean> generate(final BeanClass beanClass) {
+    requireNonNull("beanClass", beanClass);
+    final String simpleName = CLASS_PREFIX + COUNTER.incrementAndGet();
+    final String className = PACKAGE + "." + simpleName;
+    final String source = generateSource(simpleName,
+        beanClass.getPropertyDescriptors());
+    return compiler.compile(className, source)
+        .asSubclass(AbstractSlotBean.class);
+  }
+
+  /**
+   * Generates a concrete {@link Bean} implementation for a bean class, and
+   * uses it as the type of the beans created by the bean class.
+   *
+   * @param beanClass
+   *          a bean class.
+   * @throws IllegalStateException
+   *           if failed to compile or load the generated class.
+   */
+  public void install(final DefaultBeanClass beanClass) {
+    beanClass.setBeanType(generate(beanClass));
+  }
+
+  /**
+   * Generates a concrete {@link Bean} implementation for a bean class, and
+   * uses it as the type of the beans created by the bean class.
+   *
+   * @param beanClass
+   *          a bean class.
+   * @throws IllegalStateException
+   *           if failed to compile or load the generated class.
+   */
+  public void install(final GroupedBeanClass beanClass) {
+    beanClass.setBeanType(generate(beanClass));
+  }
+
+  /**
+   * Generates the source code of a concrete {@link Bean} implementation.
+   *
+   * @param simpleName
+   *          the simple name of the generated class.
+   * @param descriptors
+   *          the property descriptors of the bean class.
+   * @return the source code of the generated class.
+   */
+  String generateSource(final String simpleName,
+      final PropertyDescriptor[] descriptors) {
+    final Slot[] slots = new Slot[descriptors.length];
+    for (int i = 0; i < descriptors.length; ++i) {
+      final PropertyDescriptor descriptor = descriptors[i];
+      final Class<?> type = descriptor.getType();
+      final PropertyKind kind = descriptor.getKind();
+      slots[i] = new Slot(descriptor.getName(), kind, PrimitiveType.of(type),
+          (kind == PropertyKind.SIMPLE ? fieldType(type) : null));
+    }
+    final StringBuilder builder = new StringBuilder();
+    builder.append("package ").append(PACKAGE).append(";\n\n")
+           .append("public final class ").append(simpleName)
+           .append(" extends com.github.haixing_hu.bean.AbstractSlotBean {\n\n");
+    final BeanSourceWriter writer = new BeanSourceWriter(builder, simpleName,
+        slots);
+    writer.writeFields();
+    writer.writeConstructor();
+    writer.writeSlotAccessors();
+    writer.writeCopy();
+    writer.writeObjectMethods();
+    builder.append("}\n");
+    return builder.toString();
+  }
+
+  /**
+   * Gets the name of the type of the field storing a simple property.
+   *
+   * @param type
+   *          the type of a simple property.
+   * @return the canonical name of the type, if the type is a public class
+   *         visible to the parent class loader; otherwise, {@code "Object"}.
+   */
+  private String fieldType(final Class<?> type) {
+    if (type.isArray() || type.isPrimitive()) {
+      return "Object";
+    }
+    for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+      if (! Modifier.isPublic(c.getModifiers())) {
+        return "Object";
+      }
+    }
+    final String name = type.getCanonicalName();
+    if (name == null) {
+      return "Object";
+    }
+    try {
+      if (Class.forName(type.getName(), false, compiler.getParent()) != type) {
+        return "Object";
+      }
+    } catch (final ClassNotFoundException e) {
+      return "Object";
+    }
+    return name;
+  }
+}
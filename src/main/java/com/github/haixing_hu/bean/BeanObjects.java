@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Provides the utility functions used to implement the {@code equals()},
+ * {@code hashCode()} and {@code toString()} methods of the beans and the bean
+ * classes, without allocating the builders nor boxing the primitive values.
+ * <p>
+ * The string representations written by this class are the same as the ones
+ * built by the {@link org.apache.commons.lang3.builder.ToStringBuilder} with
+ * the default style.
+ *
+ * @author Haixing Hu
+ */
+final class BeanObjects {
+
+  private BeanObjects() {}
+
+  /**
+   * Tests whether a value is immutable, so that its hash code could be cached.
+   *
+   * @param value
+   *          a value, which could be {@code null}.
+   * @return {@code true} if the value is {@code null} or an instance of an
+   *         immutable type whose hash code never changes; {@code false}
+   *         otherwise.
+   */
+  static boolean isImmutable(@Nullable final Object value) {
+    if (value == null) {
+      return true;
+    }
+    final Class<?> type = value.getClass();
+    return (type == String.class)
+        || (type == Integer.class)
+        || (type == Long.class)
+        || (type == Double.class)
+        || (type == Boolean.class)
+        || (type == Float.class)
+        || (type == Short.class)
+        || (type == Byte.class)
+        || (type == Character.class)
+        || (type == Class.class)
+        || (value instanceof Enum);
+  }
+
+  /**
+   * Gets the hash code of a nullable value.
+   *
+   * @param value
+   *          a value, which could be {@code null}.
+   * @return the hash code of the value, or 0 if it is {@code null}.
+   */
+  static int hash(@Nullable final Object value) {
+    return (value == null ? 0 : value.hashCode());
+  }
+
+  /**
+   * Gets the hash code of a primitive value without boxing it.
+   *
+   * @param type
+   *          the primitive type of the value.
+   * @param bits
+   *          the bit pattern of the value.
+   * @return the hash code of the boxed value, i.e.,
+   *         {@code type.fromBits(bits).hashCode()}.
+   */
+  static int hashBits(final PrimitiveType type, final long bits) {
+    switch (type) {
+      case BOOLEAN:
+        return (bits != 0 ? 1231 : 1237);
+      case BYTE:
+        return (byte) bits;
+      case SHORT:
+        return (short) bits;
+      case INT:
+        return (int) bits;
+      case FLOAT:
+        return Float.floatToIntBits(Float.intBitsToFloat((int) bits));
+      case DOUBLE: {
+        final long value = Double.doubleToLongBits(Double.longBitsToDouble(bits));
+        return (int) (value ^ (value >>> 32));
+      }
+      case LONG:
+      default:
+        return (int) (bits ^ (bits >>> 32));
+    }
+  }
+
+  /**
+   * Tests whether two primitive values are equal without boxing them.
+   *
+   * @param type
+   *          the primitive type of the values.
+   * @param bits1
+   *          the bit pattern of the first value.
+   * @param bits2
+   *          the bit pattern of the second value.
+   * @return {@code true} if the boxed values are equal, i.e.,
+   *         {@code type.fromBits(bits1).equals(type.fromBits(bits2))};
+   *         {@code false} otherwise.
+   */
+  static boolean equalBits(final PrimitiveType type, final long bits1,
+      final long bits2) {
+    switch (type) {
+      case BOOLEAN:
+        return ((bits1 != 0) == (bits2 != 0));
+      case BYTE:
+        return ((byte) bits1 == (byte) bits2);
+      case SHORT:
+        return ((short) bits1 == (short) bits2);
+      case INT:
+        return ((int) bits1 == (int) bits2);
+      case FLOAT:
+        return (Float.floatToIntBits(Float.intBitsToFloat((int) bits1))
+            == Float.floatToIntBits(Float.intBitsToFloat((int) bits2)));
+      case DOUBLE:
+        return (Double.doubleToLongBits(Double.longBitsToDouble(bits1))
+            == Double.doubleToLongBits(Double.longBitsToDouble(bits2)));
+      case LONG:
+      default:
+        return (bits1 == bits2);
+    }
+  }
+
+  /**
+   * Tests whether two nullable values are equal.
+   *
+   * @param value1
+   *          the first value, which could be {@code null}.
+   * @param value2
+   *          the second value, which could be {@code null}.
+   * @return {@code true} if the two values are both {@code null} or equal;
+   *         {@code false} otherwise.
+   */
+  static boolean equal(@Nullable final Object value1,
+      @Nullable final Object value2) {
+    return (value1 == value2)
+        || ((value1 != null) && value1.equals(value2));
+  }
+
+  /**
+   * Gets the string representation of an object.
+   *
+   * @param obj
+   *          the object.
+   * @return the string written by {@link ToStringAppendable#appendTo}.
+   */
+  static String toString(final ToStringAppendable obj) {
+    final StringBuilder builder = new StringBuilder();
+    try {
+      obj.appendTo(builder);
+    } catch (final IOException e) {
+      //  never happens for a StringBuilder
+      throw new IllegalStateException(e);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Writes the start of the string representation of an object, i.e., its
+   * class name and identity hash code followed by a {@code '['}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @param obj
+   *          the object.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  static void appendStart(final Appendable out, final Object obj)
+      throws IOException {
+    out.append(obj.getClass().getName())
+       .append('@')
+       .append(Integer.toHexString(System.identityHashCode(obj)))
+       .append('[');
+  }
+
+  /**
+   * Writes a field of the string representation of an object.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @param name
+   *          the name of the field.
+   * @param value
+   *          the value of the field, which could be {@code null}.
+   * @param first
+   *          whether the field is the first field of the object.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  static void appendField(final Appendable out, final String name,
+      @Nullable final Object value, final boolean first) throws IOException {
+    if (! first) {
+      out.append(',');
+    }
+    out.append(name).append('=');
+    appendValue(out, value);
+  }
+
+  /**
+   * Writes the end of the string representation of an object.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  static void appendEnd(final Appendable out) throws IOException {
+    out.append(']');
+  }
+
+  /**
+   * Writes the string representation of a primitive value without boxing it.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @param type
+   *          the primitive type of the value.
+   * @param bits
+   *          the bit pattern of the value.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  static void appendBits(final Appendable out, final PrimitiveType type,
+      final long bits) throws IOException {
+    switch (type) {
+      case BOOLEAN:
+        out.append(bits != 0 ? "true" : "false");
+        break;
+      case BYTE:
+        out.append(String.valueOf((byte) bits));
+        break;
+      case SHORT:
+        out.append(String.valueOf((short) bits));
+        break;
+      case INT:
+        out.append(String.valueOf((int) bits));
+        break;
+      case FLOAT:
+        out.append(String.valueOf(Float.intBitsToFloat((int) bits)));
+        break;
+      case DOUBLE:
+        out.append(String.valueOf(Double.longBitsToDouble(bits)));
+        break;
+      case LONG:
+      default:
+        out.append(String.valueOf(bits));
+        break;
+    }
+  }
+
+  /**
+   * Writes the string representation of a value.
+   * <p>
+   * The {@link ToStringAppendable} objects, arrays, collections and maps are
+   * written element by element, without building their string representations
+   * in memory. The arrays of primitive values are written without boxing their
+   * elements.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @param value
+   *          the value, which could be {@code null}.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  static void appendValue(final Appendable out, @Nullable final Object value)
+      throws IOException {
+    if (value == null) {
+      out.append("<null>");
+    } else if (value instanceof ToStringAppendable) {
+      ((ToStringAppendable) value).appendTo(out);
+    } else if (value instanceof CharSequence) {
+      out.append((CharSequence) value);
+    } else if (value instanceof Object[]) {
+      final Object[] array = (Object[]) value;
+      out.append('{');
+      for (int i = 0; i < array.length; ++i) {
+        if (i > 0) {
+          out.append(',');
+        }
+        appendValue(out, array[i]);
+      }
+      out.append('}');
+    } else if (value.getClass().isArray()) {
+      appendArray(out, value);
+    } else if (value instanceof Map) {
+      final Iterator<? extends Map.Entry<?, ?>> iter =
+          ((Map<?, ?>) value).entrySet().iterator();
+      out.append('{');
+      while (iter.hasNext()) {
+        final Map.Entry<?, ?> entry = iter.next();
+        appendElement(out, entry.getKey(), value);
+        out.append('=');
+        appendElement(out, entry.getValue(), value);
+        if (iter.hasNext()) {
+          out.append(", ");
+        }
+      }
+      out.append('}');
+    } else if (value instanceof Collection) {
+      final Iterator<?> iter = ((Collection<?>) value).iterator();
+      out.append('[');
+      while (iter.hasNext()) {
+        appendElement(out, iter.next(), value);
+        if (iter.hasNext()) {
+          out.append(", ");
+        }
+      }
+      out.append(']');
+    } else {
+      out.append(value.toString());
+    }
+  }
+
+  /**
+   * Writes the elements of a primitive array, separated by commas and enclosed
+   * in braces, without boxing them.
+   */
+  private static void appendArray(final Appendable out, final Object array)
+      throws IOException {
+    out.append('{');
+    if (array instanceof int[]) {
+      final int[] values = (int[]) array;
+      for (int i = 0; i < values.length; ++i) {
+        appendSeparator(out, i).append(String.valueOf(values[i]));
+      }
+    } else if (array instanceof long[]) {
+      final long[] values = (long[]) array;
+      for (int i = 0; i < values.length; ++i) {
+        appendSeparator(out, i).append(String.valueOf(values[i]));
+      }
+    } else if (array instanceof double[]) {
+      final double[] values = (double[]) array;
+      for (int i = 0; i < values.length; ++i) {
+        appendSeparator(out, i).append(String.valueOf(values[i]));
+      }
+    } else if (array instanceof float[]) {
+      final float[] values = (float[]) array;
+      for (int i = 0; i < values.length; ++i) {
+        appendSeparator(out, i).append(String.valueOf(values[i]));
+      }
+    } else if (array instanceof short[]) {
+      final short[] values = (short[]) array;
+      for (int i = 0; i < values.length; ++i) {
+        appendSeparator(out, i).append(String.valueOf(values[i]));
+      }
+    } else if (array instanceof byte[]) {
+      final byte[] values = (byte[]) array;
+      for (int i = 0; i < values.length; ++i) {
+        appendSeparator(out, i).append(String.valueOf(values[i]));
+      }
+    } else if (array instanceof char[]) {
+      final char[] values = (char[]) array;
+      for (int i = 0; i < values.length; ++i) {
+        appendSeparator(out, i).append(values[i]);
+      }
+    } else {
+      final boolean[] values = (boolean[]) array;
+      for (int i = 0; i < values.length; ++i) {
+        appendSeparator(out, i).append(values[i] ? "true" : "false");
+      }
+    }
+    out.append('}');
+  }
+
+  private static Appendable appendSeparator(final Appendable out,
+      final int index) throws IOException {
+    return (index > 0 ? out.append(',') : out);
+  }
+
+  /**
+   * Writes an element of a collection or a map in the same way as
+   * {@link java.util.AbstractCollection#toString()} does.
+   */
+  private static void appendElement(final Appendable out,
+      @Nullable final Object element, final Object container)
+      throws IOException {
+    if (element == container) {
+      out.append(container instanceof Map ? "(this Map)" : "(this Collection)");
+    } else if (element instanceof ToStringAppendable) {
+      ((ToStringAppendable) element).appendTo(out);
+    } else {
+      out.append(String.valueOf(element));
+    }
+  }
+}
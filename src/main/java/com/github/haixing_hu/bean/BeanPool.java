@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * A pool of recycled beans of a bean class.
+ * <p>
+ * Each thread has its own stack of recycled beans, so that acquiring and
+ * releasing beans never contend with other threads. A bean acquired from the
+ * pool is either a recycled bean or a new instance created by
+ * {@link BeanClass#newInstance()}; a bean released to the pool is reset by
+ * {@link Bean#reset()} and kept for the later acquisitions of the same thread,
+ * unless the stack of the thread is full.
+ * <p>
+ * A bean must not be used after it was released to the pool.
+ *
+ * @author Haixing Hu
+ */
+@ThreadSafe
+public final class BeanPool {
+
+  /**
+   * The default maximum number of recycled beans kept for each thread.
+   */
+  public static final int DEFAULT_MAX_SIZE = 16;
+
+  private final BeanClass beanClass;
+  private final int maxSize;
+  private final ThreadLocal<Stack> stacks;
+
+  /**
+   * Constructs a {@link BeanPool}.
+   *
+   * @param beanClass
+   *          the class of the beans in the pool.
+   */
+  public BeanPool(final BeanClass beanClass) {
+    this(beanClass, DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Constructs a {@link BeanPool}.
+   *
+   * @param beanClass
+   *          the class of the beans in the pool.
+   * @param maxSize
+   *          the maximum number of recycled beans kept for each thread.
+   * @throws IllegalArgumentException
+   *           if {@code maxSize} is negative.
+   */
+  public BeanPool(final BeanClass beanClass, final int maxSize) {
+    this.beanClass = requireNonNull("beanClass", beanClass);
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("maxSize must be non-negative.");
+    }
+    this.maxSize = maxSize;
+    this.stacks = new ThreadLocal<Stack>() {
+      @Override
+      protected Stack initialValue() {
+        return new Stack(maxSize);
+      }
+    };
+  }
+
+  /**
+   * Gets the class of the beans in this pool.
+   *
+   * @return the class of the beans in this pool.
+   */
+  public BeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  /**
+   * Gets the maximum number of recycled beans kept for each thread.
+   *
+   * @return the maximum number of recycled beans kept for each thread.
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Gets the number of recycled beans kept for the current thread.
+   *
+   * @return the number of recycled beans kept for the current thread.
+   */
+  public int getSize() {
+    return stacks.get().size;
+  }
+
+  /**
+   * Acquires a bean from this pool.
+   *
+   * @return a recycled bean kept for the current thread, or a new instance of
+   *         the bean class if no bean was kept for the current thread. The
+   *         returned bean is in the state just after it was constructed.
+   * @throws ReflectionException
+   *           if any error occurs while creating the new instance.
+   */
+  public Bean acquire() {
+    final Stack stack = stacks.get();
+    if (stack.size == 0) {
+      return beanClass.newInstance();
+    }
+    final Bean bean = stack.beans[--stack.size];
+    stack.beans[stack.size] = null;
+    return bean;
+  }
+
+  /**
+   * Releases a bean to this pool.
+   * <p>
+   * The bean is reset and kept for the later acquisitions of the current
+   * thread, unless the maximum number of recycled beans of the current thread
+   * is reached.
+   *
+   * @param bean
+   *          the bean to be released, which must not be used by the caller
+   *          afterwards.
+   * @throws NullPointerException
+   *           if {@code bean} is {@code null}.
+   * @throws IllegalArgumentException
+   *           if the class of the bean is not the class of the beans in this
+   *           pool.
+   */
+  public void release(final Bean bean) {
+    requireNonNull("bean", bean);
+    if (bean.getBeanClass() != beanClass) {
+      throw new IllegalArgumentException(
+          "The bean does not belong to the bean class of the pool.");
+    }
+    final Stack stack = stacks.get();
+    if (stack.size < maxSize) {
+      bean.reset();
+      stack.beans[stack.size++] = bean;
+    }
+  }
+
+  /**
+   * The stack of the recycled beans of a thread.
+   */
+  private static final class Stack {
+    final Bean[] beans;
+    int size;
+
+    Stack(final int capacity) {
+      beans = new Bean[capacity];
+      size = 0;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface as the schema of a bean class, from which the
+ * {@link BeanSchemaProcessor} generates a {@link Bean} implementation at
+ * compile time.
+ * <p>
+ * Each getter of the interface defines a property of the bean class:
+ * <ul>
+ * <li>a getter returning a {@link java.util.List List&lt;E&gt;} defines an
+ * indexed property of the type {@code E};</li>
+ * <li>a getter returning a {@link java.util.Map Map&lt;String, V&gt;} defines
+ * a mapped property of the type {@code V};</li>
+ * <li>a getter returning any other type defines a simple property of that
+ * type, where a primitive type is replaced by its wrapper type.</li>
+ * </ul>
+ * The interface may also declare the setters of its properties. For example,
+ * <pre><code>
+ * &#64;BeanSchema(name = "person")
+ * public interface Person {
+ *   String getName();
+ *   void setName(String name);
+ *   int getAge();
+ *   List&lt;String&gt; getTags();
+ * }
+ * </code></pre>
+ * generates a class {@code PersonBean} implementing {@code Person}, whose
+ * static field {@code CLASS} is the bean class of the schema, and whose static
+ * fields {@code NAME}, {@code AGE} and {@code TAGS} are the handles of the
+ * properties.
+ *
+ * @author Haixing Hu
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface BeanSchema {
+
+  /**
+   * The name of the bean class. The default value is the simple name of the
+   * annotated interface.
+   */
+  String name() default "";
+
+  /**
+   * The simple name of the generated class. The default value is the simple
+   * name of the annotated interface followed by {@code "Bean"}.
+   */
+  String className() default "";
+}
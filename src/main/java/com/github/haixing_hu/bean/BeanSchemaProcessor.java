@@ -0,0 +1,583 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import com.github.haixing_hu.bean.BeanSourceWriter.Slot;
+
+/**
+ * An annotation processor generating the {@link Bean} implementations of the
+ * interfaces annotated by {@link BeanSchema}.
+ * <p>
+ * For an annotated interface {@code Foo}, the processor generates a final
+ * class {@code FooBean} in the same package, which extends
+ * {@link AbstractSlotBean}, implements {@code Foo}, and stores each property in
+ * a typed field, as the classes generated by {@link BeanGenerator} do. The
+ * generated class also declares:
+ * <ul>
+ * <li>a static field {@code CLASS}, the {@link BeanClass} of the schema, which
+ * resolves the names of the properties by a {@code switch} on the names;</li>
+ * <li>a static {@link PropertyHandle} field for each property, named by the
+ * name of the property in upper case with underscores;</li>
+ * <li>a public constructor without arguments, creating a bean of the
+ * {@code CLASS}.</li>
+ * </ul>
+ * Neither the generated bean class nor the generated beans use the reflection
+ * or any hash table.
+ * <p>
+ * The processor is not registered as a service, so it must be specified
+ * explicitly, e.g., by the {@code -processor} option of {@code javac} or the
+ * {@code annotationProcessors} configuration of the Maven compiler plugin.
+ *
+ * @author Haixing Hu
+ */
+@SupportedAnnotationTypes("com.github.haixing_hu.bean.BeanSchema")
+public class BeanSchemaProcessor extends AbstractProcessor {
+
+  private static final String PACKAGE = "com.github.haixing_hu.bean.";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(final Set<? extends TypeElement> annotations,
+      final RoundEnvironment roundEnv) {
+    for (final Element element : roundEnv.getElementsAnnotatedWith(
+        BeanSchema.class)) {
+      if (element.getKind() != ElementKind.INTERFACE) {
+        error(element, "@BeanSchema can only annotate an interface.");
+        continue;
+      }
+      final TypeElement type = (TypeElement) element;
+      final Schema schema = new Schema(type);
+      if (schema.parse()) {
+        write(schema);
+      }
+    }
+    return true;
+  }
+
+  private void error(final Element element, final String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message,
+        element);
+  }
+
+  private void write(final Schema schema) {
+    final String qualifiedName = (schema.packageName.isEmpty()
+        ? schema.className : schema.packageName + "." + schema.className);
+    try {
+      final Writer writer = processingEnv.getFiler()
+          .createSourceFile(qualifiedName, schema.type).openWriter();
+      try {
+        writer.write(schema.generateSource());
+      } finally {
+        writer.close();
+      }
+    } catch (final IOException e) {
+      error(schema.type, "Failed to write " + qualifiedName + ": "
+          + e.getMessage());
+    }
+  }
+
+  /**
+   * The model of a property declared by the getters and setters of a schema.
+   */
+  private static final class Property {
+    final String name;
+    final TypeMirror type;
+    PropertyKind kind;
+    PrimitiveType primitive;
+    String descriptorType;
+    String fieldType;
+    ExecutableElement getter;
+    ExecutableElement setter;
+
+    Property(final String name, final TypeMirror type) {
+      this.name = name;
+      this.type = type;
+    }
+  }
+
+  /**
+   * The model of an interface annotated by {@link BeanSchema}.
+   */
+  private final class Schema {
+    final TypeElement type;
+    final String packageName;
+    final String className;
+    final String beanClassName;
+    final Map<String, Property> properties = new LinkedHashMap<>();
+
+    Schema(final TypeElement type) {
+      this.type = type;
+      final PackageElement pkg = processingEnv.getElementUtils()
+          .getPackageOf(type);
+      packageName = pkg.getQualifiedName().toString();
+      final BeanSchema annotation = type.getAnnotation(BeanSchema.class);
+      final String simpleName = type.getSimpleName().toString();
+      className = (annotation.className().isEmpty()
+          ? simpleName + "Bean" : annotation.className());
+      beanClassName = (annotation.name().isEmpty()
+          ? simpleName : annotation.name());
+    }
+
+    boolean parse() {
+      boolean success = true;
+      for (final ExecutableElement method : getMethods(type)) {
+        success &= parse(method);
+      }
+      for (final Property property : properties.values()) {
+        if (property.getter == null) {
+          error(property.setter, "The property '" + property.name
+              + "' has a setter but no getter.");
+          success = false;
+        } else {
+          success &= classify(property);
+        }
+      }
+      return success;
+    }
+
+    private List<ExecutableElement> getMethods(final TypeElement t) {
+      final List<ExecutableElement> result = new ArrayList<>();
+      for (final TypeMirror parent : t.getInterfaces()) {
+        final Element e = processingEnv.getTypeUtils().asElement(parent);
+        result.addAll(getMethods((TypeElement) e));
+      }
+      for (final ExecutableElement method : ElementFilter.methodsIn(
+          t.getEnclosedElements())) {
+        if (method.getModifiers().contains(Modifier.ABSTRACT)) {
+          result.add(method);
+        }
+      }
+      return result;
+    }
+
+    private boolean parse(final ExecutableElement method) {
+      final String name = method.getSimpleName().toString();
+      final TypeMirror returnType = method.getReturnType();
+      final int params = method.getParameters().size();
+      final String propertyName;
+      final boolean isGetter;
+      final TypeMirror propertyType;
+      if (name.startsWith("get") && (name.length() > 3) && (params == 0)
+          && (returnType.getKind() != TypeKind.VOID)) {
+        propertyName = decapitalize(name.substring(3));
+        isGetter = true;
+        propertyType = returnType;
+      } else if (name.startsWith("is") && (name.length() > 2) && (params == 0)
+          && isBoolean(returnType)) {
+        propertyName = decapitalize(name.substring(2));
+        isGetter = true;
+        propertyType = returnType;
+      } else if (name.startsWith("set") && (name.length() > 3)
+          && (params == 1) && (returnType.getKind() == TypeKind.VOID)) {
+        propertyName = decapitalize(name.substring(3));
+        isGetter = false;
+        propertyType = method.getParameters().get(0).asType();
+      } else {
+        error(method, "The method " + name
+            + " is neither a getter nor a setter of a property.");
+        return false;
+      }
+      Property property = properties.get(propertyName);
+      if (property == null) {
+        property = new Property(propertyName, propertyType);
+        properties.put(propertyName, property);
+      } else if (! processingEnv.getTypeUtils().isSameType(property.type,
+          propertyType)) {
+        error(method, "The type of the property '" + propertyName
+            + "' is inconsistent.");
+        return false;
+      }
+      if (isGetter) {
+        if (property.getter != null) {
+          error(method, "Duplicated getter of the property '" + propertyName
+              + "'.");
+          return false;
+        }
+        property.getter = method;
+      } else {
+        if (property.setter != null) {
+          error(method, "Duplicated setter of the property '" + propertyName
+              + "'.");
+          return false;
+        }
+        property.setter = method;
+      }
+      return true;
+    }
+
+    private boolean isBoolean(final TypeMirror t) {
+      return (t.getKind() == TypeKind.BOOLEAN)
+          || erasure(t).equals("java.lang.Boolean");
+    }
+
+    private String erasure(final TypeMirror t) {
+      return processingEnv.getTypeUtils().erasure(t).toString();
+    }
+
+    private boolean classify(final Property property) {
+      final Types types = processingEnv.getTypeUtils();
+      final TypeMirror t = property.type;
+      if (t.getKind().isPrimitive()) {
+        final TypeMirror boxed = types.boxedClass(
+            types.getPrimitiveType(t.getKind())).asType();
+        property.kind = PropertyKind.SIMPLE;
+        property.primitive = primitiveOf(boxed.toString());
+        if (property.primitive == null) {
+          error(property.getter, "The primitive type " + t
+              + " is not supported.");
+          return false;
+        }
+        property.descriptorType = boxed.toString();
+        return true;
+      }
+      if ((t.getKind() != TypeKind.DECLARED) && (t.getKind() != TypeKind.ARRAY)) {
+        error(property.getter, "The type " + t + " is not supported.");
+        return false;
+      }
+      final String erasure = erasure(t);
+      final List<? extends TypeMirror> arguments = (t.getKind()
+          == TypeKind.DECLARED ? ((DeclaredType) t).getTypeArguments()
+                               : new ArrayList<TypeMirror>());
+      if (erasure.equals("java.util.List")) {
+        property.kind = PropertyKind.INDEXED;
+        property.descriptorType = (arguments.isEmpty() ? "java.lang.Object"
+            : erasureOf(arguments.get(0)));
+      } else if (erasure.equals("java.util.Map")) {
+        if (! arguments.isEmpty()
+            && ! erasureOf(arguments.get(0)).equals("java.lang.String")) {
+          error(property.getter, "The keys of the mapped property '"
+              + property.name + "' must be strings.");
+          return false;
+        }
+        property.kind = PropertyKind.MAPPED;
+        property.descriptorType = (arguments.isEmpty() ? "java.lang.Object"
+            : erasureOf(arguments.get(1)));
+      } else {
+        property.kind = PropertyKind.SIMPLE;
+        property.primitive = primitiveOf(erasure);
+        property.descriptorType = erasure;
+        property.fieldType = erasure;
+      }
+      if (property.descriptorType == null) {
+        error(property.getter, "The type " + t + " is not supported.");
+        return false;
+      }
+      return true;
+    }
+
+    private String erasureOf(final TypeMirror t) {
+      switch (t.getKind()) {
+        case DECLARED:
+        case ARRAY:
+          return erasure(t);
+        case WILDCARD:
+        case TYPEVAR:
+        default:
+          return null;
+      }
+    }
+
+    String generateSource() {
+      final Property[] props = properties.values().toArray(
+          new Property[properties.size()]);
+      final Slot[] slots = new Slot[props.length];
+      for (int i = 0; i < props.length; ++i) {
+        slots[i] = new Slot(props[i].name, props[i].kind, props[i].primitive,
+            props[i].fieldType);
+      }
+      final StringBuilder builder = new StringBuilder();
+      if (! packageName.isEmpty()) {
+        builder.append("package ").append(packageName).append(";\n\n");
+      }
+      builder.append("/**\n")
+             .append(" * The bean implementation of {@link ")
+             .append(type.getQualifiedName()).append("}.\n")
+             .append(" * <p>\n")
+             .append(" * This class is generated by the ")
+             .append("{@link ").append(PACKAGE).append("BeanSchemaProcessor}")
+             .append(".\n")
+             .append(" */\n")
+             .append("public final class ").append(className)
+             .append(" extends ").append(PACKAGE).append("AbstractSlotBean")
+             .append(" implements ").append(type.getQualifiedName())
+             .append(" {\n\n")
+             .append("  public static final ").append(PACKAGE)
+             .append("BeanClass CLASS = new Schema();\n\n");
+      for (int i = 0; i < props.length; ++i) {
+        builder.append("  public static final ").append(PACKAGE)
+               .append("PropertyHandle ").append(constantName(props[i].name))
+               .append(" = ((Schema) CLASS).handles[").append(i)
+               .append("];\n");
+      }
+      builder.append('\n');
+      final BeanSourceWriter writer = new BeanSourceWriter(builder, className,
+          slots);
+      writer.writeFields();
+      builder.append("\n  public ").append(className).append("() {\n")
+             .append("    this(CLASS);\n")
+             .append("  }\n");
+      writer.writeConstructor();
+      for (int i = 0; i < props.length; ++i) {
+        writeGetter(builder, props[i], i);
+        if (props[i].setter != null) {
+          writeSetter(builder, props[i], i);
+        }
+      }
+      writer.writeSlotAccessors();
+      writer.writeCopy();
+      writer.writeObjectMethods();
+      writeSchema(builder, props);
+      builder.append("}\n");
+      return builder.toString();
+    }
+
+    private void writeGetter(final StringBuilder builder,
+        final Property property, final int slot) {
+      final String returnType = property.type.toString();
+      builder.append('\n');
+      if ((property.kind != PropertyKind.SIMPLE)
+          || ((property.primitive == null)
+              && ! returnType.equals(property.fieldType))) {
+        builder.append("  @SuppressWarnings(\"unchecked\")\n");
+      }
+      builder.append("  @Override\n")
+             .append("  public ").append(returnType).append(' ')
+             .append(property.getter.getSimpleName()).append("() {\n");
+      if (property.kind != PropertyKind.SIMPLE) {
+        builder.append("    return (").append(returnType).append(") (Object) f")
+               .append(slot).append(";\n");
+      } else if (property.primitive == null) {
+        builder.append("    return (").append(returnType).append(") f")
+               .append(slot).append(";\n");
+      } else if (property.type.getKind().isPrimitive()) {
+        builder.append("    if (! h").append(slot).append(") {\n")
+               .append("      throw new NullPointerException(")
+               .append("\"The value of the property '").append(property.name)
+               .append("' is null.\");\n")
+               .append("    }\n")
+               .append("    return f").append(slot).append(";\n");
+      } else {
+        builder.append("    return (h").append(slot).append(" ? ")
+               .append(returnType).append(".valueOf(f").append(slot)
+               .append(") : null);\n");
+      }
+      builder.append("  }\n");
+    }
+
+    private void writeSetter(final StringBuilder builder,
+        final Property property, final int slot) {
+      builder.append("\n  @Override\n")
+             .append("  public void ").append(property.setter.getSimpleName())
+             .append("(final ").append(property.type).append(" value) {\n");
+      if (property.kind != PropertyKind.SIMPLE) {
+        builder.append("    setRawValue(").append(slot).append(", value);\n");
+      } else if ((property.primitive != null)
+          && property.type.getKind().isPrimitive()) {
+        builder.append("    f").append(slot).append(" = value;\n")
+               .append("    h").append(slot).append(" = true;\n")
+               .append("    markDirty(").append(slot).append(");\n");
+      } else if (property.primitive != null) {
+        builder.append("    setValue(").append(slot).append(", value);\n")
+               .append("    markDirty(").append(slot).append(");\n");
+      } else {
+        builder.append("    f").append(slot).append(" = value;\n")
+               .append("    markDirty(").append(slot).append(");\n");
+      }
+      builder.append("  }\n");
+    }
+
+    private void writeSchema(final StringBuilder builder,
+        final Property[] props) {
+      final String bc = PACKAGE + "BeanClass";
+      final String pd = PACKAGE + "PropertyDescriptor";
+      final String ph = PACKAGE + "PropertyHandle";
+      builder.append("\n  private static final class Schema implements ")
+             .append(bc).append(" {\n\n")
+             .append("    final ").append(pd).append("[] descriptors = {\n");
+      for (final Property property : props) {
+        builder.append("      new ").append(pd).append("(\"")
+               .append(property.name).append("\", ")
+               .append(property.descriptorType).append(".class, ")
+               .append(PACKAGE).append("PropertyKind.")
+               .append(property.kind.name()).append("),\n");
+      }
+      builder.append("    };\n\n")
+             .append("    final ").append(ph).append("[] handles = new ")
+             .append(ph).append("[").append(props.length).append("];\n\n")
+             .append("    Schema() {\n")
+             .append("      for (int i = 0; i < descriptors.length; ++i) {\n")
+             .append("        handles[i] = new ").append(ph)
+             .append("(this, descriptors[i], i);\n")
+             .append("      }\n")
+             .append("    }\n\n")
+             .append("    @Override\n")
+             .append("    public String getName() {\n")
+             .append("      return \"").append(escape(beanClassName))
+             .append("\";\n")
+             .append("    }\n\n")
+             .append("    @Override\n")
+             .append("    public Class<? extends ").append(PACKAGE)
+             .append("Bean> getBeanType() {\n")
+             .append("      return ").append(className).append(".class;\n")
+             .append("    }\n\n")
+             .append("    @Override\n")
+             .append("    public boolean hasProperty(final String name) {\n")
+             .append("      return (getPropertyIndex(name) >= 0);\n")
+             .append("    }\n\n")
+             .append("    @Override\n")
+             .append("    public ").append(pd)
+             .append(" getPropertyDescriptor(final String name) {\n")
+             .append("      final int index = getPropertyIndex(name);\n")
+             .append("      return (index < 0 ? null : descriptors[index]);\n")
+             .append("    }\n\n")
+             .append("    @Override\n")
+             .append("    public ").append(pd)
+             .append("[] getPropertyDescriptors() {\n")
+             .append("      return descriptors;\n")
+             .append("    }\n\n")
+             .append("    @Override\n")
+             .append("    public int getPropertyIndex(final String name) {\n")
+             .append("      if (name == null) {\n")
+             .append("        return -1;\n")
+             .append("      }\n")
+             .append("      switch (name) {\n");
+      for (int i = 0; i < props.length; ++i) {
+        builder.append("        case \"").append(props[i].name)
+               .append("\":\n")
+               .append("          return ").append(i).append(";\n");
+      }
+      builder.append("        default:\n")
+             .append("          return -1;\n")
+             .append("      }\n")
+             .append("    }\n\n")
+             .append("    @Override\n")
+             .append("    public ").append(ph)
+             .append(" getPropertyHandle(final String name) {\n")
+             .append("      final int index = getPropertyIndex(name);\n")
+             .append("      if (index < 0) {\n")
+             .append("        throw new ").append(PACKAGE)
+             .append("PropertyNotExistException(name);\n")
+             .append("      }\n")
+             .append("      return handles[index];\n")
+             .append("    }\n\n")
+             .append("    @Override\n")
+             .append("    public ").append(PACKAGE)
+             .append("Bean newInstance() {\n")
+             .append("      return new ").append(className)
+             .append("(this);\n")
+             .append("    }\n\n")
+             .append("    @Override\n")
+             .append("    public ").append(PACKAGE)
+             .append("Bean newInstance(final ").append(PACKAGE)
+             .append("Bean prototype) {\n")
+             .append("      if (! equals(prototype.getBeanClass())) {\n")
+             .append("        throw new IllegalArgumentException(\n")
+             .append("            \"The prototype is not a bean of the \"")
+             .append(" + \"class \" + getName());\n")
+             .append("      }\n")
+             .append("      return prototype.copy();\n")
+             .append("    }\n\n")
+             .append("    @Override\n")
+             .append("    public String toString() {\n")
+             .append("      return getName();\n")
+             .append("    }\n")
+             .append("  }\n");
+    }
+  }
+
+  private static PrimitiveType primitiveOf(final String wrapperType) {
+    for (final PrimitiveType primitive : PrimitiveType.values()) {
+      if (primitive.getWrapperType().getName().equals(wrapperType)) {
+        return primitive;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Converts the capitalized name in a getter or setter to the name of the
+   * property, as {@link java.beans.Introspector#decapitalize(String)} does.
+   */
+  private static String decapitalize(final String name) {
+    if ((name.length() > 1) && Character.isUpperCase(name.charAt(1))
+        && Character.isUpperCase(name.charAt(0))) {
+      return name;
+    }
+    return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+  }
+
+  /**
+   * Converts the name of a property to the name of the constant of its handle,
+   * e.g., from {@code "firstName"} to {@code "FIRST_NAME"}.
+   */
+  private static String constantName(final String name) {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < name.length(); ++i) {
+      final char ch = name.charAt(i);
+      if (Character.isUpperCase(ch) && (i > 0)
+          && ! Character.isUpperCase(name.charAt(i - 1))) {
+        builder.append('_');
+      }
+      builder.append(Character.toUpperCase(ch));
+    }
+    return builder.toString();
+  }
+
+  private static String escape(final String str) {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < str.length(); ++i) {
+      final char ch = str.charAt(i);
+      if ((ch == '"') || (ch == '\\')) {
+        builder.append('\\').append(ch);
+      } else if ((ch < 0x20) || (ch > 0x7E)) {
+        builder.append(String.format("\\u%04x", (int) ch));
+      } else {
+        builder.append(ch);
+      }
+    }
+    return builder.toString();
+  }
+}
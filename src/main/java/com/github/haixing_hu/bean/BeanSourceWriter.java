@@ -0,0 +1,430 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Writes the members of a generated {@link AbstractSlotBean} subclass with one
+ * typed field for each property.
+ * <p>
+ * A simple property of a primitive wrapper type is stored in a primitive field
+ * {@code f<slot>} together with a flag {@code h<slot>} indicating whether its
+ * value is not {@code null}; a simple property of other types is stored in a
+ * field {@code f<slot>} of its type; and an indexed or mapped property is
+ * stored in a final field {@code f<slot>} referencing its container. The
+ * values are accessed by switching on the slots of the properties.
+ * <p>
+ * This class is shared by the {@link BeanGenerator}, which generates the
+ * classes at runtime, and the {@link BeanSchemaProcessor}, which generates
+ * them at compile time.
+ *
+ * @author Haixing Hu
+ */
+@NotThreadSafe
+final class BeanSourceWriter {
+
+  /**
+   * The model of a property of a generated class.
+   */
+  static final class Slot {
+    final String name;
+    final PropertyKind kind;
+    final PrimitiveType primitive;
+    final String type;
+
+    /**
+     * Constructs a {@link Slot}.
+     *
+     * @param name
+     *          the name of the property.
+     * @param kind
+     *          the kind of the property.
+     * @param primitive
+     *          the primitive type of a simple property of a primitive wrapper
+     *          type, or {@code null} otherwise.
+     * @param type
+     *          the name of the type of the field storing a simple property
+     *          which is not of a primitive wrapper type; ignored otherwise.
+     */
+    Slot(final String name, final PropertyKind kind,
+        @Nullable final PrimitiveType primitive, @Nullable final String type) {
+      this.name = name;
+      this.kind = kind;
+      this.primitive = (kind == PropertyKind.SIMPLE ? primitive : null);
+      this.type = type;
+    }
+  }
+
+  private final StringBuilder builder;
+  private final String simpleName;
+  private final Slot[] slots;
+
+  /**
+   * Constructs a {@link BeanSourceWriter}.
+   *
+   * @param builder
+   *          the builder where the source code is written to.
+   * @param simpleName
+   *          the simple name of the generated class.
+   * @param slots
+   *          the properties of the generated class, in the order of their
+   *          slots.
+   */
+  BeanSourceWriter(final StringBuilder builder, final String simpleName,
+      final Slot[] slots) {
+    this.builder = builder;
+    this.simpleName = simpleName;
+    this.slots = slots;
+  }
+
+  /**
+   * Gets the name of the primitive type.
+   *
+   * @param primitive
+   *          a primitive type.
+   * @return the Java keyword of the primitive type.
+   */
+  static String primitiveName(final PrimitiveType primitive) {
+    return primitive.getKeyword();
+  }
+
+  /**
+   * Gets the type of the field storing the container of an indexed or mapped
+   * property.
+   *
+   * @param kind
+   *          the kind of an indexed or mapped property.
+   * @return the type of the field storing the container.
+   */
+  static String containerType(final PropertyKind kind) {
+    if (kind == PropertyKind.INDEXED) {
+      return "java.util.List<Object>";
+    } else {
+      return "java.util.Map<String, Object>";
+    }
+  }
+
+  private boolean hasPrimitive() {
+    for (final Slot slot : slots) {
+      if (slot.primitive != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Writes the fields storing the values of the properties.
+   */
+  void writeFields() {
+    for (int i = 0; i < slots.length; ++i) {
+      final Slot slot = slots[i];
+      if (slot.primitive != null) {
+        builder.append("  private ").append(primitiveName(slot.primitive))
+               .append(" f").append(i).append(";\n")
+               .append("  private boolean h").append(i).append(";\n");
+      } else if (slot.kind == PropertyKind.SIMPLE) {
+        builder.append("  private ").append(slot.type)
+               .append(" f").append(i).append(";\n");
+      } else {
+        builder.append("  private final ").append(containerType(slot.kind))
+               .append(" f").append(i).append(";\n");
+      }
+    }
+  }
+
+  /**
+   * Writes the public constructor taking a {@link BeanClass}.
+   */
+  void writeConstructor() {
+    builder.append("\n  @SuppressWarnings(\"unchecked\")\n")
+           .append("  public ").append(simpleName)
+           .append("(final com.github.haixing_hu.bean.BeanClass beanClass) {\n")
+           .append("    super(beanClass);\n")
+           .append("    if (descriptors.length != ").append(slots.length)
+           .append(") {\n")
+           .append("      throw new IllegalArgumentException(\"The bean class \"")
+           .append(" + beanClass.getName() + \" is incompatible with \"")
+           .append(" + getClass().getName());\n")
+           .append("    }\n");
+    for (int i = 0; i < slots.length; ++i) {
+      if (slots[i].kind != PropertyKind.SIMPLE) {
+        builder.append("    f").append(i).append(" = (")
+               .append(containerType(slots[i].kind))
+               .append(") newValue(descriptors[").append(i).append("]);\n");
+      }
+    }
+    builder.append("  }\n");
+  }
+
+  /**
+   * Writes the implementations of the storage hooks of the
+   * {@link AbstractSlotBean}.
+   */
+  void writeSlotAccessors() {
+    writeGetValue();
+    writeSetValue();
+    if (hasPrimitive()) {
+      writeLoadBits();
+      writeStoreBits();
+    }
+  }
+
+  /**
+   * Writes the {@code copy(boolean)} function, which copies the primitive
+   * fields directly and the other fields slot by slot.
+   */
+  void writeCopy() {
+    builder.append("\n  @Override\n")
+           .append("  protected com.github.haixing_hu.bean.Bean ")
+           .append("copy(final boolean deep) {\n")
+           .append("    final ").append(simpleName).append(" bean = new ")
+           .append(simpleName).append("(beanClass);\n");
+    for (int i = 0; i < slots.length; ++i) {
+      if (slots[i].primitive != null) {
+        builder.append("    bean.f").append(i).append(" = f").append(i)
+               .append(";\n")
+               .append("    bean.h").append(i).append(" = h").append(i)
+               .append(";\n");
+      } else {
+        builder.append("    bean.copySlot(this, ").append(i)
+               .append(", deep);\n");
+      }
+    }
+    builder.append("    return bean;\n")
+           .append("  }\n");
+  }
+
+  /**
+   * Writes the {@code hashCode()} and {@code equals()} functions, which
+   * compare the primitive fields without boxing them. The
+   * {@code toString()} function is inherited from the
+   * {@link AbstractSlotBean}.
+   */
+  void writeObjectMethods() {
+    writeHashCode();
+    writeEquals();
+  }
+
+  private void writeGetValue() {
+    builder.append("\n  @Override\n")
+           .append("  protected Object getValue(final int slot) {\n")
+           .append("    switch (slot) {\n");
+    for (int i = 0; i < slots.length; ++i) {
+      final PrimitiveType primitive = slots[i].primitive;
+      builder.append("      case ").append(i).append(":\n");
+      if (primitive != null) {
+        builder.append("        return (h").append(i).append(" ? ")
+               .append(primitive.getWrapperType().getSimpleName())
+               .append(".valueOf(f").append(i).append(") : null);\n");
+      } else {
+        builder.append("        return f").append(i).append(";\n");
+      }
+    }
+    builder.append("      default:\n")
+           .append("        throw new IndexOutOfBoundsException(")
+           .append("String.valueOf(slot));\n")
+           .append("    }\n")
+           .append("  }\n");
+  }
+
+  private void writeSetValue() {
+    builder.append("\n  @Override\n")
+           .append("  protected void setValue(final int slot, ")
+           .append("final Object value) {\n")
+           .append("    switch (slot) {\n");
+    for (int i = 0; i < slots.length; ++i) {
+      final Slot slot = slots[i];
+      if (slot.kind != PropertyKind.SIMPLE) {
+        continue;
+      }
+      builder.append("      case ").append(i).append(":\n");
+      if (slot.primitive != null) {
+        builder.append("        if (value == null) {\n")
+               .append("          f").append(i).append(" = ")
+               .append(slot.primitive == PrimitiveType.BOOLEAN ? "false" : "0")
+               .append(";\n")
+               .append("          h").append(i).append(" = false;\n")
+               .append("        } else {\n")
+               .append("          f").append(i).append(" = ((")
+               .append(slot.primitive.getWrapperType().getSimpleName())
+               .append(") value).").append(primitiveName(slot.primitive))
+               .append("Value();\n")
+               .append("          h").append(i).append(" = true;\n")
+               .append("        }\n")
+               .append("        return;\n");
+      } else {
+        builder.append("        f").append(i).append(" = (")
+               .append(slot.type).append(") value;\n")
+               .append("        return;\n");
+      }
+    }
+    builder.append("      default:\n")
+           .append("        throw new IndexOutOfBoundsException(")
+           .append("String.valueOf(slot));\n")
+           .append("    }\n")
+           .append("  }\n");
+  }
+
+  private void writeLoadBits() {
+    builder.append("\n  @Override\n")
+           .append("  protected long loadBits(final int slot, ")
+           .append("final com.github.haixing_hu.bean.PrimitiveType type) {\n")
+           .append("    switch (slot) {\n");
+    for (int i = 0; i < slots.length; ++i) {
+      final PrimitiveType primitive = slots[i].primitive;
+      if (primitive == null) {
+        continue;
+      }
+      builder.append("      case ").append(i).append(":\n")
+             .append("        if (h").append(i).append(") {\n")
+             .append("          return ").append(toBits(primitive, "f" + i))
+             .append(";\n")
+             .append("        }\n")
+             .append("        break;\n");
+    }
+    builder.append("      default:\n")
+           .append("        break;\n")
+           .append("    }\n")
+           .append("    return super.loadBits(slot, type);\n")
+           .append("  }\n");
+  }
+
+  private void writeStoreBits() {
+    builder.append("\n  @Override\n")
+           .append("  protected void storeBits(final int slot, ")
+           .append("final com.github.haixing_hu.bean.PrimitiveType type, ")
+           .append("final long bits) {\n")
+           .append("    switch (slot) {\n");
+    for (int i = 0; i < slots.length; ++i) {
+      final PrimitiveType primitive = slots[i].primitive;
+      if (primitive == null) {
+        continue;
+      }
+      builder.append("      case ").append(i).append(":\n")
+             .append("        f").append(i).append(" = ")
+             .append(fromBits(primitive, "bits")).append(";\n")
+             .append("        h").append(i).append(" = true;\n")
+             .append("        return;\n");
+    }
+    builder.append("      default:\n")
+           .append("        super.storeBits(slot, type, bits);\n")
+           .append("        return;\n")
+           .append("    }\n")
+           .append("  }\n");
+  }
+
+  /**
+   * Gets the expression converting a primitive value to its bit pattern, as
+   * {@link PrimitiveType#toBits(Object)} does.
+   */
+  private static String toBits(final PrimitiveType primitive,
+      final String value) {
+    switch (primitive) {
+      case BOOLEAN:
+        return "(" + value + " ? 1L : 0L)";
+      case FLOAT:
+        return "Float.floatToRawIntBits(" + value + ")";
+      case DOUBLE:
+        return "Double.doubleToRawLongBits(" + value + ")";
+      default:
+        return value;
+    }
+  }
+
+  /**
+   * Gets the expression converting a bit pattern to a primitive value, as
+   * {@link PrimitiveType#fromBits(long)} does.
+   */
+  private static String fromBits(final PrimitiveType primitive,
+      final String bits) {
+    switch (primitive) {
+      case BOOLEAN:
+        return "(" + bits + " != 0)";
+      case FLOAT:
+        return "Float.intBitsToFloat((int) " + bits + ")";
+      case DOUBLE:
+        return "Double.longBitsToDouble(" + bits + ")";
+      case LONG:
+        return bits;
+      default:
+        return "(" + primitiveName(primitive) + ") " + bits;
+    }
+  }
+
+  private void writeHashCode() {
+    builder.append("\n  @Override\n")
+           .append("  public int hashCode() {\n")
+           .append("    int h = beanClass.hashCode();\n");
+    for (int i = 0; i < slots.length; ++i) {
+      final PrimitiveType primitive = slots[i].primitive;
+      if (primitive == null) {
+        builder.append("    h = 31 * h + hashValue(f").append(i)
+               .append(");\n");
+      } else {
+        builder.append("    h = 31 * h + (h").append(i)
+               .append(" ? hashBits(").append(typeName(primitive))
+               .append(", ").append(toBits(primitive, "f" + i))
+               .append(") : 0);\n");
+      }
+    }
+    builder.append("    return h;\n")
+           .append("  }\n");
+  }
+
+  private void writeEquals() {
+    builder.append("\n  @Override\n")
+           .append("  public boolean equals(final Object obj) {\n")
+           .append("    if (obj == null) {\n")
+           .append("      return false;\n")
+           .append("    }\n")
+           .append("    if (obj == this) {\n")
+           .append("      return true;\n")
+           .append("    }\n")
+           .append("    if (obj.getClass() != getClass()) {\n")
+           .append("      return false;\n")
+           .append("    }\n")
+           .append("    final ").append(simpleName).append(" rhs = (")
+           .append(simpleName).append(") obj;\n")
+           .append("    return beanClass.equals(rhs.beanClass)");
+    for (int i = 0; i < slots.length; ++i) {
+      final PrimitiveType primitive = slots[i].primitive;
+      if (primitive == null) {
+        builder.append("\n        && equalValues(f").append(i)
+               .append(", rhs.f").append(i).append(")");
+      } else {
+        builder.append("\n        && (h").append(i).append(" == rhs.h")
+               .append(i).append(")")
+               .append("\n        && ((! h").append(i).append(") || equalBits(")
+               .append(typeName(primitive)).append(", ")
+               .append(toBits(primitive, "f" + i)).append(", ")
+               .append(toBits(primitive, "rhs.f" + i)).append("))");
+      }
+    }
+    builder.append(";\n")
+           .append("  }\n");
+  }
+
+  /**
+   * Gets the expression referring to the constant of a primitive type.
+   */
+  private static String typeName(final PrimitiveType primitive) {
+    return "com.github.haixing_hu.bean.PrimitiveType." + primitive.name();
+  }
+}
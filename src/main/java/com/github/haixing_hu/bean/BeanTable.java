@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.IOException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * A {@link BeanTable} stores the property values of many beans of the same
+ * {@link BeanClass} in columns.
+ * <p>
+ * Each property of the bean class is stored in a typed {@link Column}, whose
+ * index is the slot of the property, and each bean is a row of the table
+ * addressed by an integer id. The values of a simple property of the type
+ * {@link Integer}, {@link Long} or {@link Double} are stored in a primitive
+ * array, therefore scanning a property of all the rows reads a contiguous
+ * block of memory:
+ * <pre><code>
+ * final DoubleColumn price = table.getDoubleColumn("price");
+ * double total = 0;
+ * for (int row = 0; row &lt; table.size(); ++row) {
+ *   total += price.getDouble(row);
+ * }
+ * </code></pre>
+ * A {@link Bean} view of a row could be obtained by {@link #getRow(int)}.
+ * The view does not copy the values of the row, and all the operations on the
+ * view are applied to the table.
+ *
+ * @author Haixing Hu
+ */
+@NotThreadSafe
+public class BeanTable implements ToStringAppendable {
+
+  /**
+   * The default initial capacity of a table.
+   */
+  public static final int DEFAULT_CAPACITY = 16;
+
+  private final BeanClass beanClass;
+  private final Column[] columns;
+  private int capacity;
+  private int size;
+
+  /**
+   * Constructs an empty {@link BeanTable}.
+   *
+   * @param beanClass
+   *          the class of the beans stored in the table.
+   */
+  public BeanTable(final BeanClass beanClass) {
+    this(beanClass, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty {@link BeanTable}.
+   *
+   * @param beanClass
+   *          the class of the beans stored in the table.
+   * @param capacity
+   *          the initial capacity of the table.
+   */
+  public BeanTable(final BeanClass beanClass, final int capacity) {
+    this.beanClass = requireNonNull("beanClass", beanClass);
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Invalid capacity: " + capacity);
+    }
+    final PropertyDescriptor[] descriptors = beanClass.getPropertyDescriptors();
+    columns = new Column[descriptors.length];
+    for (int i = 0; i < descriptors.length; ++i) {
+      columns[i] = Column.create(this, descriptors[i], capacity);
+    }
+    this.capacity = capacity;
+    size = 0;
+  }
+
+  /**
+   * Gets the class of the beans stored in this table.
+   *
+   * @return the class of the beans stored in this table.
+   */
+  public final BeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  /**
+   * Gets the number of rows in this table.
+   *
+   * @return the number of rows in this table.
+   */
+  public final int size() {
+    return size;
+  }
+
+  /**
+   * Checks the id of a row.
+   *
+   * @param row
+   *          the id of a row.
+   * @throws IndexOutOfBoundsException
+   *           if the row does not exist.
+   */
+  final void checkRow(final int row) {
+    if ((row < 0) || (row >= size)) {
+      throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+    }
+  }
+
+  /**
+   * Adds a new row to this table.
+   * <p>
+   * The simple properties of the new row are {@code null}, and the indexed and
+   * mapped properties of the new row are empty.
+   *
+   * @return the id of the new row.
+   */
+  public final int addRow() {
+    if (size == capacity) {
+      capacity = Math.max(capacity + (capacity >> 1), DEFAULT_CAPACITY);
+      for (final Column column : columns) {
+        column.resize(capacity);
+      }
+    }
+    final int row = size++;
+    for (final Column column : columns) {
+      column.initRow(row);
+    }
+    return row;
+  }
+
+  /**
+   * Adds a new row to this table, and copies the property values of a bean to
+   * the new row.
+   *
+   * @param bean
+   *          a bean of the same class as the beans stored in this table.
+   * @return the id of the new row.
+   * @throws IllegalArgumentException
+   *           if the class of the bean is not the class of this table.
+   */
+  public final int addRow(final Bean bean) {
+    requireNonNull("bean", bean);
+    if (! beanClass.equals(bean.getBeanClass())) {
+      throw new IllegalArgumentException("The bean class "
+          + bean.getBeanClass().getName() + " does not match the bean class "
+          + beanClass.getName() + " of the table.");
+    }
+    final int row = addRow();
+    final BeanTableRow view = new BeanTableRow(this, row);
+    for (int slot = 0; slot < columns.length; ++slot) {
+      final String name = columns[slot].getDescriptor().getName();
+      view.setRawValue(slot, bean.getProperty(name).getRawValue());
+    }
+    return row;
+  }
+
+  /**
+   * Gets a {@link Bean} view of a row of this table.
+   *
+   * @param row
+   *          the id of a row.
+   * @return a view of the specified row, whose modifications are applied to
+   *         this table.
+   * @throws IndexOutOfBoundsException
+   *           if the row does not exist.
+   */
+  public final SlotBean getRow(final int row) {
+    checkRow(row);
+    return new BeanTableRow(this, row);
+  }
+
+  /**
+   * Removes all rows of this table.
+   * <p>
+   * The views of the removed rows become invalid.
+   */
+  public final void clear() {
+    for (final Column column : columns) {
+      column.clear();
+    }
+    size = 0;
+  }
+
+  /**
+   * Gets the column storing the values of a property.
+   *
+   * @param slot
+   *          the slot of a property.
+   * @return the column storing the values of the property in the specified
+   *         slot.
+   * @throws IndexOutOfBoundsException
+   *           if the slot is invalid.
+   */
+  public final Column getColumn(final int slot) {
+    return columns[slot];
+  }
+
+  /**
+   * Gets the column storing the values of a property.
+   *
+   * @param name
+   *          the name of a property.
+   * @return the column storing the values of the specified property.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   */
+  public final Column getColumn(final String name) {
+    requireNonNull("name", name);
+    final int slot = beanClass.getPropertyIndex(name);
+    if (slot < 0) {
+      throw new PropertyNotExistException(name);
+    }
+    return columns[slot];
+  }
+
+  /**
+   * Gets the column storing the values of a simple property of the type
+   * {@link Integer}.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Integer}.
+   * @return the column storing the values of the specified property.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws ClassCastException
+   *           if the specified property is not a simple property of the type
+   *           {@link Integer}.
+   */
+  public final IntColumn getIntColumn(final String name) {
+    return (IntColumn) getColumn(name);
+  }
+
+  /**
+   * Gets the column storing the values of a simple property of the type
+   * {@link Long}.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Long}.
+   * @return the column storing the values of the specified property.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws ClassCastException
+   *           if the specified property is not a simple property of the type
+   *           {@link Long}.
+   */
+  public final LongColumn getLongColumn(final String name) {
+    return (LongColumn) getColumn(name);
+  }
+
+  /**
+   * Gets the column storing the values of a simple property of the type
+   * {@link Double}.
+   *
+   * @param name
+   *          the name of a simple property of the type {@link Double}.
+   * @return the column storing the values of the specified property.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   * @throws ClassCastException
+   *           if the specified property is not a simple property of the type
+   *           {@link Double}.
+   */
+  public final DoubleColumn getDoubleColumn(final String name) {
+    return (DoubleColumn) getColumn(name);
+  }
+
+  /**
+   * Writes the string representation of this table, which is the same as the
+   * string returned by {@link #toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "beanClass", beanClass.getName(), true);
+    BeanObjects.appendField(out, "size", size, false);
+    BeanObjects.appendEnd(out);
+  }
+
+  @Override
+  public String toString() {
+    return BeanObjects.toString(this);
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.IOException;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Bean} view of a row of a {@link BeanTable}.
+ * <p>
+ * The values of the properties are read from and written to the columns of the
+ * table.
+ *
+ * @author Haixing Hu
+ */
+final class BeanTableRow extends AbstractSlotBean {
+
+  private final BeanTable table;
+  private final int row;
+
+  BeanTableRow(final BeanTable table, final int row) {
+    super(table.getBeanClass());
+    this.table = table;
+    this.row = row;
+  }
+
+  /**
+   * Gets the id of the row of this view.
+   *
+   * @return the id of the row of this view.
+   */
+  int getRow() {
+    return row;
+  }
+
+  @Override
+  protected Object getValue(final int slot) {
+    table.checkRow(row);
+    return table.getColumn(slot).getValue(row);
+  }
+
+  @Override
+  protected void setValue(final int slot, @Nullable final Object value) {
+    table.checkRow(row);
+    table.getColumn(slot).setValue(row, value);
+  }
+
+  @Override
+  protected long loadBits(final int slot, final PrimitiveType type) {
+    table.checkRow(row);
+    return table.getColumn(slot).loadBits(row, type);
+  }
+
+  @Override
+  protected void storeBits(final int slot, final PrimitiveType type,
+      final long bits) {
+    table.checkRow(row);
+    table.getColumn(slot).storeBits(row, type, bits);
+  }
+
+  /**
+   * Gets the primitive type of a simple property.
+   *
+   * @param slot
+   *          the slot of a property.
+   * @return the primitive type of the specified property, or {@code null} if
+   *         it is not a simple property of a primitive wrapper type.
+   */
+  @Nullable
+  private PrimitiveType primitiveTypeOf(final int slot) {
+    final PropertyDescriptor descriptor = descriptors[slot];
+    if (descriptor.getKind() != PropertyKind.SIMPLE) {
+      return null;
+    }
+    return PrimitiveType.of(descriptor.getType());
+  }
+
+  @Override
+  public int hashCode() {
+    table.checkRow(row);
+    int h = beanClass.hashCode();
+    for (int slot = 0; slot < descriptors.length; ++slot) {
+      final Column column = table.getColumn(slot);
+      final PrimitiveType type = primitiveTypeOf(slot);
+      if (type == null) {
+        h = 31 * h + BeanObjects.hash(column.getValue(row));
+      } else if (column.isNullValue(row)) {
+        h = 31 * h;
+      } else {
+        h = 31 * h + BeanObjects.hashBits(type, column.loadBits(row, type));
+      }
+    }
+    return h;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj == null) {
+      return false;
+    }
+    if (obj == this) {
+      return true;
+    }
+    if (obj.getClass() != getClass()) {
+      return false;
+    }
+    final BeanTableRow rhs = (BeanTableRow) obj;
+    if (! beanClass.equals(rhs.beanClass)) {
+      return false;
+    }
+    table.checkRow(row);
+    rhs.table.checkRow(rhs.row);
+    //  the equal bean classes have the same properties in the same order
+    for (int slot = 0; slot < descriptors.length; ++slot) {
+      final Column column = table.getColumn(slot);
+      final Column rhsColumn = rhs.table.getColumn(slot);
+      final PrimitiveType type = primitiveTypeOf(slot);
+      if (type == null) {
+        if (! BeanObjects.equal(column.getValue(row),
+            rhsColumn.getValue(rhs.row))) {
+          return false;
+        }
+      } else {
+        final boolean isNull = column.isNullValue(row);
+        if (isNull != rhsColumn.isNullValue(rhs.row)) {
+          return false;
+        }
+        if ((! isNull) && (! BeanObjects.equalBits(type,
+            column.loadBits(row, type), rhsColumn.loadBits(rhs.row, type)))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    table.checkRow(row);
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "beanClass", beanClass, true);
+    BeanObjects.appendField(out, "row", row, false);
+    out.append(",values={");
+    for (int slot = 0; slot < descriptors.length; ++slot) {
+      if (slot > 0) {
+        out.append(',');
+      }
+      final Column column = table.getColumn(slot);
+      final PrimitiveType type = primitiveTypeOf(slot);
+      if ((type == null) || column.isNullValue(row)) {
+        BeanObjects.appendValue(out, column.getValue(row));
+      } else {
+        BeanObjects.appendBits(out, type, column.loadBits(row, type));
+      }
+    }
+    out.append('}');
+    BeanObjects.appendEnd(out);
+  }
+}
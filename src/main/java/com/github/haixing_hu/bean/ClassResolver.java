@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * Resolves the classes by their names, and caches the results for each class
+ * loader.
+ * <p>
+ * The names are resolved by {@link ClassUtils#getClass(ClassLoader, String)}.
+ * Both the resolved classes and the failed lookups are cached, so that
+ * resolving the same name again neither searches the class loader nor
+ * throws the exceptions of the class loader. The caches are weakly associated
+ * with the class loaders and the resolved classes are weakly referenced, so
+ * that the caches do not prevent the class loaders from being unloaded. At
+ * most {@link #MAX_FAILURES} failed lookups are cached for each class loader;
+ * when the limit is reached, the cached failures of the class loader are
+ * discarded.
+ * <p>
+ * Note that a name failed to be resolved is not resolved again even if the
+ * class loader could load it later, e.g., after a class is defined at runtime;
+ * call {@link #forget(String)} or {@link #clear()} in that case.
+ *
+ * @author Haixing Hu
+ */
+@ThreadSafe
+public final class ClassResolver {
+
+  /**
+   * The maximum number of failed lookups cached for each class loader.
+   */
+  public static final int MAX_FAILURES = 1024;
+
+  private static final Map<ClassLoader, LoaderCache> CACHES =
+      new WeakHashMap<>();
+
+  /**
+   * The most recently used cache, which saves locking {@link #CACHES} since
+   * almost all the names are resolved by the same class loader.
+   */
+  private static volatile LoaderCache lastCache;
+
+  /**
+   * The cache of the classes resolved by a class loader.
+   */
+  private static final class LoaderCache {
+    final WeakReference<ClassLoader> loader;
+    final ConcurrentMap<String, WeakReference<Class<?>>> classes =
+        new ConcurrentHashMap<>();
+    final Set<String> failures = Collections.newSetFromMap(
+        new ConcurrentHashMap<String, Boolean>());
+
+    LoaderCache(final ClassLoader loader) {
+      this.loader = new WeakReference<>(loader);
+    }
+  }
+
+  private ClassResolver() { }
+
+  /**
+   * Resolves a class by the context class loader of the current thread, or
+   * the class loader of this library if the current thread has no context
+   * class loader.
+   *
+   * @param name
+   *          the name of a class, which could also be the name of a primitive
+   *          type or an array type as accepted by
+   *          {@link ClassUtils#getClass(ClassLoader, String)}.
+   * @return the resolved class.
+   * @throws ClassNotFoundException
+   *           if the class could not be found.
+   */
+  static Class<?> resolve(final String name) throws ClassNotFoundException {
+    final ClassLoader contextLoader = Thread.currentThread()
+        .getContextClassLoader();
+    return resolve(contextLoader == null ? ClassResolver.class.getClassLoader()
+                                         : contextLoader, name);
+  }
+
+  /**
+   * Resolves a class by a class loader.
+   *
+   * @param loader
+   *          a class loader.
+   * @param name
+   *          the name of a class, which could also be the name of a primitive
+   *          type or an array type as accepted by
+   *          {@link ClassUtils#getClass(ClassLoader, String)}.
+   * @return the resolved class.
+   * @throws ClassNotFoundException
+   *           if the class could not be found.
+   */
+  static Class<?> resolve(final ClassLoader loader, final String name)
+      throws ClassNotFoundException {
+    requireNonNull("loader", loader);
+    requireNonNull("name", name);
+    final LoaderCache cache = getCache(loader);
+    final WeakReference<Class<?>> ref = cache.classes.get(name);
+    final Class<?> cached = (ref == null ? null : ref.get());
+    if (cached != null) {
+      return cached;
+    }
+    if (cache.failures.contains(name)) {
+      throw new ClassNotFoundException(name);
+    }
+    final Class<?> type;
+    try {
+      type = ClassUtils.getClass(loader, name);
+    } catch (final ClassNotFoundException e) {
+      if (cache.failures.size() >= MAX_FAILURES) {
+        cache.failures.clear();
+      }
+      cache.failures.add(name);
+      throw e;
+    }
+    cache.classes.put(name, new WeakReference<Class<?>>(type));
+    return type;
+  }
+
+  private static LoaderCache getCache(final ClassLoader loader) {
+    final LoaderCache last = lastCache;
+    if ((last != null) && (last.loader.get() == loader)) {
+      return last;
+    }
+    LoaderCache cache;
+    synchronized (CACHES) {
+      cache = CACHES.get(loader);
+      if (cache == null) {
+        cache = new LoaderCache(loader);
+        CACHES.put(loader, cache);
+      }
+      lastCache = cache;
+    }
+    return cache;
+  }
+
+  /**
+   * Discards the cached results of a name for all the class loaders, so that
+   * the name is resolved again by the next lookup.
+   *
+   * @param name
+   *          the name of a class.
+   */
+  public static void forget(final String name) {
+    requireNonNull("name", name);
+    synchronized (CACHES) {
+      for (final LoaderCache cache : CACHES.values()) {
+        cache.classes.remove(name);
+        cache.failures.remove(name);
+      }
+    }
+  }
+
+  /**
+   * Clears all the cached results.
+   */
+  public static void clear() {
+    synchronized (CACHES) {
+      CACHES.clear();
+      lastCache = null;
+    }
+  }
+}
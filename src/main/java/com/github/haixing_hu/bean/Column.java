@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A column of a {@link BeanTable}, which stores the values of a property of
+ * all the rows of the table.
+ * <p>
+ * The values of a simple property of the type {@link Integer}, {@link Long} or
+ * {@link Double} are stored in an {@link IntColumn}, a {@link LongColumn} or a
+ * {@link DoubleColumn} respectively; the values of other properties are stored
+ * in an {@link ObjectColumn}.
+ *
+ * @author Haixing Hu
+ */
+@NotThreadSafe
+public abstract class Column {
+
+  protected final BeanTable table;
+  protected final PropertyDescriptor descriptor;
+
+  Column(final BeanTable table, final PropertyDescriptor descriptor) {
+    this.table = table;
+    this.descriptor = descriptor;
+  }
+
+  /**
+   * Creates the column storing the values of a property.
+   *
+   * @param table
+   *          the table.
+   * @param descriptor
+   *          the descriptor of a property.
+   * @param capacity
+   *          the initial capacity of the column.
+   * @return the column storing the values of the specified property.
+   */
+  static Column create(final BeanTable table,
+      final PropertyDescriptor descriptor, final int capacity) {
+    if (descriptor.getKind() == PropertyKind.SIMPLE) {
+      final Class<?> type = descriptor.getType();
+      if (type == Integer.class) {
+        return new IntColumn(table, descriptor, capacity);
+      } else if (type == Long.class) {
+        return new LongColumn(table, descriptor, capacity);
+      } else if (type == Double.class) {
+        return new DoubleColumn(table, descriptor, capacity);
+      }
+    }
+    return new ObjectColumn(table, descriptor, capacity);
+  }
+
+  /**
+   * Gets the table of this column.
+   *
+   * @return the table of this column.
+   */
+  public final BeanTable getTable() {
+    return table;
+  }
+
+  /**
+   * Gets the descriptor of the property stored in this column.
+   *
+   * @return the descriptor of the property stored in this column.
+   */
+  public final PropertyDescriptor getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * Gets the raw value of the property of a row.
+   *
+   * @param row
+   *          the id of a row.
+   * @return the raw value of the property of the specified row, which is the
+   *         list or the map storing the values if the property is indexed or
+   *         mapped.
+   * @throws IndexOutOfBoundsException
+   *           if the row does not exist.
+   */
+  public final Object get(final int row) {
+    table.checkRow(row);
+    return getValue(row);
+  }
+
+  /**
+   * Sets the value of the simple property of a row.
+   *
+   * @param row
+   *          the id of a row.
+   * @param value
+   *          the value to be set, which could be {@code null}.
+   * @throws IndexOutOfBoundsException
+   *           if the row does not exist.
+   * @throws InvalidPropertyKindException
+   *           if the property is not a simple property.
+   * @throws ClassCastException
+   *           if the value is not an instance of the type of the property.
+   */
+  public final void set(final int row, @Nullable final Object value) {
+    table.checkRow(row);
+    if (descriptor.getKind() != PropertyKind.SIMPLE) {
+      throw new InvalidPropertyKindException(descriptor.getName(),
+          descriptor.getKind(), PropertyKind.SIMPLE);
+    }
+    AbstractSlotBean.checkType(descriptor, value);
+    setValue(row, value);
+  }
+
+  /**
+   * Gets the value stored in a row, without checking the row.
+   *
+   * @param row
+   *          the id of an existing row.
+   * @return the value stored in the specified row.
+   */
+  abstract Object getValue(int row);
+
+  /**
+   * Stores a value in a row, without checking the row and the value.
+   *
+   * @param row
+   *          the id of an existing row.
+   * @param value
+   *          the value to be stored.
+   */
+  abstract void setValue(int row, @Nullable Object value);
+
+  /**
+   * Tests whether the value stored in a row is {@code null}, without checking
+   * the row.
+   *
+   * @param row
+   *          the id of an existing row.
+   * @return {@code true} if the value stored in the specified row is
+   *         {@code null}; {@code false} otherwise.
+   */
+  boolean isNullValue(final int row) {
+    return (getValue(row) == null);
+  }
+
+  /**
+   * Gets the bit pattern of the primitive value stored in a row, without
+   * checking the row.
+   *
+   * @param row
+   *          the id of an existing row.
+   * @param type
+   *          the primitive type of the property.
+   * @return the bit pattern of the value stored in the specified row.
+   * @throws NullPointerException
+   *           if the value stored in the specified row is {@code null}.
+   */
+  long loadBits(final int row, final PrimitiveType type) {
+    final Object value = getValue(row);
+    if (value == null) {
+      throw new NullPointerException("The value of the property '"
+          + descriptor.getName() + "' is null.");
+    }
+    return type.toBits(value);
+  }
+
+  /**
+   * Stores the bit pattern of a primitive value in a row, without checking the
+   * row.
+   *
+   * @param row
+   *          the id of an existing row.
+   * @param type
+   *          the primitive type of the property.
+   * @param bits
+   *          the bit pattern of the value to be stored.
+   */
+  void storeBits(final int row, final PrimitiveType type, final long bits) {
+    setValue(row, type.fromBits(bits));
+  }
+
+  /**
+   * Reallocates the storage of this column.
+   *
+   * @param capacity
+   *          the new capacity, which is not less than the number of rows.
+   */
+  abstract void resize(int capacity);
+
+  /**
+   * Initializes the value of a new row.
+   *
+   * @param row
+   *          the id of the new row.
+   */
+  abstract void initRow(int row);
+
+  /**
+   * Releases the values of all rows.
+   */
+  abstract void clear();
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A compact map from strings to objects, which is used to store the values of
+ * the mapped properties.
+ * <p>
+ * A small map stores its keys and values in two parallel arrays, in the order
+ * of insertion, and finds the keys by a linear scan; therefore it does not
+ * allocate any entry object nor hash table. Once the number of keys exceeds
+ * {@link #THRESHOLD}, the entries are moved to a {@link HashMap}. Clearing the
+ * map returns it to the compact representation, and keeps the parallel arrays
+ * already allocated.
+ * <p>
+ * This map does not support the {@code null} keys.
+ *
+ * @author Haixing Hu
+ */
+@NotThreadSafe
+public final class CompactMap extends AbstractMap<String, Object> {
+
+  /**
+   * The maximum number of keys stored in the parallel arrays.
+   */
+  public static final int THRESHOLD = 8;
+
+  private static final int INITIAL_CAPACITY = 2;
+
+  private String[] keys;
+  private Object[] values;
+  private int size;
+  private HashMap<String, Object> map;
+  private int modCount;
+  private Set<Map.Entry<String, Object>> entrySet;
+
+  /**
+   * Constructs an empty {@link CompactMap}.
+   */
+  public CompactMap() {
+    keys = null;
+    values = null;
+    size = 0;
+    map = null;
+    modCount = 0;
+  }
+
+  /**
+   * Constructs a {@link CompactMap} containing the same entries as another
+   * {@link CompactMap}.
+   * <p>
+   * The entries are copied in the representation of the other map, i.e., the
+   * parallel arrays or the hash table are copied directly without inserting
+   * the entries one by one.
+   *
+   * @param other
+   *          another {@link CompactMap}.
+   */
+  public CompactMap(final CompactMap other) {
+    if (other.map != null) {
+      keys = null;
+      values = null;
+      size = 0;
+      map = new HashMap<>(other.map);
+    } else if (other.size == 0) {
+      keys = null;
+      values = null;
+      size = 0;
+      map = null;
+    } else {
+      keys = Arrays.copyOf(other.keys, other.size);
+      values = Arrays.copyOf(other.values, other.size);
+      size = other.size;
+      map = null;
+    }
+    modCount = 0;
+  }
+
+  /**
+   * Tests whether the entries of this map are stored in a hash table.
+   *
+   * @return {@code true} if the entries of this map are stored in a hash
+   *         table; {@code false} if they are stored in the parallel arrays.
+   */
+  boolean isHashed() {
+    return (map != null);
+  }
+
+  /**
+   * Gets the key stored at an index of the parallel arrays.
+   *
+   * @param index
+   *          an index less than the size of this map, which must not be
+   *          stored in a hash table.
+   * @return the key stored at the specified index.
+   */
+  String keyAt(final int index) {
+    return keys[index];
+  }
+
+  /**
+   * Gets the value stored at an index of the parallel arrays.
+   *
+   * @param index
+   *          an index less than the size of this map, which must not be
+   *          stored in a hash table.
+   * @return the value stored at the specified index.
+   */
+  Object valueAt(final int index) {
+    return values[index];
+  }
+
+  private int indexOf(final Object key) {
+    final String[] k = keys;
+    for (int i = 0; i < size; ++i) {
+      if (k[i].equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int size() {
+    return (map == null ? size : map.size());
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return (size() == 0);
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    if (map != null) {
+      return map.containsKey(key);
+    } else {
+      return (indexOf(key) >= 0);
+    }
+  }
+
+  @Override
+  public Object get(final Object key) {
+    if (map != null) {
+      return map.get(key);
+    }
+    final int index = indexOf(key);
+    return (index < 0 ? null : values[index]);
+  }
+
+  @Override
+  public Object put(final String key, @Nullable final Object value) {
+    if (key == null) {
+      throw new NullPointerException("key is null.");
+    }
+    if (map != null) {
+      return map.put(key, value);
+    }
+    final int index = indexOf(key);
+    if (index >= 0) {
+      final Object old = values[index];
+      values[index] = value;
+      return old;
+    }
+    if (size == THRESHOLD) {
+      map = new HashMap<>();
+      for (int i = 0; i < size; ++i) {
+        map.put(keys[i], values[i]);
+      }
+      map.put(key, value);
+      keys = null;
+      values = null;
+      size = 0;
+      ++modCount;
+      return null;
+    }
+    if (keys == null) {
+      keys = new String[INITIAL_CAPACITY];
+      values = new Object[INITIAL_CAPACITY];
+    } else if (size == keys.length) {
+      final int capacity = Math.min(size * 2, THRESHOLD);
+      keys = Arrays.copyOf(keys, capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+    keys[size] = key;
+    values[size] = value;
+    ++size;
+    ++modCount;
+    return null;
+  }
+
+  @Override
+  public Object remove(final Object key) {
+    if (map != null) {
+      return map.remove(key);
+    }
+    final int index = indexOf(key);
+    if (index < 0) {
+      return null;
+    }
+    final Object old = values[index];
+    removeAt(index);
+    return old;
+  }
+
+  private void removeAt(final int index) {
+    final int moved = size - index - 1;
+    if (moved > 0) {
+      System.arraycopy(keys, index + 1, keys, index, moved);
+      System.arraycopy(values, index + 1, values, index, moved);
+    }
+    --size;
+    keys[size] = null;
+    values[size] = null;
+    ++modCount;
+  }
+
+  @Override
+  public void clear() {
+    if (map != null) {
+      map = null;
+      ++modCount;
+    } else if (size > 0) {
+      Arrays.fill(keys, 0, size, null);
+      Arrays.fill(values, 0, size, null);
+      size = 0;
+      ++modCount;
+    }
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new EntrySet();
+    }
+    return entrySet;
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+    @Override
+    public Iterator<Map.Entry<String, Object>> iterator() {
+      if (map != null) {
+        return map.entrySet().iterator();
+      } else {
+        return new EntryIterator();
+      }
+    }
+
+    @Override
+    public int size() {
+      return CompactMap.this.size();
+    }
+
+    @Override
+    public void clear() {
+      CompactMap.this.clear();
+    }
+  }
+
+  private final class EntryIterator implements
+      Iterator<Map.Entry<String, Object>> {
+
+    private int next = 0;
+    private int last = -1;
+    private int expectedModCount = modCount;
+
+    @Override
+    public boolean hasNext() {
+      return (next < size);
+    }
+
+    @Override
+    public Map.Entry<String, Object> next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (next >= size) {
+        throw new NoSuchElementException();
+      }
+      last = next++;
+      return new Entry(last);
+    }
+
+    @Override
+    public void remove() {
+      if (last < 0) {
+        throw new IllegalStateException();
+      }
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      removeAt(last);
+      next = last;
+      last = -1;
+      expectedModCount = modCount;
+    }
+  }
+
+  private final class Entry implements Map.Entry<String, Object> {
+
+    private final int index;
+
+    Entry(final int index) {
+      this.index = index;
+    }
+
+    @Override
+    public String getKey() {
+      return keys[index];
+    }
+
+    @Override
+    public Object getValue() {
+      return values[index];
+    }
+
+    @Override
+    public Object setValue(@Nullable final Object value) {
+      final Object old = values[index];
+      values[index] = value;
+      return old;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (! (obj instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> rhs = (Map.Entry<?, ?>) obj;
+      final Object value = values[index];
+      return keys[index].equals(rhs.getKey())
+          && (value == null ? rhs.getValue() == null
+                            : value.equals(rhs.getValue()));
+    }
+
+    @Override
+    public int hashCode() {
+      final Object value = values[index];
+      return keys[index].hashCode() ^ (value == null ? 0 : value.hashCode());
+    }
+
+    @Override
+    public String toString() {
+      return keys[index] + "=" + values[index];
+    }
+  }
+}
@@ -0,0 +1,1190 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * A thread-safe implementation of the {@link SlotBean} interface.
+ * <p>
+ * The properties of the bean are guarded by an array of read-write locks, and
+ * the property in a slot is guarded by the lock {@code slot % stripes}. By
+ * default there is one lock for each property, so that the writers updating
+ * different properties of the same bean never block each other, and the
+ * readers of a property never block each other. The number of locks could be
+ * reduced by the {@link #ConcurrentBean(BeanClass, int)} constructor, in order
+ * to save the memory of the beans with many properties.
+ * <p>
+ * Each function accessing a single property holds the lock of the property
+ * during the whole operation, including the checking of the kind and type of
+ * the property and the marking of the dirty flag; therefore each function is
+ * linearizable. The functions accessing all properties, e.g.,
+ * {@link #reset()}, {@link #setAll(Object[])},
+ * {@link #forEach(PropertyVisitor)} and {@link #equals(Object)}, acquire all
+ * locks in ascending order.
+ * <p>
+ * The values of the indexed and mapped properties are stored in the same
+ * primitive lists and compact maps as the other beans, which are guarded by
+ * the locks of their properties and never leave them. Therefore, unlike the
+ * other beans, the lists and maps returned by {@link #getRawValue(int)},
+ * {@link #getAll(Object[])} and by the {@link Property} objects, e.g.,
+ * {@link Property#getIndexedValue()}, are snapshots taken with the locks held:
+ * they could be iterated while other threads modify the bean, but modifying
+ * them does not change the bean. The key sets returned by
+ * {@link #getKeySet(int)} are immutable snapshots as well.
+ * <p>
+ * The {@link PropertyVisitor} passed to {@link #forEach(PropertyVisitor)} is
+ * called with the read locks held, and therefore must not modify the bean.
+ *
+ * @author Haixing Hu
+ */
+@ThreadSafe
+public final class ConcurrentBean implements SlotBean, ToStringAppendable {
+
+  private final BeanClass beanClass;
+  private final PropertyDescriptor[] descriptors;
+  private final Storage storage;
+  private final ReentrantReadWriteLock[] locks;
+
+  /**
+   * The bitset of the slots of the dirty properties. A bit is set while the
+   * lock of its property is held, but different properties may share a word.
+   */
+  private final AtomicLongArray dirty;
+
+  /**
+   * Constructs a {@link ConcurrentBean} with one lock for each property.
+   *
+   * @param beanClass
+   *          the class of the bean.
+   */
+  public ConcurrentBean(final BeanClass beanClass) {
+    this(new Storage(requireNonNull("beanClass", beanClass)),
+        Math.max(1, beanClass.getPropertyDescriptors().length));
+  }
+
+  /**
+   * Constructs a {@link ConcurrentBean} with the specified number of locks.
+   *
+   * @param beanClass
+   *          the class of the bean.
+   * @param stripes
+   *          the number of locks guarding the properties, which will be
+   *          limited to the number of properties.
+   * @throws IllegalArgumentException
+   *           if {@code stripes} is not positive.
+   */
+  public ConcurrentBean(final BeanClass beanClass, final int stripes) {
+    this(new Storage(requireNonNull("beanClass", beanClass)), stripes);
+  }
+
+  private ConcurrentBean(final Storage storage, final int stripes) {
+    if (stripes <= 0) {
+      throw new IllegalArgumentException("The number of stripes must be "
+          + "positive: " + stripes);
+    }
+    this.storage = storage;
+    beanClass = storage.getBeanClass();
+    descriptors = beanClass.getPropertyDescriptors();
+    locks = new ReentrantReadWriteLock[Math.max(1,
+        Math.min(stripes, descriptors.length))];
+    for (int i = 0; i < locks.length; ++i) {
+      locks[i] = new ReentrantReadWriteLock();
+    }
+    dirty = new AtomicLongArray((descriptors.length + 63) >>> 6);
+  }
+
+  /**
+   * Gets the number of locks guarding the properties of this bean.
+   *
+   * @return the number of locks guarding the properties of this bean.
+   */
+  public int getStripes() {
+    return locks.length;
+  }
+
+  private int slotOf(final String name) {
+    requireNonNull("name", name);
+    final int slot = beanClass.getPropertyIndex(name);
+    if (slot < 0) {
+      throw new PropertyNotExistException(name);
+    }
+    return slot;
+  }
+
+  private ReentrantReadWriteLock lockOf(final int slot) {
+    if ((slot < 0) || (slot >= descriptors.length)) {
+      throw new IndexOutOfBoundsException("Invalid slot: " + slot);
+    }
+    return locks[slot % locks.length];
+  }
+
+  private Lock readLock(final int slot) {
+    return lockOf(slot).readLock();
+  }
+
+  private Lock writeLock(final int slot) {
+    return lockOf(slot).writeLock();
+  }
+
+  private void lockAll(final boolean write) {
+    for (final ReentrantReadWriteLock lock : locks) {
+      (write ? lock.writeLock() : lock.readLock()).lock();
+    }
+  }
+
+  private void unlockAll(final boolean write) {
+    for (int i = locks.length - 1; i >= 0; --i) {
+      (write ? locks[i].writeLock() : locks[i].readLock()).unlock();
+    }
+  }
+
+  private void markDirty(final int slot) {
+    final int word = slot >>> 6;
+    final long bit = 1L << slot;
+    for (;;) {
+      final long old = dirty.get(word);
+      if (((old & bit) != 0) || dirty.compareAndSet(word, old, old | bit)) {
+        return;
+      }
+    }
+  }
+
+  @Override
+  public BeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  @Override
+  public Property getProperty(final String name) {
+    requireNonNull("name", name);
+    final int slot = beanClass.getPropertyIndex(name);
+    return (slot < 0 ? null : new SlotProperty(this, slot));
+  }
+
+  @Override
+  public Property getProperty(final int slot) {
+    if ((slot < 0) || (slot >= descriptors.length)) {
+      throw new IndexOutOfBoundsException("Invalid slot: " + slot);
+    }
+    return new SlotProperty(this, slot);
+  }
+
+  /**
+   * Gets the raw value of a property.
+   * <p>
+   * The value of an indexed or mapped property is a snapshot of its list or
+   * map, which is not changed by the later modifications of this bean, and
+   * vice versa.
+   *
+   * @param slot
+   *          the slot of a property.
+   * @return the raw value of the property, or a copy of its list or map.
+   * @throws IndexOutOfBoundsException
+   *           if the slot is invalid.
+   */
+  @Override
+  public Object getRawValue(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return BeanCopier.copyValue(descriptors[slot],
+          storage.getRawValue(slot), false);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setRawValue(final int slot, @Nullable final Object value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setRawValue(slot, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Object get(final String name) {
+    return get(slotOf(name));
+  }
+
+  @Override
+  public Object get(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.get(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void set(final String name, @Nullable final Object value) {
+    set(slotOf(name), value);
+  }
+
+  @Override
+  public void set(final int slot, @Nullable final Object value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.set(slot, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean getBoolean(final String name) {
+    return getBoolean(slotOf(name));
+  }
+
+  @Override
+  public boolean getBoolean(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getBoolean(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setBoolean(final String name, final boolean value) {
+    setBoolean(slotOf(name), value);
+  }
+
+  @Override
+  public void setBoolean(final int slot, final boolean value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setBoolean(slot, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public byte getByte(final String name) {
+    return getByte(slotOf(name));
+  }
+
+  @Override
+  public byte getByte(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getByte(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setByte(final String name, final byte value) {
+    setByte(slotOf(name), value);
+  }
+
+  @Override
+  public void setByte(final int slot, final byte value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setByte(slot, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public short getShort(final String name) {
+    return getShort(slotOf(name));
+  }
+
+  @Override
+  public short getShort(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getShort(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setShort(final String name, final short value) {
+    setShort(slotOf(name), value);
+  }
+
+  @Override
+  public void setShort(final int slot, final short value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setShort(slot, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int getInt(final String name) {
+    return getInt(slotOf(name));
+  }
+
+  @Override
+  public int getInt(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getInt(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setInt(final String name, final int value) {
+    setInt(slotOf(name), value);
+  }
+
+  @Override
+  public void setInt(final int slot, final int value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setInt(slot, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long getLong(final String name) {
+    return getLong(slotOf(name));
+  }
+
+  @Override
+  public long getLong(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getLong(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setLong(final String name, final long value) {
+    setLong(slotOf(name), value);
+  }
+
+  @Override
+  public void setLong(final int slot, final long value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setLong(slot, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public float getFloat(final String name) {
+    return getFloat(slotOf(name));
+  }
+
+  @Override
+  public float getFloat(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getFloat(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setFloat(final String name, final float value) {
+    setFloat(slotOf(name), value);
+  }
+
+  @Override
+  public void setFloat(final int slot, final float value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setFloat(slot, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public double getDouble(final String name) {
+    return getDouble(slotOf(name));
+  }
+
+  @Override
+  public double getDouble(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getDouble(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setDouble(final String name, final double value) {
+    setDouble(slotOf(name), value);
+  }
+
+  @Override
+  public void setDouble(final int slot, final double value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setDouble(slot, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int getSize(final String name) {
+    return getSize(slotOf(name));
+  }
+
+  @Override
+  public int getSize(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getSize(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Object get(final String name, final int index) {
+    return get(slotOf(name), index);
+  }
+
+  @Override
+  public Object get(final int slot, final int index) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.get(slot, index);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void set(final String name, final int index,
+      @Nullable final Object value) {
+    set(slotOf(name), index, value);
+  }
+
+  @Override
+  public void set(final int slot, final int index,
+      @Nullable final Object value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.set(slot, index, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void add(final String name, final int index,
+      @Nullable final Object value) {
+    add(slotOf(name), index, value);
+  }
+
+  @Override
+  public void add(final int slot, final int index,
+      @Nullable final Object value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.add(slot, index, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void add(final String name, @Nullable final Object value) {
+    add(slotOf(name), value);
+  }
+
+  @Override
+  public void add(final int slot, @Nullable final Object value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.add(slot, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Object remove(final String name, final int index) {
+    return remove(slotOf(name), index);
+  }
+
+  @Override
+  public Object remove(final int slot, final int index) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      final Object result = storage.remove(slot, index);
+      markDirty(slot);
+      return result;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int getInt(final String name, final int index) {
+    return getInt(slotOf(name), index);
+  }
+
+  @Override
+  public int getInt(final int slot, final int index) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getInt(slot, index);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setInt(final String name, final int index, final int value) {
+    setInt(slotOf(name), index, value);
+  }
+
+  @Override
+  public void setInt(final int slot, final int index, final int value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setInt(slot, index, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void addInt(final String name, final int value) {
+    addInt(slotOf(name), value);
+  }
+
+  @Override
+  public void addInt(final int slot, final int value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.addInt(slot, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int[] getIntArray(final String name) {
+    return getIntArray(slotOf(name));
+  }
+
+  @Override
+  public int[] getIntArray(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getIntArray(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setIntArray(final String name, final int[] values) {
+    setIntArray(slotOf(name), values);
+  }
+
+  @Override
+  public void setIntArray(final int slot, final int[] values) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setIntArray(slot, values);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long getLong(final String name, final int index) {
+    return getLong(slotOf(name), index);
+  }
+
+  @Override
+  public long getLong(final int slot, final int index) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getLong(slot, index);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setLong(final String name, final int index, final long value) {
+    setLong(slotOf(name), index, value);
+  }
+
+  @Override
+  public void setLong(final int slot, final int index, final long value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setLong(slot, index, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void addLong(final String name, final long value) {
+    addLong(slotOf(name), value);
+  }
+
+  @Override
+  public void addLong(final int slot, final long value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.addLong(slot, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long[] getLongArray(final String name) {
+    return getLongArray(slotOf(name));
+  }
+
+  @Override
+  public long[] getLongArray(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getLongArray(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setLongArray(final String name, final long[] values) {
+    setLongArray(slotOf(name), values);
+  }
+
+  @Override
+  public void setLongArray(final int slot, final long[] values) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setLongArray(slot, values);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public double getDouble(final String name, final int index) {
+    return getDouble(slotOf(name), index);
+  }
+
+  @Override
+  public double getDouble(final int slot, final int index) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getDouble(slot, index);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setDouble(final String name, final int index,
+      final double value) {
+    setDouble(slotOf(name), index, value);
+  }
+
+  @Override
+  public void setDouble(final int slot, final int index, final double value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setDouble(slot, index, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void addDouble(final String name, final double value) {
+    addDouble(slotOf(name), value);
+  }
+
+  @Override
+  public void addDouble(final int slot, final double value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.addDouble(slot, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public double[] getDoubleArray(final String name) {
+    return getDoubleArray(slotOf(name));
+  }
+
+  @Override
+  public double[] getDoubleArray(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.getDoubleArray(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setDoubleArray(final String name, final double[] values) {
+    setDoubleArray(slotOf(name), values);
+  }
+
+  @Override
+  public void setDoubleArray(final int slot, final double[] values) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.setDoubleArray(slot, values);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Set<String> getKeySet(final String name) {
+    return getKeySet(slotOf(name));
+  }
+
+  @Override
+  public Set<String> getKeySet(final int slot) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return Collections.unmodifiableSet(
+          new LinkedHashSet<>(storage.getKeySet(slot)));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean containsKey(final String name, final String key) {
+    requireNonNull("key", key);
+    return containsKey(slotOf(name), key);
+  }
+
+  @Override
+  public boolean containsKey(final int slot, final String key) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.containsKey(slot, key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Object get(final String name, final String key) {
+    requireNonNull("key", key);
+    return get(slotOf(name), key);
+  }
+
+  @Override
+  public Object get(final int slot, final String key) {
+    final Lock lock = readLock(slot);
+    lock.lock();
+    try {
+      return storage.get(slot, key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void set(final String name, final String key,
+      @Nullable final Object value) {
+    requireNonNull("key", key);
+    set(slotOf(name), key, value);
+  }
+
+  @Override
+  public void set(final int slot, final String key,
+      @Nullable final Object value) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      storage.set(slot, key, value);
+      markDirty(slot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Object remove(final String name, final String key) {
+    requireNonNull("key", key);
+    return remove(slotOf(name), key);
+  }
+
+  @Override
+  public Object remove(final int slot, final String key) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      final int size = storage.getSize(slot);
+      final Object result = storage.remove(slot, key);
+      if (storage.getSize(slot) != size) {
+        markDirty(slot);
+      }
+      return result;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear(final String name) {
+    clear(slotOf(name));
+  }
+
+  @Override
+  public void clear(final int slot) {
+    final Lock lock = writeLock(slot);
+    lock.lock();
+    try {
+      if (storage.getSize(slot) != 0) {
+        storage.clear(slot);
+        markDirty(slot);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void reset() {
+    lockAll(true);
+    try {
+      storage.reset();
+      for (int i = 0; i < dirty.length(); ++i) {
+        dirty.set(i, 0);
+      }
+    } finally {
+      unlockAll(true);
+    }
+  }
+
+  @Override
+  public void setAll(final Object[] values) {
+    requireNonNull("values", values);
+    if (values.length != descriptors.length) {
+      throw new IllegalArgumentException("The bean has " + descriptors.length
+          + " properties, but " + values.length + " values are provided.");
+    }
+    lockAll(true);
+    try {
+      for (int slot = 0; slot < values.length; ++slot) {
+        storage.setRawValue(slot, values[slot]);
+        markDirty(slot);
+      }
+    } finally {
+      unlockAll(true);
+    }
+  }
+
+  /**
+   * Gets the raw values of all properties of this bean, taken at the same
+   * time.
+   * <p>
+   * The values of the indexed and mapped properties are snapshots of their
+   * lists and maps, as returned by {@link #getRawValue(int)}.
+   *
+   * @param values
+   *          the array to store the raw values of the properties of this bean.
+   * @throws NullPointerException
+   *           if {@code values} is {@code null}.
+   * @throws IllegalArgumentException
+   *           if the length of {@code values} is not the number of properties
+   *           of this bean.
+   */
+  @Override
+  public void getAll(final Object[] values) {
+    lockAll(false);
+    try {
+      storage.getAll(values);
+      for (int slot = 0; slot < values.length; ++slot) {
+        values[slot] = BeanCopier.copyValue(descriptors[slot], values[slot],
+            false);
+      }
+    } finally {
+      unlockAll(false);
+    }
+  }
+
+  @Override
+  public Bean copy() {
+    return copy(false);
+  }
+
+  @Override
+  public Bean deepCopy() {
+    return copy(true);
+  }
+
+  private Bean copy(final boolean deep) {
+    final Storage copied;
+    lockAll(false);
+    try {
+      copied = storage.copy(deep);
+    } finally {
+      unlockAll(false);
+    }
+    return new ConcurrentBean(copied, locks.length);
+  }
+
+  @Override
+  public void forEach(final PropertyVisitor visitor) {
+    requireNonNull("visitor", visitor);
+    lockAll(false);
+    try {
+      storage.forEach(visitor);
+    } finally {
+      unlockAll(false);
+    }
+  }
+
+  @Override
+  public BitSet getDirtyProperties() {
+    final long[] words = new long[dirty.length()];
+    lockAll(false);
+    try {
+      for (int i = 0; i < words.length; ++i) {
+        words[i] = dirty.get(i);
+      }
+    } finally {
+      unlockAll(false);
+    }
+    return BitSet.valueOf(words);
+  }
+
+  @Override
+  public void clearDirty() {
+    lockAll(true);
+    try {
+      for (int i = 0; i < dirty.length(); ++i) {
+        dirty.set(i, 0);
+      }
+    } finally {
+      unlockAll(true);
+    }
+  }
+
+  /**
+   * Takes a consistent snapshot of the values of this bean, where the lists
+   * and maps are copied.
+   *
+   * @return the snapshot of the values of this bean.
+   */
+  private Object[] snapshot() {
+    final Object[] values = new Object[descriptors.length];
+    getAll(values);
+    return values;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * beanClass.hashCode() + Arrays.hashCode(snapshot());
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj == null) {
+      return false;
+    }
+    if (obj == this) {
+      return true;
+    }
+    if (obj.getClass() != getClass()) {
+      return false;
+    }
+    final ConcurrentBean rhs = (ConcurrentBean) obj;
+    //  the snapshots are taken one after another, so that the locks of two
+    //  beans are never held at the same time
+    return beanClass.equals(rhs.beanClass)
+        && Arrays.equals(snapshot(), rhs.snapshot());
+  }
+
+  /**
+   * Writes the string representation of this bean, which is the same as
+   * the string returned by {@link #toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    final Object[] values = snapshot();
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "beanClass", beanClass, true);
+    out.append(",values={");
+    for (int i = 0; i < values.length; ++i) {
+      if (i > 0) {
+        out.append(',');
+      }
+      BeanObjects.appendValue(out, values[i]);
+    }
+    out.append('}');
+    BeanObjects.appendEnd(out);
+  }
+
+  @Override
+  public String toString() {
+    return BeanObjects.toString(this);
+  }
+
+  /**
+   * The storage of the values of a {@link ConcurrentBean}, which is only
+   * accessed with the locks of the properties held.
+   * <p>
+   * The indexed and mapped properties are stored in the primitive lists and
+   * compact maps guarded by those locks. The storage does not track the dirty
+   * properties, which are tracked by the {@link ConcurrentBean} itself.
+   */
+  private static final class Storage extends AbstractSlotBean {
+
+    private final Object[] values;
+
+    Storage(final BeanClass beanClass) {
+      super(beanClass, false);
+      values = new Object[descriptors.length];
+      for (int i = 0; i < descriptors.length; ++i) {
+        values[i] = newValue(descriptors[i]);
+      }
+    }
+
+    @Override
+    protected Object getValue(final int slot) {
+      return values[slot];
+    }
+
+    @Override
+    protected void setValue(final int slot, @Nullable final Object value) {
+      values[slot] = value;
+    }
+
+    @Override
+    protected Storage copy(final boolean deep) {
+      final Storage result = new Storage(beanClass);
+      for (int slot = 0; slot < descriptors.length; ++slot) {
+        result.copySlot(this, slot, deep);
+      }
+      return result;
+    }
+  }
+}
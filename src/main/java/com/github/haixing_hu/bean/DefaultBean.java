@@ -16,27 +16,37 @@
  */
 package com.github.haixing_hu.bean;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nullable;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-
 import static com.github.haixing_hu.lang.Argument.requireNonNull;
 
 /**
  * A default implementation of {@link Bean} interface.
+ * <p>
+ * The properties of a {@link DefaultBean} could also be addressed by their
+ * slots, as it implements the {@link SlotBean} interface.
  *
  * @author Haixing Hu
  */
-public class DefaultBean implements Bean {
+public class DefaultBean implements SlotBean, ToStringAppendable {
 
   private final BeanClass beanClass;
   private final Map<String, Property> properties;
+  private final DefaultProperty[] propertyArray;
+
+  /**
+   * The bitset of the slots of the dirty properties, which is allocated on the
+   * first write.
+   */
+  private long[] dirty;
 
   /**
    * Constructs a {@link DefaultBean}.
@@ -47,9 +57,12 @@ public class DefaultBean implements Bean {
   public DefaultBean(final BeanClass beanClass) {
     this.beanClass = requireNonNull("beanClass", beanClass);
     properties = new HashMap<>();
-    for (final PropertyDescriptor pd : beanClass.getPropertyDescriptors()) {
-      final Property property = new DefaultProperty(pd);
+    final PropertyDescriptor[] descriptors = beanClass.getPropertyDescriptors();
+    propertyArray = new DefaultProperty[descriptors.length];
+    for (int i = 0; i < descriptors.length; ++i) {
+      final DefaultProperty property = new DefaultProperty(descriptors[i]);
       properties.put(property.getName(), property);
+      propertyArray[i] = property;
     }
   }
 
@@ -65,117 +78,478 @@ public class DefaultBean implements Bean {
   }
 
   @Override
-  public final Object get(final String name) {
+  public final Property getProperty(final int slot) {
+    if ((slot < 0) || (slot >= propertyArray.length)) {
+      throw new IndexOutOfBoundsException("Invalid slot: " + slot);
+    }
+    return propertyArray[slot];
+  }
+
+  /**
+   * Gets the slot of an existing property.
+   *
+   * @param name
+   *          the name of a property.
+   * @return the slot of the property with the specified name.
+   * @throws NullPointerException
+   *           if {@code name} is {@code null}.
+   * @throws PropertyNotExistException
+   *           if the specified property does not exist.
+   */
+  private int getExistSlot(final String name) {
     requireNonNull("name", name);
-    final Property property = properties.get(name);
-    if (property == null) {
+    final int slot = beanClass.getPropertyIndex(name);
+    if (slot < 0) {
       throw new PropertyNotExistException(name);
     }
-    return property.getSimpleValue();
+    return slot;
+  }
+
+  @Override
+  public final Object getRawValue(final int slot) {
+    return propertyArray[slot].getRawValue();
+  }
+
+  @Override
+  public final void setRawValue(final int slot, @Nullable final Object value) {
+    propertyArray[slot].setRawValue(value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final Object get(final String name) {
+    return get(getExistSlot(name));
+  }
+
+  @Override
+  public final Object get(final int slot) {
+    return propertyArray[slot].getSimpleValue();
   }
 
   @Override
   public final void set(final String name, @Nullable final Object value) {
-    requireNonNull("name", name);
-    final Property property = properties.get(name);
-    if (property == null) {
-      throw new PropertyNotExistException(name);
-    }
-    property.setSimpleValue(value);
+    set(getExistSlot(name), value);
+  }
+
+  @Override
+  public final void set(final int slot, @Nullable final Object value) {
+    propertyArray[slot].setSimpleValue(value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final boolean getBoolean(final String name) {
+    return getBoolean(getExistSlot(name));
+  }
+
+  @Override
+  public final boolean getBoolean(final int slot) {
+    return propertyArray[slot].getBooleanValue();
+  }
+
+  @Override
+  public final void setBoolean(final String name, final boolean value) {
+    setBoolean(getExistSlot(name), value);
+  }
+
+  @Override
+  public final void setBoolean(final int slot, final boolean value) {
+    propertyArray[slot].setBooleanValue(value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final byte getByte(final String name) {
+    return getByte(getExistSlot(name));
+  }
+
+  @Override
+  public final byte getByte(final int slot) {
+    return propertyArray[slot].getByteValue();
+  }
+
+  @Override
+  public final void setByte(final String name, final byte value) {
+    setByte(getExistSlot(name), value);
+  }
+
+  @Override
+  public final void setByte(final int slot, final byte value) {
+    propertyArray[slot].setByteValue(value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final short getShort(final String name) {
+    return getShort(getExistSlot(name));
+  }
+
+  @Override
+  public final short getShort(final int slot) {
+    return propertyArray[slot].getShortValue();
+  }
+
+  @Override
+  public final void setShort(final String name, final short value) {
+    setShort(getExistSlot(name), value);
+  }
+
+  @Override
+  public final void setShort(final int slot, final short value) {
+    propertyArray[slot].setShortValue(value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final int getInt(final String name) {
+    return getInt(getExistSlot(name));
+  }
+
+  @Override
+  public final int getInt(final int slot) {
+    return propertyArray[slot].getIntValue();
+  }
+
+  @Override
+  public final void setInt(final String name, final int value) {
+    setInt(getExistSlot(name), value);
+  }
+
+  @Override
+  public final void setInt(final int slot, final int value) {
+    propertyArray[slot].setIntValue(value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final long getLong(final String name) {
+    return getLong(getExistSlot(name));
+  }
+
+  @Override
+  public final long getLong(final int slot) {
+    return propertyArray[slot].getLongValue();
+  }
+
+  @Override
+  public final void setLong(final String name, final long value) {
+    setLong(getExistSlot(name), value);
+  }
+
+  @Override
+  public final void setLong(final int slot, final long value) {
+    propertyArray[slot].setLongValue(value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final float getFloat(final String name) {
+    return getFloat(getExistSlot(name));
+  }
+
+  @Override
+  public final float getFloat(final int slot) {
+    return propertyArray[slot].getFloatValue();
+  }
+
+  @Override
+  public final void setFloat(final String name, final float value) {
+    setFloat(getExistSlot(name), value);
+  }
+
+  @Override
+  public final void setFloat(final int slot, final float value) {
+    propertyArray[slot].setFloatValue(value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final double getDouble(final String name) {
+    return getDouble(getExistSlot(name));
+  }
+
+  @Override
+  public final double getDouble(final int slot) {
+    return propertyArray[slot].getDoubleValue();
+  }
+
+  @Override
+  public final void setDouble(final String name, final double value) {
+    setDouble(getExistSlot(name), value);
+  }
+
+  @Override
+  public final void setDouble(final int slot, final double value) {
+    propertyArray[slot].setDoubleValue(value);
+    markDirty(slot);
   }
 
   @Override
   public final int getSize(final String name) {
-    requireNonNull("name", name);
-    final Property property = properties.get(name);
-    if (property == null) {
-      throw new PropertyNotExistException(name);
-    }
-    return property.getSize();
+    return getSize(getExistSlot(name));
+  }
+
+  @Override
+  public final int getSize(final int slot) {
+    return propertyArray[slot].getSize();
   }
 
   @Override
   public final Object get(final String name, final int index) {
-    requireNonNull("name", name);
-    final Property property = properties.get(name);
-    if (property == null) {
-      throw new PropertyNotExistException(name);
-    }
-    return property.getIndexedValue(index);
+    return get(getExistSlot(name), index);
+  }
+
+  @Override
+  public final Object get(final int slot, final int index) {
+    return propertyArray[slot].getIndexedValue(index);
   }
 
   @Override
   public final void set(final String name, final int index,
       @Nullable final Object value) {
-    requireNonNull("name", name);
-    final Property property = properties.get(name);
-    if (property == null) {
-      throw new PropertyNotExistException(name);
-    }
-    property.setIndexedValue(index, value);
+    set(getExistSlot(name), index, value);
+  }
+
+  @Override
+  public final void set(final int slot, final int index,
+      @Nullable final Object value) {
+    propertyArray[slot].setIndexedValue(index, value);
+    markDirty(slot);
   }
 
   @Override
   public final void add(final String name, final int index,
       @Nullable final Object value) {
-    requireNonNull("name", name);
-    final Property property = properties.get(name);
-    if (property == null) {
-      throw new PropertyNotExistException(name);
-    }
-    property.addIndexedValue(index, value);
+    add(getExistSlot(name), index, value);
+  }
+
+  @Override
+  public final void add(final int slot, final int index,
+      @Nullable final Object value) {
+    propertyArray[slot].addIndexedValue(index, value);
+    markDirty(slot);
   }
 
   @Override
   public final void add(final String name, @Nullable final Object value) {
-    requireNonNull("name", name);
-    final Property property = properties.get(name);
-    if (property == null) {
-      throw new PropertyNotExistException(name);
-    }
-    property.addIndexedValue(value);
+    add(getExistSlot(name), value);
+  }
+
+  @Override
+  public final void add(final int slot, @Nullable final Object value) {
+    propertyArray[slot].addIndexedValue(value);
+    markDirty(slot);
   }
 
   @Override
   public final Object remove(final String name, final int index) {
-    requireNonNull("name", name);
-    final Property property = properties.get(name);
-    if (property == null) {
-      throw new PropertyNotExistException(name);
-    }
-    return property.removeIndexedValue(index);
+    return remove(getExistSlot(name), index);
+  }
+
+  @Override
+  public final Object remove(final int slot, final int index) {
+    final Object result = propertyArray[slot].removeIndexedValue(index);
+    markDirty(slot);
+    return result;
+  }
+
+  @Override
+  public final int getInt(final String name, final int index) {
+    return getInt(getExistSlot(name), index);
+  }
+
+  @Override
+  public final int getInt(final int slot, final int index) {
+    return propertyArray[slot].getIntValue(index);
+  }
+
+  @Override
+  public final void setInt(final String name, final int index,
+      final int value) {
+    setInt(getExistSlot(name), index, value);
+  }
+
+  @Override
+  public final void setInt(final int slot, final int index, final int value) {
+    propertyArray[slot].setIntValue(index, value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final void addInt(final String name, final int value) {
+    addInt(getExistSlot(name), value);
+  }
+
+  @Override
+  public final void addInt(final int slot, final int value) {
+    propertyArray[slot].addIntValue(value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final int[] getIntArray(final String name) {
+    return getIntArray(getExistSlot(name));
+  }
+
+  @Override
+  public final int[] getIntArray(final int slot) {
+    return propertyArray[slot].getIntArrayValue();
+  }
+
+  @Override
+  public final void setIntArray(final String name, final int[] values) {
+    setIntArray(getExistSlot(name), values);
+  }
+
+  @Override
+  public final void setIntArray(final int slot, final int[] values) {
+    propertyArray[slot].setIntArrayValue(values);
+    markDirty(slot);
+  }
+
+  @Override
+  public final long getLong(final String name, final int index) {
+    return getLong(getExistSlot(name), index);
+  }
+
+  @Override
+  public final long getLong(final int slot, final int index) {
+    return propertyArray[slot].getLongValue(index);
+  }
+
+  @Override
+  public final void setLong(final String name, final int index,
+      final long value) {
+    setLong(getExistSlot(name), index, value);
+  }
+
+  @Override
+  public final void setLong(final int slot, final int index, final long value) {
+    propertyArray[slot].setLongValue(index, value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final void addLong(final String name, final long value) {
+    addLong(getExistSlot(name), value);
+  }
+
+  @Override
+  public final void addLong(final int slot, final long value) {
+    propertyArray[slot].addLongValue(value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final long[] getLongArray(final String name) {
+    return getLongArray(getExistSlot(name));
+  }
+
+  @Override
+  public final long[] getLongArray(final int slot) {
+    return propertyArray[slot].getLongArrayValue();
+  }
+
+  @Override
+  public final void setLongArray(final String name, final long[] values) {
+    setLongArray(getExistSlot(name), values);
+  }
+
+  @Override
+  public final void setLongArray(final int slot, final long[] values) {
+    propertyArray[slot].setLongArrayValue(values);
+    markDirty(slot);
+  }
+
+  @Override
+  public final double getDouble(final String name, final int index) {
+    return getDouble(getExistSlot(name), index);
+  }
+
+  @Override
+  public final double getDouble(final int slot, final int index) {
+    return propertyArray[slot].getDoubleValue(index);
+  }
+
+  @Override
+  public final void setDouble(final String name, final int index,
+      final double value) {
+    setDouble(getExistSlot(name), index, value);
+  }
+
+  @Override
+  public final void setDouble(final int slot, final int index,
+      final double value) {
+    propertyArray[slot].setDoubleValue(index, value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final void addDouble(final String name, final double value) {
+    addDouble(getExistSlot(name), value);
+  }
+
+  @Override
+  public final void addDouble(final int slot, final double value) {
+    propertyArray[slot].addDoubleValue(value);
+    markDirty(slot);
+  }
+
+  @Override
+  public final double[] getDoubleArray(final String name) {
+    return getDoubleArray(getExistSlot(name));
+  }
+
+  @Override
+  public final double[] getDoubleArray(final int slot) {
+    return propertyArray[slot].getDoubleArrayValue();
+  }
+
+  @Override
+  public final void setDoubleArray(final String name, final double[] values) {
+    setDoubleArray(getExistSlot(name), values);
+  }
+
+  @Override
+  public final void setDoubleArray(final int slot, final double[] values) {
+    propertyArray[slot].setDoubleArrayValue(values);
+    markDirty(slot);
   }
 
   @Override
   public final Set<String> getKeySet(final String name) {
-    requireNonNull("name", name);
-    final Property property = properties.get(name);
-    if (property == null) {
-      throw new PropertyNotExistException(name);
-    }
-    return property.getKeySet();
+    return getKeySet(getExistSlot(name));
+  }
+
+  @Override
+  public final Set<String> getKeySet(final int slot) {
+    return propertyArray[slot].getKeySet();
   }
 
   @Override
   public final boolean containsKey(final String name, final String key) {
     requireNonNull("name", name);
     requireNonNull("key", key);
-    final Property property = properties.get(name);
-    if (property == null) {
-      throw new PropertyNotExistException(name);
-    }
-    return property.containsKey(key);
+    return containsKey(getExistSlot(name), key);
+  }
+
+  @Override
+  public final boolean containsKey(final int slot, final String key) {
+    requireNonNull("key", key);
+    return propertyArray[slot].containsKey(key);
   }
 
   @Override
   public final Object get(final String name, final String key) {
     requireNonNull("name", name);
     requireNonNull("key", key);
-    final Property property = properties.get(name);
-    if (property == null) {
-      throw new PropertyNotExistException(name);
-    }
-    return property.getMappedValue(key);
+    return get(getExistSlot(name), key);
+  }
+
+  @Override
+  public final Object get(final int slot, final String key) {
+    requireNonNull("key", key);
+    return propertyArray[slot].getMappedValue(key);
   }
 
   @Override
@@ -183,40 +557,182 @@ public class DefaultBean implements Bean {
       @Nullable final Object value) {
     requireNonNull("name", name);
     requireNonNull("key", key);
-    final Property property = properties.get(name);
-    if (property == null) {
-      throw new PropertyNotExistException(name);
-    }
-    property.setMappedValue(key, value);
+    set(getExistSlot(name), key, value);
+  }
+
+  @Override
+  public final void set(final int slot, final String key,
+      @Nullable final Object value) {
+    requireNonNull("key", key);
+    propertyArray[slot].setMappedValue(key, value);
+    markDirty(slot);
   }
 
   @Override
   public final Object remove(final String name, final String key) {
     requireNonNull("name", name);
     requireNonNull("key", key);
-    final Property property = properties.get(name);
-    if (property == null) {
-      throw new PropertyNotExistException(name);
+    return remove(getExistSlot(name), key);
+  }
+
+  @Override
+  public final Object remove(final int slot, final String key) {
+    requireNonNull("key", key);
+    final DefaultProperty property = propertyArray[slot];
+    final int size = property.getSize();
+    final Object result = property.removeMappedValue(key);
+    if (property.getSize() != size) {
+      markDirty(slot);
     }
-    return property.removeMappedValue(key);
+    return result;
   }
 
   @Override
   public final void clear(final String name) {
-    requireNonNull("name", name);
-    final Property property = properties.get(name);
-    if (property == null) {
-      throw new PropertyNotExistException(name);
+    clear(getExistSlot(name));
+  }
+
+  @Override
+  public final void clear(final int slot) {
+    final DefaultProperty property = propertyArray[slot];
+    if (property.getSize() != 0) {
+      property.clear();
+      markDirty(slot);
+    }
+  }
+
+  @Override
+  public void reset() {
+    for (final Property property : propertyArray) {
+      property.reset();
+    }
+    clearDirty();
+  }
+
+  @Override
+  public final void setAll(final Object[] values) {
+    requireNonNull("values", values);
+    if (values.length != propertyArray.length) {
+      throw new IllegalArgumentException("The bean has " + propertyArray.length
+          + " properties, but " + values.length + " values are provided.");
+    }
+    for (int slot = 0; slot < values.length; ++slot) {
+      setRawValue(slot, values[slot]);
+    }
+  }
+
+  @Override
+  public final void getAll(final Object[] values) {
+    requireNonNull("values", values);
+    if (values.length != propertyArray.length) {
+      throw new IllegalArgumentException("The bean has " + propertyArray.length
+          + " properties, but " + values.length + " values are provided.");
+    }
+    for (int slot = 0; slot < values.length; ++slot) {
+      values[slot] = propertyArray[slot].getRawValue();
+    }
+  }
+
+  @Override
+  public final Bean copy() {
+    return copy(false);
+  }
+
+  @Override
+  public final Bean deepCopy() {
+    return copy(true);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public final void forEach(final PropertyVisitor visitor) {
+    requireNonNull("visitor", visitor);
+    MapEntryCursor cursor = null;
+    for (int slot = 0; slot < propertyArray.length; ++slot) {
+      final DefaultProperty property = propertyArray[slot];
+      final PropertyDescriptor descriptor = property.getDescriptor();
+      final Object value = property.peekRawValue();
+      switch (descriptor.getKind()) {
+        case INDEXED:
+          visitor.visitIndexed(descriptor, slot, (List<?>) value);
+          break;
+        case MAPPED:
+          if (cursor == null) {
+            cursor = new MapEntryCursor();
+          }
+          visitor.visitMapped(descriptor, slot,
+              cursor.reset((Map<String, ?>) value));
+          break;
+        case SIMPLE:
+        default:
+          visitor.visitSimple(descriptor, slot, value);
+          break;
+      }
+    }
+  }
+
+  /**
+   * Creates a copy of this bean.
+   * <p>
+   * The copy of a {@link DefaultBean} is a new {@link DefaultBean}, and the
+   * copy of a subclass is created by {@link BeanClass#newInstance()}. If the
+   * new bean is a {@link DefaultBean} of the same bean class, the values of
+   * the properties of this bean are copied to its properties directly;
+   * otherwise they are copied through {@link #getAll(Object[])} and
+   * {@link #setAll(Object[])}.
+   *
+   * @param deep
+   *          whether to copy the {@link Bean} values deeply.
+   * @return a copy of this bean.
+   * @see #copy()
+   * @see #deepCopy()
+   */
+  protected Bean copy(final boolean deep) {
+    final Bean bean = (getClass() == DefaultBean.class
+        ? new DefaultBean(beanClass) : beanClass.newInstance());
+    if ((bean instanceof DefaultBean) && (bean.getBeanClass() == beanClass)) {
+      final DefaultProperty[] targets = ((DefaultBean) bean).propertyArray;
+      for (int slot = 0; slot < targets.length; ++slot) {
+        targets[slot].copyFrom(propertyArray[slot], deep);
+      }
+    } else {
+      BeanCopier.copyTo(this, bean, deep);
+    }
+    return bean;
+  }
+
+  /**
+   * Marks a property as dirty.
+   *
+   * @param slot
+   *          the slot of a property, which must be valid.
+   */
+  protected final void markDirty(final int slot) {
+    if (dirty == null) {
+      dirty = new long[(propertyArray.length + 63) >>> 6];
+    }
+    dirty[slot >>> 6] |= (1L << slot);
+  }
+
+  @Override
+  public final BitSet getDirtyProperties() {
+    return (dirty == null ? new BitSet() : BitSet.valueOf(dirty));
+  }
+
+  @Override
+  public final void clearDirty() {
+    if (dirty != null) {
+      Arrays.fill(dirty, 0L);
     }
-    property.clear();
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(11, 7)
-        .append(beanClass)
-        .append(properties)
-        .build();
+    int h = beanClass.hashCode();
+    for (final Property property : propertyArray) {
+      h = 31 * h + property.hashCode();
+    }
+    return h;
   }
 
   @Override
@@ -231,17 +747,41 @@ public class DefaultBean implements Bean {
       return false;
     }
     final DefaultBean rhs = (DefaultBean) obj;
-    return new EqualsBuilder()
-        .append(beanClass, rhs.beanClass)
-        .append(properties, rhs.properties)
-        .build();
+    if (! beanClass.equals(rhs.beanClass)) {
+      return false;
+    }
+    //  the equal bean classes have the same properties in the same order
+    final Property[] rhsArray = rhs.propertyArray;
+    if (propertyArray.length != rhsArray.length) {
+      return false;
+    }
+    for (int i = 0; i < propertyArray.length; ++i) {
+      if (! propertyArray[i].equals(rhsArray[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes the string representation of this bean, which is the same as
+   * the string returned by {@link #toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "beanClass", beanClass, true);
+    BeanObjects.appendField(out, "properties", properties, false);
+    BeanObjects.appendEnd(out);
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("beanClass", beanClass)
-        .append("properties", properties)
-        .build();
+    return BeanObjects.toString(this);
   }
 }
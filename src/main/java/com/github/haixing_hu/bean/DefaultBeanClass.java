@@ -16,11 +16,11 @@
  */
 package com.github.haixing_hu.bean;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
-import java.util.HashMap;
-import java.util.Map;
-
+import java.util.Arrays;
 import javax.annotation.Nullable;
+import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
@@ -29,11 +29,6 @@ import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-
-import com.github.haixing_hu.reflect.ReflectionException;
 
 import static com.github.haixing_hu.lang.Argument.requireNonNull;
 
@@ -65,12 +60,22 @@ import static com.github.haixing_hu.lang.Argument.requireNonNull;
  *   &lt;/properties&gt;
  * &lt;/bean-class&gt;
  * </code></pre>
+ * <p>
+ * All the states derived from the XML elements, e.g., the maps from the names
+ * of the properties to their descriptors and the factory creating the beans,
+ * are built when the bean class is constructed or unmarshalled by JAXB, and
+ * they are not modified by the lookups. Changing the descriptors or the bean
+ * type, e.g., by {@link BeanGenerator#install(DefaultBeanClass)}, replaces
+ * all of them at once by a single volatile write, so that the lookups running
+ * in other threads never see a partially updated bean class.
  *
  * @author Haixing Hu
  */
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlRootElement(name = "bean-class")
-public class DefaultBeanClass implements BeanClass {
+public class DefaultBeanClass implements BeanClass, ToStringAppendable {
+
+  private static final Interner<BeanClass> INTERNER = new Interner<>();
 
   /**
    * The name of this bean class.
@@ -92,16 +97,6 @@ public class DefaultBeanClass implements BeanClass {
   @XmlElement(name = "property")
   protected PropertyDescriptor[] descriptors = {};
 
-  /**
-   * A map from the property name to its descriptor.
-   */
-  protected transient Map<String, PropertyDescriptor> descriptorMap = null;
-
-  /**
-   * The constructor of the {@code beanType} used for creating new instances.
-   */
-  protected transient Constructor<? extends Bean> constructor = null;
-
   /**
    * The method signature of the constructor used to new {@code beanType}
    * instances.
@@ -114,12 +109,52 @@ public class DefaultBeanClass implements BeanClass {
    */
   protected transient Object[] constructorArguments = { this };
 
+  /**
+   * The states derived from the {@code beanType} and the {@code descriptors},
+   * which are replaced as a whole whenever either of them is changed.
+   */
+  private transient volatile State state = null;
+
+  /**
+   * The immutable snapshot of the states derived from the XML elements.
+   * <p>
+   * Publishing a new snapshot by a single volatile write guarantees that a
+   * thread never sees the name table of the old descriptors together with the
+   * new descriptors, nor a partially built handle array or factory.
+   */
+  private static final class State {
+
+    final Class<? extends Bean> beanType;
+    final BeanFactory factory;
+    final PropertyDescriptor[] descriptors;
+    final PropertyNameTable nameTable;
+    final PropertyHandle[] handles;
+
+    /**
+     * The cached hash code, or 0 if it is not computed yet.
+     */
+    int hash = 0;
+
+    State(final Class<? extends Bean> beanType, final BeanFactory factory,
+        final PropertyDescriptor[] descriptors,
+        final PropertyNameTable nameTable, final PropertyHandle[] handles) {
+      this.beanType = beanType;
+      this.factory = factory;
+      this.descriptors = descriptors;
+      this.nameTable = nameTable;
+      this.handles = handles;
+    }
+  }
+
   /**
    * A default constructor used by the JAXB.
+   * <p>
+   * The derived states are rebuilt by
+   * {@link #afterUnmarshal(Unmarshaller, Object)} after unmarshalling.
    */
   DefaultBeanClass() {
     name = StringUtils.EMPTY;
-    beanType = DefaultBean.class;
+    rebuild(DefaultBean.class, descriptors);
   }
 
   /**
@@ -156,8 +191,8 @@ public class DefaultBeanClass implements BeanClass {
       final PropertyDescriptor[] descriptors,
       @Nullable final Class<? extends Bean> beanType) {
     this.name = requireNonNull("name", name);
-    setDescriptors(descriptors);
-    setBeanType(beanType);
+    requireNonNull("descriptors", descriptors);
+    rebuild(beanType, descriptors);
   }
 
   /**
@@ -167,15 +202,11 @@ public class DefaultBeanClass implements BeanClass {
    *          the property descriptors of the beans created by this bean class.
    */
   protected void setDescriptors(final PropertyDescriptor[] descriptors) {
-    this.descriptors = requireNonNull("descriptors", descriptors);
-    if (descriptorMap == null) {
-      descriptorMap = new HashMap<>();
-    } else {
-      descriptorMap.clear();
-    }
-    for (final PropertyDescriptor descriptor : descriptors) {
-      descriptorMap.put(descriptor.getName(), descriptor);
-    }
+    requireNonNull("descriptors", descriptors);
+    final State old = state;
+    this.descriptors = descriptors;
+    state = new State(old.beanType, old.factory, descriptors,
+        PropertyNameTable.create(descriptors), newHandles(descriptors));
   }
 
   /**
@@ -186,21 +217,79 @@ public class DefaultBeanClass implements BeanClass {
    *          class.
    */
   protected void setBeanType(@Nullable final Class<? extends Bean> beanType) {
+    final Class<? extends Bean> type = checkBeanType(beanType);
+    final BeanFactory factory = newFactory(type);
+    final State old = state;
+    this.beanType = type;
+    state = new State(type, factory, old.descriptors, old.nameTable,
+        old.handles);
+  }
+
+  /**
+   * Builds the states derived from the unmarshalled XML elements.
+   * <p>
+   * This function is called by JAXB after all the properties of this object
+   * were unmarshalled.
+   *
+   * @param unmarshaller
+   *          the unmarshaller.
+   * @param parent
+   *          the parent object of this object, or {@code null} if none.
+   */
+  void afterUnmarshal(final Unmarshaller unmarshaller,
+      @Nullable final Object parent) {
+    rebuild(beanType, descriptors);
+  }
+
+  /**
+   * Builds all the derived states from scratch, and publishes them at once.
+   *
+   * @param beanType
+   *          the type of the beans created by this bean class, or
+   *          {@code null} to use the {@link DefaultBean}.
+   * @param descriptors
+   *          the property descriptors of the beans created by this bean class.
+   */
+  private void rebuild(@Nullable final Class<? extends Bean> beanType,
+      final PropertyDescriptor[] descriptors) {
+    final Class<? extends Bean> type = checkBeanType(beanType);
+    final BeanFactory factory = newFactory(type);
+    this.beanType = type;
+    this.descriptors = descriptors;
+    state = new State(type, factory, descriptors,
+        PropertyNameTable.create(descriptors), newHandles(descriptors));
+  }
+
+  private static Class<? extends Bean> checkBeanType(
+      @Nullable final Class<? extends Bean> beanType) {
     if (beanType == null) {
-      this.beanType = DefaultBean.class;
+      return DefaultBean.class;
     } else if (beanType.isInterface()) {
       throw new IllegalArgumentException("Class " + beanType.getName()
           + " is an interface, not a class");
     } else {
-      this.beanType = beanType;
+      return beanType;
     }
+  }
+
+  private BeanFactory newFactory(final Class<? extends Bean> beanType) {
     // Identify the Constructor we will use in newInstance()
+    final Constructor<? extends Bean> constructor;
     try {
-      constructor = this.beanType.getConstructor(constructorSignature);
+      constructor = beanType.getConstructor(constructorSignature);
     } catch (final NoSuchMethodException e) {
-      throw new IllegalArgumentException("Class " + this.beanType.getName()
+      throw new IllegalArgumentException("Class " + beanType.getName()
           + " does not have an appropriate constructor");
     }
+    return BeanFactory.create(constructor);
+  }
+
+  private PropertyHandle[] newHandles(final PropertyDescriptor[] descriptors) {
+    final PropertyHandle[] result = new PropertyHandle[descriptors.length];
+    for (int i = 0; i < descriptors.length; ++i) {
+      result[i] = new PropertyHandle(this, descriptors[i], i);
+    }
+    return result;
   }
 
   @Override
@@ -210,51 +299,76 @@ public class DefaultBeanClass implements BeanClass {
 
   @Override
   public final Class<? extends Bean> getBeanType() {
-    return beanType;
+    return state.beanType;
   }
 
   @Override
   public final PropertyDescriptor[] getPropertyDescriptors() {
-    return descriptors;
+    return state.descriptors;
   }
 
   @Override
   public boolean hasProperty(final String name) {
-    if (descriptorMap == null) {
-      //  we need to set the map since it may be not set by JAXB
-      setDescriptors(descriptors);
-    }
-    return descriptorMap.containsKey(name);
+    return (state.nameTable.indexOf(name) >= 0);
   }
 
   @Override
   public PropertyDescriptor getPropertyDescriptor(final String name) {
-    if (descriptorMap == null) {
-      //  we need to set the map since it may be not set by JAXB
-      setDescriptors(descriptors);
+    final State s = state;
+    final int index = s.nameTable.indexOf(name);
+    return (index < 0 ? null : s.descriptors[index]);
+  }
+
+  @Override
+  public int getPropertyIndex(final String name) {
+    return state.nameTable.indexOf(name);
+  }
+
+  @Override
+  public PropertyHandle getPropertyHandle(final String name) {
+    final State s = state;
+    final int index = s.nameTable.indexOf(name);
+    if (index < 0) {
+      throw new PropertyNotExistException(name);
     }
-    return descriptorMap.get(name);
+    return s.handles[index];
   }
 
   @Override
   public Bean newInstance() {
-    if (constructor == null) {
-      setBeanType(beanType);
-    }
-    try {
-      return constructor.newInstance(constructorArguments);
-    } catch (final Exception e) {
-      throw new ReflectionException(e);
-    }
+    return state.factory.newInstance(constructorArguments);
+  }
+
+  @Override
+  public Bean newInstance(final Bean prototype) {
+    return BeanCopier.newInstance(this, prototype);
+  }
+
+  /**
+   * Gets the canonical instance of this bean class.
+   * <p>
+   * The structurally equal bean classes are interned to the same instance, so
+   * that the beans of the same bean class could compare their bean classes by
+   * reference. The interned bean class must not be modified afterwards, e.g.,
+   * by {@link BeanGenerator#install(DefaultBeanClass)}.
+   *
+   * @return the canonical instance equal to this bean class.
+   */
+  public DefaultBeanClass intern() {
+    return (DefaultBeanClass) INTERNER.intern(this);
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(11, 7)
-        .append(name)
-        .append(beanType)
-        .append(descriptors)
-        .build();
+    final State s = state;
+    int h = s.hash;
+    if (h == 0) {
+      h = name.hashCode();
+      h = 31 * h + s.beanType.hashCode();
+      h = 31 * h + Arrays.hashCode(s.descriptors);
+      s.hash = h;
+    }
+    return h;
   }
 
   @Override
@@ -269,20 +383,36 @@ public class DefaultBeanClass implements BeanClass {
       return false;
     }
     final DefaultBeanClass rhs = (DefaultBeanClass) obj;
-    return new EqualsBuilder()
-        .append(name, rhs.name)
-        .append(beanType, rhs.beanType)
-        .append(descriptors, rhs.descriptors)
-        .build();
+    final State s = state;
+    final State rhsState = rhs.state;
+    return (hashCode() == rhs.hashCode())
+        && (s.beanType == rhsState.beanType)
+        && name.equals(rhs.name)
+        && Arrays.equals(s.descriptors, rhsState.descriptors);
+  }
+
+  /**
+   * Writes the string representation of this bean class, which is the same as
+   * the string returned by {@link #toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    final State s = state;
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "name", name, true);
+    BeanObjects.appendField(out, "beanType", s.beanType, false);
+    BeanObjects.appendField(out, "descriptors", s.descriptors, false);
+    BeanObjects.appendEnd(out);
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("name", name)
-        .append("beanType", beanType)
-        .append("descriptors", descriptors)
-        .build();
+    return BeanObjects.toString(this);
   }
 
 }
@@ -16,29 +16,58 @@
  */
 package com.github.haixing_hu.bean;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nullable;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-
 import static com.github.haixing_hu.lang.Argument.requireNonNull;
 
 /**
  * A {@link DefaultProperty} represents a descriptor of a bean.
+ * <p>
+ * The list or map storing the values of an indexed or mapped property is
+ * allocated lazily: a new property holds a shared immutable empty container,
+ * which is replaced by a real container on the first write, or when the
+ * container is handed out by {@link #getRawValue()},
+ * {@link #getIndexedValue()} or {@link #getMappedValue()}. Reading, counting
+ * and clearing the values of a property never allocate a container.
  *
  * @author Haixing Hu
  */
-public class DefaultProperty implements Property {
+public class DefaultProperty implements Property, ToStringAppendable {
+
+  /**
+   * The marker stored in {@link #value} indicating that the value of this
+   * simple property is a primitive value stored in {@link #bits}.
+   */
+  private static final Object PRIMITIVE = new Object();
+
+  /**
+   * The shared empty container of the indexed properties which have not been
+   * written.
+   */
+  private static final List<Object> EMPTY_LIST = Collections.emptyList();
+
+  /**
+   * The shared empty container of the mapped properties which have not been
+   * written.
+   */
+  private static final Map<String, Object> EMPTY_MAP = Collections.emptyMap();
 
   protected final PropertyDescriptor descriptor;
   protected Object value;
+  private long bits;
+
+  /**
+   * The cached hash code of this property, or 0 if it is not computed yet.
+   * The hash code is cached only if the value of this property is immutable,
+   * and must be reset once the value is changed.
+   */
+  private int hash;
 
   /**
    * Constructs a {@link DefaultProperty}.
@@ -50,10 +79,10 @@ public class DefaultProperty implements Property {
     this.descriptor = requireNonNull("descriptor", descriptor);
     switch (descriptor.getKind()) {
       case INDEXED:
-        value = new ArrayList<Object>();
+        value = EMPTY_LIST;
         break;
       case MAPPED:
-        value = new HashMap<String, Object>();
+        value = EMPTY_MAP;
         break;
       case SIMPLE:
       default:
@@ -106,14 +135,10 @@ public class DefaultProperty implements Property {
    *           if the value is not an instance of the type of this property.
    */
   protected void checkType(@Nullable final Object value) {
-    if (value == null) {
-      return;
-    }
-    final Class<?> type = descriptor.getType();
-    if (! type.isAssignableFrom(value.getClass())) {
+    if (! descriptor.accepts(value)) {
       throw new ClassCastException("Cannot cast the value of type "
           + value.getClass().getName() + " to the value of type "
-          + type.getName());
+          + descriptor.getType().getName());
     }
   }
 
@@ -124,7 +149,60 @@ public class DefaultProperty implements Property {
 
   @Override
   public final Object getRawValue() {
-    return value;
+    if (value == PRIMITIVE) {
+      return PrimitiveType.of(descriptor.getType()).fromBits(bits);
+    } else if (value == EMPTY_LIST) {
+      return getWritableList();
+    } else if (value == EMPTY_MAP) {
+      return getWritableMap();
+    } else {
+      return value;
+    }
+  }
+
+  /**
+   * Gets the raw value of this property without materializing the shared empty
+   * containers.
+   *
+   * @return the raw value of this property, which may be a shared immutable
+   *         empty container.
+   */
+  final Object peekRawValue() {
+    if (value == PRIMITIVE) {
+      return PrimitiveType.of(descriptor.getType()).fromBits(bits);
+    } else {
+      return value;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Object> getReadableList() {
+    checkKind(PropertyKind.INDEXED);
+    return (List<Object>) value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Object> getWritableList() {
+    checkKind(PropertyKind.INDEXED);
+    if (value == EMPTY_LIST) {
+      value = PrimitiveList.create(descriptor.getType());
+    }
+    return (List<Object>) value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> getReadableMap() {
+    checkKind(PropertyKind.MAPPED);
+    return (Map<String, Object>) value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> getWritableMap() {
+    checkKind(PropertyKind.MAPPED);
+    if (value == EMPTY_MAP) {
+      value = new CompactMap();
+    }
+    return (Map<String, Object>) value;
   }
 
   @SuppressWarnings("unchecked")
@@ -135,31 +213,55 @@ public class DefaultProperty implements Property {
         if (value == null) {
           throw new NullPointerException("value is null.");
         }
-        if (! (value instanceof ArrayList)) {
+        if (! (value instanceof List)) {
           throw new ClassCastException(
-              "The value of an indexed property must be a java.util.ArrayList.");
+              "The value of an indexed property must be a java.util.List.");
         }
-        //  FIXME: check the generic argument type of the ArrayList
-        setIndexedValue((ArrayList<Object>) value);
+        //  FIXME: check the generic argument type of the List
+        setIndexedValue((List<Object>) value);
         return;
       case MAPPED:
         if (value == null) {
           throw new NullPointerException("value is null.");
         }
-        if (! (value instanceof HashMap)) {
+        if (! (value instanceof Map)) {
           throw new ClassCastException(
-              "The value of a mapped property must be a java.util.HashMap.");
+              "The value of a mapped property must be a java.util.Map.");
         }
-        //  FIXME: check the generic argument type of the HashMap
-        setMappedValue((HashMap<String, Object>) value);
+        //  FIXME: check the generic argument type of the Map
+        setMappedValue((Map<String, Object>) value);
         return;
       case SIMPLE:
       default:
+        checkType(value);
         this.value = value;
+        hash = 0;
         return;
     }
   }
 
+  /**
+   * Copies the value of another property with the same descriptor to this
+   * property.
+   *
+   * @param other
+   *          the property to be copied.
+   * @param deep
+   *          whether to copy the {@link Bean} values deeply.
+   * @see Bean#copy()
+   */
+  final void copyFrom(final DefaultProperty other, final boolean deep) {
+    final Object otherValue = other.value;
+    if ((otherValue == PRIMITIVE) || (otherValue == EMPTY_LIST)
+        || (otherValue == EMPTY_MAP)) {
+      value = otherValue;
+    } else {
+      value = BeanCopier.copyValue(descriptor, otherValue, deep);
+    }
+    bits = other.bits;
+    hash = other.hash;
+  }
+
   @Override
   public final int getSize() {
     final PropertyKind kind = descriptor.getKind();
@@ -178,7 +280,7 @@ public class DefaultProperty implements Property {
   @Override
   public final Object getSimpleValue() {
     checkKind(PropertyKind.SIMPLE);
-    return value;
+    return getRawValue();
   }
 
   @Override
@@ -186,109 +288,318 @@ public class DefaultProperty implements Property {
     checkKind(PropertyKind.SIMPLE);
     checkType(object);
     value = object;
+    hash = 0;
   }
 
-  @SuppressWarnings("unchecked")
   @Override
-  public final ArrayList<Object> getIndexedValue() {
-    checkKind(PropertyKind.INDEXED);
-    return (ArrayList<Object>) value;
+  public final boolean getBooleanValue() {
+    return (getBits(PrimitiveType.BOOLEAN) != 0);
+  }
+
+  @Override
+  public final void setBooleanValue(final boolean value) {
+    setBits(PrimitiveType.BOOLEAN, (value ? 1L : 0L));
   }
 
   @Override
-  public final void setIndexedValue(final ArrayList<Object> list) {
+  public final byte getByteValue() {
+    return (byte) getBits(PrimitiveType.BYTE);
+  }
+
+  @Override
+  public final void setByteValue(final byte value) {
+    setBits(PrimitiveType.BYTE, value);
+  }
+
+  @Override
+  public final short getShortValue() {
+    return (short) getBits(PrimitiveType.SHORT);
+  }
+
+  @Override
+  public final void setShortValue(final short value) {
+    setBits(PrimitiveType.SHORT, value);
+  }
+
+  @Override
+  public final int getIntValue() {
+    return (int) getBits(PrimitiveType.INT);
+  }
+
+  @Override
+  public final void setIntValue(final int value) {
+    setBits(PrimitiveType.INT, value);
+  }
+
+  @Override
+  public final long getLongValue() {
+    return getBits(PrimitiveType.LONG);
+  }
+
+  @Override
+  public final void setLongValue(final long value) {
+    setBits(PrimitiveType.LONG, value);
+  }
+
+  @Override
+  public final float getFloatValue() {
+    return Float.intBitsToFloat((int) getBits(PrimitiveType.FLOAT));
+  }
+
+  @Override
+  public final void setFloatValue(final float value) {
+    setBits(PrimitiveType.FLOAT, Float.floatToRawIntBits(value));
+  }
+
+  @Override
+  public final double getDoubleValue() {
+    return Double.longBitsToDouble(getBits(PrimitiveType.DOUBLE));
+  }
+
+  @Override
+  public final void setDoubleValue(final double value) {
+    setBits(PrimitiveType.DOUBLE, Double.doubleToRawLongBits(value));
+  }
+
+  @Override
+  public final List<Object> getIndexedValue() {
+    return getWritableList();
+  }
+
+  @Override
+  public final void setIndexedValue(final List<Object> list) {
     checkKind(PropertyKind.INDEXED);
     requireNonNull("list", list);
+    if (list == value) {
+      //  e.g., the list returned by getAll(); clearing it would lose it
+      return;
+    }
+    if (list.isEmpty()) {
+      getReadableList().clear();
+      return;
+    }
+    final List<Object> valueList = getWritableList();
+    if ((valueList instanceof PrimitiveList)
+        && ((PrimitiveList) valueList).copyFrom(list)) {
+      //  the elements of a primitive list of the same class need no checking
+      return;
+    }
     for (final Object obj : list) {
       checkType(obj);
     }
-    @SuppressWarnings("unchecked")
-    final ArrayList<Object> valueList = (ArrayList<Object>) value;
     valueList.clear();
     valueList.addAll(list);
   }
 
   @Override
   public final Object getIndexedValue(final int index) {
-    final ArrayList<Object> list = getIndexedValue();
+    final List<Object> list = getReadableList();
     return list.get(index);
   }
 
   @Override
   public final void setIndexedValue(final int index, final Object value) {
-    final ArrayList<Object> list = getIndexedValue();
+    final List<Object> list = getWritableList();
     checkType(value);
     list.set(index, value);
   }
 
   @Override
   public final void addIndexedValue(final int index, final Object value) {
-    final ArrayList<Object> list = getIndexedValue();
+    final List<Object> list = getWritableList();
     checkType(value);
     list.add(index, value);
   }
 
   @Override
   public final void addIndexedValue(final Object value) {
-    final ArrayList<Object> list = getIndexedValue();
+    final List<Object> list = getWritableList();
     checkType(value);
     list.add(value);
   }
 
   @Override
   public final Object removeIndexedValue(final int index) {
-    final ArrayList<Object> list = getIndexedValue();
+    final List<Object> list = getWritableList();
     return list.remove(index);
   }
 
-  @SuppressWarnings("unchecked")
+  private IntList getIntList() {
+    checkKind(PropertyKind.INDEXED);
+    PrimitiveType.INT.check(descriptor);
+    return (IntList) getWritableList();
+  }
+
   @Override
-  public final HashMap<String, Object> getMappedValue() {
-    checkKind(PropertyKind.MAPPED);
-    return (HashMap<String, Object>) value;
+  public final int getIntValue(final int index) {
+    checkKind(PropertyKind.INDEXED);
+    PrimitiveType.INT.check(descriptor);
+    if (value == EMPTY_LIST) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+    }
+    return ((IntList) value).getInt(index);
   }
 
   @Override
-  public final void setMappedValue(final HashMap<String, Object> map) {
+  public final void setIntValue(final int index, final int value) {
+    getIntList().setInt(index, value);
+  }
+
+  @Override
+  public final void addIntValue(final int value) {
+    getIntList().addInt(value);
+  }
+
+  @Override
+  public final int[] getIntArrayValue() {
+    checkKind(PropertyKind.INDEXED);
+    PrimitiveType.INT.check(descriptor);
+    if (value == EMPTY_LIST) {
+      return new int[0];
+    }
+    return ((IntList) value).toIntArray();
+  }
+
+  @Override
+  public final void setIntArrayValue(final int[] values) {
+    getIntList().setAll(values);
+  }
+
+  private LongList getLongList() {
+    checkKind(PropertyKind.INDEXED);
+    PrimitiveType.LONG.check(descriptor);
+    return (LongList) getWritableList();
+  }
+
+  @Override
+  public final long getLongValue(final int index) {
+    checkKind(PropertyKind.INDEXED);
+    PrimitiveType.LONG.check(descriptor);
+    if (value == EMPTY_LIST) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+    }
+    return ((LongList) value).getLong(index);
+  }
+
+  @Override
+  public final void setLongValue(final int index, final long value) {
+    getLongList().setLong(index, value);
+  }
+
+  @Override
+  public final void addLongValue(final long value) {
+    getLongList().addLong(value);
+  }
+
+  @Override
+  public final long[] getLongArrayValue() {
+    checkKind(PropertyKind.INDEXED);
+    PrimitiveType.LONG.check(descriptor);
+    if (value == EMPTY_LIST) {
+      return new long[0];
+    }
+    return ((LongList) value).toLongArray();
+  }
+
+  @Override
+  public final void setLongArrayValue(final long[] values) {
+    getLongList().setAll(values);
+  }
+
+  private DoubleList getDoubleList() {
+    checkKind(PropertyKind.INDEXED);
+    PrimitiveType.DOUBLE.check(descriptor);
+    return (DoubleList) getWritableList();
+  }
+
+  @Override
+  public final double getDoubleValue(final int index) {
+    checkKind(PropertyKind.INDEXED);
+    PrimitiveType.DOUBLE.check(descriptor);
+    if (value == EMPTY_LIST) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+    }
+    return ((DoubleList) value).getDouble(index);
+  }
+
+  @Override
+  public final void setDoubleValue(final int index, final double value) {
+    getDoubleList().setDouble(index, value);
+  }
+
+  @Override
+  public final void addDoubleValue(final double value) {
+    getDoubleList().addDouble(value);
+  }
+
+  @Override
+  public final double[] getDoubleArrayValue() {
+    checkKind(PropertyKind.INDEXED);
+    PrimitiveType.DOUBLE.check(descriptor);
+    if (value == EMPTY_LIST) {
+      return new double[0];
+    }
+    return ((DoubleList) value).toDoubleArray();
+  }
+
+  @Override
+  public final void setDoubleArrayValue(final double[] values) {
+    getDoubleList().setAll(values);
+  }
+
+  @Override
+  public final Map<String, Object> getMappedValue() {
+    return getWritableMap();
+  }
+
+  @Override
+  public final void setMappedValue(final Map<String, Object> map) {
     checkKind(PropertyKind.MAPPED);
     requireNonNull("map", map);
+    if (map == value) {
+      return;
+    }
+    AbstractSlotBean.checkKeys(map);
     for (final Object obj : map.values()) {
       checkType(obj);
     }
-    @SuppressWarnings("unchecked")
-    final HashMap<String, Object> valueMap = (HashMap<String, Object>) value;
+    if (map.isEmpty()) {
+      getReadableMap().clear();
+      return;
+    }
+    final Map<String, Object> valueMap = getWritableMap();
     valueMap.clear();
     valueMap.putAll(map);
   }
 
   @Override
   public final Set<String> getKeySet() {
-    final HashMap<String, Object> map = getMappedValue();
+    final Map<String, Object> map = getReadableMap();
     return map.keySet();
   }
 
   @Override
   public final boolean containsKey(final String key) {
-    final HashMap<String, Object> map = getMappedValue();
+    final Map<String, Object> map = getReadableMap();
     return map.containsKey(key);
   }
 
   @Override
   public final Object getMappedValue(final String key) {
-    final HashMap<String, Object> map = getMappedValue();
+    final Map<String, Object> map = getReadableMap();
     return map.get(key);
   }
 
   @Override
   public final void setMappedValue(final String key, final Object value) {
-    final HashMap<String, Object> map = getMappedValue();
+    final Map<String, Object> map = getWritableMap();
     checkType(value);
     map.put(key, value);
   }
 
   @Override
   public final Object removeMappedValue(final String key) {
-    final HashMap<String, Object> map = getMappedValue();
+    final Map<String, Object> map = getReadableMap();
     return map.remove(key);
   }
 
@@ -309,12 +620,64 @@ public class DefaultProperty implements Property {
     }
   }
 
+  @Override
+  public final void reset() {
+    switch (descriptor.getKind()) {
+      case INDEXED:
+        ((List<?>) value).clear();
+        break;
+      case MAPPED:
+        ((Map<?, ?>) value).clear();
+        break;
+      case SIMPLE:
+      default:
+        value = null;
+        bits = 0;
+        hash = 0;
+        break;
+    }
+  }
+
+  private long getBits(final PrimitiveType type) {
+    checkKind(PropertyKind.SIMPLE);
+    type.check(descriptor);
+    if (value == PRIMITIVE) {
+      return bits;
+    }
+    if (value == null) {
+      throw new NullPointerException("The value of the property '"
+          + descriptor.getName() + "' is null.");
+    }
+    return type.toBits(value);
+  }
+
+  private void setBits(final PrimitiveType type, final long bits) {
+    checkKind(PropertyKind.SIMPLE);
+    type.check(descriptor);
+    this.bits = bits;
+    value = PRIMITIVE;
+    hash = 0;
+  }
+
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(11, 7)
-        .append(descriptor)
-        .append(value)
-        .build();
+    int h = hash;
+    if (h != 0) {
+      return h;
+    }
+    h = 31 * descriptor.hashCode();
+    if (value == PRIMITIVE) {
+      h += BeanObjects.hashBits(PrimitiveType.of(descriptor.getType()), bits);
+      hash = h;
+    } else {
+      h += BeanObjects.hash(value);
+      //  the hash code of a mutable value, e.g., a list, may be changed
+      //  without notifying this property
+      if (BeanObjects.isImmutable(value)) {
+        hash = h;
+      }
+    }
+    return h;
   }
 
   @Override
@@ -329,18 +692,44 @@ public class DefaultProperty implements Property {
       return false;
     }
     final DefaultProperty rhs = (DefaultProperty) obj;
-    return new EqualsBuilder()
-        .append(descriptor, rhs.descriptor)
-        .append(value, rhs.value)
-        .build();
+    if ((hash != 0) && (rhs.hash != 0) && (hash != rhs.hash)) {
+      return false;
+    }
+    if (! descriptor.equals(rhs.descriptor)) {
+      return false;
+    }
+    if ((value == PRIMITIVE) && (rhs.value == PRIMITIVE)) {
+      return BeanObjects.equalBits(PrimitiveType.of(descriptor.getType()),
+          bits, rhs.bits);
+    }
+    return BeanObjects.equal(peekRawValue(), rhs.peekRawValue());
+  }
+
+  /**
+   * Writes the string representation of this property, which is the same as
+   * the string returned by {@link #toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "descriptor", descriptor, true);
+    if (value == PRIMITIVE) {
+      out.append(",value=");
+      BeanObjects.appendBits(out, PrimitiveType.of(descriptor.getType()), bits);
+    } else {
+      BeanObjects.appendField(out, "value", value, false);
+    }
+    BeanObjects.appendEnd(out);
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("descriptor", descriptor)
-        .append("value", value)
-        .build();
+    return BeanObjects.toString(this);
   }
 
 }
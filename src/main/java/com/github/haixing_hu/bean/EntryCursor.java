@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+/**
+ * A cursor over the entries of the value of a mapped property.
+ * <p>
+ * A cursor is positioned before the first entry initially, and each call to
+ * {@link #next()} moves it to the next entry. The key and the value of the
+ * current entry are read from the cursor directly, so that neither the
+ * {@link java.util.Map.Entry} objects nor the lookups of the keys are needed.
+ * A cursor is only valid during the
+ * {@link PropertyVisitor#visitMapped(PropertyDescriptor, int, EntryCursor)}
+ * call it is passed to.
+ *
+ * @author Haixing Hu
+ */
+public interface EntryCursor {
+
+  /**
+   * Gets the number of entries of the mapped property.
+   *
+   * @return the number of entries of the mapped property.
+   */
+  int size();
+
+  /**
+   * Moves this cursor to the next entry.
+   *
+   * @return {@code true} if this cursor is moved to the next entry;
+   *         {@code false} if there is no more entry.
+   */
+  boolean next();
+
+  /**
+   * Gets the key of the current entry.
+   *
+   * @return the key of the current entry.
+   * @throws IllegalStateException
+   *           if this cursor is not positioned at an entry.
+   */
+  String getKey();
+
+  /**
+   * Gets the value of the current entry.
+   *
+   * @return the value of the current entry, which could be {@code null}.
+   * @throws IllegalStateException
+   *           if this cursor is not positioned at an entry.
+   */
+  Object getValue();
+}
@@ -16,13 +16,14 @@
  */
 package com.github.haixing_hu.bean;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import javax.annotation.Nullable;
+import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
@@ -31,11 +32,6 @@ import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-
-import com.github.haixing_hu.reflect.ReflectionException;
 
 import static com.github.haixing_hu.lang.Argument.requireNonNull;
 
@@ -81,12 +77,22 @@ import static com.github.haixing_hu.lang.Argument.requireNonNull;
  *   &lt;/property-groups&gt;
  * &lt;/bean-class&gt;
  * </code></pre>
+ * <p>
+ * All the states derived from the XML elements, e.g., the maps from the names
+ * of the properties to their descriptors and the factory creating the beans,
+ * are built when the bean class is constructed or unmarshalled by JAXB, and
+ * they are not modified by the lookups. Changing the descriptors or the bean
+ * type, e.g., by {@link BeanGenerator#install(GroupedBeanClass)}, replaces
+ * all of them at once by a single volatile write, so that the lookups running
+ * in other threads never see a partially updated bean class.
  *
  * @author Haixing Hu
  */
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlRootElement(name = "bean-class")
-public class GroupedBeanClass implements BeanClass {
+public class GroupedBeanClass implements BeanClass, ToStringAppendable {
+
+  private static final Interner<BeanClass> INTERNER = new Interner<>();
 
   /**
    * The name of this bean class.
@@ -113,16 +119,6 @@ public class GroupedBeanClass implements BeanClass {
    */
   protected transient PropertyDescriptor[] descriptors = {};
 
-  /**
-   * A map from the property name to its descriptor.
-   */
-  protected transient Map<String, PropertyDescriptor> descriptorMap = null;
-
-  /**
-   * The constructor of the {@code beanType} used for creating new instances.
-   */
-  protected transient Constructor<? extends Bean> constructor = null;
-
   /**
    * The method signature of the constructor used to new {@code beanType}
    * instances.
@@ -135,11 +131,56 @@ public class GroupedBeanClass implements BeanClass {
    */
   protected transient Object[] constructorArguments = { this };
 
+  /**
+   * The states derived from the {@code beanType} and the
+   * {@code descriptorGroups}, which are replaced as a whole whenever either of
+   * them is changed.
+   */
+  private transient volatile State state = null;
+
+  /**
+   * The immutable snapshot of the states derived from the XML elements.
+   * <p>
+   * Publishing a new snapshot by a single volatile write guarantees that a
+   * thread never sees the name table of the old descriptors together with the
+   * new descriptors, nor a partially built handle array or factory.
+   */
+  private static final class State {
+
+    final Class<? extends Bean> beanType;
+    final BeanFactory factory;
+    final PropertyDescriptorGroup[] groups;
+    final PropertyDescriptor[] descriptors;
+    final PropertyNameTable nameTable;
+    final PropertyHandle[] handles;
+
+    /**
+     * The cached hash code, or 0 if it is not computed yet.
+     */
+    int hash = 0;
+
+    State(final Class<? extends Bean> beanType, final BeanFactory factory,
+        final PropertyDescriptorGroup[] groups,
+        final PropertyDescriptor[] descriptors,
+        final PropertyNameTable nameTable, final PropertyHandle[] handles) {
+      this.beanType = beanType;
+      this.factory = factory;
+      this.groups = groups;
+      this.descriptors = descriptors;
+      this.nameTable = nameTable;
+      this.handles = handles;
+    }
+  }
+
   /**
    * A default constructor used by the JAXB.
+   * <p>
+   * The derived states are rebuilt by
+   * {@link #afterUnmarshal(Unmarshaller, Object)} after unmarshalling.
    */
   GroupedBeanClass() {
     name = StringUtils.EMPTY;
+    rebuild(DefaultBean.class, descriptorGroups);
   }
 
   /**
@@ -176,8 +217,8 @@ public class GroupedBeanClass implements BeanClass {
       final PropertyDescriptorGroup[] groups,
       @Nullable final Class<? extends Bean> beanType) {
     this.name = requireNonNull("name", name);
-    setDescriptorGroups(groups);
-    setBeanType(beanType);
+    requireNonNull("groups", groups);
+    rebuild(beanType, groups);
   }
 
   /**
@@ -187,20 +228,13 @@ public class GroupedBeanClass implements BeanClass {
    *          the property descriptor groups of the beans created by this bean class.
    */
   protected void setDescriptorGroups(final PropertyDescriptorGroup[] groups) {
-    descriptorGroups = requireNonNull("groups", groups);
-    if (descriptorMap == null) {
-      descriptorMap = new HashMap<>();
-    } else {
-      descriptorMap.clear();
-    }
-    final List<PropertyDescriptor> list = new ArrayList<>();
-    for (final PropertyDescriptorGroup group : descriptorGroups) {
-      for (final PropertyDescriptor descriptor : group.getDescriptors()) {
-        descriptorMap.put(descriptor.getName(), descriptor);
-        list.add(descriptor);
-      }
-    }
-    descriptors = list.toArray(new PropertyDescriptor[list.size()]);
+    requireNonNull("groups", groups);
+    final PropertyDescriptor[] newDescriptors = flatten(groups);
+    final State old = state;
+    descriptorGroups = groups;
+    descriptors = newDescriptors;
+    state = new State(old.beanType, old.factory, groups, newDescriptors,
+        PropertyNameTable.create(newDescriptors), newHandles(newDescriptors));
   }
 
   /**
@@ -211,21 +245,93 @@ public class GroupedBeanClass implements BeanClass {
    *          class.
    */
   protected void setBeanType(@Nullable final Class<? extends Bean> beanType) {
+    final Class<? extends Bean> type = checkBeanType(beanType);
+    final BeanFactory factory = newFactory(type);
+    final State old = state;
+    this.beanType = type;
+    state = new State(type, factory, old.groups, old.descriptors,
+        old.nameTable, old.handles);
+  }
+
+  /**
+   * Builds the states derived from the unmarshalled XML elements.
+   * <p>
+   * This function is called by JAXB after all the properties of this object
+   * were unmarshalled.
+   *
+   * @param unmarshaller
+   *          the unmarshaller.
+   * @param parent
+   *          the parent object of this object, or {@code null} if none.
+   */
+  void afterUnmarshal(final Unmarshaller unmarshaller,
+      @Nullable final Object parent) {
+    rebuild(beanType, descriptorGroups);
+  }
+
+  /**
+   * Builds all the derived states from scratch, and publishes them at once.
+   *
+   * @param beanType
+   *          the type of the beans created by this bean class, or
+   *          {@code null} to use the {@link DefaultBean}.
+   * @param groups
+   *          the property descriptor groups of the beans created by this bean
+   *          class.
+   */
+  private void rebuild(@Nullable final Class<? extends Bean> beanType,
+      final PropertyDescriptorGroup[] groups) {
+    final Class<? extends Bean> type = checkBeanType(beanType);
+    final BeanFactory factory = newFactory(type);
+    final PropertyDescriptor[] newDescriptors = flatten(groups);
+    this.beanType = type;
+    descriptorGroups = groups;
+    descriptors = newDescriptors;
+    state = new State(type, factory, groups, newDescriptors,
+        PropertyNameTable.create(newDescriptors), newHandles(newDescriptors));
+  }
+
+  private static PropertyDescriptor[] flatten(
+      final PropertyDescriptorGroup[] groups) {
+    final List<PropertyDescriptor> list = new ArrayList<>();
+    for (final PropertyDescriptorGroup group : groups) {
+      for (final PropertyDescriptor descriptor : group.getDescriptors()) {
+        list.add(descriptor);
+      }
+    }
+    return list.toArray(new PropertyDescriptor[list.size()]);
+  }
+
+  private static Class<? extends Bean> checkBeanType(
+      @Nullable final Class<? extends Bean> beanType) {
     if (beanType == null) {
-      this.beanType = DefaultBean.class;
+      return DefaultBean.class;
     } else if (beanType.isInterface()) {
       throw new IllegalArgumentException("Class " + beanType.getName()
           + " is an interface, not a class");
     } else {
-      this.beanType = beanType;
+      return beanType;
     }
+  }
+
+  private BeanFactory newFactory(final Class<? extends Bean> beanType) {
     // Identify the Constructor we will use in newInstance()
+    final Constructor<? extends Bean> constructor;
     try {
-      constructor = this.beanType.getConstructor(constructorSignature);
+      constructor = beanType.getConstructor(constructorSignature);
     } catch (final NoSuchMethodException e) {
-      throw new IllegalArgumentException("Class " + this.beanType.getName()
+      throw new IllegalArgumentException("Class " + beanType.getName()
           + " does not have an appropriate constructor");
     }
+    return BeanFactory.create(constructor);
+  }
+
+  private PropertyHandle[] newHandles(final PropertyDescriptor[] descriptors) {
+    final PropertyHandle[] result = new PropertyHandle[descriptors.length];
+    for (int i = 0; i < descriptors.length; ++i) {
+      result[i] = new PropertyHandle(this, descriptors[i], i);
+    }
+    return result;
   }
 
   @Override
@@ -235,60 +341,80 @@ public class GroupedBeanClass implements BeanClass {
 
   @Override
   public final Class<? extends Bean> getBeanType() {
-    return beanType;
+    return state.beanType;
   }
 
   @Override
   public final PropertyDescriptor[] getPropertyDescriptors() {
-    if (descriptors == null) {
-      //  we need to set the descriptors since it may be not set by JAXB
-      setDescriptorGroups(descriptorGroups);
-    }
-    return descriptors;
+    return state.descriptors;
   }
 
   public final PropertyDescriptorGroup[] getPropertyDescriptorGroups() {
-    return descriptorGroups;
+    return state.groups;
   }
 
   @Override
   public boolean hasProperty(final String name) {
-    if (descriptorMap == null) {
-      //  we need to set the map since it may be not set by JAXB
-      setDescriptorGroups(descriptorGroups);
-    }
-    return descriptorMap.containsKey(name);
+    return (state.nameTable.indexOf(name) >= 0);
   }
 
   @Override
   public PropertyDescriptor getPropertyDescriptor(final String name) {
-    if (descriptorMap == null) {
-      //  we need to set the map since it may be not set by JAXB
-      setDescriptorGroups(descriptorGroups);
+    final State s = state;
+    final int index = s.nameTable.indexOf(name);
+    return (index < 0 ? null : s.descriptors[index]);
+  }
+
+  @Override
+  public int getPropertyIndex(final String name) {
+    return state.nameTable.indexOf(name);
+  }
+
+  @Override
+  public PropertyHandle getPropertyHandle(final String name) {
+    final State s = state;
+    final int index = s.nameTable.indexOf(name);
+    if (index < 0) {
+      throw new PropertyNotExistException(name);
     }
-    return descriptorMap.get(name);
+    return s.handles[index];
   }
 
   @Override
   public Bean newInstance() {
-    if (constructor == null) {
-      //  we need to set the bean type since it may be not set by JAXB
-      setBeanType(beanType);
-    }
-    try {
-      return constructor.newInstance(constructorArguments);
-    } catch (final Exception e) {
-      throw new ReflectionException(e);
-    }
+    return state.factory.newInstance(constructorArguments);
+  }
+
+  @Override
+  public Bean newInstance(final Bean prototype) {
+    return BeanCopier.newInstance(this, prototype);
+  }
+
+  /**
+   * Gets the canonical instance of this bean class.
+   * <p>
+   * The structurally equal bean classes are interned to the same instance, so
+   * that the beans of the same bean class could compare their bean classes by
+   * reference. The interned bean class must not be modified afterwards, e.g.,
+   * by {@link BeanGenerator#install(GroupedBeanClass)}.
+   *
+   * @return the canonical instance equal to this bean class.
+   */
+  public GroupedBeanClass intern() {
+    return (GroupedBeanClass) INTERNER.intern(this);
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(11, 7)
-        .append(name)
-        .append(beanType)
-        .append(descriptorGroups)
-        .build();
+    final State s = state;
+    int h = s.hash;
+    if (h == 0) {
+      h = name.hashCode();
+      h = 31 * h + s.beanType.hashCode();
+      h = 31 * h + Arrays.hashCode(s.groups);
+      s.hash = h;
+    }
+    return h;
   }
 
   @Override
@@ -303,20 +429,36 @@ public class GroupedBeanClass implements BeanClass {
       return false;
     }
     final GroupedBeanClass rhs = (GroupedBeanClass) obj;
-    return new EqualsBuilder()
-        .append(name, rhs.name)
-        .append(beanType, rhs.beanType)
-        .append(descriptorGroups, rhs.descriptorGroups)
-        .build();
+    final State s = state;
+    final State rhsState = rhs.state;
+    return (hashCode() == rhs.hashCode())
+        && (s.beanType == rhsState.beanType)
+        && name.equals(rhs.name)
+        && Arrays.equals(s.groups, rhsState.groups);
+  }
+
+  /**
+   * Writes the string representation of this bean class, which is the same as
+   * the string returned by {@link #toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    final State s = state;
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "name", name, true);
+    BeanObjects.appendField(out, "beanType", s.beanType, false);
+    BeanObjects.appendField(out, "descriptorGroups", s.groups, false);
+    BeanObjects.appendEnd(out);
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("name", name)
-        .append("beanType", beanType)
-        .append("descriptorGroups", descriptorGroups)
-        .build();
+    return BeanObjects.toString(this);
   }
 
 }
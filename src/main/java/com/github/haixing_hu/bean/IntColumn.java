@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A {@link Column} storing the values of a simple property of the type
+ * {@link Integer} in a {@code int} array.
+ * <p>
+ * The {@code null} values are recorded in a separated bit set. Scanning the
+ * values of this column by {@link #getInt(int)} reads the array sequentially
+ * without boxing the values.
+ *
+ * @author Haixing Hu
+ */
+@NotThreadSafe
+public final class IntColumn extends Column {
+
+  private int[] data;
+  private final BitSet nulls;
+
+  IntColumn(final BeanTable table, final PropertyDescriptor descriptor,
+      final int capacity) {
+    super(table, descriptor);
+    data = new int[capacity];
+    nulls = new BitSet();
+  }
+
+  /**
+   * Tests whether the value of a row is {@code null}.
+   *
+   * @param row
+   *          the id of a row.
+   * @return {@code true} if the value of the specified row is {@code null};
+   *         {@code false} otherwise.
+   * @throws IndexOutOfBoundsException
+   *           if the row does not exist.
+   */
+  public boolean isNull(final int row) {
+    table.checkRow(row);
+    return nulls.get(row);
+  }
+
+  /**
+   * Gets the value of a row.
+   *
+   * @param row
+   *          the id of a row.
+   * @return the value of the specified row.
+   * @throws IndexOutOfBoundsException
+   *           if the row does not exist.
+   * @throws NullPointerException
+   *           if the value of the specified row is {@code null}.
+   */
+  public int getInt(final int row) {
+    table.checkRow(row);
+    if (nulls.get(row)) {
+      throw new NullPointerException("The value of the property '"
+          + descriptor.getName() + "' of the row " + row + " is null.");
+    }
+    return data[row];
+  }
+
+  /**
+   * Sets the value of a row.
+   *
+   * @param row
+   *          the id of a row.
+   * @param value
+   *          the value to be set.
+   * @throws IndexOutOfBoundsException
+   *           if the row does not exist.
+   */
+  public void setInt(final int row, final int value) {
+    table.checkRow(row);
+    data[row] = value;
+    nulls.clear(row);
+  }
+
+  @Override
+  Object getValue(final int row) {
+    return (nulls.get(row) ? null : Integer.valueOf(data[row]));
+  }
+
+  @Override
+  void setValue(final int row, @Nullable final Object value) {
+    if (value == null) {
+      nulls.set(row);
+    } else {
+      data[row] = ((Integer) value).intValue();
+      nulls.clear(row);
+    }
+  }
+
+  @Override
+  boolean isNullValue(final int row) {
+    return nulls.get(row);
+  }
+
+  @Override
+  long loadBits(final int row, final PrimitiveType type) {
+    if (nulls.get(row)) {
+      throw new NullPointerException("The value of the property '"
+          + descriptor.getName() + "' is null.");
+    }
+    return data[row];
+  }
+
+  @Override
+  void storeBits(final int row, final PrimitiveType type, final long bits) {
+    data[row] = (int) bits;
+    nulls.clear(row);
+  }
+
+  @Override
+  void resize(final int capacity) {
+    data = Arrays.copyOf(data, capacity);
+  }
+
+  @Override
+  void initRow(final int row) {
+    data[row] = 0;
+    nulls.set(row);
+  }
+
+  @Override
+  void clear() {
+    nulls.clear();
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * A list of {@link Integer} values stored in a {@code int} array.
+ * <p>
+ * This list is used to store the values of the indexed properties of the type
+ * {@link Integer}. Besides the methods of the {@link java.util.List} interface,
+ * it provides primitive accessors which do not box the elements.
+ *
+ * @author Haixing Hu
+ */
+@NotThreadSafe
+public final class IntList extends PrimitiveList {
+
+  private static final int[] EMPTY = new int[0];
+
+  private int[] data;
+
+  /**
+   * Constructs an empty {@link IntList}.
+   */
+  public IntList() {
+    data = EMPTY;
+  }
+
+  /**
+   * Constructs an empty {@link IntList} with the specified capacity.
+   *
+   * @param capacity
+   *          the initial capacity of the list.
+   */
+  public IntList(final int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Invalid capacity: " + capacity);
+    }
+    data = new int[capacity];
+  }
+
+  /**
+   * Gets an element of this list.
+   *
+   * @param index
+   *          the index of an element.
+   * @return the element at the specified index.
+   * @throws IndexOutOfBoundsException
+   *           if the index is out of the range.
+   * @throws NullPointerException
+   *           if the element at the specified index is {@code null}.
+   */
+  public int getInt(final int index) {
+    checkIndex(index);
+    checkNotNull(index);
+    return data[index];
+  }
+
+  /**
+   * Sets an element of this list.
+   *
+   * @param index
+   *          the index of an element.
+   * @param value
+   *          the value to be set.
+   * @throws IndexOutOfBoundsException
+   *           if the index is out of the range.
+   */
+  public void setInt(final int index, final int value) {
+    checkIndex(index);
+    data[index] = value;
+    markNotNull(index);
+  }
+
+  /**
+   * Adds an element at the end of this list.
+   *
+   * @param value
+   *          the value to be added.
+   */
+  public void addInt(final int value) {
+    ensureCapacity(size + 1);
+    data[size] = value;
+    markNotNull(size);
+    ++size;
+    ++modCount;
+  }
+
+  /**
+   * Copies the elements of this list to a {@code int} array.
+   *
+   * @return a new array containing all the elements of this list.
+   * @throws NullPointerException
+   *           if this list contains a {@code null} element.
+   */
+  public int[] toIntArray() {
+    checkNoNull();
+    return Arrays.copyOf(data, size);
+  }
+
+  /**
+   * Replaces all the elements of this list with the elements of a
+   * {@code int} array.
+   *
+   * @param values
+   *          the array of the new elements, which will be copied.
+   */
+  public void setAll(final int[] values) {
+    requireNonNull("values", values);
+    if (values.length > data.length) {
+      data = Arrays.copyOf(values, values.length);
+    } else {
+      System.arraycopy(values, 0, data, 0, values.length);
+    }
+    size = values.length;
+    markNoNull();
+    ++modCount;
+  }
+
+  @Override
+  protected int capacity() {
+    return data.length;
+  }
+
+  @Override
+  protected void resize(final int capacity) {
+    data = Arrays.copyOf(data, capacity);
+  }
+
+  @Override
+  protected void move(final int from, final int to, final int length) {
+    System.arraycopy(data, from, data, to, length);
+  }
+
+  @Override
+  protected Object load(final int index) {
+    return Integer.valueOf(data[index]);
+  }
+
+  @Override
+  protected void store(final int index, final Object value) {
+    data[index] = ((Integer) value).intValue();
+  }
+
+  @Override
+  protected void copyData(final PrimitiveList other) {
+    final int[] otherData = ((IntList) other).data;
+    if (other.size > data.length) {
+      data = Arrays.copyOf(otherData, other.size);
+    } else {
+      System.arraycopy(otherData, 0, data, 0, other.size);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * A pool of canonical instances, which maps the equal objects to the same
+ * instance, as {@link String#intern()} does.
+ * <p>
+ * The canonical instances are weakly referenced, so that they could be garbage
+ * collected once they are not used elsewhere. The interned objects must not be
+ * modified in a way changing their equality or hash codes.
+ *
+ * @author Haixing Hu
+ */
+@ThreadSafe
+final class Interner<T> {
+
+  private final Map<T, WeakReference<T>> instances = new WeakHashMap<>();
+
+  /**
+   * Gets the canonical instance of an object.
+   *
+   * @param value
+   *          an object.
+   * @return the canonical instance equal to the specified object, which is the
+   *         object itself if no equal object has been interned.
+   */
+  synchronized T intern(final T value) {
+    requireNonNull("value", value);
+    final WeakReference<T> ref = instances.get(value);
+    final T canonical = (ref == null ? null : ref.get());
+    if (canonical != null) {
+      return canonical;
+    }
+    instances.put(value, new WeakReference<>(value));
+    return value;
+  }
+
+  /**
+   * Gets the number of canonical instances in this pool.
+   *
+   * @return the number of canonical instances in this pool, including the
+   *         ones which have been garbage collected but not yet expunged.
+   */
+  synchronized int size() {
+    return instances.size();
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * An implementation of {@link EntryCursor} over a {@link Map}.
+ * <p>
+ * The entries of a {@link CompactMap} stored in the parallel arrays are read
+ * by their indexes directly; the entries of other maps are read by the
+ * iterators of their entry sets. A cursor could be reset to traverse another
+ * map, so that one cursor is shared by all mapped properties of a bean during
+ * a traversal.
+ *
+ * @author Haixing Hu
+ */
+@NotThreadSafe
+final class MapEntryCursor implements EntryCursor {
+
+  private CompactMap compact;
+  private Iterator<? extends Map.Entry<String, ?>> iterator;
+  private int size;
+  private int index;
+  private boolean positioned;
+  private String key;
+  private Object value;
+
+  /**
+   * Resets this cursor to the position before the first entry of a map.
+   *
+   * @param map
+   *          the map to be traversed.
+   * @return this cursor.
+   */
+  MapEntryCursor reset(final Map<String, ?> map) {
+    if ((map instanceof CompactMap) && (! ((CompactMap) map).isHashed())) {
+      compact = (CompactMap) map;
+      iterator = null;
+    } else {
+      compact = null;
+      iterator = map.entrySet().iterator();
+    }
+    size = map.size();
+    index = 0;
+    positioned = false;
+    key = null;
+    value = null;
+    return this;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean next() {
+    if (compact != null) {
+      if (index < size) {
+        key = compact.keyAt(index);
+        value = compact.valueAt(index);
+        ++index;
+        positioned = true;
+        return true;
+      }
+    } else if ((iterator != null) && iterator.hasNext()) {
+      final Map.Entry<String, ?> entry = iterator.next();
+      key = entry.getKey();
+      value = entry.getValue();
+      positioned = true;
+      return true;
+    }
+    positioned = false;
+    key = null;
+    value = null;
+    return false;
+  }
+
+  @Override
+  public String getKey() {
+    if (! positioned) {
+      throw new IllegalStateException("The cursor is not positioned at an "
+          + "entry.");
+    }
+    return key;
+  }
+
+  @Override
+  public Object getValue() {
+    if (! positioned) {
+      throw new IllegalStateException("The cursor is not positioned at an "
+          + "entry.");
+    }
+    return value;
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.annotation.processing.Processor;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles Java source code in memory with the system Java compiler, and loads
+ * the compiled classes.
+ *
+ * @author Haixing Hu
+ */
+@ThreadSafe
+final class MemoryCompiler {
+
+  private final ClassLoader parent;
+  private final JavaCompiler compiler;
+
+  /**
+   * Constructs a {@link MemoryCompiler}.
+   *
+   * @param parent
+   *          the parent class loader of the class loaders loading the compiled
+   *          classes.
+   * @throws IllegalStateException
+   *           if no system Java compiler is available.
+   */
+  MemoryCompiler(final ClassLoader parent) {
+    this.parent = parent;
+    compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IllegalStateException(
+          "No system Java compiler is available; a JDK is required.");
+    }
+  }
+
+  /**
+   * Gets the parent class loader of the class loaders loading the compiled
+   * classes.
+   *
+   * @return the parent class loader of the class loaders loading the compiled
+   *         classes.
+   */
+  ClassLoader getParent() {
+    return parent;
+  }
+
+  /**
+   * Compiles the source code of classes and loads the compiled classes.
+   *
+   * @param sources
+   *          the map from the fully qualified names of the classes to their
+   *          source code.
+   * @param processors
+   *          the annotation processors to be run by the compiler, or
+   *          {@code null} to disable the annotation processing.
+   * @return the class loader loading the compiled classes, including the
+   *         classes generated by the annotation processors.
+   * @throws IllegalStateException
+   *           if failed to compile the source code.
+   */
+  ClassLoader compile(final Map<String, String> sources,
+      @Nullable final List<? extends Processor> processors) {
+    final DiagnosticCollector<JavaFileObject> diagnostics =
+        new DiagnosticCollector<>();
+    final StandardJavaFileManager standardManager =
+        compiler.getStandardFileManager(diagnostics, null, null);
+    final MemoryFileManager manager = new MemoryFileManager(standardManager);
+    try {
+      final List<JavaFileObject> files = new ArrayList<>();
+      for (final Map.Entry<String, String> entry : sources.entrySet()) {
+        files.add(new SourceFile(entry.getKey(), entry.getValue()));
+      }
+      final List<String> options = new ArrayList<>();
+      options.add("-classpath");
+      options.add(getClassPath());
+      if (processors == null) {
+        options.add("-proc:none");
+      }
+      final JavaCompiler.CompilationTask task = compiler.getTask(null,
+          manager, diagnostics, options, null, files);
+      if (processors != null) {
+        task.setProcessors(processors);
+      }
+      if (! task.call()) {
+        throw new IllegalStateException("Failed to compile the classes "
+            + sources.keySet() + ": " + diagnostics.getDiagnostics());
+      }
+      return new MemoryClassLoader(parent, manager.classes);
+    } finally {
+      try {
+        manager.close();
+      } catch (final IOException e) {
+        //  ignore it
+      }
+    }
+  }
+
+  /**
+   * Compiles the source code of a class and loads the compiled class.
+   *
+   * @param className
+   *          the fully qualified name of the class.
+   * @param source
+   *          the source code of the class.
+   * @return the compiled class.
+   * @throws IllegalStateException
+   *           if failed to compile or load the class.
+   */
+  Class<?> compile(final String className, final String source) {
+    final ClassLoader loader = compile(
+        Collections.singletonMap(className, source), null);
+    try {
+      return loader.loadClass(className);
+    } catch (final ClassNotFoundException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Gets the class path used to compile the source code.
+   *
+   * @return the class path of the system property {@code java.class.path},
+   *         followed by the URLs of the parent class loaders.
+   */
+  private String getClassPath() {
+    final Set<String> paths = new LinkedHashSet<>();
+    final String classPath = System.getProperty("java.class.path");
+    if (classPath != null && classPath.length() > 0) {
+      paths.addAll(Arrays.asList(classPath.split(File.pathSeparator)));
+    }
+    for (ClassLoader l = parent; l != null; l = l.getParent()) {
+      if (l instanceof URLClassLoader) {
+        for (final URL url : ((URLClassLoader) l).getURLs()) {
+          if ("file".equals(url.getProtocol())) {
+            try {
+              paths.add(new File(url.toURI()).getPath());
+            } catch (final Exception e) {
+              paths.add(url.getPath());
+            }
+          }
+        }
+      }
+    }
+    final StringBuilder builder = new StringBuilder();
+    for (final String path : paths) {
+      if (builder.length() > 0) {
+        builder.append(File.pathSeparatorChar);
+      }
+      builder.append(path);
+    }
+    return builder.toString();
+  }
+
+  private static final class SourceFile extends SimpleJavaFileObject {
+
+    private final String source;
+
+    SourceFile(final String className, final String source) {
+      super(URI.create("string:///" + className.replace('.', '/')
+          + Kind.SOURCE.extension), Kind.SOURCE);
+      this.source = source;
+    }
+
+    @Override
+    public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+      return source;
+    }
+  }
+
+  private static final class ClassFile extends SimpleJavaFileObject {
+
+    private final String className;
+    private final Map<String, byte[]> classes;
+
+    ClassFile(final String className, final Map<String, byte[]> classes) {
+      super(URI.create("bytes:///" + className.replace('.', '/')
+          + Kind.CLASS.extension), Kind.CLASS);
+      this.className = className;
+      this.classes = classes;
+    }
+
+    @Override
+    public OutputStream openOutputStream() {
+      return new ByteArrayOutputStream() {
+        @Override
+        public void close() throws IOException {
+          super.close();
+          classes.put(className, toByteArray());
+        }
+      };
+    }
+  }
+
+  private static final class MemoryFileManager extends
+      ForwardingJavaFileManager<StandardJavaFileManager> {
+
+    final Map<String, byte[]> classes = new HashMap<>();
+
+    MemoryFileManager(final StandardJavaFileManager fileManager) {
+      super(fileManager);
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(final Location location,
+        final String className, final Kind kind, final FileObject sibling)
+        throws IOException {
+      if (kind == Kind.SOURCE) {
+        //  the source files generated by the annotation processors
+        return new GeneratedSourceFile(className);
+      }
+      return new ClassFile(className, classes);
+    }
+  }
+
+  private static final class GeneratedSourceFile extends SimpleJavaFileObject {
+
+    private final StringWriter writer = new StringWriter();
+
+    GeneratedSourceFile(final String className) {
+      super(URI.create("generated:///" + className.replace('.', '/')
+          + Kind.SOURCE.extension), Kind.SOURCE);
+    }
+
+    @Override
+    public Writer openWriter() {
+      return writer;
+    }
+
+    @Override
+    public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+      return writer.toString();
+    }
+  }
+
+  private static final class MemoryClassLoader extends ClassLoader {
+
+    private final Map<String, byte[]> classes;
+
+    MemoryClassLoader(final ClassLoader parent,
+        final Map<String, byte[]> classes) {
+      super(parent);
+      this.classes = classes;
+    }
+
+    @Override
+    protected Class<?> findClass(final String name)
+        throws ClassNotFoundException {
+      final byte[] bytes = classes.get(name);
+      if (bytes == null) {
+        throw new ClassNotFoundException(name);
+      }
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+  }
+}
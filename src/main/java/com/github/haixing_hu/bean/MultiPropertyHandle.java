@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.concurrent.Immutable;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * A {@link MultiPropertyHandle} is a reusable accessor of a fixed list of
+ * properties of the beans created by a {@link BeanClass}.
+ * <p>
+ * The names of the properties are resolved to their slots once, when the
+ * handle is created. If the bean passed to the accessing functions of a handle
+ * is a {@link SlotBean} of the same bean class, such as a {@link DefaultBean}
+ * or an {@link ArrayBean}, the properties are accessed directly by their
+ * slots, and the values of the indexed and mapped properties are copied as a
+ * whole; a {@link SlotBean} of another bean class resolves each name once per
+ * call; otherwise the access falls back to the name based functions of the
+ * {@link Bean} interface.
+ * <p>
+ * A loader filling the same properties of many beans could create the handle
+ * once and reuse it for every record:
+ * <pre><code>
+ * final MultiPropertyHandle handle = new MultiPropertyHandle(beanClass,
+ *     "id", "name", "price");
+ * for (final Object[] record : records) {
+ *   final Bean bean = beanClass.newInstance();
+ *   handle.setAll(bean, record);
+ *   ...
+ * }
+ * </code></pre>
+ *
+ * @author Haixing Hu
+ */
+@Immutable
+public final class MultiPropertyHandle {
+
+  private final BeanClass beanClass;
+  private final PropertyDescriptor[] descriptors;
+  private final int[] slots;
+
+  /**
+   * Constructs a {@link MultiPropertyHandle}.
+   *
+   * @param beanClass
+   *          the bean class.
+   * @param names
+   *          the names of the properties accessed by the new handle.
+   * @throws NullPointerException
+   *           if any argument or name is {@code null}.
+   * @throws PropertyNotExistException
+   *           if any specified property does not exist.
+   */
+  public MultiPropertyHandle(final BeanClass beanClass,
+      final String ... names) {
+    this.beanClass = requireNonNull("beanClass", beanClass);
+    requireNonNull("names", names);
+    descriptors = new PropertyDescriptor[names.length];
+    slots = new int[names.length];
+    for (int i = 0; i < names.length; ++i) {
+      final PropertyHandle handle = beanClass.getPropertyHandle(
+          requireNonNull("name", names[i]));
+      descriptors[i] = handle.getDescriptor();
+      slots[i] = handle.getSlot();
+    }
+  }
+
+  /**
+   * Gets the bean class of this handle.
+   *
+   * @return the bean class of this handle.
+   */
+  public BeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  /**
+   * Gets the number of properties accessed by this handle.
+   *
+   * @return the number of properties accessed by this handle.
+   */
+  public int size() {
+    return slots.length;
+  }
+
+  /**
+   * Gets the descriptor of a property accessed by this handle.
+   *
+   * @param index
+   *          the index of a property in this handle.
+   * @return the descriptor of the property at the specified index.
+   */
+  public PropertyDescriptor getDescriptor(final int index) {
+    return descriptors[index];
+  }
+
+  private boolean isSlotBean(final Bean bean) {
+    return (bean instanceof SlotBean) && (bean.getBeanClass() == beanClass);
+  }
+
+  /**
+   * Resolves the slot of a property in a {@link SlotBean} of another bean
+   * class.
+   *
+   * @param bean
+   *          a slot bean whose bean class is not the bean class of this handle.
+   * @param index
+   *          the index of a property in this handle.
+   * @return the slot of the property in the bean.
+   * @throws PropertyNotExistException
+   *           if the bean has no property with the name of the property.
+   */
+  private int slotOf(final SlotBean bean, final int index) {
+    final String name = descriptors[index].getName();
+    final int slot = bean.getBeanClass().getPropertyIndex(name);
+    if (slot < 0) {
+      throw new PropertyNotExistException(name);
+    }
+    return slot;
+  }
+
+  private void checkLength(final Object[] values) {
+    requireNonNull("values", values);
+    if (values.length != slots.length) {
+      throw new IllegalArgumentException("The handle has " + slots.length
+          + " properties, but " + values.length + " values are provided.");
+    }
+  }
+
+  /**
+   * Sets the raw values of the properties of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param values
+   *          the new raw values of the properties, in the order of the names
+   *          passed to the constructor of this handle.
+   * @throws NullPointerException
+   *           if any argument is {@code null}, or the value of an indexed or
+   *           mapped property is {@code null}.
+   * @throws IllegalArgumentException
+   *           if the length of {@code values} is not the number of properties
+   *           accessed by this handle.
+   * @throws ClassCastException
+   *           if a value does not match the type of its property. The
+   *           properties before that property have already been set.
+   * @see Bean#setAll(Object[])
+   * @see Property#setRawValue(Object)
+   */
+  public void setAll(final Bean bean, final Object[] values) {
+    requireNonNull("bean", bean);
+    checkLength(values);
+    if (isSlotBean(bean)) {
+      final SlotBean slotBean = (SlotBean) bean;
+      for (int i = 0; i < slots.length; ++i) {
+        slotBean.setRawValue(slots[i], values[i]);
+      }
+    } else if (bean instanceof SlotBean) {
+      final SlotBean slotBean = (SlotBean) bean;
+      for (int i = 0; i < slots.length; ++i) {
+        slotBean.setRawValue(slotOf(slotBean, i), values[i]);
+      }
+    } else {
+      for (int i = 0; i < slots.length; ++i) {
+        setRawValue(bean, descriptors[i], values[i]);
+      }
+    }
+  }
+
+  /**
+   * Gets the raw values of the properties of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param values
+   *          the array to store the raw values of the properties, in the
+   *          order of the names passed to the constructor of this handle.
+   * @throws NullPointerException
+   *           if any argument is {@code null}.
+   * @throws IllegalArgumentException
+   *           if the length of {@code values} is not the number of properties
+   *           accessed by this handle.
+   * @see Bean#getAll(Object[])
+   * @see Property#getRawValue()
+   */
+  public void getAll(final Bean bean, final Object[] values) {
+    requireNonNull("bean", bean);
+    checkLength(values);
+    if (isSlotBean(bean)) {
+      final SlotBean slotBean = (SlotBean) bean;
+      for (int i = 0; i < slots.length; ++i) {
+        values[i] = slotBean.getRawValue(slots[i]);
+      }
+    } else if (bean instanceof SlotBean) {
+      final SlotBean slotBean = (SlotBean) bean;
+      for (int i = 0; i < slots.length; ++i) {
+        values[i] = slotBean.getRawValue(slotOf(slotBean, i));
+      }
+    } else {
+      for (int i = 0; i < slots.length; ++i) {
+        final String name = descriptors[i].getName();
+        if (descriptors[i].isSimple()) {
+          values[i] = bean.get(name);
+        } else {
+          values[i] = bean.getProperty(name).getRawValue();
+        }
+      }
+    }
+  }
+
+  /**
+   * Sets the raw value of a property of a bean which is not a
+   * {@link SlotBean}, through the name based functions of the bean, so that
+   * the bean could track the modification.
+   * <p>
+   * The elements or entries are validated and copied out before the property
+   * is cleared, since the value may be the container of the property itself,
+   * e.g., if it was returned by {@link #getAll(Bean, Object[])}.
+   */
+  private static void setRawValue(final Bean bean,
+      final PropertyDescriptor descriptor, final Object value) {
+    final String name = descriptor.getName();
+    switch (descriptor.getKind()) {
+      case INDEXED: {
+        final List<?> list = castValue(value, List.class,
+            "The value of an indexed property must be a java.util.List.");
+        final Object[] elements = list.toArray();
+        for (final Object element : elements) {
+          checkType(descriptor, element);
+        }
+        bean.clear(name);
+        for (final Object element : elements) {
+          bean.add(name, element);
+        }
+        return;
+      }
+      case MAPPED: {
+        final Map<?, ?> map = castValue(value, Map.class,
+            "The value of a mapped property must be a java.util.Map.");
+        final String[] keys = new String[map.size()];
+        final Object[] elements = new Object[keys.length];
+        int n = 0;
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+          final Object key = entry.getKey();
+          if (! (key instanceof String)) {
+            throw new ClassCastException(
+                "The keys of a mapped property must be non-null strings.");
+          }
+          checkType(descriptor, entry.getValue());
+          keys[n] = (String) key;
+          elements[n] = entry.getValue();
+          ++n;
+        }
+        bean.clear(name);
+        for (int i = 0; i < n; ++i) {
+          bean.set(name, keys[i], elements[i]);
+        }
+        return;
+      }
+      case SIMPLE:
+      default:
+        bean.set(name, value);
+        return;
+    }
+  }
+
+  private static <T> T castValue(final Object value,
+      final Class<T> containerType, final String message) {
+    if (value == null) {
+      throw new NullPointerException("value is null.");
+    }
+    if (! containerType.isInstance(value)) {
+      throw new ClassCastException(message);
+    }
+    return containerType.cast(value);
+  }
+
+  private static void checkType(final PropertyDescriptor descriptor,
+      final Object value) {
+    if (! descriptor.accepts(value)) {
+      throw new ClassCastException("Cannot cast the value of type "
+          + value.getClass().getName() + " to the value of type "
+          + descriptor.getType().getName());
+    }
+  }
+}
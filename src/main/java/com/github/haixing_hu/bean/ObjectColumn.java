@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A {@link Column} storing the values of a property in an object array.
+ * <p>
+ * For an indexed or mapped property, each row stores its own list or map.
+ *
+ * @author Haixing Hu
+ */
+@NotThreadSafe
+public final class ObjectColumn extends Column {
+
+  private Object[] data;
+
+  ObjectColumn(final BeanTable table, final PropertyDescriptor descriptor,
+      final int capacity) {
+    super(table, descriptor);
+    data = new Object[capacity];
+  }
+
+  @Override
+  Object getValue(final int row) {
+    return data[row];
+  }
+
+  @Override
+  void setValue(final int row, @Nullable final Object value) {
+    data[row] = value;
+  }
+
+  @Override
+  void resize(final int capacity) {
+    data = Arrays.copyOf(data, capacity);
+  }
+
+  @Override
+  void initRow(final int row) {
+    data[row] = AbstractSlotBean.newValue(descriptor);
+  }
+
+  @Override
+  void clear() {
+    Arrays.fill(data, null);
+  }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * An arena allocating the memory of {@link OffHeapBean} objects outside of the
+ * Java heap.
+ * <p>
+ * The memory is allocated from direct byte buffers in chunks, and all the
+ * memory of an arena is released at once when the arena is closed. The beans
+ * allocated from a closed arena cannot be accessed anymore; accessing them
+ * causes an {@link IllegalStateException}.
+ * <p>
+ * Since the values of the beans are stored in the direct buffers, they are not
+ * scanned by the garbage collector. The memory of a closed arena is reclaimed
+ * when its direct buffers are collected.
+ *
+ * @author Haixing Hu
+ */
+@NotThreadSafe
+public final class OffHeapArena implements Closeable, ToStringAppendable {
+
+  /**
+   * The default size of a chunk, in bytes.
+   */
+  public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+  private final int chunkSize;
+  private final Map<BeanClass, OffHeapLayout> layouts;
+  private List<ByteBuffer> chunks;
+  private ByteBuffer current;
+  private int currentIndex;
+  private long allocatedBytes;
+
+  /**
+   * Constructs an {@link OffHeapArena} with the default chunk size.
+   */
+  public OffHeapArena() {
+    this(DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Constructs an {@link OffHeapArena}.
+   *
+   * @param chunkSize
+   *          the size of the chunks allocated by the arena, in bytes.
+   */
+  public OffHeapArena(final int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+    }
+    this.chunkSize = chunkSize;
+    layouts = new IdentityHashMap<>();
+    chunks = new ArrayList<>();
+    current = null;
+    currentIndex = -1;
+    allocatedBytes = 0;
+  }
+
+  /**
+   * Tests whether this arena has been closed.
+   *
+   * @return {@code true} if this arena has been closed; {@code false}
+   *         otherwise.
+   */
+  public boolean isClosed() {
+    return (chunks == null);
+  }
+
+  /**
+   * Gets the number of bytes allocated for the records of beans.
+   *
+   * @return the number of bytes allocated for the records of beans.
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /**
+   * Gets the layout of the records of a bean class.
+   *
+   * @param beanClass
+   *          a bean class.
+   * @return the layout of the records of the bean class.
+   * @throws IllegalArgumentException
+   *           if the bean class has a property which could not be stored off
+   *           the heap.
+   */
+  OffHeapLayout getLayout(final BeanClass beanClass) {
+    checkOpen();
+    OffHeapLayout layout = layouts.get(beanClass);
+    if (layout == null) {
+      layout = new OffHeapLayout(beanClass);
+      layouts.put(beanClass, layout);
+    }
+    return layout;
+  }
+
+  /**
+   * Allocates a zero-filled record.
+   *
+   * @param size
+   *          the size of the record, which must be a multiple of 8.
+   * @return the address of the record, whose high 32 bits is the index of the
+   *         chunk and whose low 32 bits is the offset of the record in the
+   *         chunk.
+   */
+  long allocate(final int size) {
+    checkOpen();
+    if ((current == null) || (current.remaining() < size)) {
+      current = ByteBuffer.allocateDirect(Math.max(size, chunkSize))
+                          .order(ByteOrder.nativeOrder());
+      chunks.add(current);
+      currentIndex = chunks.size() - 1;
+    }
+    final int offset = current.position();
+    current.position(offset + size);
+    allocatedBytes += size;
+    return ((long) currentIndex << 32) | offset;
+  }
+
+  /**
+   * Allocates a zero-filled record of a bean class, without creating a bean
+   * object on the heap.
+   * <p>
+   * All the properties of the new record are {@code null}. The record could
+   * be accessed by an {@link OffHeapBean} pointed to its address.
+   *
+   * @param beanClass
+   *          a bean class.
+   * @return the address of the new record.
+   * @throws IllegalArgumentException
+   *           if the bean class has a property which could not be stored off
+   *           the heap.
+   * @throws IllegalStateException
+   *           if this arena has been closed.
+   * @see OffHeapBean#moveTo(long)
+   */
+  public long allocate(final BeanClass beanClass) {
+    requireNonNull("beanClass", beanClass);
+    return allocate(getLayout(beanClass).getRecordSize());
+  }
+
+  /**
+   * Checks the address of a record allocated from this arena.
+   *
+   * @param address
+   *          the address of a record.
+   * @param size
+   *          the size of the record.
+   * @throws IllegalArgumentException
+   *           if the address is not the address of a record of the specified
+   *           size allocated from this arena.
+   * @throws IllegalStateException
+   *           if this arena has been closed.
+   */
+  void checkAddress(final long address, final int size) {
+    checkOpen();
+    final int index = (int) (address >>> 32);
+    final int offset = (int) address;
+    if ((index < 0) || (index >= chunks.size()) || (offset < 0)
+        || ((offset & 7) != 0)
+        || (offset > chunks.get(index).position() - size)) {
+      throw new IllegalArgumentException("Invalid address: " + address);
+    }
+  }
+
+  /**
+   * Gets a chunk of this arena.
+   *
+   * @param index
+   *          the index of a chunk.
+   * @return the chunk with the specified index.
+   * @throws IllegalStateException
+   *           if this arena has been closed.
+   */
+  ByteBuffer getChunk(final int index) {
+    final List<ByteBuffer> list = chunks;
+    if (list == null) {
+      throw new IllegalStateException("The arena has been closed.");
+    }
+    return list.get(index);
+  }
+
+  private void checkOpen() {
+    if (chunks == null) {
+      throw new IllegalStateException("The arena has been closed.");
+    }
+  }
+
+  /**
+   * Closes this arena and releases all the memory allocated by it.
+   * <p>
+   * Closing a closed arena has no effect.
+   */
+  @Override
+  public void close() {
+    chunks = null;
+    current = null;
+    layouts.clear();
+  }
+
+  /**
+   * Writes the string representation of this arena, which is the same as the
+   * string returned by {@link #toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "chunkSize", chunkSize, true);
+    BeanObjects.appendField(out, "allocatedBytes", allocatedBytes, false);
+    BeanObjects.appendField(out, "closed", isClosed(), false);
+    BeanObjects.appendEnd(out);
+  }
+
+  @Override
+  public String toString() {
+    return BeanObjects.toString(this);
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * An implementation of {@link Bean} interface which stores the values of its
+ * properties outside of the Java heap.
+ * <p>
+ * Only the bean classes whose properties are all simple properties of the
+ * primitive wrapper types, i.e., {@link Boolean}, {@link Byte}, {@link Short},
+ * {@link Integer}, {@link Long}, {@link Float} and {@link Double}, are
+ * supported. The values of a bean are stored in a fixed-width record allocated
+ * from an {@link OffHeapArena}, and the lifetime of the record is bound to the
+ * arena: once the arena is closed, the bean cannot be accessed anymore.
+ * <p>
+ * The primitive accessors, e.g., {@link #getInt(String)}, read and write the
+ * record directly without boxing.
+ * <p>
+ * Although the values are stored off the heap, each {@link OffHeapBean} is
+ * still an object on the heap, taking about 48 bytes with compressed
+ * references, plus its array of dirty flags once a property is written.
+ * To access many records without an object per record, allocate the records
+ * by {@link OffHeapArena#allocate(BeanClass)} and point a single bean to each
+ * of them in turn by {@link #moveTo(long)}:
+ * <pre><code>
+ * final long[] addresses = new long[count];
+ * for (int i = 0; i &lt; count; ++i) {
+ *   addresses[i] = arena.allocate(beanClass);
+ * }
+ * final OffHeapBean cursor = new OffHeapBean(beanClass, arena, addresses[0]);
+ * long total = 0;
+ * for (final long address : addresses) {
+ *   cursor.moveTo(address);
+ *   total += cursor.getLong("amount");
+ * }
+ * </code></pre>
+ *
+ * @author Haixing Hu
+ */
+@NotThreadSafe
+public final class OffHeapBean extends AbstractSlotBean {
+
+  private final OffHeapArena arena;
+  private final OffHeapLayout layout;
+  private int chunk;
+  private int base;
+
+  /**
+   * Constructs a {@link OffHeapBean}.
+   *
+   * @param beanClass
+   *          the class of the bean.
+   * @param arena
+   *          the arena where the values of the bean are allocated.
+   * @throws IllegalArgumentException
+   *           if some property of the bean class is not a simple property of a
+   *           primitive wrapper type.
+   * @throws IllegalStateException
+   *           if the arena has been closed.
+   */
+  public OffHeapBean(final BeanClass beanClass, final OffHeapArena arena) {
+    super(beanClass);
+    this.arena = requireNonNull("arena", arena);
+    layout = arena.getLayout(beanClass);
+    final long address = arena.allocate(layout.getRecordSize());
+    chunk = (int) (address >>> 32);
+    base = (int) address;
+  }
+
+  /**
+   * Constructs a {@link OffHeapBean} pointed to an existing record.
+   *
+   * @param beanClass
+   *          the class of the bean.
+   * @param arena
+   *          the arena where the record was allocated.
+   * @param address
+   *          the address of a record of the bean class, returned by
+   *          {@link OffHeapArena#allocate(BeanClass)} or
+   *          {@link #getAddress()}.
+   * @throws IllegalArgumentException
+   *           if some property of the bean class is not a simple property of a
+   *           primitive wrapper type, or the address is not the address of a
+   *           record allocated from the arena.
+   * @throws IllegalStateException
+   *           if the arena has been closed.
+   */
+  public OffHeapBean(final BeanClass beanClass, final OffHeapArena arena,
+      final long address) {
+    super(beanClass);
+    this.arena = requireNonNull("arena", arena);
+    layout = arena.getLayout(beanClass);
+    arena.checkAddress(address, layout.getRecordSize());
+    chunk = (int) (address >>> 32);
+    base = (int) address;
+  }
+
+  /**
+   * Constructs a {@link OffHeapBean} by copying the record of another
+   * {@link OffHeapBean} to a new record allocated from the same arena.
+   *
+   * @param prototype
+   *          the bean to be copied.
+   * @throws IllegalStateException
+   *           if the arena has been closed.
+   */
+  private OffHeapBean(final OffHeapBean prototype) {
+    super(prototype.beanClass);
+    arena = prototype.arena;
+    layout = prototype.layout;
+    final int size = layout.getRecordSize();
+    final long address = arena.allocate(size);
+    chunk = (int) (address >>> 32);
+    base = (int) address;
+    final ByteBuffer source = arena.getChunk(prototype.chunk).duplicate();
+    source.limit(prototype.base + size);
+    source.position(prototype.base);
+    final ByteBuffer target = arena.getChunk(chunk).duplicate();
+    target.position(base);
+    target.put(source);
+  }
+
+  /**
+   * Gets the arena where the values of this bean are allocated.
+   *
+   * @return the arena where the values of this bean are allocated.
+   */
+  public OffHeapArena getArena() {
+    return arena;
+  }
+
+  /**
+   * Gets the address of the record of this bean.
+   *
+   * @return the address of the record of this bean in its arena.
+   */
+  public long getAddress() {
+    return ((long) chunk << 32) | base;
+  }
+
+  /**
+   * Points this bean to another record of its bean class.
+   * <p>
+   * The record previously pointed to is not modified, and the dirty flags of
+   * this bean are cleared.
+   *
+   * @param address
+   *          the address of a record of the bean class of this bean, returned
+   *          by {@link OffHeapArena#allocate(BeanClass)} or
+   *          {@link #getAddress()}.
+   * @throws IllegalArgumentException
+   *           if the address is not the address of a record allocated from the
+   *           arena of this bean.
+   * @throws IllegalStateException
+   *           if the arena has been closed.
+   */
+  public void moveTo(final long address) {
+    arena.checkAddress(address, layout.getRecordSize());
+    chunk = (int) (address >>> 32);
+    base = (int) address;
+    clearDirty();
+  }
+
+  @Override
+  protected Bean copy(final boolean deep) {
+    //  the copy is allocated from the same arena, and since all properties are
+    //  primitive values, a deep copy is the same as a shallow copy
+    return new OffHeapBean(this);
+  }
+
+  @Override
+  protected Object getValue(final int slot) {
+    final ByteBuffer buffer = arena.getChunk(chunk);
+    if (layout.isPresent(buffer, base, slot)) {
+      return layout.getType(slot).fromBits(layout.readBits(buffer, base, slot));
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  protected void setValue(final int slot, @Nullable final Object value) {
+    final ByteBuffer buffer = arena.getChunk(chunk);
+    if (value == null) {
+      layout.setPresent(buffer, base, slot, false);
+    } else {
+      layout.writeBits(buffer, base, slot, layout.getType(slot).toBits(value));
+      layout.setPresent(buffer, base, slot, true);
+    }
+  }
+
+  @Override
+  protected long loadBits(final int slot, final PrimitiveType type) {
+    final ByteBuffer buffer = arena.getChunk(chunk);
+    if (! layout.isPresent(buffer, base, slot)) {
+      throw new NullPointerException("The value of the property '"
+          + descriptors[slot].getName() + "' is null.");
+    }
+    return layout.readBits(buffer, base, slot);
+  }
+
+  @Override
+  protected void storeBits(final int slot, final PrimitiveType type,
+      final long bits) {
+    final ByteBuffer buffer = arena.getChunk(chunk);
+    layout.writeBits(buffer, base, slot, bits);
+    layout.setPresent(buffer, base, slot, true);
+  }
+
+  @Override
+  public int hashCode() {
+    final ByteBuffer buffer = arena.getChunk(chunk);
+    int h = beanClass.hashCode();
+    for (int slot = 0; slot < descriptors.length; ++slot) {
+      if (layout.isPresent(buffer, base, slot)) {
+        h = 31 * h + BeanObjects.hashBits(layout.getType(slot),
+            layout.readBits(buffer, base, slot));
+      } else {
+        h = 31 * h;
+      }
+    }
+    return h;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj == null) {
+      return false;
+    }
+    if (obj == this) {
+      return true;
+    }
+    if (obj.getClass() != getClass()) {
+      return false;
+    }
+    final OffHeapBean rhs = (OffHeapBean) obj;
+    if (! beanClass.equals(rhs.beanClass)) {
+      return false;
+    }
+    //  the equal bean classes have the same properties in the same order
+    final ByteBuffer buffer = arena.getChunk(chunk);
+    final ByteBuffer rhsBuffer = rhs.arena.getChunk(rhs.chunk);
+    for (int slot = 0; slot < descriptors.length; ++slot) {
+      final boolean present = layout.isPresent(buffer, base, slot);
+      if (present != rhs.layout.isPresent(rhsBuffer, rhs.base, slot)) {
+        return false;
+      }
+      if (present && (! BeanObjects.equalBits(layout.getType(slot),
+          layout.readBits(buffer, base, slot),
+          rhs.layout.readBits(rhsBuffer, rhs.base, slot)))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    final ByteBuffer buffer = arena.getChunk(chunk);
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "beanClass", beanClass, true);
+    out.append(",values={");
+    for (int slot = 0; slot < descriptors.length; ++slot) {
+      if (slot > 0) {
+        out.append(',');
+      }
+      if (layout.isPresent(buffer, base, slot)) {
+        BeanObjects.appendBits(out, layout.getType(slot),
+            layout.readBits(buffer, base, slot));
+      } else {
+        BeanObjects.appendValue(out, null);
+      }
+    }
+    out.append('}');
+    BeanObjects.appendEnd(out);
+  }
+}
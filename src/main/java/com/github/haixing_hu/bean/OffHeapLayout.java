@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The memory layout of the records of an {@link OffHeapBean}.
+ * <p>
+ * A record starts with a bitmap whose bits indicate whether the values of the
+ * properties are present (i.e., not {@code null}), followed by the values of
+ * the properties. The values are placed in the ascending order of their sizes,
+ * with each group aligned to its size, so that the small values fill the space
+ * after the bitmap and each value is naturally aligned if the record is 8-byte
+ * aligned.
+ *
+ * @author Haixing Hu
+ */
+@Immutable
+final class OffHeapLayout {
+
+  private final PrimitiveType[] types;
+  private final int[] offsets;
+  private final int recordSize;
+
+  /**
+   * Constructs the layout of the records of a bean class.
+   *
+   * @param beanClass
+   *          a bean class.
+   * @throws IllegalArgumentException
+   *           if some property of the bean class is not a simple property of a
+   *           primitive wrapper type.
+   */
+  OffHeapLayout(final BeanClass beanClass) {
+    final PropertyDescriptor[] descriptors = beanClass.getPropertyDescriptors();
+    final int n = descriptors.length;
+    types = new PrimitiveType[n];
+    offsets = new int[n];
+    for (int i = 0; i < n; ++i) {
+      final PropertyDescriptor descriptor = descriptors[i];
+      final PrimitiveType type = PrimitiveType.of(descriptor.getType());
+      if ((descriptor.getKind() != PropertyKind.SIMPLE) || (type == null)) {
+        throw new IllegalArgumentException("The property '"
+            + descriptor.getName() + "' of the bean class " + beanClass.getName()
+            + " is not a simple property of a primitive wrapper type.");
+      }
+      types[i] = type;
+    }
+    int offset = (n + 7) / 8;
+    for (int size = 1; size <= 8; size *= 2) {
+      offset = align(offset, size);
+      for (int i = 0; i < n; ++i) {
+        if (types[i].getSize() == size) {
+          offsets[i] = offset;
+          offset += size;
+        }
+      }
+    }
+    recordSize = align(offset, 8);
+  }
+
+  static int align(final int offset, final int alignment) {
+    return (offset + alignment - 1) & (- alignment);
+  }
+
+  /**
+   * Gets the size of a record in bytes.
+   *
+   * @return the size of a record in bytes, which is a multiple of 8.
+   */
+  int getRecordSize() {
+    return recordSize;
+  }
+
+  /**
+   * Gets the primitive type of a property.
+   *
+   * @param slot
+   *          the slot of a property.
+   * @return the primitive type of the property in the specified slot.
+   */
+  PrimitiveType getType(final int slot) {
+    return types[slot];
+  }
+
+  /**
+   * Tests whether the value of a property is present in a record.
+   *
+   * @param buffer
+   *          the buffer containing the record.
+   * @param base
+   *          the offset of the record in the buffer.
+   * @param slot
+   *          the slot of a property.
+   * @return {@code true} if the value of the property is present;
+   *         {@code false} if it is {@code null}.
+   */
+  boolean isPresent(final ByteBuffer buffer, final int base, final int slot) {
+    return (buffer.get(base + (slot >>> 3)) & (1 << (slot & 7))) != 0;
+  }
+
+  /**
+   * Sets whether the value of a property is present in a record.
+   *
+   * @param buffer
+   *          the buffer containing the record.
+   * @param base
+   *          the offset of the record in the buffer.
+   * @param slot
+   *          the slot of a property.
+   * @param present
+   *          {@code true} if the value of the property is present;
+   *          {@code false} if it is {@code null}.
+   */
+  void setPresent(final ByteBuffer buffer, final int base, final int slot,
+      final boolean present) {
+    final int index = base + (slot >>> 3);
+    final int mask = 1 << (slot & 7);
+    final int bits = buffer.get(index);
+    buffer.put(index, (byte) (present ? (bits | mask) : (bits & ~ mask)));
+  }
+
+  /**
+   * Reads the bit pattern of the value of a property from a record.
+   *
+   * @param buffer
+   *          the buffer containing the record.
+   * @param base
+   *          the offset of the record in the buffer.
+   * @param slot
+   *          the slot of a property.
+   * @return the bit pattern of the value, as converted by
+   *         {@link PrimitiveType#toBits(Object)}.
+   */
+  long readBits(final ByteBuffer buffer, final int base, final int slot) {
+    final int index = base + offsets[slot];
+    switch (types[slot]) {
+      case BOOLEAN:
+        return (buffer.get(index) != 0 ? 1L : 0L);
+      case BYTE:
+        return buffer.get(index);
+      case SHORT:
+        return buffer.getShort(index);
+      case INT:
+      case FLOAT:
+        return buffer.getInt(index);
+      case LONG:
+      case DOUBLE:
+      default:
+        return buffer.getLong(index);
+    }
+  }
+
+  /**
+   * Writes the bit pattern of the value of a property to a record.
+   *
+   * @param buffer
+   *          the buffer containing the record.
+   * @param base
+   *          the offset of the record in the buffer.
+   * @param slot
+   *          the slot of a property.
+   * @param bits
+   *          the bit pattern of the value, as converted by
+   *          {@link PrimitiveType#toBits(Object)}.
+   */
+  void writeBits(final ByteBuffer buffer, final int base, final int slot,
+      final long bits) {
+    final int index = base + offsets[slot];
+    switch (types[slot].getSize()) {
+      case 1:
+        buffer.put(index, (byte) bits);
+        break;
+      case 2:
+        buffer.putShort(index, (short) bits);
+        break;
+      case 4:
+        buffer.putInt(index, (int) bits);
+        break;
+      case 8:
+      default:
+        buffer.putLong(index, bits);
+        break;
+    }
+  }
+}
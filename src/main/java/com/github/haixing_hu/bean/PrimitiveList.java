@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A skeletal implementation of the lists storing the values of an indexed
+ * property of a primitive wrapper type in a primitive array.
+ * <p>
+ * The list could contain {@code null} elements. The flags of the {@code null}
+ * elements are stored in a parallel {@code boolean} array, which is allocated
+ * only when the first {@code null} element is stored, therefore a list without
+ * {@code null} elements only takes the space of its primitive array.
+ * <p>
+ * The subclasses store the non-null elements in their own primitive arrays, and
+ * provide the primitive accessors to the elements.
+ *
+ * @author Haixing Hu
+ */
+@NotThreadSafe
+public abstract class PrimitiveList extends AbstractList<Object> implements
+    RandomAccess {
+
+  /**
+   * The default capacity of a list allocated for the first time.
+   */
+  protected static final int DEFAULT_CAPACITY = 10;
+
+  /**
+   * Creates the list storing the values of an indexed property.
+   *
+   * @param type
+   *          the type of an indexed property.
+   * @return an {@link IntList}, a {@link LongList} or a {@link DoubleList} if
+   *         the specified type is {@link Integer}, {@link Long} or
+   *         {@link Double} respectively; an {@link ArrayList} otherwise.
+   */
+  public static List<Object> create(final Class<?> type) {
+    if (type == Integer.class) {
+      return new IntList();
+    } else if (type == Long.class) {
+      return new LongList();
+    } else if (type == Double.class) {
+      return new DoubleList();
+    } else {
+      return new ArrayList<Object>();
+    }
+  }
+
+  protected int size;
+  private boolean[] nulls;
+
+  /**
+   * Gets the capacity of the primitive array of this list.
+   *
+   * @return the capacity of the primitive array of this list.
+   */
+  protected abstract int capacity();
+
+  /**
+   * Reallocates the primitive array of this list.
+   *
+   * @param capacity
+   *          the new capacity, which is not less than the size of this list.
+   */
+  protected abstract void resize(int capacity);
+
+  /**
+   * Moves a range of elements in the primitive array of this list.
+   *
+   * @param from
+   *          the index of the first element to be moved.
+   * @param to
+   *          the index where the first element is moved to.
+   * @param length
+   *          the number of elements to be moved.
+   */
+  protected abstract void move(int from, int to, int length);
+
+  /**
+   * Boxes a non-null element of this list.
+   *
+   * @param index
+   *          the index of a non-null element.
+   * @return the boxed element.
+   */
+  protected abstract Object load(int index);
+
+  /**
+   * Unboxes and stores a non-null element of this list.
+   *
+   * @param index
+   *          the index of the element.
+   * @param value
+   *          the non-null value to be stored.
+   * @throws ClassCastException
+   *           if the value is not an instance of the element type of this
+   *           list.
+   */
+  protected abstract void store(int index, Object value);
+
+  /**
+   * Copies the primitive array of another list of the same class.
+   *
+   * @param other
+   *          another list of the same class as this list.
+   */
+  protected abstract void copyData(PrimitiveList other);
+
+  /**
+   * Checks an index of an element of this list.
+   *
+   * @param index
+   *          an index.
+   * @throws IndexOutOfBoundsException
+   *           if the index is out of the range.
+   */
+  protected final void checkIndex(final int index) {
+    if ((index < 0) || (index >= size)) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+          + size);
+    }
+  }
+
+  /**
+   * Ensures the capacity of this list.
+   *
+   * @param minCapacity
+   *          the required minimum capacity.
+   */
+  protected final void ensureCapacity(final int minCapacity) {
+    final int capacity = capacity();
+    if (minCapacity > capacity) {
+      final int newCapacity = Math.max(capacity + (capacity >> 1),
+          Math.max(minCapacity, DEFAULT_CAPACITY));
+      resize(newCapacity);
+      if (nulls != null) {
+        nulls = Arrays.copyOf(nulls, newCapacity);
+      }
+    }
+  }
+
+  /**
+   * Checks that an element of this list is not {@code null}.
+   *
+   * @param index
+   *          the index of an existing element.
+   * @throws NullPointerException
+   *           if the element is {@code null}.
+   */
+  protected final void checkNotNull(final int index) {
+    if ((nulls != null) && nulls[index]) {
+      throw new NullPointerException("The element at index " + index
+          + " is null.");
+    }
+  }
+
+  /**
+   * Checks that this list has no {@code null} element.
+   *
+   * @throws NullPointerException
+   *           if this list has a {@code null} element.
+   */
+  protected final void checkNoNull() {
+    if (nulls != null) {
+      for (int i = 0; i < size; ++i) {
+        if (nulls[i]) {
+          throw new NullPointerException("The element at index " + i
+              + " is null.");
+        }
+      }
+    }
+  }
+
+  /**
+   * Marks an element of this list as not {@code null}.
+   *
+   * @param index
+   *          the index of an element.
+   */
+  protected final void markNotNull(final int index) {
+    if (nulls != null) {
+      nulls[index] = false;
+    }
+  }
+
+  /**
+   * Marks all elements of this list as not {@code null}.
+   */
+  protected final void markNoNull() {
+    nulls = null;
+  }
+
+  /**
+   * Tests whether an element of this list is {@code null}.
+   *
+   * @param index
+   *          the index of an element.
+   * @return {@code true} if the element is {@code null}; {@code false}
+   *         otherwise.
+   * @throws IndexOutOfBoundsException
+   *           if the index is out of the range.
+   */
+  public final boolean isNull(final int index) {
+    checkIndex(index);
+    return (nulls != null) && nulls[index];
+  }
+
+  /**
+   * Replaces all the elements of this list with the elements of another list,
+   * if the other list is of the same class as this list.
+   *
+   * @param list
+   *          another list.
+   * @return {@code true} if the other list is of the same class as this list
+   *         and its elements were copied; {@code false} otherwise, and this
+   *         list is not modified.
+   */
+  public final boolean copyFrom(final List<?> list) {
+    if (list == this) {
+      return true;
+    }
+    if (list.getClass() != getClass()) {
+      return false;
+    }
+    final PrimitiveList other = (PrimitiveList) list;
+    copyData(other);
+    size = other.size;
+    if (other.nulls == null) {
+      nulls = null;
+    } else {
+      nulls = Arrays.copyOf(other.nulls, capacity());
+    }
+    ++modCount;
+    return true;
+  }
+
+  private void put(final int index, @Nullable final Object value) {
+    if (value == null) {
+      if (nulls == null) {
+        nulls = new boolean[capacity()];
+      }
+      nulls[index] = true;
+    } else {
+      store(index, value);
+      markNotNull(index);
+    }
+  }
+
+  private void shift(final int from, final int to, final int length) {
+    move(from, to, length);
+    if (nulls != null) {
+      System.arraycopy(nulls, from, nulls, to, length);
+    }
+  }
+
+  @Override
+  public final int size() {
+    return size;
+  }
+
+  @Override
+  public final Object get(final int index) {
+    checkIndex(index);
+    if ((nulls != null) && nulls[index]) {
+      return null;
+    } else {
+      return load(index);
+    }
+  }
+
+  @Override
+  public final Object set(final int index, @Nullable final Object value) {
+    final Object old = get(index);
+    put(index, value);
+    return old;
+  }
+
+  @Override
+  public final void add(final int index, @Nullable final Object value) {
+    if ((index < 0) || (index > size)) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+          + size);
+    }
+    ensureCapacity(size + 1);
+    if (value != null) {
+      //  unboxes the value into the spare slot past the end first, so that a
+      //  value of a wrong type is rejected before the list is modified
+      store(size, value);
+    }
+    shift(index, index + 1, size - index);
+    ++size;
+    put(index, value);
+    ++modCount;
+  }
+
+  @Override
+  public final Object remove(final int index) {
+    final Object old = get(index);
+    shift(index + 1, index, size - index - 1);
+    --size;
+    markNotNull(size);
+    ++modCount;
+    return old;
+  }
+
+  @Override
+  public final void clear() {
+    size = 0;
+    nulls = null;
+    ++modCount;
+  }
+}
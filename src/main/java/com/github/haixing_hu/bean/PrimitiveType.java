@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import javax.annotation.Nullable;
+
+/**
+ * The enumeration of the primitive types whose wrapper classes could be used
+ * as the types of properties.
+ * <p>
+ * The value of a property of a primitive type could be stored without boxing as
+ * a {@code long} bit pattern, which is converted by the {@link #toBits(Object)}
+ * and {@link #fromBits(long)} functions.
+ *
+ * @author Haixing Hu
+ */
+public enum PrimitiveType {
+
+  BOOLEAN(Boolean.class, "boolean", 1),
+
+  BYTE(Byte.class, "byte", 1),
+
+  SHORT(Short.class, "short", 2),
+
+  INT(Integer.class, "int", 4),
+
+  LONG(Long.class, "long", 8),
+
+  FLOAT(Float.class, "float", 4),
+
+  DOUBLE(Double.class, "double", 8);
+
+  private final Class<?> wrapperType;
+  private final String keyword;
+  private final int size;
+
+  private PrimitiveType(final Class<?> wrapperType, final String keyword,
+      final int size) {
+    this.wrapperType = wrapperType;
+    this.keyword = keyword;
+    this.size = size;
+  }
+
+  /**
+   * Gets the wrapper class of this primitive type.
+   *
+   * @return the wrapper class of this primitive type.
+   */
+  public Class<?> getWrapperType() {
+    return wrapperType;
+  }
+
+  /**
+   * Gets the Java keyword of this primitive type.
+   *
+   * @return the Java keyword of this primitive type, e.g. {@code "int"}.
+   */
+  public String getKeyword() {
+    return keyword;
+  }
+
+  /**
+   * Gets the number of bytes occupied by a value of this primitive type.
+   *
+   * @return the number of bytes occupied by a value of this primitive type.
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Gets the primitive type of a property type.
+   *
+   * @param type
+   *          the type of a property.
+   * @return the primitive type wrapped by the specified type, or {@code null}
+   *         if the specified type is not a wrapper class of a primitive type.
+   */
+  @Nullable
+  public static PrimitiveType of(final Class<?> type) {
+    if (type == Integer.class) {
+      return INT;
+    } else if (type == Long.class) {
+      return LONG;
+    } else if (type == Double.class) {
+      return DOUBLE;
+    } else if (type == Boolean.class) {
+      return BOOLEAN;
+    } else if (type == Float.class) {
+      return FLOAT;
+    } else if (type == Short.class) {
+      return SHORT;
+    } else if (type == Byte.class) {
+      return BYTE;
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Checks whether a property could be accessed as this primitive type.
+   *
+   * @param descriptor
+   *          the descriptor of a property.
+   * @throws ClassCastException
+   *           if the type of the property is not the wrapper class of this
+   *           primitive type.
+   */
+  public void check(final PropertyDescriptor descriptor) {
+    if (descriptor.getType() != wrapperType) {
+      throw new ClassCastException("Cannot cast the value of type "
+          + descriptor.getType().getName() + " to the value of type "
+          + keyword);
+    }
+  }
+
+  /**
+   * Converts a boxed value of this primitive type to its bit pattern.
+   *
+   * @param value
+   *          a boxed value of this primitive type, which cannot be
+   *          {@code null}.
+   * @return the bit pattern of the value.
+   */
+  public long toBits(final Object value) {
+    switch (this) {
+      case BOOLEAN:
+        return ((Boolean) value).booleanValue() ? 1L : 0L;
+      case FLOAT:
+        return Float.floatToRawIntBits(((Float) value).floatValue());
+      case DOUBLE:
+        return Double.doubleToRawLongBits(((Double) value).doubleValue());
+      case BYTE:
+      case SHORT:
+      case INT:
+      case LONG:
+      default:
+        return ((Number) value).longValue();
+    }
+  }
+
+  /**
+   * Converts a bit pattern to a boxed value of this primitive type.
+   *
+   * @param bits
+   *          the bit pattern of a value of this primitive type.
+   * @return the boxed value.
+   */
+  public Object fromBits(final long bits) {
+    switch (this) {
+      case BOOLEAN:
+        return Boolean.valueOf(bits != 0);
+      case BYTE:
+        return Byte.valueOf((byte) bits);
+      case SHORT:
+        return Short.valueOf((short) bits);
+      case INT:
+        return Integer.valueOf((int) bits);
+      case LONG:
+        return Long.valueOf(bits);
+      case FLOAT:
+        return Float.valueOf(Float.intBitsToFloat((int) bits));
+      case DOUBLE:
+      default:
+        return Double.valueOf(Double.longBitsToDouble(bits));
+    }
+  }
+}
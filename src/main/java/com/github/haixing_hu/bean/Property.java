@@ -16,9 +16,8 @@
  */
 package com.github.haixing_hu.bean;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nullable;
@@ -93,10 +92,11 @@ public interface Property {
    *           if {@code value} is {@code null} while this property is not a
    *           simple property.
    * @throws ClassCastException
-   *           if this property is an indexed property but the {@code value} is
-   *           not an instance of {@link ArrayList}; or if this property is a
-   *           mapped property but the {@code value} is not an instance of
-   *           {@link HashMap}.
+   *           if this property is a simple property but the {@code value} is
+   *           not an instance of its type; if this property is an indexed
+   *           property but the {@code value} is not an instance of
+   *           {@link List}; or if this property is a mapped property but the
+   *           {@code value} is not an instance of {@link Map}.
    * @throws ReflectionException
    *           if any other error occurs during the reflection operation.
    */
@@ -132,8 +132,201 @@ public interface Property {
    */
   void setSimpleValue(@Nullable Object object);
 
+  /**
+   * Gets the value of this simple property of the type {@link Boolean} as a
+   * {@code boolean} value.
+   *
+   * @return the value of this simple property.
+   * @throws NullPointerException
+   *           if the value of this property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Boolean}.
+   */
+  boolean getBooleanValue();
+
+  /**
+   * Sets the value of this simple property of the type {@link Boolean} from a
+   * {@code boolean} value.
+   *
+   * @param value
+   *          the value to be set.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Boolean}.
+   */
+  void setBooleanValue(boolean value);
+
+  /**
+   * Gets the value of this simple property of the type {@link Byte} as a
+   * {@code byte} value.
+   *
+   * @return the value of this simple property.
+   * @throws NullPointerException
+   *           if the value of this property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Byte}.
+   */
+  byte getByteValue();
+
+  /**
+   * Sets the value of this simple property of the type {@link Byte} from a
+   * {@code byte} value.
+   *
+   * @param value
+   *          the value to be set.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Byte}.
+   */
+  void setByteValue(byte value);
+
+  /**
+   * Gets the value of this simple property of the type {@link Short} as a
+   * {@code short} value.
+   *
+   * @return the value of this simple property.
+   * @throws NullPointerException
+   *           if the value of this property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Short}.
+   */
+  short getShortValue();
+
+  /**
+   * Sets the value of this simple property of the type {@link Short} from a
+   * {@code short} value.
+   *
+   * @param value
+   *          the value to be set.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Short}.
+   */
+  void setShortValue(short value);
+
+  /**
+   * Gets the value of this simple property of the type {@link Integer} as a
+   * {@code int} value.
+   *
+   * @return the value of this simple property.
+   * @throws NullPointerException
+   *           if the value of this property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Integer}.
+   */
+  int getIntValue();
+
+  /**
+   * Sets the value of this simple property of the type {@link Integer} from a
+   * {@code int} value.
+   *
+   * @param value
+   *          the value to be set.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Integer}.
+   */
+  void setIntValue(int value);
+
+  /**
+   * Gets the value of this simple property of the type {@link Long} as a
+   * {@code long} value.
+   *
+   * @return the value of this simple property.
+   * @throws NullPointerException
+   *           if the value of this property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Long}.
+   */
+  long getLongValue();
+
+  /**
+   * Sets the value of this simple property of the type {@link Long} from a
+   * {@code long} value.
+   *
+   * @param value
+   *          the value to be set.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Long}.
+   */
+  void setLongValue(long value);
+
+  /**
+   * Gets the value of this simple property of the type {@link Float} as a
+   * {@code float} value.
+   *
+   * @return the value of this simple property.
+   * @throws NullPointerException
+   *           if the value of this property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Float}.
+   */
+  float getFloatValue();
+
+  /**
+   * Sets the value of this simple property of the type {@link Float} from a
+   * {@code float} value.
+   *
+   * @param value
+   *          the value to be set.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Float}.
+   */
+  void setFloatValue(float value);
+
+  /**
+   * Gets the value of this simple property of the type {@link Double} as a
+   * {@code double} value.
+   *
+   * @return the value of this simple property.
+   * @throws NullPointerException
+   *           if the value of this property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Double}.
+   */
+  double getDoubleValue();
+
+  /**
+   * Sets the value of this simple property of the type {@link Double} from a
+   * {@code double} value.
+   *
+   * @param value
+   *          the value to be set.
+   * @throws InvalidPropertyKindException
+   *           if this property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Double}.
+   */
+  void setDoubleValue(double value);
+
   /**
    * Gets the list storing the values of this indexed property.
+   * <p>
+   * The values of an indexed property of the type {@link Integer},
+   * {@link Long} or {@link Double} are stored in an {@link IntList}, a
+   * {@link LongList} or a {@link DoubleList} respectively.
    *
    * @return the list storing the values of this indexed property.
    * @throws InvalidPropertyKindException
@@ -141,7 +334,7 @@ public interface Property {
    * @throws ReflectionException
    *           if any other error occurs during the reflection operation.
    */
-  ArrayList<Object> getIndexedValue();
+  List<Object> getIndexedValue();
 
   /**
    * Sets the list storing the values of this indexed property.
@@ -156,7 +349,7 @@ public interface Property {
    * @throws ReflectionException
    *           if any other error occurs during the reflection operation.
    */
-  void setIndexedValue(ArrayList<Object> list);
+  void setIndexedValue(List<Object> list);
 
   /**
    * Gets the value at the specified index of this indexed property.
@@ -260,6 +453,243 @@ public interface Property {
    */
   Object removeIndexedValue(int index);
 
+  /**
+   * Gets a value of this indexed property of the type {@link Integer} as a
+   * {@code int} value.
+   *
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of this indexed property.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Integer}.
+   * @throws IndexOutOfBoundsException
+   *           if the {@code index} is outside the range of this indexed
+   *           property.
+   * @throws NullPointerException
+   *           if the value at the specified index is {@code null}.
+   */
+  int getIntValue(int index);
+
+  /**
+   * Sets a value of this indexed property of the type {@link Integer} from a
+   * {@code int} value.
+   *
+   * @param index
+   *          the index of the value to be set.
+   * @param value
+   *          the value to be set.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Integer}.
+   * @throws IndexOutOfBoundsException
+   *           if the {@code index} is outside the range of this indexed
+   *           property.
+   */
+  void setIntValue(int index, int value);
+
+  /**
+   * Adds a {@code int} value at the end of this indexed property of the type
+   * {@link Integer}.
+   *
+   * @param value
+   *          the value to be added.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Integer}.
+   */
+  void addIntValue(int value);
+
+  /**
+   * Copies the values of this indexed property of the type {@link Integer} to a
+   * {@code int} array.
+   *
+   * @return a new array containing the values of this indexed property.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Integer}.
+   * @throws NullPointerException
+   *           if this indexed property contains a {@code null} value.
+   */
+  int[] getIntArrayValue();
+
+  /**
+   * Replaces the values of this indexed property of the type {@link Integer} with
+   * the values in a {@code int} array.
+   *
+   * @param values
+   *          the array of the new values, which will be copied.
+   * @throws NullPointerException
+   *           if {@code values} is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Integer}.
+   */
+  void setIntArrayValue(int[] values);
+
+  /**
+   * Gets a value of this indexed property of the type {@link Long} as a
+   * {@code long} value.
+   *
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of this indexed property.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Long}.
+   * @throws IndexOutOfBoundsException
+   *           if the {@code index} is outside the range of this indexed
+   *           property.
+   * @throws NullPointerException
+   *           if the value at the specified index is {@code null}.
+   */
+  long getLongValue(int index);
+
+  /**
+   * Sets a value of this indexed property of the type {@link Long} from a
+   * {@code long} value.
+   *
+   * @param index
+   *          the index of the value to be set.
+   * @param value
+   *          the value to be set.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Long}.
+   * @throws IndexOutOfBoundsException
+   *           if the {@code index} is outside the range of this indexed
+   *           property.
+   */
+  void setLongValue(int index, long value);
+
+  /**
+   * Adds a {@code long} value at the end of this indexed property of the type
+   * {@link Long}.
+   *
+   * @param value
+   *          the value to be added.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Long}.
+   */
+  void addLongValue(long value);
+
+  /**
+   * Copies the values of this indexed property of the type {@link Long} to a
+   * {@code long} array.
+   *
+   * @return a new array containing the values of this indexed property.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Long}.
+   * @throws NullPointerException
+   *           if this indexed property contains a {@code null} value.
+   */
+  long[] getLongArrayValue();
+
+  /**
+   * Replaces the values of this indexed property of the type {@link Long} with
+   * the values in a {@code long} array.
+   *
+   * @param values
+   *          the array of the new values, which will be copied.
+   * @throws NullPointerException
+   *           if {@code values} is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Long}.
+   */
+  void setLongArrayValue(long[] values);
+
+  /**
+   * Gets a value of this indexed property of the type {@link Double} as a
+   * {@code double} value.
+   *
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of this indexed property.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Double}.
+   * @throws IndexOutOfBoundsException
+   *           if the {@code index} is outside the range of this indexed
+   *           property.
+   * @throws NullPointerException
+   *           if the value at the specified index is {@code null}.
+   */
+  double getDoubleValue(int index);
+
+  /**
+   * Sets a value of this indexed property of the type {@link Double} from a
+   * {@code double} value.
+   *
+   * @param index
+   *          the index of the value to be set.
+   * @param value
+   *          the value to be set.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Double}.
+   * @throws IndexOutOfBoundsException
+   *           if the {@code index} is outside the range of this indexed
+   *           property.
+   */
+  void setDoubleValue(int index, double value);
+
+  /**
+   * Adds a {@code double} value at the end of this indexed property of the type
+   * {@link Double}.
+   *
+   * @param value
+   *          the value to be added.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Double}.
+   */
+  void addDoubleValue(double value);
+
+  /**
+   * Copies the values of this indexed property of the type {@link Double} to a
+   * {@code double} array.
+   *
+   * @return a new array containing the values of this indexed property.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Double}.
+   * @throws NullPointerException
+   *           if this indexed property contains a {@code null} value.
+   */
+  double[] getDoubleArrayValue();
+
+  /**
+   * Replaces the values of this indexed property of the type {@link Double} with
+   * the values in a {@code double} array.
+   *
+   * @param values
+   *          the array of the new values, which will be copied.
+   * @throws NullPointerException
+   *           if {@code values} is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if this property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of this property is not {@link Double}.
+   */
+  void setDoubleArrayValue(double[] values);
+
   /**
    * Gets the map storing the values of this mapped property.
    *
@@ -267,7 +697,7 @@ public interface Property {
    * @throws InvalidPropertyKindException
    *           if this property is not a mapped property.
    */
-  HashMap<String, Object> getMappedValue();
+  Map<String, Object> getMappedValue();
 
   /**
    * Sets the map storing the values of this mapped property.
@@ -280,7 +710,7 @@ public interface Property {
    * @throws InvalidPropertyKindException
    *           if this property is not a mapped property.
    */
-  void setMappedValue(HashMap<String, Object> map);
+  void setMappedValue(Map<String, Object> map);
 
   /**
    * Gets the key set of this mapped property.
@@ -366,4 +796,16 @@ public interface Property {
    *           if any other error occurs during the reflection operation.
    */
   void clear();
+
+  /**
+   * Resets this property to the state just after it was constructed.
+   * <p>
+   * The value of a simple property is set to {@code null}, and all values of an
+   * indexed or mapped property are cleared. The containers already allocated
+   * for the indexed or mapped property are kept for reuse.
+   *
+   * @throws ReflectionException
+   *           if any other error occurs during the reflection operation.
+   */
+  void reset();
 }
@@ -17,9 +17,11 @@
 
 package com.github.haixing_hu.bean;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.regex.Pattern;
 
+import javax.annotation.Nullable;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
@@ -27,9 +29,6 @@ import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import static com.github.haixing_hu.lang.Argument.requireNonEmpty;
 import static com.github.haixing_hu.lang.Argument.requireNonNull;
@@ -95,13 +94,34 @@ import static com.github.haixing_hu.lang.Argument.requireNonNull;
  */
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlRootElement(name = "property")
-public final class PropertyDescriptor implements Serializable {
+public final class PropertyDescriptor implements Serializable,
+    ToStringAppendable {
 
   private static final long serialVersionUID = 3888156978033183567L;
 
   private static final Pattern NAME_PATTERN =
       Pattern.compile("[a-zA-Z_][a-zA-Z_0-9-]*");
 
+  private static final Interner<PropertyDescriptor> INTERNER =
+      new Interner<>();
+
+  /**
+   * Maps the type of a property to the cache of the decisions whether the
+   * values of a class could be assigned to the property.
+   */
+  private static final ClassValue<ClassValue<Boolean>> ASSIGNABLE =
+      new ClassValue<ClassValue<Boolean>>() {
+        @Override
+        protected ClassValue<Boolean> computeValue(final Class<?> type) {
+          return new ClassValue<Boolean>() {
+            @Override
+            protected Boolean computeValue(final Class<?> valueClass) {
+              return type.isAssignableFrom(valueClass);
+            }
+          };
+        }
+      };
+
   /**
    * Tests whether a name is a valid property name.
    * <p>
@@ -138,6 +158,21 @@ public final class PropertyDescriptor implements Serializable {
   @XmlElement(name = "kind", required = false, defaultValue = "simple")
   private final PropertyKind kind;
 
+  /**
+   * The cached hash code, or 0 if it is not computed yet.
+   */
+  private transient int hash;
+
+  /**
+   * The class of the last value accepted by {@link #accepts(Object)}.
+   */
+  private transient Class<?> lastAccepted;
+
+  /**
+   * The cache of the assignability decisions of the type of this property.
+   */
+  private transient ClassValue<Boolean> assignable;
+
   /**
    * A default constructor used by the JAXB.
    */
@@ -249,13 +284,61 @@ public final class PropertyDescriptor implements Serializable {
     return kind == PropertyKind.MAPPED;
   }
 
+  /**
+   * Tests whether a value could be the value of this property, i.e., whether
+   * it is {@code null} or an instance of the type of this property.
+   * <p>
+   * The decision is cached for each class of the values, so that checking a
+   * large number of values of the same class does not repeat the reflective
+   * test.
+   *
+   * @param value
+   *          the value to be tested, which could be {@code null}.
+   * @return {@code true} if the value is {@code null} or an instance of the
+   *         type of this property; {@code false} otherwise.
+   */
+  public boolean accepts(@Nullable final Object value) {
+    if (value == null) {
+      return true;
+    }
+    final Class<?> valueClass = value.getClass();
+    if ((valueClass == type) || (valueClass == lastAccepted)) {
+      return true;
+    }
+    ClassValue<Boolean> cache = assignable;
+    if (cache == null) {
+      cache = ASSIGNABLE.get(type);
+      assignable = cache;
+    }
+    if (cache.get(valueClass)) {
+      lastAccepted = valueClass;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Gets the canonical instance of this property descriptor.
+   * <p>
+   * The structurally equal property descriptors are interned to the same
+   * instance, so that they could be compared by reference.
+   *
+   * @return the canonical instance equal to this property descriptor.
+   */
+  public PropertyDescriptor intern() {
+    return INTERNER.intern(this);
+  }
+
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(11, 13)
-        .append(name)
-        .append(type)
-        .append(kind)
-        .build();
+    int h = hash;
+    if (h == 0) {
+      h = name.hashCode();
+      h = 31 * h + type.hashCode();
+      h = 31 * h + kind.hashCode();
+      hash = h;
+    }
+    return h;
   }
 
   @Override
@@ -270,19 +353,33 @@ public final class PropertyDescriptor implements Serializable {
       return false;
     }
     final PropertyDescriptor rhs = (PropertyDescriptor) obj;
-    return new EqualsBuilder()
-        .append(name, rhs.name)
-        .append(type, rhs.type)
-        .append(kind, rhs.kind)
-        .build();
+    return (hashCode() == rhs.hashCode())
+        && (type == rhs.type)
+        && (kind == rhs.kind)
+        && name.equals(rhs.name);
+  }
+
+  /**
+   * Writes the string representation of this property descriptor, which is
+   * the same as the string returned by {@link #toString()}, to an
+   * {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "name", name, true);
+    BeanObjects.appendField(out, "type", type, false);
+    BeanObjects.appendField(out, "kind", kind, false);
+    BeanObjects.appendEnd(out);
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("name", name)
-        .append("type", type)
-        .append("kind", kind)
-        .build();
+    return BeanObjects.toString(this);
   }
 }
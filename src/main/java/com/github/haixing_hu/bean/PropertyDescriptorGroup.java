@@ -17,6 +17,9 @@
  */
 package com.github.haixing_hu.bean;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
@@ -24,9 +27,6 @@ import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlRootElement;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import static com.github.haixing_hu.lang.Argument.requireNonNull;
 
@@ -37,7 +37,7 @@ import static com.github.haixing_hu.lang.Argument.requireNonNull;
  */
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlRootElement(name = "property-group")
-public final class PropertyDescriptorGroup {
+public final class PropertyDescriptorGroup implements ToStringAppendable {
 
   @XmlElement(name="name", required = true)
   private final String name;
@@ -96,10 +96,7 @@ public final class PropertyDescriptorGroup {
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(11, 13)
-        .append(name)
-        .append(descriptors)
-        .build();
+    return 31 * name.hashCode() + Arrays.hashCode(descriptors);
   }
 
   @Override
@@ -114,18 +111,30 @@ public final class PropertyDescriptorGroup {
       return false;
     }
     final PropertyDescriptorGroup rhs = (PropertyDescriptorGroup) obj;
-    return new EqualsBuilder()
-        .append(name, rhs.name)
-        .append(descriptors, rhs.descriptors)
-        .build();
+    return name.equals(rhs.name)
+        && Arrays.equals(descriptors, rhs.descriptors);
+  }
+
+  /**
+   * Writes the string representation of this group, which is the same as
+   * the string returned by {@link #toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "name", name, true);
+    BeanObjects.appendField(out, "descriptors", descriptors, false);
+    BeanObjects.appendEnd(out);
   }
 
   @Override
   public String toString() {
-    return new ToStringBuilder(this)
-        .append("name", name)
-        .append("descriptors", descriptors)
-        .build();
+    return BeanObjects.toString(this);
   }
 
 }
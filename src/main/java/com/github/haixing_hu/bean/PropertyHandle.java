@@ -0,0 +1,973 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.IOException;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * A {@link PropertyHandle} is a reusable accessor of a property of the beans
+ * created by a {@link BeanClass}.
+ * <p>
+ * The name of the property is resolved to its slot, and the kind of the
+ * property is resolved, once when the handle is created; an accessing
+ * function of another kind fails without consulting the bean. If the bean
+ * passed to the accessing functions of a handle is a {@link SlotBean} of the
+ * same bean class, such as a {@link DefaultBean} or an {@link ArrayBean}, the
+ * property is accessed directly by its slot; otherwise the access falls back
+ * to the name based functions of the {@link Bean} interface.
+ * <p>
+ * A handle could be obtained by calling
+ * {@link BeanClass#getPropertyHandle(String)}:
+ * <pre><code>
+ * final PropertyHandle price = beanClass.getPropertyHandle("price");
+ * for (final Bean bean : beans) {
+ *   total += (Double) price.get(bean);
+ * }
+ * </code></pre>
+ *
+ * @author Haixing Hu
+ */
+@Immutable
+public final class PropertyHandle implements ToStringAppendable {
+
+  private final BeanClass beanClass;
+  private final PropertyDescriptor descriptor;
+  private final String name;
+  private final PropertyKind kind;
+  private final int slot;
+
+  /**
+   * Constructs a {@link PropertyHandle}.
+   *
+   * @param beanClass
+   *          the bean class.
+   * @param descriptor
+   *          the descriptor of the property.
+   * @param slot
+   *          the slot of the property in the beans created by the bean class,
+   *          i.e., the index of the descriptor in the array returned by
+   *          {@link BeanClass#getPropertyDescriptors()}.
+   */
+  public PropertyHandle(final BeanClass beanClass,
+      final PropertyDescriptor descriptor, final int slot) {
+    this.beanClass = requireNonNull("beanClass", beanClass);
+    this.descriptor = requireNonNull("descriptor", descriptor);
+    this.name = descriptor.getName();
+    this.kind = descriptor.getKind();
+    this.slot = slot;
+  }
+
+  /**
+   * Gets the bean class of this handle.
+   *
+   * @return the bean class of this handle.
+   */
+  public BeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  /**
+   * Gets the descriptor of the property accessed by this handle.
+   *
+   * @return the descriptor of the property accessed by this handle.
+   */
+  public PropertyDescriptor getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * Gets the name of the property accessed by this handle.
+   *
+   * @return the name of the property accessed by this handle.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the slot of the property accessed by this handle.
+   *
+   * @return the slot of the property accessed by this handle.
+   */
+  public int getSlot() {
+    return slot;
+  }
+
+  /**
+   * Checks whether the property accessed by this handle is of the specified
+   * kind.
+   *
+   * @param expected
+   *          the expected kind of the property.
+   * @throws InvalidPropertyKindException
+   *           if the property is not of the expected kind.
+   */
+  private void checkKind(final PropertyKind expected) {
+    if (kind != expected) {
+      throw new InvalidPropertyKindException(name, kind, expected);
+    }
+  }
+
+  /**
+   * Checks whether the property accessed by this handle is an indexed or
+   * mapped property.
+   *
+   * @throws InvalidPropertyKindException
+   *           if the property is a simple property.
+   */
+  private void checkContainer() {
+    if (kind == PropertyKind.SIMPLE) {
+      throw new InvalidPropertyKindException(name, kind,
+          PropertyKind.INDEXED, PropertyKind.MAPPED);
+    }
+  }
+
+  /**
+   * Tests whether the property could be accessed directly by its slot.
+   *
+   * @param bean
+   *          a bean.
+   * @return {@code true} if the bean is a {@link SlotBean} created by the bean
+   *         class of this handle; {@code false} otherwise.
+   */
+  private boolean isSlotBean(final Bean bean) {
+    return (bean instanceof SlotBean) && (bean.getBeanClass() == beanClass);
+  }
+
+  /**
+   * Gets the value of the simple property of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @return the value of the simple property of the bean.
+   * @see Bean#get(String)
+   */
+  public Object get(final Bean bean) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).get(slot);
+    } else {
+      return bean.get(name);
+    }
+  }
+
+  /**
+   * Sets the value of the simple property of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param value
+   *          the value to be set.
+   * @see Bean#set(String, Object)
+   */
+  public void set(final Bean bean, @Nullable final Object value) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).set(slot, value);
+    } else {
+      bean.set(name, value);
+    }
+  }
+
+  /**
+   * Gets the value of the simple property of a bean as a {@code boolean} value.
+   *
+   * @param bean
+   *          a bean.
+   * @return the value of the simple property of the bean.
+   * @see Bean#getBoolean(String)
+   */
+  public boolean getBoolean(final Bean bean) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getBoolean(slot);
+    } else {
+      return bean.getBoolean(name);
+    }
+  }
+
+  /**
+   * Sets the value of the simple property of a bean from a {@code boolean} value.
+   *
+   * @param bean
+   *          a bean.
+   * @param value
+   *          the value to be set.
+   * @see Bean#setBoolean(String, boolean)
+   */
+  public void setBoolean(final Bean bean, final boolean value) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).setBoolean(slot, value);
+    } else {
+      bean.setBoolean(name, value);
+    }
+  }
+
+  /**
+   * Gets the value of the simple property of a bean as a {@code byte} value.
+   *
+   * @param bean
+   *          a bean.
+   * @return the value of the simple property of the bean.
+   * @see Bean#getByte(String)
+   */
+  public byte getByte(final Bean bean) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getByte(slot);
+    } else {
+      return bean.getByte(name);
+    }
+  }
+
+  /**
+   * Sets the value of the simple property of a bean from a {@code byte} value.
+   *
+   * @param bean
+   *          a bean.
+   * @param value
+   *          the value to be set.
+   * @see Bean#setByte(String, byte)
+   */
+  public void setByte(final Bean bean, final byte value) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).setByte(slot, value);
+    } else {
+      bean.setByte(name, value);
+    }
+  }
+
+  /**
+   * Gets the value of the simple property of a bean as a {@code short} value.
+   *
+   * @param bean
+   *          a bean.
+   * @return the value of the simple property of the bean.
+   * @see Bean#getShort(String)
+   */
+  public short getShort(final Bean bean) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getShort(slot);
+    } else {
+      return bean.getShort(name);
+    }
+  }
+
+  /**
+   * Sets the value of the simple property of a bean from a {@code short} value.
+   *
+   * @param bean
+   *          a bean.
+   * @param value
+   *          the value to be set.
+   * @see Bean#setShort(String, short)
+   */
+  public void setShort(final Bean bean, final short value) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).setShort(slot, value);
+    } else {
+      bean.setShort(name, value);
+    }
+  }
+
+  /**
+   * Gets the value of the simple property of a bean as a {@code int} value.
+   *
+   * @param bean
+   *          a bean.
+   * @return the value of the simple property of the bean.
+   * @see Bean#getInt(String)
+   */
+  public int getInt(final Bean bean) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getInt(slot);
+    } else {
+      return bean.getInt(name);
+    }
+  }
+
+  /**
+   * Sets the value of the simple property of a bean from a {@code int} value.
+   *
+   * @param bean
+   *          a bean.
+   * @param value
+   *          the value to be set.
+   * @see Bean#setInt(String, int)
+   */
+  public void setInt(final Bean bean, final int value) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).setInt(slot, value);
+    } else {
+      bean.setInt(name, value);
+    }
+  }
+
+  /**
+   * Gets the value of the simple property of a bean as a {@code long} value.
+   *
+   * @param bean
+   *          a bean.
+   * @return the value of the simple property of the bean.
+   * @see Bean#getLong(String)
+   */
+  public long getLong(final Bean bean) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getLong(slot);
+    } else {
+      return bean.getLong(name);
+    }
+  }
+
+  /**
+   * Sets the value of the simple property of a bean from a {@code long} value.
+   *
+   * @param bean
+   *          a bean.
+   * @param value
+   *          the value to be set.
+   * @see Bean#setLong(String, long)
+   */
+  public void setLong(final Bean bean, final long value) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).setLong(slot, value);
+    } else {
+      bean.setLong(name, value);
+    }
+  }
+
+  /**
+   * Gets the value of the simple property of a bean as a {@code float} value.
+   *
+   * @param bean
+   *          a bean.
+   * @return the value of the simple property of the bean.
+   * @see Bean#getFloat(String)
+   */
+  public float getFloat(final Bean bean) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getFloat(slot);
+    } else {
+      return bean.getFloat(name);
+    }
+  }
+
+  /**
+   * Sets the value of the simple property of a bean from a {@code float} value.
+   *
+   * @param bean
+   *          a bean.
+   * @param value
+   *          the value to be set.
+   * @see Bean#setFloat(String, float)
+   */
+  public void setFloat(final Bean bean, final float value) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).setFloat(slot, value);
+    } else {
+      bean.setFloat(name, value);
+    }
+  }
+
+  /**
+   * Gets the value of the simple property of a bean as a {@code double} value.
+   *
+   * @param bean
+   *          a bean.
+   * @return the value of the simple property of the bean.
+   * @see Bean#getDouble(String)
+   */
+  public double getDouble(final Bean bean) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getDouble(slot);
+    } else {
+      return bean.getDouble(name);
+    }
+  }
+
+  /**
+   * Sets the value of the simple property of a bean from a {@code double} value.
+   *
+   * @param bean
+   *          a bean.
+   * @param value
+   *          the value to be set.
+   * @see Bean#setDouble(String, double)
+   */
+  public void setDouble(final Bean bean, final double value) {
+    checkKind(PropertyKind.SIMPLE);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).setDouble(slot, value);
+    } else {
+      bean.setDouble(name, value);
+    }
+  }
+
+  /**
+   * Gets the size of the indexed or mapped property of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @return the size of the indexed or mapped property of the bean.
+   * @see Bean#getSize(String)
+   */
+  public int getSize(final Bean bean) {
+    checkContainer();
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getSize(slot);
+    } else {
+      return bean.getSize(name);
+    }
+  }
+
+  /**
+   * Gets the value at the specified index of the indexed property of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of the indexed property of the
+   *         bean.
+   * @see Bean#get(String, int)
+   */
+  public Object getIndexed(final Bean bean, final int index) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).get(slot, index);
+    } else {
+      return bean.get(name, index);
+    }
+  }
+
+  /**
+   * Sets the value at the specified index of the indexed property of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param index
+   *          the index of the value to set.
+   * @param value
+   *          the value to be set.
+   * @see Bean#set(String, int, Object)
+   */
+  public void setIndexed(final Bean bean, final int index,
+      @Nullable final Object value) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).set(slot, index, value);
+    } else {
+      bean.set(name, index, value);
+    }
+  }
+
+  /**
+   * Inserts a value at the specified index of the indexed property of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param index
+   *          the index where the value to be inserted.
+   * @param value
+   *          the value to be inserted.
+   * @see Bean#add(String, int, Object)
+   */
+  public void addIndexed(final Bean bean, final int index,
+      @Nullable final Object value) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).add(slot, index, value);
+    } else {
+      bean.add(name, index, value);
+    }
+  }
+
+  /**
+   * Adds a value at the end of the indexed property of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param value
+   *          the value to be added.
+   * @see Bean#add(String, Object)
+   */
+  public void addIndexed(final Bean bean, @Nullable final Object value) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).add(slot, value);
+    } else {
+      bean.add(name, value);
+    }
+  }
+
+  /**
+   * Removes a value at the specified position from the indexed property of a
+   * bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param index
+   *          the index of the value to be removed.
+   * @return the removed value.
+   * @see Bean#remove(String, int)
+   */
+  public Object removeIndexed(final Bean bean, final int index) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).remove(slot, index);
+    } else {
+      return bean.remove(name, index);
+    }
+  }
+
+  /**
+   * Gets a value of the indexed property of a bean as a {@code int} value.
+   *
+   * @param bean
+   *          a bean.
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of the indexed property.
+   * @see Bean#getInt(String, int)
+   */
+  public int getInt(final Bean bean, final int index) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getInt(slot, index);
+    } else {
+      return bean.getInt(name, index);
+    }
+  }
+
+  /**
+   * Sets a value of the indexed property of a bean from a {@code int} value.
+   *
+   * @param bean
+   *          a bean.
+   * @param index
+   *          the index of the value to be set.
+   * @param value
+   *          the value to be set.
+   * @see Bean#setInt(String, int, int)
+   */
+  public void setInt(final Bean bean, final int index, final int value) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).setInt(slot, index, value);
+    } else {
+      bean.setInt(name, index, value);
+    }
+  }
+
+  /**
+   * Adds a {@code int} value at the end of the indexed property of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param value
+   *          the value to be added.
+   * @see Bean#addInt(String, int)
+   */
+  public void addInt(final Bean bean, final int value) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).addInt(slot, value);
+    } else {
+      bean.addInt(name, value);
+    }
+  }
+
+  /**
+   * Copies the values of the indexed property of a bean to a {@code int}
+   * array.
+   *
+   * @param bean
+   *          a bean.
+   * @return a new array containing the values of the indexed property.
+   * @see Bean#getIntArray(String)
+   */
+  public int[] getIntArray(final Bean bean) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getIntArray(slot);
+    } else {
+      return bean.getIntArray(name);
+    }
+  }
+
+  /**
+   * Replaces the values of the indexed property of a bean with the values in a
+   * {@code int} array.
+   *
+   * @param bean
+   *          a bean.
+   * @param values
+   *          the array of the new values, which will be copied.
+   * @see Bean#setIntArray(String, int[])
+   */
+  public void setIntArray(final Bean bean, final int[] values) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).setIntArray(slot, values);
+    } else {
+      bean.setIntArray(name, values);
+    }
+  }
+
+  /**
+   * Gets a value of the indexed property of a bean as a {@code long} value.
+   *
+   * @param bean
+   *          a bean.
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of the indexed property.
+   * @see Bean#getLong(String, int)
+   */
+  public long getLong(final Bean bean, final int index) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getLong(slot, index);
+    } else {
+      return bean.getLong(name, index);
+    }
+  }
+
+  /**
+   * Sets a value of the indexed property of a bean from a {@code long} value.
+   *
+   * @param bean
+   *          a bean.
+   * @param index
+   *          the index of the value to be set.
+   * @param value
+   *          the value to be set.
+   * @see Bean#setLong(String, int, long)
+   */
+  public void setLong(final Bean bean, final int index, final long value) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).setLong(slot, index, value);
+    } else {
+      bean.setLong(name, index, value);
+    }
+  }
+
+  /**
+   * Adds a {@code long} value at the end of the indexed property of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param value
+   *          the value to be added.
+   * @see Bean#addLong(String, long)
+   */
+  public void addLong(final Bean bean, final long value) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).addLong(slot, value);
+    } else {
+      bean.addLong(name, value);
+    }
+  }
+
+  /**
+   * Copies the values of the indexed property of a bean to a {@code long}
+   * array.
+   *
+   * @param bean
+   *          a bean.
+   * @return a new array containing the values of the indexed property.
+   * @see Bean#getLongArray(String)
+   */
+  public long[] getLongArray(final Bean bean) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getLongArray(slot);
+    } else {
+      return bean.getLongArray(name);
+    }
+  }
+
+  /**
+   * Replaces the values of the indexed property of a bean with the values in a
+   * {@code long} array.
+   *
+   * @param bean
+   *          a bean.
+   * @param values
+   *          the array of the new values, which will be copied.
+   * @see Bean#setLongArray(String, long[])
+   */
+  public void setLongArray(final Bean bean, final long[] values) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).setLongArray(slot, values);
+    } else {
+      bean.setLongArray(name, values);
+    }
+  }
+
+  /**
+   * Gets a value of the indexed property of a bean as a {@code double} value.
+   *
+   * @param bean
+   *          a bean.
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of the indexed property.
+   * @see Bean#getDouble(String, int)
+   */
+  public double getDouble(final Bean bean, final int index) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getDouble(slot, index);
+    } else {
+      return bean.getDouble(name, index);
+    }
+  }
+
+  /**
+   * Sets a value of the indexed property of a bean from a {@code double} value.
+   *
+   * @param bean
+   *          a bean.
+   * @param index
+   *          the index of the value to be set.
+   * @param value
+   *          the value to be set.
+   * @see Bean#setDouble(String, int, double)
+   */
+  public void setDouble(final Bean bean, final int index, final double value) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).setDouble(slot, index, value);
+    } else {
+      bean.setDouble(name, index, value);
+    }
+  }
+
+  /**
+   * Adds a {@code double} value at the end of the indexed property of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param value
+   *          the value to be added.
+   * @see Bean#addDouble(String, double)
+   */
+  public void addDouble(final Bean bean, final double value) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).addDouble(slot, value);
+    } else {
+      bean.addDouble(name, value);
+    }
+  }
+
+  /**
+   * Copies the values of the indexed property of a bean to a {@code double}
+   * array.
+   *
+   * @param bean
+   *          a bean.
+   * @return a new array containing the values of the indexed property.
+   * @see Bean#getDoubleArray(String)
+   */
+  public double[] getDoubleArray(final Bean bean) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getDoubleArray(slot);
+    } else {
+      return bean.getDoubleArray(name);
+    }
+  }
+
+  /**
+   * Replaces the values of the indexed property of a bean with the values in a
+   * {@code double} array.
+   *
+   * @param bean
+   *          a bean.
+   * @param values
+   *          the array of the new values, which will be copied.
+   * @see Bean#setDoubleArray(String, double[])
+   */
+  public void setDoubleArray(final Bean bean, final double[] values) {
+    checkKind(PropertyKind.INDEXED);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).setDoubleArray(slot, values);
+    } else {
+      bean.setDoubleArray(name, values);
+    }
+  }
+
+  /**
+   * Gets the key set of the mapped property of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @return the key set of the mapped property of the bean.
+   * @see Bean#getKeySet(String)
+   */
+  public Set<String> getKeySet(final Bean bean) {
+    checkKind(PropertyKind.MAPPED);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).getKeySet(slot);
+    } else {
+      return bean.getKeySet(name);
+    }
+  }
+
+  /**
+   * Tests whether the mapped property of a bean contains the specified key.
+   *
+   * @param bean
+   *          a bean.
+   * @param key
+   *          the key to check.
+   * @return {@code true} if the mapped property of the bean contains the
+   *         specified key; {@code false} otherwise.
+   * @see Bean#containsKey(String, String)
+   */
+  public boolean containsKey(final Bean bean, final String key) {
+    checkKind(PropertyKind.MAPPED);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).containsKey(slot, key);
+    } else {
+      return bean.containsKey(name, key);
+    }
+  }
+
+  /**
+   * Gets the value corresponds to a specified key of the mapped property of a
+   * bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param key
+   *          the key of the value to be retrieved.
+   * @return the value corresponds to the specified key.
+   * @see Bean#get(String, String)
+   */
+  public Object getMapped(final Bean bean, final String key) {
+    checkKind(PropertyKind.MAPPED);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).get(slot, key);
+    } else {
+      return bean.get(name, key);
+    }
+  }
+
+  /**
+   * Sets the value corresponds to a specified key of the mapped property of a
+   * bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param key
+   *          the key corresponds to the value to set.
+   * @param value
+   *          the value to be set.
+   * @see Bean#set(String, String, Object)
+   */
+  public void setMapped(final Bean bean, final String key,
+      @Nullable final Object value) {
+    checkKind(PropertyKind.MAPPED);
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).set(slot, key, value);
+    } else {
+      bean.set(name, key, value);
+    }
+  }
+
+  /**
+   * Removes a value corresponds to a specified key from the mapped property of
+   * a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @param key
+   *          the key corresponds to the value to be removed.
+   * @return the removed value, or {@code null} if there is no such value.
+   * @see Bean#remove(String, String)
+   */
+  public Object removeMapped(final Bean bean, final String key) {
+    checkKind(PropertyKind.MAPPED);
+    if (isSlotBean(bean)) {
+      return ((SlotBean) bean).remove(slot, key);
+    } else {
+      return bean.remove(name, key);
+    }
+  }
+
+  /**
+   * Clears all values of the indexed or mapped property of a bean.
+   *
+   * @param bean
+   *          a bean.
+   * @see Bean#clear(String)
+   */
+  public void clear(final Bean bean) {
+    checkContainer();
+    if (isSlotBean(bean)) {
+      ((SlotBean) bean).clear(slot);
+    } else {
+      bean.clear(name);
+    }
+  }
+
+  /**
+   * Writes the string representation of this handle, which is the same as the
+   * string returned by {@link #toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "beanClass", beanClass.getName(), true);
+    BeanObjects.appendField(out, "descriptor", descriptor, false);
+    BeanObjects.appendField(out, "slot", slot, false);
+    BeanObjects.appendEnd(out);
+  }
+
+  @Override
+  public String toString() {
+    return BeanObjects.toString(this);
+  }
+}
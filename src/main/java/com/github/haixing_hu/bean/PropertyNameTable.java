@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * An immutable table mapping the names of the properties to their slots.
+ * <p>
+ * Since the names of the properties of a bean class are fixed once the bean
+ * class is constructed, the table searches a hash function which maps the
+ * names to distinct buckets, i.e., a perfect hash function of the names, so
+ * that looking up a name costs one hash, one probe and one comparison. If no
+ * perfect hash function is found within a few attempts, which is unlikely
+ * unless the hash codes of some names collide, the table falls back to linear
+ * probing.
+ * <p>
+ * If a name occurs more than once, it is mapped to its last slot.
+ *
+ * @author Haixing Hu
+ */
+@Immutable
+public final class PropertyNameTable {
+
+  /**
+   * The maximum number of seeds tried for each table size.
+   */
+  private static final int MAX_SEEDS = 32;
+
+  /**
+   * The maximum ratio of the table size to the number of names.
+   */
+  private static final int MAX_LOAD_RATIO = 8;
+
+  private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+  private final String[] keys;
+  private final int[] slots;
+  private final int mask;
+  private final int seed;
+  private final boolean perfect;
+  private final int size;
+
+  /**
+   * Creates a {@link PropertyNameTable} for the property descriptors.
+   *
+   * @param descriptors
+   *          the property descriptors, whose indexes are the slots of the
+   *          properties.
+   * @return the table mapping the names of the properties to their slots.
+   */
+  public static PropertyNameTable create(
+      final PropertyDescriptor[] descriptors) {
+    requireNonNull("descriptors", descriptors);
+    final String[] names = new String[descriptors.length];
+    for (int i = 0; i < descriptors.length; ++i) {
+      names[i] = descriptors[i].getName();
+    }
+    return new PropertyNameTable(names);
+  }
+
+  /**
+   * Constructs a {@link PropertyNameTable}.
+   *
+   * @param names
+   *          the names of the properties, whose indexes are the slots of the
+   *          properties.
+   */
+  public PropertyNameTable(final String[] names) {
+    requireNonNull("names", names);
+    size = names.length;
+    final int perfectSeed = findPerfectSeed(names);
+    if (perfectSeed >= 0) {
+      //  the table size is encoded in the higher bits of the result
+      mask = (perfectSeed >>> 8) - 1;
+      seed = perfectSeed & 0xFF;
+      perfect = true;
+    } else {
+      //  falls back to linear probing with a load factor of at most 0.5
+      int capacity = 2;
+      while (capacity < 2 * size) {
+        capacity <<= 1;
+      }
+      mask = capacity - 1;
+      seed = 0;
+      perfect = false;
+    }
+    keys = new String[mask + 1];
+    slots = new int[mask + 1];
+    for (int i = 0; i < size; ++i) {
+      int bucket = hash(names[i], seed) & mask;
+      while ((keys[bucket] != null) && ! keys[bucket].equals(names[i])) {
+        bucket = (bucket + 1) & mask;
+      }
+      keys[bucket] = names[i];
+      slots[bucket] = i;
+    }
+  }
+
+  /**
+   * Searches a seed of the hash function mapping the distinct names to
+   * distinct buckets.
+   *
+   * @param names
+   *          the names.
+   * @return the table size shifted left by 8 bits combined with the seed, or
+   *         -1 if no such seed is found.
+   */
+  private static int findPerfectSeed(final String[] names) {
+    int capacity = 1;
+    while (capacity < names.length) {
+      capacity <<= 1;
+    }
+    final int maxCapacity = capacity * MAX_LOAD_RATIO;
+    final boolean[] used = new boolean[maxCapacity];
+    for (; capacity <= maxCapacity; capacity <<= 1) {
+      for (int seed = 0; seed < MAX_SEEDS; ++seed) {
+        if (isPerfect(names, seed, capacity - 1, used)) {
+          return (capacity << 8) | seed;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Tests whether the hash function with a seed maps the distinct names to
+   * distinct buckets.
+   */
+  private static boolean isPerfect(final String[] names, final int seed,
+      final int mask, final boolean[] used) {
+    Arrays.fill(used, 0, mask + 1, false);
+    for (int i = 0; i < names.length; ++i) {
+      final String name = requireNonNull("name", names[i]);
+      final int bucket = hash(name, seed) & mask;
+      if (used[bucket]) {
+        if (! isDuplicated(names, i, bucket, seed, mask)) {
+          return false;
+        }
+      }
+      used[bucket] = true;
+    }
+    return true;
+  }
+
+  /**
+   * Tests whether the name at the specified index equals to a previous name in
+   * the same bucket.
+   */
+  private static boolean isDuplicated(final String[] names, final int index,
+      final int bucket, final int seed, final int mask) {
+    for (int i = 0; i < index; ++i) {
+      if (((hash(names[i], seed) & mask) == bucket)
+          && names[i].equals(names[index])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int hash(final String name, final int seed) {
+    final int h = (name.hashCode() + seed) * GOLDEN_RATIO;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Gets the slot of a property.
+   *
+   * @param name
+   *          the name of a property, which could be {@code null}.
+   * @return the slot of the property with the specified name, or -1 if no
+   *         such property.
+   */
+  public int indexOf(@Nullable final String name) {
+    if (name == null) {
+      return -1;
+    }
+    int bucket = hash(name, seed) & mask;
+    if (perfect) {
+      final String key = keys[bucket];
+      return ((key == name) || name.equals(key) ? slots[bucket] : -1);
+    }
+    while (keys[bucket] != null) {
+      final String key = keys[bucket];
+      if ((key == name) || key.equals(name)) {
+        return slots[bucket];
+      }
+      bucket = (bucket + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Tests whether this table contains a name.
+   *
+   * @param name
+   *          a name, which could be {@code null}.
+   * @return {@code true} if this table contains the specified name;
+   *         {@code false} otherwise.
+   */
+  public boolean contains(@Nullable final String name) {
+    return (indexOf(name) >= 0);
+  }
+
+  /**
+   * Gets the number of names used to construct this table.
+   *
+   * @return the number of names used to construct this table.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Tests whether this table uses a perfect hash function.
+   *
+   * @return {@code true} if this table uses a perfect hash function;
+   *         {@code false} if it falls back to linear probing.
+   */
+  boolean isPerfect() {
+    return perfect;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * A visitor of the properties of a bean.
+ * <p>
+ * The {@link Bean#forEach(PropertyVisitor)} function calls one of the
+ * functions of the visitor for each property of the bean, in the order of the
+ * descriptors returned by {@link BeanClass#getPropertyDescriptors()}. The
+ * values are passed to the visitor as they are stored in the bean, without
+ * resolving the names of the properties nor copying the lists and maps.
+ * <p>
+ * The visitor must not modify the bean, nor the lists passed to it, during the
+ * traversal.
+ *
+ * @author Haixing Hu
+ */
+public interface PropertyVisitor {
+
+  /**
+   * Visits a simple property.
+   *
+   * @param descriptor
+   *          the descriptor of the property.
+   * @param slot
+   *          the slot of the property, i.e., the index of its descriptor.
+   * @param value
+   *          the value of the property, which could be {@code null}.
+   */
+  void visitSimple(PropertyDescriptor descriptor, int slot,
+      @Nullable Object value);
+
+  /**
+   * Visits an indexed property.
+   *
+   * @param descriptor
+   *          the descriptor of the property.
+   * @param slot
+   *          the slot of the property, i.e., the index of its descriptor.
+   * @param values
+   *          the list of the values of the property, which must not be
+   *          modified by the visitor.
+   */
+  void visitIndexed(PropertyDescriptor descriptor, int slot, List<?> values);
+
+  /**
+   * Visits a mapped property.
+   *
+   * @param descriptor
+   *          the descriptor of the property.
+   * @param slot
+   *          the slot of the property, i.e., the index of its descriptor.
+   * @param cursor
+   *          the cursor over the entries of the property, which is positioned
+   *          before the first entry. The cursor is reused for the other mapped
+   *          properties, and must not be kept after this call.
+   */
+  void visitMapped(PropertyDescriptor descriptor, int slot,
+      EntryCursor cursor);
+}
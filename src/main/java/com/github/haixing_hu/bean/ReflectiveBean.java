@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.util.Collections;
+
+import javax.annotation.Nullable;
+
+import com.github.haixing_hu.reflect.ReflectionException;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * A {@link Bean} wrapping an existing Java object, whose properties are
+ * accessed through the getters and setters resolved by a
+ * {@link ReflectiveBeanClass}.
+ * <p>
+ * The values are not copied: reading a property of this bean calls the getter
+ * of the wrapped object, and writing a property calls its setter. Note that:
+ * <ul>
+ * <li>writing a property without a setter throws an
+ * {@link UnsupportedOperationException};</li>
+ * <li>writing {@code null} to a property whose setter takes a primitive value
+ * writes the default value of the primitive type;</li>
+ * <li>if the getter of an indexed or mapped property returns {@code null}, a
+ * new empty container is set by its setter, or an immutable empty container
+ * is used if the property has no setter;</li>
+ * <li>{@link #reset()} does not change the simple properties without a
+ * setter.</li>
+ * </ul>
+ *
+ * @author Haixing Hu
+ */
+public final class ReflectiveBean extends AbstractSlotBean {
+
+  private final ReflectiveBeanClass reflectiveClass;
+  private final Object target;
+
+  /**
+   * Constructs a {@link ReflectiveBean}.
+   *
+   * @param beanClass
+   *          the class of the bean.
+   * @param target
+   *          the object to be wrapped, which must be an instance of the Java
+   *          class described by the bean class.
+   * @throws IllegalArgumentException
+   *           if the object is not an instance of the Java class described by
+   *           the bean class.
+   */
+  public ReflectiveBean(final ReflectiveBeanClass beanClass,
+      final Object target) {
+    super(beanClass);
+    requireNonNull("target", target);
+    if (! beanClass.getType().isInstance(target)) {
+      throw new IllegalArgumentException("The object is not an instance of "
+          + beanClass.getType().getName());
+    }
+    this.reflectiveClass = beanClass;
+    this.target = target;
+  }
+
+  /**
+   * Gets the object wrapped by this bean.
+   *
+   * @return the object wrapped by this bean.
+   */
+  public Object getTarget() {
+    return target;
+  }
+
+  @Override
+  protected Object getValue(final int slot) {
+    final Object value;
+    try {
+      value = (Object) reflectiveClass.getters[slot].invokeExact(target);
+    } catch (final Throwable e) {
+      throw rethrow(e);
+    }
+    if ((value != null) || (descriptors[slot].getKind() == PropertyKind.SIMPLE)) {
+      return value;
+    }
+    if (reflectiveClass.setters[slot] == null) {
+      return (descriptors[slot].getKind() == PropertyKind.INDEXED
+          ? Collections.emptyList() : Collections.emptyMap());
+    }
+    final Object container = newValue(descriptors[slot]);
+    setValue(slot, container);
+    return container;
+  }
+
+  @Override
+  protected void setValue(final int slot, @Nullable final Object value) {
+    final MethodHandle setter = reflectiveClass.setters[slot];
+    if (setter == null) {
+      throw new UnsupportedOperationException("The property '"
+          + descriptors[slot].getName() + "' is read-only.");
+    }
+    final Object arg = (value == null ? reflectiveClass.nullValues[slot] : value);
+    try {
+      setter.invokeExact(target, arg);
+    } catch (final Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  private static RuntimeException rethrow(final Throwable e) {
+    if (e instanceof RuntimeException) {
+      return (RuntimeException) e;
+    } else if (e instanceof Error) {
+      throw (Error) e;
+    } else {
+      return new ReflectionException(e);
+    }
+  }
+
+  @Override
+  public void reset() {
+    for (int slot = 0; slot < descriptors.length; ++slot) {
+      if ((descriptors[slot].getKind() != PropertyKind.SIMPLE)
+          || (reflectiveClass.setters[slot] != null)) {
+        resetSlot(slot);
+      }
+    }
+    clearDirty();
+  }
+
+  /**
+   * Creates a copy of this bean, which wraps a new instance of the Java class
+   * created by its default constructor.
+   * <p>
+   * The simple properties without a setter are not copied, and keep the
+   * values initialized by the default constructor.
+   *
+   * @param deep
+   *          whether to copy the {@link Bean} values deeply.
+   * @return a copy of this bean.
+   * @throws ReflectionException
+   *           if the Java class has no public default constructor, or the
+   *           constructor throws an exception.
+   */
+  @Override
+  protected Bean copy(final boolean deep) {
+    final ReflectiveBean bean = (ReflectiveBean) reflectiveClass.newInstance();
+    for (int slot = 0; slot < descriptors.length; ++slot) {
+      if ((descriptors[slot].getKind() != PropertyKind.SIMPLE)
+          || (reflectiveClass.setters[slot] != null)) {
+        bean.copySlot(this, slot, deep);
+      }
+    }
+    return bean;
+  }
+
+  @Override
+  public int hashCode() {
+    return target.hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj == null) {
+      return false;
+    }
+    if (obj == this) {
+      return true;
+    }
+    if (obj.getClass() != getClass()) {
+      return false;
+    }
+    final ReflectiveBean rhs = (ReflectiveBean) obj;
+    return beanClass.equals(rhs.beanClass) && target.equals(rhs.target);
+  }
+
+  /**
+   * Writes the string representation of this bean, which is the same as the
+   * string returned by {@link #toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "beanClass", beanClass, true);
+    BeanObjects.appendField(out, "target", target, false);
+    BeanObjects.appendEnd(out);
+  }
+
+  @Override
+  public String toString() {
+    return BeanObjects.toString(this);
+  }
+}
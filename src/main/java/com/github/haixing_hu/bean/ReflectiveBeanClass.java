@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import com.github.haixing_hu.reflect.ReflectionException;
+
+import static com.github.haixing_hu.lang.Argument.requireNonNull;
+
+/**
+ * A {@link BeanClass} describing the properties of an existing Java class by
+ * its getters and setters.
+ * <p>
+ * The Java class is introspected once, when the bean class is constructed, by
+ * the {@link Introspector}. Each readable property of the Java class is
+ * described as follows:
+ * <ul>
+ * <li>a property of type {@link List} is an indexed property, whose type is
+ * the type argument of the list, or {@link Object} if the type argument is not
+ * a class;</li>
+ * <li>a property of type {@link Map} with {@link String} keys is a mapped
+ * property, whose type is the type argument of the values, or {@link Object}
+ * if the type argument is not a class;</li>
+ * <li>any other property is a simple property, whose type is the type of the
+ * property, or its wrapper type if it is a primitive type.</li>
+ * </ul>
+ * The getters and setters are resolved to {@link MethodHandle}s, so that the
+ * beans returned by {@link #wrap(Object)} access the properties of the wrapped
+ * objects directly, without copying them.
+ *
+ * @author Haixing Hu
+ */
+@Immutable
+public final class ReflectiveBeanClass
+    implements BeanClass, ToStringAppendable {
+
+  private static final MethodType GETTER_TYPE =
+      MethodType.methodType(Object.class, Object.class);
+
+  private static final MethodType SETTER_TYPE =
+      MethodType.methodType(void.class, Object.class, Object.class);
+
+  private static final MethodType CONSTRUCTOR_TYPE =
+      MethodType.methodType(Object.class);
+
+  private final Class<?> type;
+  private final PropertyDescriptor[] descriptors;
+  private final PropertyHandle[] handles;
+  private final PropertyNameTable nameTable;
+  final MethodHandle[] getters;
+  final MethodHandle[] setters;
+  final Object[] nullValues;
+  private final MethodHandle constructor;
+
+  /**
+   * Constructs a {@link ReflectiveBeanClass}.
+   *
+   * @param type
+   *          the Java class to be described.
+   * @throws ReflectionException
+   *           if failed to introspect the Java class or to access its getters
+   *           or setters.
+   */
+  public ReflectiveBeanClass(final Class<?> type) {
+    this.type = requireNonNull("type", type);
+    final BeanInfo info;
+    try {
+      info = Introspector.getBeanInfo(type, Object.class);
+    } catch (final IntrospectionException e) {
+      throw new ReflectionException(e);
+    }
+    final List<java.beans.PropertyDescriptor> properties = new ArrayList<>();
+    for (final java.beans.PropertyDescriptor property
+        : info.getPropertyDescriptors()) {
+      if (property.getReadMethod() != null) {
+        properties.add(property);
+      }
+    }
+    final int n = properties.size();
+    descriptors = new PropertyDescriptor[n];
+    handles = new PropertyHandle[n];
+    getters = new MethodHandle[n];
+    setters = new MethodHandle[n];
+    nullValues = new Object[n];
+    for (int i = 0; i < n; ++i) {
+      final java.beans.PropertyDescriptor property = properties.get(i);
+      final Method getter = property.getReadMethod();
+      final Method setter = property.getWriteMethod();
+      descriptors[i] = describe(property.getName(), getter);
+      handles[i] = new PropertyHandle(this, descriptors[i], i);
+      getters[i] = unreflect(getter).asType(GETTER_TYPE);
+      if (setter != null) {
+        setters[i] = unreflect(setter).asType(SETTER_TYPE);
+        final Class<?> paramType = setter.getParameterTypes()[0];
+        if (paramType.isPrimitive()) {
+          nullValues[i] = defaultValueOf(paramType);
+        }
+      }
+    }
+    nameTable = PropertyNameTable.create(descriptors);
+    constructor = findConstructor(type);
+  }
+
+  /**
+   * Gets the default value of a primitive type, which is passed to the setter
+   * of a primitive property when the property is set to {@code null}.
+   *
+   * @param primitiveType
+   *          a primitive type other than {@code void}.
+   * @return the boxed default value of the primitive type.
+   */
+  private static Object defaultValueOf(final Class<?> primitiveType) {
+    if (primitiveType == char.class) {
+      return Character.valueOf('\0');
+    }
+    return PrimitiveType.of(ClassUtils.primitiveToWrapper(primitiveType))
+        .fromBits(0);
+  }
+
+  private static PropertyDescriptor describe(final String name,
+      final Method getter) {
+    final Class<?> rawType = getter.getReturnType();
+    final Type genericType = getter.getGenericReturnType();
+    if (rawType == List.class) {
+      return new PropertyDescriptor(name, typeArgument(genericType, 0),
+          PropertyKind.INDEXED);
+    } else if ((rawType == Map.class)
+        && (typeArgument(genericType, 0) == String.class)) {
+      return new PropertyDescriptor(name, typeArgument(genericType, 1),
+          PropertyKind.MAPPED);
+    } else {
+      return new PropertyDescriptor(name,
+          ClassUtils.primitiveToWrapper(rawType), PropertyKind.SIMPLE);
+    }
+  }
+
+  private static Class<?> typeArgument(final Type type, final int index) {
+    if (type instanceof ParameterizedType) {
+      final Type arg = ((ParameterizedType) type).getActualTypeArguments()[index];
+      if (arg instanceof Class) {
+        return ClassUtils.primitiveToWrapper((Class<?>) arg);
+      }
+    }
+    return Object.class;
+  }
+
+  private static MethodHandle unreflect(final Method method) {
+    try {
+      return MethodHandles.lookup().unreflect(method);
+    } catch (final IllegalAccessException e) {
+      //  the method may be declared by a non-public class
+      try {
+        method.setAccessible(true);
+        return MethodHandles.lookup().unreflect(method);
+      } catch (final IllegalAccessException | SecurityException e2) {
+        throw new ReflectionException(e2);
+      }
+    }
+  }
+
+  @Nullable
+  private static MethodHandle findConstructor(final Class<?> type) {
+    try {
+      return MethodHandles.lookup()
+          .unreflectConstructor(type.getConstructor())
+          .asType(CONSTRUCTOR_TYPE);
+    } catch (final NoSuchMethodException | IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Gets the Java class described by this bean class.
+   *
+   * @return the Java class described by this bean class.
+   */
+  public Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * Wraps an object as a {@link Bean}.
+   * <p>
+   * The returned bean reads and writes the properties of the wrapped object
+   * through its getters and setters, therefore the changes made by the bean
+   * are visible to the object, and vice versa.
+   *
+   * @param target
+   *          the object to be wrapped, which must be an instance of the Java
+   *          class described by this bean class.
+   * @return the bean wrapping the specified object.
+   * @throws IllegalArgumentException
+   *           if the object is not an instance of the Java class described by
+   *           this bean class.
+   */
+  public ReflectiveBean wrap(final Object target) {
+    return new ReflectiveBean(this, target);
+  }
+
+  @Override
+  public String getName() {
+    return type.getName();
+  }
+
+  @Override
+  public Class<? extends Bean> getBeanType() {
+    return ReflectiveBean.class;
+  }
+
+  @Override
+  public boolean hasProperty(final String name) {
+    return (nameTable.indexOf(name) >= 0);
+  }
+
+  @Override
+  public PropertyDescriptor getPropertyDescriptor(final String name) {
+    final int index = nameTable.indexOf(name);
+    return (index < 0 ? null : descriptors[index]);
+  }
+
+  @Override
+  public PropertyDescriptor[] getPropertyDescriptors() {
+    return descriptors;
+  }
+
+  @Override
+  public int getPropertyIndex(final String name) {
+    return nameTable.indexOf(name);
+  }
+
+  @Override
+  public PropertyHandle getPropertyHandle(final String name) {
+    final int index = getPropertyIndex(name);
+    if (index < 0) {
+      throw new PropertyNotExistException(name);
+    }
+    return handles[index];
+  }
+
+  /**
+   * Creates a new instance of the Java class described by this bean class by
+   * its public default constructor, and wraps it as a {@link Bean}.
+   *
+   * @return the bean wrapping a new instance of the Java class.
+   * @throws ReflectionException
+   *           if the Java class has no public default constructor, or the
+   *           constructor throws an exception.
+   */
+  @Override
+  public Bean newInstance() {
+    if (constructor == null) {
+      throw new ReflectionException("The class " + type.getName()
+          + " has no public default constructor.");
+    }
+    final Object target;
+    try {
+      target = (Object) constructor.invokeExact();
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable e) {
+      throw new ReflectionException(e);
+    }
+    return new ReflectiveBean(this, target);
+  }
+
+  @Override
+  public Bean newInstance(final Bean prototype) {
+    return BeanCopier.newInstance(this, prototype);
+  }
+
+  @Override
+  public int hashCode() {
+    return type.hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj == null) {
+      return false;
+    }
+    if (obj == this) {
+      return true;
+    }
+    if (obj.getClass() != getClass()) {
+      return false;
+    }
+    final ReflectiveBeanClass rhs = (ReflectiveBeanClass) obj;
+    return type.equals(rhs.type);
+  }
+
+  /**
+   * Writes the string representation of this bean class, which is the same as
+   * the string returned by {@link #toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "type", type, true);
+    BeanObjects.appendField(out, "descriptors", descriptors, false);
+    BeanObjects.appendEnd(out);
+  }
+
+  @Override
+  public String toString() {
+    return BeanObjects.toString(this);
+  }
+}
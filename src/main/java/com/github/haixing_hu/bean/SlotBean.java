@@ -0,0 +1,739 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * The interface for beans whose properties could be addressed by slots.
+ * <p>
+ * The slot of a property is the index of its descriptor in the array returned
+ * by {@link BeanClass#getPropertyDescriptors()}, which could be resolved once
+ * by calling {@link BeanClass#getPropertyIndex(String)}. Accessing a property
+ * by its slot avoids the lookup of the property name on each access.
+ *
+ * @author Haixing Hu
+ */
+public interface SlotBean extends Bean {
+
+  /**
+   * Gets a property.
+   *
+   * @param slot
+   *          the slot of the property to be get.
+   * @return the property in the specified slot.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean.
+   */
+  Property getProperty(int slot);
+
+  /**
+   * Gets the raw value of a property.
+   *
+   * @param slot
+   *          the slot of a property.
+   * @return the raw value of the property in the specified slot.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean.
+   * @see Property#getRawValue()
+   */
+  Object getRawValue(int slot);
+
+  /**
+   * Sets the raw value of a property.
+   *
+   * @param slot
+   *          the slot of a property.
+   * @param value
+   *          the new raw value to set, which could be {@code null} if the
+   *          property is a simple property.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean.
+   * @throws ClassCastException
+   *           if the value does not match the type of the property.
+   * @see Property#setRawValue(Object)
+   */
+  void setRawValue(int slot, @Nullable Object value);
+
+  /**
+   * Gets the value of a simple property.
+   *
+   * @param slot
+   *          the slot of a simple property.
+   * @return the value of the simple property in the specified slot, which
+   *         could be {@code null}, depending on the implementation.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   */
+  Object get(int slot);
+
+  /**
+   * Sets the value of a simple property.
+   *
+   * @param slot
+   *          the slot of a simple property.
+   * @param value
+   *          the value to be set to the simple property in the specified slot,
+   *          which could be {@code null}, depending on the implementation.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the provided value does not match the type of the
+   *           specified property.
+   */
+  void set(int slot, @Nullable Object value);
+
+  /**
+   * Gets the value of a simple property of the type {@link Boolean} as a
+   * {@code boolean} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Boolean}.
+   * @return the value of the simple property in the specified slot.
+   * @throws NullPointerException
+   *           if the value of the specified property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Boolean}.
+   * @see Bean#getBoolean(String)
+   */
+  boolean getBoolean(int slot);
+
+  /**
+   * Sets the value of a simple property of the type {@link Boolean} from a
+   * {@code boolean} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Boolean}.
+   * @param value
+   *          the value to be set to the simple property in the specified slot.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Boolean}.
+   * @see Bean#setBoolean(String, boolean)
+   */
+  void setBoolean(int slot, boolean value);
+
+  /**
+   * Gets the value of a simple property of the type {@link Byte} as a
+   * {@code byte} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Byte}.
+   * @return the value of the simple property in the specified slot.
+   * @throws NullPointerException
+   *           if the value of the specified property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Byte}.
+   * @see Bean#getByte(String)
+   */
+  byte getByte(int slot);
+
+  /**
+   * Sets the value of a simple property of the type {@link Byte} from a
+   * {@code byte} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Byte}.
+   * @param value
+   *          the value to be set to the simple property in the specified slot.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Byte}.
+   * @see Bean#setByte(String, byte)
+   */
+  void setByte(int slot, byte value);
+
+  /**
+   * Gets the value of a simple property of the type {@link Short} as a
+   * {@code short} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Short}.
+   * @return the value of the simple property in the specified slot.
+   * @throws NullPointerException
+   *           if the value of the specified property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Short}.
+   * @see Bean#getShort(String)
+   */
+  short getShort(int slot);
+
+  /**
+   * Sets the value of a simple property of the type {@link Short} from a
+   * {@code short} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Short}.
+   * @param value
+   *          the value to be set to the simple property in the specified slot.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Short}.
+   * @see Bean#setShort(String, short)
+   */
+  void setShort(int slot, short value);
+
+  /**
+   * Gets the value of a simple property of the type {@link Integer} as a
+   * {@code int} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Integer}.
+   * @return the value of the simple property in the specified slot.
+   * @throws NullPointerException
+   *           if the value of the specified property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Integer}.
+   * @see Bean#getInt(String)
+   */
+  int getInt(int slot);
+
+  /**
+   * Sets the value of a simple property of the type {@link Integer} from a
+   * {@code int} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Integer}.
+   * @param value
+   *          the value to be set to the simple property in the specified slot.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Integer}.
+   * @see Bean#setInt(String, int)
+   */
+  void setInt(int slot, int value);
+
+  /**
+   * Gets the value of a simple property of the type {@link Long} as a
+   * {@code long} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Long}.
+   * @return the value of the simple property in the specified slot.
+   * @throws NullPointerException
+   *           if the value of the specified property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Long}.
+   * @see Bean#getLong(String)
+   */
+  long getLong(int slot);
+
+  /**
+   * Sets the value of a simple property of the type {@link Long} from a
+   * {@code long} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Long}.
+   * @param value
+   *          the value to be set to the simple property in the specified slot.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Long}.
+   * @see Bean#setLong(String, long)
+   */
+  void setLong(int slot, long value);
+
+  /**
+   * Gets the value of a simple property of the type {@link Float} as a
+   * {@code float} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Float}.
+   * @return the value of the simple property in the specified slot.
+   * @throws NullPointerException
+   *           if the value of the specified property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Float}.
+   * @see Bean#getFloat(String)
+   */
+  float getFloat(int slot);
+
+  /**
+   * Sets the value of a simple property of the type {@link Float} from a
+   * {@code float} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Float}.
+   * @param value
+   *          the value to be set to the simple property in the specified slot.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Float}.
+   * @see Bean#setFloat(String, float)
+   */
+  void setFloat(int slot, float value);
+
+  /**
+   * Gets the value of a simple property of the type {@link Double} as a
+   * {@code double} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Double}.
+   * @return the value of the simple property in the specified slot.
+   * @throws NullPointerException
+   *           if the value of the specified property is {@code null}.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Double}.
+   * @see Bean#getDouble(String)
+   */
+  double getDouble(int slot);
+
+  /**
+   * Sets the value of a simple property of the type {@link Double} from a
+   * {@code double} value.
+   *
+   * @param slot
+   *          the slot of a simple property of the type {@link Double}.
+   * @param value
+   *          the value to be set to the simple property in the specified slot.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a simple property.
+   * @throws ClassCastException
+   *           if the type of the specified property is not {@link Double}.
+   * @see Bean#setDouble(String, double)
+   */
+  void setDouble(int slot, double value);
+
+  /**
+   * Gets the size of an indexed property or a mapped property.
+   *
+   * @param slot
+   *          the slot of an indexed or mapped property.
+   * @return the size (number of values) of the indexed or mapped property.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property nor a mapped
+   *           property.
+   */
+  int getSize(int slot);
+
+  /**
+   * Gets the value at the specified index of an indexed property.
+   *
+   * @param slot
+   *          the slot of an indexed property.
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of the indexed property in the
+   *         specified slot, which could be {@code null}, depending on the
+   *         implementation.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean, or the
+   *           {@code index} is outside the range of the indexed property.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   */
+  Object get(int slot, int index);
+
+  /**
+   * Sets the value at the specified index of an indexed property.
+   *
+   * @param slot
+   *          the slot of an indexed property.
+   * @param index
+   *          the index of the value to set.
+   * @param value
+   *          the value to be set, which could be {@code null}, depending on the
+   *          implementation.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean, or the
+   *           {@code index} is outside the range of the indexed property.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the provided value does not match the type of the
+   *           specified property.
+   */
+  void set(int slot, int index, @Nullable Object value);
+
+  /**
+   * Inserts a value at the specified index of an indexed property.
+   *
+   * @param slot
+   *          the slot of an indexed property.
+   * @param index
+   *          the index where the value to be inserted.
+   * @param value
+   *          the value to be inserted, which could be {@code null}, depending
+   *          on the implementation.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean, or the
+   *           {@code index} is outside the range of the indexed property.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the provided value does not match the type of the
+   *           specified property.
+   */
+  void add(int slot, int index, @Nullable Object value);
+
+  /**
+   * Adds a value at the end of an indexed property.
+   *
+   * @param slot
+   *          the slot of an indexed property.
+   * @param value
+   *          the value to be added, which could be {@code null}, depending on
+   *          the implementation.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   * @throws ClassCastException
+   *           if the type of the provided value does not match the type of the
+   *           specified property.
+   */
+  void add(int slot, @Nullable Object value);
+
+  /**
+   * Removes a value at the specified position from an indexed property.
+   * <p>
+   * Note that the removing operation will shift the subsequent values to the
+   * left, as described by {@link List#remove(int)}.
+   *
+   * @param slot
+   *          the slot of an indexed property.
+   * @param index
+   *          the index of the value to be removed.
+   * @return the value at the specified index that was removed from the indexed
+   *         property, which may be {@code null}, depending on the
+   *         implementation.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean, or the
+   *           {@code index} is outside the range of the indexed property.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property.
+   */
+  Object remove(int slot, int index);
+
+  /**
+   * Gets a value of an indexed property of the type {@link Integer} as a
+   * {@code int} value.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Integer}.
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of the indexed property.
+   * @see Bean#getInt(String, int)
+   */
+  int getInt(int slot, int index);
+
+  /**
+   * Sets a value of an indexed property of the type {@link Integer} from a
+   * {@code int} value.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Integer}.
+   * @param index
+   *          the index of the value to be set.
+   * @param value
+   *          the value to be set.
+   * @see Bean#setInt(String, int, int)
+   */
+  void setInt(int slot, int index, int value);
+
+  /**
+   * Adds a {@code int} value at the end of an indexed property of the type
+   * {@link Integer}.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Integer}.
+   * @param value
+   *          the value to be added.
+   * @see Bean#addInt(String, int)
+   */
+  void addInt(int slot, int value);
+
+  /**
+   * Copies the values of an indexed property of the type {@link Integer} to a
+   * {@code int} array.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Integer}.
+   * @return a new array containing the values of the indexed property.
+   * @see Bean#getIntArray(String)
+   */
+  int[] getIntArray(int slot);
+
+  /**
+   * Replaces the values of an indexed property of the type {@link Integer} with
+   * the values in a {@code int} array.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Integer}.
+   * @param values
+   *          the array of the new values, which will be copied.
+   * @see Bean#setIntArray(String, int[])
+   */
+  void setIntArray(int slot, int[] values);
+
+  /**
+   * Gets a value of an indexed property of the type {@link Long} as a
+   * {@code long} value.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Long}.
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of the indexed property.
+   * @see Bean#getLong(String, int)
+   */
+  long getLong(int slot, int index);
+
+  /**
+   * Sets a value of an indexed property of the type {@link Long} from a
+   * {@code long} value.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Long}.
+   * @param index
+   *          the index of the value to be set.
+   * @param value
+   *          the value to be set.
+   * @see Bean#setLong(String, int, long)
+   */
+  void setLong(int slot, int index, long value);
+
+  /**
+   * Adds a {@code long} value at the end of an indexed property of the type
+   * {@link Long}.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Long}.
+   * @param value
+   *          the value to be added.
+   * @see Bean#addLong(String, long)
+   */
+  void addLong(int slot, long value);
+
+  /**
+   * Copies the values of an indexed property of the type {@link Long} to a
+   * {@code long} array.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Long}.
+   * @return a new array containing the values of the indexed property.
+   * @see Bean#getLongArray(String)
+   */
+  long[] getLongArray(int slot);
+
+  /**
+   * Replaces the values of an indexed property of the type {@link Long} with
+   * the values in a {@code long} array.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Long}.
+   * @param values
+   *          the array of the new values, which will be copied.
+   * @see Bean#setLongArray(String, long[])
+   */
+  void setLongArray(int slot, long[] values);
+
+  /**
+   * Gets a value of an indexed property of the type {@link Double} as a
+   * {@code double} value.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Double}.
+   * @param index
+   *          the index of the value to be retrieved.
+   * @return the value at the specified index of the indexed property.
+   * @see Bean#getDouble(String, int)
+   */
+  double getDouble(int slot, int index);
+
+  /**
+   * Sets a value of an indexed property of the type {@link Double} from a
+   * {@code double} value.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Double}.
+   * @param index
+   *          the index of the value to be set.
+   * @param value
+   *          the value to be set.
+   * @see Bean#setDouble(String, int, double)
+   */
+  void setDouble(int slot, int index, double value);
+
+  /**
+   * Adds a {@code double} value at the end of an indexed property of the type
+   * {@link Double}.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Double}.
+   * @param value
+   *          the value to be added.
+   * @see Bean#addDouble(String, double)
+   */
+  void addDouble(int slot, double value);
+
+  /**
+   * Copies the values of an indexed property of the type {@link Double} to a
+   * {@code double} array.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Double}.
+   * @return a new array containing the values of the indexed property.
+   * @see Bean#getDoubleArray(String)
+   */
+  double[] getDoubleArray(int slot);
+
+  /**
+   * Replaces the values of an indexed property of the type {@link Double} with
+   * the values in a {@code double} array.
+   *
+   * @param slot
+   *          the slot of an indexed property of the type {@link Double}.
+   * @param values
+   *          the array of the new values, which will be copied.
+   * @see Bean#setDoubleArray(String, double[])
+   */
+  void setDoubleArray(int slot, double[] values);
+
+  /**
+   * Gets the key set of a mapped property.
+   *
+   * @param slot
+   *          the slot of a mapped property.
+   * @return the key set of the mapped property.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a mapped property.
+   */
+  Set<String> getKeySet(int slot);
+
+  /**
+   * Tests whether a mapped property contains the specified key.
+   *
+   * @param slot
+   *          the slot of a mapped property.
+   * @param key
+   *          the key to check.
+   * @return {@code true} if the mapped property in the specified slot contains
+   *         the specified key; {@code false} otherwise.
+   * @throws NullPointerException
+   *           if {@code key} is {@code null}.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a mapped property.
+   */
+  boolean containsKey(int slot, String key);
+
+  /**
+   * Gets the value corresponds to a specified key of a mapped property.
+   *
+   * @param slot
+   *          the slot of a mapped property.
+   * @param key
+   *          the key of the value to be retrieved.
+   * @return the value corresponds to the specified key of the mapped property,
+   *         which could be {@code null}, depending on the implementation.
+   * @throws NullPointerException
+   *           if {@code key} is {@code null}.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a mapped property.
+   */
+  Object get(int slot, String key);
+
+  /**
+   * Sets the value corresponds to the specified key of a mapped property.
+   *
+   * @param slot
+   *          the slot of a mapped property.
+   * @param key
+   *          the key corresponds to the value to set.
+   * @param value
+   *          the value to be set, which could be {@code null}, depending on the
+   *          implementation.
+   * @throws NullPointerException
+   *           if {@code key} is {@code null}.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a mapped property.
+   * @throws ClassCastException
+   *           if the type of the provided value does not match the type of the
+   *           specified property.
+   */
+  void set(int slot, String key, @Nullable Object value);
+
+  /**
+   * Removes a value corresponds to a specified key from a mapped property.
+   *
+   * @param slot
+   *          the slot of a mapped property.
+   * @param key
+   *          the key corresponds to the value to be removed.
+   * @return the value corresponds to the specified key that was removed from
+   *         the mapped property; or {@code null} if there is no value
+   *         corresponds to the specified key in the mapped property.
+   * @throws NullPointerException
+   *           if {@code key} is {@code null}.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not a mapped property.
+   */
+  Object remove(int slot, String key);
+
+  /**
+   * Clears all values of an indexed or mapped property.
+   *
+   * @param slot
+   *          the slot of a indexed or mapped property.
+   * @throws IndexOutOfBoundsException
+   *           if {@code slot} is not a valid slot of this bean.
+   * @throws InvalidPropertyKindException
+   *           if the specified property is not an indexed property nor a mapped
+   *           property.
+   */
+  void clear(int slot);
+}
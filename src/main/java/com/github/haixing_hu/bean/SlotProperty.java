@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Property} which is a view of a slot of a {@link SlotBean}.
+ * <p>
+ * All the operations on this property are delegated to the underlying bean.
+ *
+ * @author Haixing Hu
+ */
+final class SlotProperty implements Property, ToStringAppendable {
+
+  private final SlotBean bean;
+  private final int slot;
+  private final PropertyDescriptor descriptor;
+
+  /**
+   * Constructs a {@link SlotProperty}.
+   *
+   * @param bean
+   *          the underlying bean.
+   * @param slot
+   *          the slot of the property in the underlying bean.
+   */
+  SlotProperty(final SlotBean bean, final int slot) {
+    this.bean = bean;
+    this.slot = slot;
+    this.descriptor = bean.getBeanClass().getPropertyDescriptors()[slot];
+  }
+
+  @Override
+  public String getName() {
+    return descriptor.getName();
+  }
+
+  @Override
+  public PropertyKind getKind() {
+    return descriptor.getKind();
+  }
+
+  @Override
+  public Class<?> getType() {
+    return descriptor.getType();
+  }
+
+  @Override
+  public PropertyDescriptor getDescriptor() {
+    return descriptor;
+  }
+
+  private void checkKind(final PropertyKind expectedKind) {
+    if (descriptor.getKind() != expectedKind) {
+      throw new InvalidPropertyKindException(descriptor.getName(),
+          descriptor.getKind(), expectedKind);
+    }
+  }
+
+  @Override
+  public int getSize() {
+    return bean.getSize(slot);
+  }
+
+  @Override
+  public Object getRawValue() {
+    return bean.getRawValue(slot);
+  }
+
+  @Override
+  public void setRawValue(@Nullable final Object value) {
+    bean.setRawValue(slot, value);
+  }
+
+  @Override
+  public Object getSimpleValue() {
+    return bean.get(slot);
+  }
+
+  @Override
+  public void setSimpleValue(@Nullable final Object object) {
+    bean.set(slot, object);
+  }
+
+  @Override
+  public boolean getBooleanValue() {
+    return bean.getBoolean(slot);
+  }
+
+  @Override
+  public void setBooleanValue(final boolean value) {
+    bean.setBoolean(slot, value);
+  }
+
+  @Override
+  public byte getByteValue() {
+    return bean.getByte(slot);
+  }
+
+  @Override
+  public void setByteValue(final byte value) {
+    bean.setByte(slot, value);
+  }
+
+  @Override
+  public short getShortValue() {
+    return bean.getShort(slot);
+  }
+
+  @Override
+  public void setShortValue(final short value) {
+    bean.setShort(slot, value);
+  }
+
+  @Override
+  public int getIntValue() {
+    return bean.getInt(slot);
+  }
+
+  @Override
+  public void setIntValue(final int value) {
+    bean.setInt(slot, value);
+  }
+
+  @Override
+  public long getLongValue() {
+    return bean.getLong(slot);
+  }
+
+  @Override
+  public void setLongValue(final long value) {
+    bean.setLong(slot, value);
+  }
+
+  @Override
+  public float getFloatValue() {
+    return bean.getFloat(slot);
+  }
+
+  @Override
+  public void setFloatValue(final float value) {
+    bean.setFloat(slot, value);
+  }
+
+  @Override
+  public double getDoubleValue() {
+    return bean.getDouble(slot);
+  }
+
+  @Override
+  public void setDoubleValue(final double value) {
+    bean.setDouble(slot, value);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public List<Object> getIndexedValue() {
+    checkKind(PropertyKind.INDEXED);
+    return (List<Object>) bean.getRawValue(slot);
+  }
+
+  @Override
+  public void setIndexedValue(final List<Object> list) {
+    checkKind(PropertyKind.INDEXED);
+    bean.setRawValue(slot, list);
+  }
+
+  @Override
+  public Object getIndexedValue(final int index) {
+    return bean.get(slot, index);
+  }
+
+  @Override
+  public void setIndexedValue(final int index, @Nullable final Object value) {
+    bean.set(slot, index, value);
+  }
+
+  @Override
+  public void addIndexedValue(final int index, @Nullable final Object value) {
+    bean.add(slot, index, value);
+  }
+
+  @Override
+  public void addIndexedValue(@Nullable final Object value) {
+    bean.add(slot, value);
+  }
+
+  @Override
+  public Object removeIndexedValue(final int index) {
+    return bean.remove(slot, index);
+  }
+
+  @Override
+  public int getIntValue(final int index) {
+    return bean.getInt(slot, index);
+  }
+
+  @Override
+  public void setIntValue(final int index, final int value) {
+    bean.setInt(slot, index, value);
+  }
+
+  @Override
+  public void addIntValue(final int value) {
+    bean.addInt(slot, value);
+  }
+
+  @Override
+  public int[] getIntArrayValue() {
+    return bean.getIntArray(slot);
+  }
+
+  @Override
+  public void setIntArrayValue(final int[] values) {
+    bean.setIntArray(slot, values);
+  }
+
+  @Override
+  public long getLongValue(final int index) {
+    return bean.getLong(slot, index);
+  }
+
+  @Override
+  public void setLongValue(final int index, final long value) {
+    bean.setLong(slot, index, value);
+  }
+
+  @Override
+  public void addLongValue(final long value) {
+    bean.addLong(slot, value);
+  }
+
+  @Override
+  public long[] getLongArrayValue() {
+    return bean.getLongArray(slot);
+  }
+
+  @Override
+  public void setLongArrayValue(final long[] values) {
+    bean.setLongArray(slot, values);
+  }
+
+  @Override
+  public double getDoubleValue(final int index) {
+    return bean.getDouble(slot, index);
+  }
+
+  @Override
+  public void setDoubleValue(final int index, final double value) {
+    bean.setDouble(slot, index, value);
+  }
+
+  @Override
+  public void addDoubleValue(final double value) {
+    bean.addDouble(slot, value);
+  }
+
+  @Override
+  public double[] getDoubleArrayValue() {
+    return bean.getDoubleArray(slot);
+  }
+
+  @Override
+  public void setDoubleArrayValue(final double[] values) {
+    bean.setDoubleArray(slot, values);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public Map<String, Object> getMappedValue() {
+    checkKind(PropertyKind.MAPPED);
+    return (Map<String, Object>) bean.getRawValue(slot);
+  }
+
+  @Override
+  public void setMappedValue(final Map<String, Object> map) {
+    checkKind(PropertyKind.MAPPED);
+    bean.setRawValue(slot, map);
+  }
+
+  @Override
+  public Set<String> getKeySet() {
+    return bean.getKeySet(slot);
+  }
+
+  @Override
+  public boolean containsKey(final String key) {
+    return bean.containsKey(slot, key);
+  }
+
+  @Override
+  public Object getMappedValue(final String key) {
+    return bean.get(slot, key);
+  }
+
+  @Override
+  public void setMappedValue(final String key, @Nullable final Object value) {
+    bean.set(slot, key, value);
+  }
+
+  @Override
+  public Object removeMappedValue(final String key) {
+    return bean.remove(slot, key);
+  }
+
+  @Override
+  public void clear() {
+    bean.clear(slot);
+  }
+
+  @Override
+  public void reset() {
+    if (descriptor.getKind() == PropertyKind.SIMPLE) {
+      bean.set(slot, null);
+    } else {
+      bean.clear(slot);
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * descriptor.hashCode() + BeanObjects.hash(getRawValue());
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj == null) {
+      return false;
+    }
+    if (obj == this) {
+      return true;
+    }
+    if (obj.getClass() != getClass()) {
+      return false;
+    }
+    final SlotProperty rhs = (SlotProperty) obj;
+    return descriptor.equals(rhs.descriptor)
+        && BeanObjects.equal(getRawValue(), rhs.getRawValue());
+  }
+
+  /**
+   * Writes the string representation of this property, which is the same as the
+   * string returned by {@link #toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  @Override
+  public void appendTo(final Appendable out) throws IOException {
+    BeanObjects.appendStart(out, this);
+    BeanObjects.appendField(out, "descriptor", descriptor, true);
+    BeanObjects.appendField(out, "value", getRawValue(), false);
+    BeanObjects.appendEnd(out);
+  }
+
+  @Override
+  public String toString() {
+    return BeanObjects.toString(this);
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.io.IOException;
+
+/**
+ * An object which could write its string representation to an
+ * {@link Appendable}.
+ * <p>
+ * The beans, bean classes, properties and property descriptors of this
+ * package implement this interface, so that their string representations
+ * could be written to a stream or a shared buffer without building the
+ * intermediate strings. A bean writes the values of its properties in the
+ * same way, therefore writing a bean nested in another bean does not build
+ * the string representation of the nested bean either.
+ *
+ * @author Haixing Hu
+ */
+public interface ToStringAppendable {
+
+  /**
+   * Writes the string representation of this object, which is the same as the
+   * string returned by {@link Object#toString()}, to an {@link Appendable}.
+   *
+   * @param out
+   *          the {@link Appendable} to be written to.
+   * @throws IOException
+   *           if any I/O error occurred.
+   */
+  void appendTo(Appendable out) throws IOException;
+}
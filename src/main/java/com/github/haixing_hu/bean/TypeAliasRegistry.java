@@ -19,11 +19,15 @@ package com.github.haixing_hu.bean;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,21 +37,52 @@ import static com.github.haixing_hu.lang.Argument.requireNonNull;
 
 /**
  * A class used to register the alias of types.
+ * <p>
+ * The registered aliases are kept in an immutable snapshot, which is replaced
+ * by an updated copy whenever an alias is registered. Since the aliases are
+ * registered rarely but looked up for every property during the XML
+ * serialization, the lookups just read the current snapshot without locking.
  *
  * @author Haixing Hu
  */
+@ThreadSafe
 public final class TypeAliasRegistry {
 
-  private static final Map<String, Class<?>> ALIAS_TO_TYPE = new HashMap<>();
-  private static final Map<Class<?>, String> TYPE_TO_ALIAS = new HashMap<>();
+  /**
+   * An immutable snapshot of the registered aliases.
+   */
+  @Immutable
+  private static final class Snapshot {
+    final Map<String, Class<?>> aliasToType;
+    final Map<Class<?>, String> typeToAlias;
+
+    Snapshot(final Map<String, Class<?>> aliasToType,
+        final Map<Class<?>, String> typeToAlias) {
+      this.aliasToType = aliasToType;
+      this.typeToAlias = typeToAlias;
+    }
+  }
+
   private static final Logger LOGGER =
       LoggerFactory.getLogger(TypeAliasRegistry.class);
 
+  /**
+   * The current snapshot, which is only replaced while holding the lock of
+   * this class, or during the initialization of this class.
+   */
+  private static volatile Snapshot snapshot = new Snapshot(
+      Collections.<String, Class<?>>emptyMap(),
+      Collections.<Class<?>, String>emptyMap());
+
   private static void doRegister(final String alias, final Class<?> type) {
     LOGGER.info("Register type alias '{}' <==> '{}'", alias,
         ClassUtils.getShortCanonicalName(type));
-    ALIAS_TO_TYPE.put(alias, type);
-    TYPE_TO_ALIAS.put(type, alias);
+    final Snapshot current = snapshot;
+    final Map<String, Class<?>> aliasToType = new HashMap<>(current.aliasToType);
+    final Map<Class<?>, String> typeToAlias = new HashMap<>(current.typeToAlias);
+    aliasToType.put(alias, type);
+    typeToAlias.put(type, alias);
+    snapshot = new Snapshot(aliasToType, typeToAlias);
   }
 
   static {
@@ -84,6 +119,7 @@ public final class TypeAliasRegistry {
     doRegister("collection", Collection.class);
 
     doRegister("default-bean", DefaultBean.class);
+    doRegister("array-bean", ArrayBean.class);
   }
 
   private TypeAliasRegistry() { }
@@ -112,11 +148,8 @@ public final class TypeAliasRegistry {
    * @return the registered alias of the type, or {@code null} if none.
    */
   public static String getAlias(final Class<?> type) {
-    LOGGER.debug("Getting alias for type '{}'...", type.getName());
     requireNonNull("type", type);
-    synchronized (TypeAliasRegistry.class) {
-      return TYPE_TO_ALIAS.get(type);
-    }
+    return snapshot.typeToAlias.get(type);
   }
 
   /**
@@ -127,11 +160,8 @@ public final class TypeAliasRegistry {
    * @return the registered type with the alias, or {@code null} if none.
    */
   public static Class<?> getType(final String alias) {
-    LOGGER.debug("Getting type for alias '{}'...", alias);
     requireNonNull("alias", alias);
-    synchronized (TypeAliasRegistry.class) {
-      return ALIAS_TO_TYPE.get(alias);
-    }
+    return snapshot.aliasToType.get(alias);
   }
 
 }
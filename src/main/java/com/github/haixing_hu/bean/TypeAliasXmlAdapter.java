@@ -18,10 +18,12 @@ package com.github.haixing_hu.bean;
 
 import javax.xml.bind.annotation.adapters.XmlAdapter;
 
-import org.apache.commons.lang3.ClassUtils;
-
 /**
  * The XML adapter for the value class of the {@link PropertyDescriptor} class.
+ * <p>
+ * The names which are not registered aliases are resolved by the
+ * {@link ClassResolver}, which caches the resolved classes as well as the
+ * failed lookups.
  *
  * @author Haixing Hu
  */
@@ -31,7 +33,7 @@ public final class TypeAliasXmlAdapter extends XmlAdapter<String, Class<?>> {
   public Class<?> unmarshal(final String name) throws Exception {
     Class<?> type = TypeAliasRegistry.getType(name);
     if (type == null) {
-      type = ClassUtils.getClass(name);
+      type = ClassResolver.resolve(name);
     }
     return type;
   }
@@ -16,11 +16,17 @@
  */
 package com.github.haixing_hu.bean;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
 import com.github.haixing_hu.reflect.ReflectionException;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -380,4 +386,59 @@ public class BeanClassTestBase extends PropertyDescriptorTestBase {
     assertEquals(null, cls.getPropertyDescriptor("prop6"));
     assertArrayEquals(new PropertyDescriptor[0], cls.getPropertyDescriptors());
   }
+
+  /**
+   * Tests the states of an unmarshalled bean class, which are used
+   * concurrently by several threads.
+   */
+  protected void testUnmarshalledBeanClass(final BeanClass expected,
+      final BeanClass actual) throws Exception {
+    final PropertyDescriptor[] descriptors = expected.getPropertyDescriptors();
+    assertTrue(descriptors.length > 0);
+    assertArrayEquals(descriptors, actual.getPropertyDescriptors());
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    final List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; ++i) {
+      threads.add(new Thread() {
+        @Override
+        public void run() {
+          try {
+            for (int j = 0; j < descriptors.length; ++j) {
+              final String name = descriptors[j].getName();
+              assertTrue(actual.hasProperty(name));
+              assertEquals(descriptors[j], actual.getPropertyDescriptor(name));
+              assertEquals(j, actual.getPropertyIndex(name));
+              assertEquals(j, actual.getPropertyHandle(name).getSlot());
+            }
+            assertSame(expected.getBeanType(),
+                actual.newInstance().getClass());
+          } catch (final Throwable e) {
+            error.set(e);
+          }
+        }
+      });
+    }
+    for (final Thread thread : threads) {
+      thread.start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+    assertNull(error.get());
+  }
+
+  protected DefaultBeanClass getPrimitiveBeanClass() {
+    return new DefaultBeanClass("primitive-bean", new PropertyDescriptor[] {
+        new PropertyDescriptor("bool", Boolean.class),
+        new PropertyDescriptor("byte", Byte.class),
+        new PropertyDescriptor("short", Short.class),
+        new PropertyDescriptor("int", Integer.class),
+        new PropertyDescriptor("long", Long.class),
+        new PropertyDescriptor("float", Float.class),
+        new PropertyDescriptor("double", Double.class),
+        new PropertyDescriptor("str", String.class),
+        new PropertyDescriptor("ints", Integer.class, PropertyKind.INDEXED),
+        new PropertyDescriptor("longs", Long.class, PropertyKind.INDEXED),
+        new PropertyDescriptor("doubles", Double.class, PropertyKind.INDEXED), });
+  }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import org.junit.Test;
+
+import com.github.haixing_hu.reflect.ReflectionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test of the {@link BeanFactory} class.
+ *
+ * @author Haixing Hu
+ */
+public class BeanFactoryTest extends BeanClassTestBase {
+
+  private Bean newInstance(final Class<? extends Bean> type,
+      final BeanClass cls) throws Exception {
+    final BeanFactory factory = BeanFactory.create(
+        type.getConstructor(BeanClass.class));
+    return factory.newInstance(new Object[] { cls });
+  }
+
+  @Test
+  public void testNewInstance() throws Exception {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    final Bean bean1 = newInstance(DefaultBean.class, cls);
+    assertEquals(DefaultBean.class, bean1.getClass());
+    assertSame(cls, bean1.getBeanClass());
+    final Bean bean2 = newInstance(ArrayBean.class, cls);
+    assertEquals(ArrayBean.class, bean2.getClass());
+    assertSame(cls, bean2.getBeanClass());
+    final Bean bean3 = newInstance(MyBean.class, cls);
+    assertEquals(MyBean.class, bean3.getClass());
+    assertSame(cls, bean3.getBeanClass());
+  }
+
+  @Test
+  public void testReflectiveFactory() throws Exception {
+    final BeanFactory factory = BeanFactory.create(
+        EmptyBean.class.getConstructor());
+    assertEquals(EmptyBean.class,
+        factory.newInstance(new Object[0]).getClass());
+  }
+
+  @Test
+  public void testConstructorException() throws Exception {
+    try {
+      newInstance(BadBean.class, getPrimitiveBeanClass());
+      fail("should throw");
+    } catch (final ReflectionException e) {
+      assertEquals("Thrown from the BadBean constructor",
+          e.getCause().getMessage());
+    }
+  }
+}
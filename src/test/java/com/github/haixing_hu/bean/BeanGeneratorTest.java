@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test for the {@link BeanGenerator} class.
+ *
+ * @author Haixing Hu
+ */
+public class BeanGeneratorTest extends BeanTestBase {
+
+  private static final BeanGenerator GENERATOR = new BeanGenerator();
+
+  private static final Map<BeanClass, Class<? extends AbstractSlotBean>> TYPES =
+      new HashMap<>();
+
+  private static Bean newBean(final BeanClass cls) {
+    Class<? extends AbstractSlotBean> type = TYPES.get(cls);
+    if (type == null) {
+      type = GENERATOR.generate(cls);
+      TYPES.put(cls, type);
+    }
+    try {
+      return type.getConstructor(BeanClass.class).newInstance(cls);
+    } catch (final Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  protected Property newProperty(final PropertyDescriptor descriptor) {
+    if (descriptor == null) {
+      return null;
+    } else {
+      final BeanClass cls = new DefaultBeanClass("bean",
+          new PropertyDescriptor[] { descriptor }, ArrayBean.class);
+      return new ArrayBean(cls).getProperty(descriptor.getName());
+    }
+  }
+
+  private BeanClass[] getBeanClasses() {
+    return new BeanClass[] {
+      getDefaultBeanClass0(),
+      getDefaultBeanClass1(),
+      getDefaultBeanClass2(),
+      getDefaultBeanClass3(),
+      getDefaultBeanClass4(),
+    };
+  }
+
+  @Test
+  public void testPropertyOperations() {
+    for (final BeanClass cls : getBeanClasses()) {
+      testBeanConstructor(cls, newBean(cls));
+      testBeanGetProperty(cls, newBean(cls));
+      testSimplePropertyOperations(cls, newBean(cls));
+      testIndexedPropertyOperations(cls, newBean(cls));
+      testMappedPropertyOperations(cls, newBean(cls));
+    }
+  }
+
+  @Test
+  public void testPrimitiveOperations() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    final Bean bean1 = newBean(cls);
+    testPrimitiveOperations(bean1);
+
+    final Bean bean2 = newBean(cls);
+    assertNotEquals(bean1, bean2);
+    bean2.set("bool", true);
+    bean2.set("byte", (byte) -3);
+    bean2.set("short", (short) 1000);
+    bean2.setLong("long", Long.MIN_VALUE);
+    bean2.set("float", 1.5f);
+    bean2.setDouble("double", -0.25);
+    assertEquals(bean1, bean2);
+    assertEquals(bean1.hashCode(), bean2.hashCode());
+    assertEquals(bean1.toString().substring(bean1.toString().indexOf('[')),
+        bean2.toString().substring(bean2.toString().indexOf('[')));
+  }
+
+  @Test
+  public void testPrimitiveIndexedOperations() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    testPrimitiveIndexedOperations(newBean(cls));
+  }
+
+  @Test
+  public void testReset() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    testReset(newBean(cls), newBean(cls));
+  }
+
+  @Test
+  public void testDirtyProperties() {
+    testDirtyProperties(newBean(getPrimitiveBeanClass()));
+  }
+
+  @Test
+  public void testFailedWritesNotDirty() {
+    testFailedWritesNotDirty(newBean(getDefaultBeanClass3()));
+  }
+
+  @Test
+  public void testBulkOperations() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    testBulkOperations(newBean(cls), newBean(cls));
+  }
+  @Test
+  public void testBulkRoundTrip() {
+    testBulkRoundTrip(newBean(getDefaultBeanClass4()));
+  }
+
+
+  @Test
+  public void testCopy() {
+    testCopy(newBean(getPrimitiveBeanClass()));
+  }
+
+  @Test
+  public void testForEach() {
+    testForEach(newBean(getVisitedBeanClass()));
+  }
+
+  @Test
+  public void testInstall() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    GENERATOR.install(cls);
+    assertTrue(AbstractSlotBean.class.isAssignableFrom(cls.getBeanType()));
+    assertTrue(cls.getBeanType().getName().startsWith(BeanGenerator.PACKAGE));
+    final Bean bean = cls.newInstance();
+    assertSame(cls.getBeanType(), bean.getClass());
+    bean.setInt("int", 42);
+    assertEquals(Integer.valueOf(42), bean.get("int"));
+
+    final GroupedBeanClass grouped = new GroupedBeanClass("grouped",
+        new PropertyDescriptorGroup[] {
+          new PropertyDescriptorGroup("group",
+              new PropertyDescriptor[] { getPropertyDescriptor1() }), });
+    GENERATOR.install(grouped);
+    final Bean bean2 = grouped.newInstance();
+    bean2.set("prop1", "value");
+    assertEquals("value", bean2.get("prop1"));
+  }
+
+  @Test
+  public void testIncompatibleBeanClass() throws Exception {
+    final Class<? extends AbstractSlotBean> type =
+        GENERATOR.generate(getPrimitiveBeanClass());
+    try {
+      type.getConstructor(BeanClass.class).newInstance(getDefaultBeanClass1());
+      fail("should throw");
+    } catch (final java.lang.reflect.InvocationTargetException e) {
+      assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+  }
+}
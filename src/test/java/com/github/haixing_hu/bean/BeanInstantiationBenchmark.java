@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Compares the throughput of {@link BeanClass#newInstance()} with the
+ * reflective invocation of the constructor of the bean type.
+ * <p>
+ * This is not a unit test; run its {@code main} method manually, e.g.
+ * <pre><code>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.github.haixing_hu.bean.BeanInstantiationBenchmark
+ * </code></pre>
+ *
+ * @author Haixing Hu
+ */
+public final class BeanInstantiationBenchmark {
+
+  private static final int ITERATIONS = 2000000;
+  private static final int ROUNDS = 5;
+
+  public static void main(final String[] args) throws Exception {
+    final PropertyDescriptor[] descriptors = {
+        new PropertyDescriptor("id", Long.class),
+        new PropertyDescriptor("name", String.class), };
+    run("DefaultBean", new DefaultBeanClass("bench", descriptors));
+    run("MyBean", new DefaultBeanClass("bench", descriptors, MyBean.class));
+  }
+
+  private static void run(final String title, final BeanClass cls)
+      throws Exception {
+    final Constructor<? extends Bean> constructor =
+        cls.getBeanType().getConstructor(BeanClass.class);
+    final Object[] arguments = { cls };
+    for (int round = 0; round < ROUNDS; ++round) {
+      long start = System.nanoTime();
+      int sink = 0;
+      for (int i = 0; i < ITERATIONS; ++i) {
+        final Bean bean = constructor.newInstance(arguments);
+        sink += System.identityHashCode(bean) & 1;
+      }
+      final long reflective = System.nanoTime() - start;
+      start = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; ++i) {
+        final Bean bean = cls.newInstance();
+        sink += System.identityHashCode(bean) & 1;
+      }
+      final long factory = System.nanoTime() - start;
+      System.out.printf("%s round %d: reflective %.1f ns/op, "
+          + "factory %.1f ns/op (%d)%n", title, round,
+          (double) reflective / ITERATIONS, (double) factory / ITERATIONS,
+          sink);
+    }
+  }
+}
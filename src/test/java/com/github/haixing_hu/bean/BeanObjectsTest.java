@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test of the {@link BeanObjects} class.
+ *
+ * @author Haixing Hu
+ */
+public class BeanObjectsTest extends BeanClassTestBase {
+
+  private static final Object[][] PRIMITIVE_VALUES = {
+    { PrimitiveType.BOOLEAN, true, false },
+    { PrimitiveType.BYTE, (byte) 0, (byte) -1, Byte.MAX_VALUE, Byte.MIN_VALUE },
+    { PrimitiveType.SHORT, (short) 0, (short) -1, Short.MIN_VALUE },
+    { PrimitiveType.INT, 0, -1, 123456, Integer.MIN_VALUE },
+    { PrimitiveType.LONG, 0L, -1L, 1L << 40, Long.MIN_VALUE },
+    { PrimitiveType.FLOAT, 0.0f, -0.0f, 1.5f, Float.NaN,
+      Float.intBitsToFloat(0x7fc00001) },
+    { PrimitiveType.DOUBLE, 0.0, -0.0, 1.5, Double.NaN,
+      Double.longBitsToDouble(0x7ff8000000000001L) },
+  };
+
+  @Test
+  public void testHashBitsEqualBits() throws Exception {
+    for (final Object[] row : PRIMITIVE_VALUES) {
+      final PrimitiveType type = (PrimitiveType) row[0];
+      for (int i = 1; i < row.length; ++i) {
+        final long bits1 = type.toBits(row[i]);
+        assertEquals(row[i].hashCode(), BeanObjects.hashBits(type, bits1));
+        final StringBuilder builder = new StringBuilder();
+        BeanObjects.appendBits(builder, type, bits1);
+        assertEquals(row[i].toString(), builder.toString());
+        for (int j = 1; j < row.length; ++j) {
+          final long bits2 = type.toBits(row[j]);
+          assertEquals(row[i].equals(row[j]),
+              BeanObjects.equalBits(type, bits1, bits2));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testIsImmutable() {
+    assertTrue(BeanObjects.isImmutable(null));
+    assertTrue(BeanObjects.isImmutable("str"));
+    assertTrue(BeanObjects.isImmutable(1));
+    assertTrue(BeanObjects.isImmutable(String.class));
+    assertTrue(BeanObjects.isImmutable(PropertyKind.INDEXED));
+    assertFalse(BeanObjects.isImmutable(new ArrayList<Object>()));
+    assertFalse(BeanObjects.isImmutable(new StringBuilder()));
+  }
+
+  @Test
+  public void testAppendValue() throws Exception {
+    final List<Object> list = new ArrayList<>();
+    list.add("a");
+    list.add(null);
+    list.add(getPropertyDescriptor1());
+    final Map<String, Object> map = new LinkedHashMap<>();
+    map.put("x", 1);
+    map.put("y", list);
+    final Object[] values = { null, "str", 1, list, map,
+        new Object[] { "a", null, 2 }, new Object[0],
+        getPropertyDescriptor1(), PropertyKind.MAPPED, };
+    for (final Object value : values) {
+      final StringBuilder builder = new StringBuilder();
+      BeanObjects.appendValue(builder, value);
+      final String expected = new ToStringBuilder(this)
+          .append("value", value).build();
+      final String prefix = expected.substring(0, expected.indexOf("value="));
+      assertEquals(expected, prefix + "value=" + builder + "]");
+    }
+  }
+
+  @Test
+  public void testAppendPrimitiveArrays() throws Exception {
+    final Object[] values = { new int[] { 1, -2 },
+        new long[] { Long.MIN_VALUE },
+        new double[] { 1.5, Double.NaN }, new float[] { -0.0f, 2 },
+        new short[] { 3, 4, 5 }, new byte[] { -1 }, new char[] { 'a', ',' },
+        new boolean[] { true, false }, new int[0],
+        new Object[] { new int[] { 1, 2 }, null, new char[0] }, };
+    for (final Object value : values) {
+      final StringBuilder builder = new StringBuilder();
+      BeanObjects.appendValue(builder, value);
+      final String expected = new ToStringBuilder(this)
+          .append("value", value).build();
+      final String prefix = expected.substring(0, expected.indexOf("value="));
+      assertEquals(expected, prefix + "value=" + builder + "]");
+    }
+    final StringBuilder builder = new StringBuilder();
+    BeanObjects.appendValue(builder, new int[] { 1, 2 });
+    assertEquals("{1,2}", builder.toString());
+  }
+
+  @Test
+  public void testToString() {
+    final PropertyDescriptor desp = getPropertyDescriptor2();
+    assertEquals(new ToStringBuilder(desp)
+        .append("name", desp.getName())
+        .append("type", desp.getType())
+        .append("kind", desp.getKind())
+        .build(), desp.toString());
+
+    final DefaultBeanClass cls = getDefaultBeanClass4();
+    assertEquals(new ToStringBuilder(cls)
+        .append("name", cls.getName())
+        .append("beanType", cls.getBeanType())
+        .append("descriptors", cls.getPropertyDescriptors())
+        .build(), cls.toString());
+
+    final GroupedBeanClass grouped = getGroupedBeanClass4();
+    assertEquals(new ToStringBuilder(grouped)
+        .append("name", grouped.getName())
+        .append("beanType", grouped.getBeanType())
+        .append("descriptorGroups", grouped.getPropertyDescriptorGroups())
+        .build(), grouped.toString());
+  }
+
+  @Test
+  public void testPrimitiveAndBoxedValues() {
+    final DefaultBeanClass cls = new DefaultBeanClass("cls",
+        new PropertyDescriptor[] {
+          new PropertyDescriptor("i", Integer.class),
+          new PropertyDescriptor("d", Double.class),
+          new PropertyDescriptor("s", String.class), });
+    final Bean[] beans = { new DefaultBean(cls), new ArrayBean(cls) };
+    final Bean[] boxed = { new DefaultBean(cls), new ArrayBean(cls) };
+    for (int k = 0; k < beans.length; ++k) {
+      final Bean bean = beans[k];
+      final Bean other = boxed[k];
+      bean.setInt("i", 42);
+      bean.setDouble("d", 0.5);
+      bean.set("s", "str");
+      other.set("i", 42);
+      other.set("d", 0.5);
+      other.set("s", "str");
+      assertEquals(bean, other);
+      assertEquals(other, bean);
+      assertEquals(bean.hashCode(), other.hashCode());
+      assertEquals(bean.toString().replaceAll("@[0-9a-f]+\\[", "["),
+          other.toString().replaceAll("@[0-9a-f]+\\[", "["));
+
+      //  the cached hash code is reset by the modification
+      final int hash = bean.hashCode();
+      bean.setInt("i", 43);
+      assertNotEquals(hash, bean.hashCode());
+      assertNotEquals(bean, other);
+      bean.set("i", 42);
+      assertEquals(hash, bean.hashCode());
+      assertEquals(bean, other);
+      bean.reset();
+      other.reset();
+      assertEquals(bean.hashCode(), other.hashCode());
+      assertEquals(bean, other);
+    }
+  }
+
+  @Test
+  public void testMutableValues() {
+    final DefaultBeanClass cls = new DefaultBeanClass("cls",
+        new PropertyDescriptor[] {
+          new PropertyDescriptor("list", Integer.class, PropertyKind.INDEXED),
+          new PropertyDescriptor("map", String.class, PropertyKind.MAPPED), });
+    final Bean[] beans = { new DefaultBean(cls), new ArrayBean(cls) };
+    for (final Bean bean : beans) {
+      final int hash = bean.hashCode();
+      assertEquals(hash, bean.hashCode());
+      bean.add("list", 1);
+      assertNotEquals(hash, bean.hashCode());
+      final int hash1 = bean.hashCode();
+      bean.set("map", "key", "value");
+      assertNotEquals(hash1, bean.hashCode());
+      bean.clear("list");
+      bean.clear("map");
+      assertEquals(hash, bean.hashCode());
+    }
+  }
+}
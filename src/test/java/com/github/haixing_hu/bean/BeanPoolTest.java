@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test of the {@link BeanPool} class.
+ *
+ * @author Haixing Hu
+ */
+public class BeanPoolTest extends BeanClassTestBase {
+
+  @Test
+  public void testAcquireRelease() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    final BeanPool pool = new BeanPool(cls, 2);
+    assertSame(cls, pool.getBeanClass());
+    assertEquals(2, pool.getMaxSize());
+    assertEquals(0, pool.getSize());
+
+    final Bean bean1 = pool.acquire();
+    final Bean bean2 = pool.acquire();
+    final Bean bean3 = pool.acquire();
+    assertSame(cls, bean1.getBeanClass());
+    assertNotSame(bean1, bean2);
+    bean1.setInt("int", 1);
+    bean1.addInt("ints", 2);
+    pool.release(bean1);
+    pool.release(bean2);
+    pool.release(bean3);
+    assertEquals(2, pool.getSize());
+
+    assertSame(bean2, pool.acquire());
+    final Bean bean = pool.acquire();
+    assertSame(bean1, bean);
+    assertNull(bean.get("int"));
+    assertEquals(0, bean.getSize("ints"));
+    assertEquals(cls.newInstance(), bean);
+    assertEquals(0, pool.getSize());
+  }
+
+  @Test
+  public void testThreadLocal() throws Exception {
+    final BeanPool pool = new BeanPool(getPrimitiveBeanClass());
+    final Bean bean = pool.acquire();
+    pool.release(bean);
+    final AtomicReference<Bean> other = new AtomicReference<>();
+    final Thread thread = new Thread() {
+      @Override
+      public void run() {
+        other.set(pool.acquire());
+      }
+    };
+    thread.start();
+    thread.join();
+    assertNotSame(bean, other.get());
+    assertSame(bean, pool.acquire());
+  }
+
+  @Test
+  public void testReleaseCopyOfEqualBeanClass() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    final DefaultBeanClass other = getPrimitiveBeanClass();
+    assertEquals(cls, other);
+    assertNotSame(cls, other);
+    final Bean prototype = other.newInstance();
+    prototype.setInt("int", 5);
+    prototype.add("longs", 4L);
+
+    //  the copy belongs to the bean class creating it, not the equal bean
+    //  class of the prototype
+    final Bean bean = cls.newInstance(prototype);
+    assertSame(cls, bean.getBeanClass());
+    assertEquals(prototype, bean);
+    assertTrue(bean.getDirtyProperties().isEmpty());
+    bean.add("longs", 6L);
+    assertEquals(1, prototype.getSize("longs"));
+
+    final BeanPool pool = new BeanPool(cls);
+    pool.release(bean);
+    assertEquals(1, pool.getSize());
+  }
+
+  @Test
+  public void testRelease() {
+    final BeanPool pool = new BeanPool(getPrimitiveBeanClass());
+    try {
+      pool.release(null);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+    try {
+      pool.release(getPrimitiveBeanClass().newInstance());
+      fail("should throw");
+    } catch (final IllegalArgumentException e) {
+      // pass
+    }
+    assertEquals(0, pool.getSize());
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test for the {@link BeanSchemaProcessor} class.
+ *
+ * @author Haixing Hu
+ */
+public class BeanSchemaProcessorTest extends BeanTestBase {
+
+  private static final String PACKAGE = "com.github.haixing_hu.bean.schema";
+
+  private static final String SCHEMA_SOURCE =
+      "package " + PACKAGE + ";\n"
+    + "import java.util.List;\n"
+    + "@com.github.haixing_hu.bean.BeanSchema(name = \"primitive-bean\")\n"
+    + "public interface PrimitiveSchema {\n"
+    + "  boolean isBool();\n"
+    + "  Byte getByte();\n"
+    + "  short getShort();\n"
+    + "  int getInt();\n"
+    + "  void setInt(int value);\n"
+    + "  Long getLong();\n"
+    + "  void setLong(Long value);\n"
+    + "  float getFloat();\n"
+    + "  double getDouble();\n"
+    + "  String getStr();\n"
+    + "  void setStr(String value);\n"
+    + "  List<Integer> getInts();\n"
+    + "  void setInts(List<Integer> value);\n"
+    + "  List<Long> getLongs();\n"
+    + "  List<Double> getDoubles();\n"
+    + "}\n";
+
+  private static BeanClass beanClass;
+
+  private static synchronized BeanClass getSchemaBeanClass() throws Exception {
+    if (beanClass == null) {
+      final Class<?> type = compile(SCHEMA_SOURCE).loadClass(PACKAGE
+          + ".PrimitiveSchemaBean");
+      beanClass = (BeanClass) type.getField("CLASS").get(null);
+    }
+    return beanClass;
+  }
+
+  private static ClassLoader compile(final String source) {
+    final MemoryCompiler compiler = new MemoryCompiler(
+        BeanSchemaProcessorTest.class.getClassLoader());
+    return compiler.compile(
+        Collections.singletonMap(PACKAGE + ".PrimitiveSchema", source),
+        Collections.singletonList(new BeanSchemaProcessor()));
+  }
+
+  @Override
+  protected Property newProperty(final PropertyDescriptor descriptor) {
+    if (descriptor == null) {
+      return null;
+    } else {
+      final BeanClass cls = new DefaultBeanClass("bean",
+          new PropertyDescriptor[] { descriptor }, ArrayBean.class);
+      return new ArrayBean(cls).getProperty(descriptor.getName());
+    }
+  }
+
+  @Test
+  public void testBeanClass() throws Exception {
+    final BeanClass cls = getSchemaBeanClass();
+    assertEquals("primitive-bean", cls.getName());
+    assertEquals("PrimitiveSchemaBean", cls.getBeanType().getSimpleName());
+    final PropertyDescriptor[] descriptors = cls.getPropertyDescriptors();
+    assertEquals(11, descriptors.length);
+    assertEquals(getPrimitiveBeanClass().getPropertyDescriptors().length,
+        descriptors.length);
+    for (final PropertyDescriptor expected
+        : getPrimitiveBeanClass().getPropertyDescriptors()) {
+      final int index = cls.getPropertyIndex(expected.getName());
+      assertTrue(index >= 0);
+      assertEquals(expected, descriptors[index]);
+      assertSame(descriptors[index],
+          cls.getPropertyDescriptor(expected.getName()));
+      assertEquals(index, cls.getPropertyHandle(expected.getName()).getSlot());
+    }
+    assertEquals(-1, cls.getPropertyIndex("xxx"));
+    assertEquals(-1, cls.getPropertyIndex(null));
+    assertFalse(cls.hasProperty("xxx"));
+    assertNull(cls.getPropertyDescriptor("xxx"));
+    try {
+      cls.getPropertyHandle("xxx");
+      fail("should throw");
+    } catch (final PropertyNotExistException e) {
+      // pass
+    }
+    final Object handle = cls.getBeanType().getField("INT").get(null);
+    assertSame(cls.getPropertyHandle("int"), handle);
+    assertSame(cls.getBeanType(), cls.newInstance().getClass());
+    assertSame(cls.getBeanType(),
+        cls.getBeanType().getConstructor().newInstance().getClass());
+  }
+
+  @Test
+  public void testPrimitiveOperations() throws Exception {
+    testPrimitiveOperations(getSchemaBeanClass().newInstance());
+  }
+
+  @Test
+  public void testPrimitiveIndexedOperations() throws Exception {
+    testPrimitiveIndexedOperations(getSchemaBeanClass().newInstance());
+  }
+
+  @Test
+  public void testReset() throws Exception {
+    final BeanClass cls = getSchemaBeanClass();
+    testReset(cls.newInstance(), cls.newInstance());
+  }
+
+  @Test
+  public void testBulkOperations() throws Exception {
+    final BeanClass cls = getSchemaBeanClass();
+    testBulkOperations(cls.newInstance(), cls.newInstance());
+  }
+
+  @Test
+  public void testCopy() throws Exception {
+    testCopy(getSchemaBeanClass().newInstance());
+  }
+
+  @Test
+  public void testDirtyProperties() throws Exception {
+    testDirtyProperties(getSchemaBeanClass().newInstance());
+    //  the typed setters also mark the properties dirty
+    final Bean bean = getSchemaBeanClass().newInstance();
+    final Class<?> type = bean.getClass();
+    type.getMethod("setInt", int.class).invoke(bean, 42);
+    type.getMethod("setLong", Long.class).invoke(bean, 7L);
+    type.getMethod("setStr", String.class).invoke(bean, "hello");
+    final BitSet expected = new BitSet();
+    expected.set(bean.getBeanClass().getPropertyIndex("int"));
+    expected.set(bean.getBeanClass().getPropertyIndex("long"));
+    expected.set(bean.getBeanClass().getPropertyIndex("str"));
+    assertEquals(expected, bean.getDirtyProperties());
+  }
+
+  @Test
+  public void testTypedAccessors() throws Exception {
+    final Bean bean = getSchemaBeanClass().newInstance();
+    final Class<?> type = bean.getClass();
+    type.getMethod("setInt", int.class).invoke(bean, 42);
+    assertEquals(42, bean.getInt("int"));
+    assertEquals(42, type.getMethod("getInt").invoke(bean));
+    bean.set("int", null);
+    try {
+      type.getMethod("getInt").invoke(bean);
+      fail("should throw");
+    } catch (final java.lang.reflect.InvocationTargetException e) {
+      assertTrue(e.getCause() instanceof NullPointerException);
+    }
+    assertNull(type.getMethod("getLong").invoke(bean));
+    type.getMethod("setLong", Long.class).invoke(bean, 7L);
+    assertEquals(7L, bean.getLong("long"));
+    assertEquals(Long.valueOf(7L), type.getMethod("getLong").invoke(bean));
+    bean.setBoolean("bool", true);
+    assertEquals(Boolean.TRUE, type.getMethod("isBool").invoke(bean));
+    type.getMethod("setStr", String.class).invoke(bean, "hello");
+    assertEquals("hello", bean.get("str"));
+    assertEquals("hello", type.getMethod("getStr").invoke(bean));
+    final List<Integer> ints = Arrays.asList(1, 2, 3);
+    type.getMethod("setInts", List.class).invoke(bean, ints);
+    assertArrayEquals(new int[] { 1, 2, 3 }, bean.getIntArray("ints"));
+    assertEquals(ints, type.getMethod("getInts").invoke(bean));
+    assertSame(bean.getProperty("ints").getRawValue(),
+        type.getMethod("getInts").invoke(bean));
+  }
+
+  @Test
+  public void testDefaultLocale() throws Exception {
+    final Locale locale = Locale.getDefault();
+    //  the upper case I is lowered to the dotless i in the Turkish locale
+    Locale.setDefault(new Locale("tr", "TR"));
+    try {
+      final Class<?> type = compile(SCHEMA_SOURCE).loadClass(PACKAGE
+          + ".PrimitiveSchemaBean");
+      final BeanClass cls = (BeanClass) type.getField("CLASS").get(null);
+      final Bean bean = cls.newInstance();
+      bean.setInt("int", 42);
+      assertEquals(42, type.getMethod("getInt").invoke(bean));
+    } finally {
+      Locale.setDefault(locale);
+    }
+    assertEquals("int", PrimitiveType.INT.getKeyword());
+    assertEquals("boolean", PrimitiveType.BOOLEAN.getKeyword());
+  }
+
+  @Test
+  public void testNotInterface() {
+    try {
+      compile("package " + PACKAGE + ";\n"
+          + "@com.github.haixing_hu.bean.BeanSchema\n"
+          + "public class PrimitiveSchema {}\n");
+      fail("should throw");
+    } catch (final IllegalStateException e) {
+      assertTrue(e.getMessage().contains("interface"));
+    }
+  }
+}
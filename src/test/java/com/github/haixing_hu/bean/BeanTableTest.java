@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test of the {@link BeanTable} class.
+ *
+ * @author Haixing Hu
+ */
+public class BeanTableTest extends BeanTestBase {
+
+  @Override
+  protected Property newProperty(final PropertyDescriptor descriptor) {
+    if (descriptor == null) {
+      return null;
+    } else {
+      return new DefaultProperty(descriptor);
+    }
+  }
+
+  @Test
+  public void testColumns() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    final BeanTable table = new BeanTable(cls, 0);
+    assertEquals(cls, table.getBeanClass());
+    assertEquals(0, table.size());
+    assertEquals(IntColumn.class, table.getColumn("int").getClass());
+    assertEquals(LongColumn.class, table.getColumn("long").getClass());
+    assertEquals(DoubleColumn.class, table.getColumn("double").getClass());
+    assertEquals(ObjectColumn.class, table.getColumn("float").getClass());
+    assertEquals(ObjectColumn.class, table.getColumn("ints").getClass());
+    assertEquals(cls.getPropertyDescriptor("int"),
+        table.getColumn(3).getDescriptor());
+
+    final IntColumn ints = table.getIntColumn("int");
+    final DoubleColumn doubles = table.getDoubleColumn("double");
+    for (int i = 0; i < 1000; ++i) {
+      assertEquals(i, table.addRow());
+      if (i % 10 != 0) {
+        ints.setInt(i, i);
+        doubles.setDouble(i, i * 0.5);
+      }
+    }
+    assertEquals(1000, table.size());
+    long sum = 0;
+    double dsum = 0;
+    for (int i = 0; i < table.size(); ++i) {
+      if (! ints.isNull(i)) {
+        sum += ints.getInt(i);
+        dsum += doubles.getDouble(i);
+      }
+    }
+    assertEquals(450000, sum);
+    assertEquals(225000, dsum, 0);
+    assertEquals(null, ints.get(10));
+    assertEquals(11, ints.get(11));
+    ints.set(11, null);
+    assertTrue(ints.isNull(11));
+    try {
+      ints.getInt(11);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+    try {
+      ints.set(11, 1L);
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    try {
+      table.getColumn("ints").set(0, null);
+      fail("should throw");
+    } catch (final InvalidPropertyKindException e) {
+      // pass
+    }
+    try {
+      ints.getInt(1000);
+      fail("should throw");
+    } catch (final IndexOutOfBoundsException e) {
+      // pass
+    }
+    try {
+      table.getIntColumn("long");
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    try {
+      table.getColumn("xxx");
+      fail("should throw");
+    } catch (final PropertyNotExistException e) {
+      // pass
+    }
+
+    table.clear();
+    assertEquals(0, table.size());
+    assertEquals(0, table.addRow());
+    assertTrue(ints.isNull(0));
+  }
+
+  @Test
+  public void testRows() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    final BeanTable table = new BeanTable(cls);
+    table.addRow();
+    final int row = table.addRow();
+    final SlotBean bean = table.getRow(row);
+    assertEquals(cls, bean.getBeanClass());
+    testPrimitiveOperations(bean);
+    testPrimitiveIndexedOperations(bean);
+    assertEquals(-0.25, table.getDoubleColumn("double").getDouble(row), 0);
+    assertEquals(Arrays.asList(3, 4, 5), table.getColumn("ints").get(row));
+    assertEquals(null, table.getRow(0).get("int"));
+    assertEquals(bean, table.getRow(row));
+    assertNotEquals(bean, table.getRow(0));
+
+    final DefaultBean defaultBean = new DefaultBean(cls);
+    defaultBean.set("str", "hello");
+    defaultBean.setInt("int", 42);
+    defaultBean.addDouble("doubles", 1.5);
+    final int copied = table.addRow(defaultBean);
+    assertEquals(2, copied);
+    assertEquals("hello", table.getRow(copied).get("str"));
+    assertEquals(42, table.getIntColumn("int").getInt(copied));
+    assertEquals(1.5, table.getRow(copied).getDouble("doubles", 0), 0);
+    assertFalse(table.getIntColumn("int").isNull(copied));
+
+    try {
+      table.getRow(3);
+      fail("should throw");
+    } catch (final IndexOutOfBoundsException e) {
+      // pass
+    }
+    try {
+      table.addRow(new DefaultBean(getDefaultBeanClass3()));
+      fail("should throw");
+    } catch (final IllegalArgumentException e) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testObjectMethods() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    final BeanTable table1 = new BeanTable(cls);
+    final BeanTable table2 = new BeanTable(cls);
+    final SlotBean row1 = table1.getRow(table1.addRow());
+    final SlotBean row2 = table2.getRow(table2.addRow());
+    testPrimitiveOperations(row1);
+    testPrimitiveOperations(row2);
+    row1.addInt("ints", 7);
+    row2.addInt("ints", 7);
+    assertEquals(row1, row2);
+    assertEquals(row1.hashCode(), row2.hashCode());
+    row2.setLong("long", 1L);
+    assertNotEquals(row1, row2);
+    row2.set("long", null);
+    assertNotEquals(row1, row2);
+    row2.setInt("int", 0);
+    assertNotEquals(row1, row2);
+
+    //  a row is hashed and printed in the same way as an array bean
+    final ArrayBean bean = new ArrayBean(cls);
+    testPrimitiveOperations(bean);
+    bean.addInt("ints", 7);
+    assertEquals(bean.hashCode(), row1.hashCode());
+    final String str = row1.toString();
+    assertTrue(str.contains(",row=0,values={"));
+    assertEquals(bean.toString().substring(bean.toString().indexOf(",values=")),
+        str.substring(str.indexOf(",values=")));
+  }
+
+  @Test
+  public void testBeanOperations() {
+    final DefaultBeanClass cls = getDefaultBeanClass4();
+    final BeanTable table = new BeanTable(cls);
+    final Bean bean = table.getRow(table.addRow());
+    testSimplePropertyOperations(cls, bean);
+    testIndexedPropertyOperations(cls, bean);
+    testMappedPropertyOperations(cls, bean);
+  }
+
+  @Test
+  public void testCopyRow() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    final BeanTable table = new BeanTable(cls);
+    final Bean row = table.getRow(table.addRow());
+    row.setInt("int", 1);
+    row.set("str", "hello");
+    row.setIntArray("ints", new int[] { 1, 2 });
+    //  the copy of a row is a bean detached from the table
+    final Bean copy = row.copy();
+    assertSame(cls.getBeanType(), copy.getClass());
+    assertEquals(1, table.size());
+    assertEquals(1, copy.getInt("int"));
+    assertEquals("hello", copy.get("str"));
+    assertArrayEquals(new int[] { 1, 2 }, copy.getIntArray("ints"));
+    assertTrue(copy.getDirtyProperties().isEmpty());
+    copy.setInt("ints", 0, 10);
+    assertEquals(1, row.getInt("ints", 0));
+  }
+}
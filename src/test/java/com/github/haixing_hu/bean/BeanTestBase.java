@@ -17,11 +17,22 @@
  */
 package com.github.haixing_hu.bean;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -1508,4 +1519,571 @@ public abstract class BeanTestBase extends BeanClassTestBase {
     testMappedPropertyOperationsProperty6(cls, bean);
     testMappedPropertyOperationsNull(cls, bean);
   }
+
+  protected void testPrimitiveOperations(final Bean bean) {
+    bean.setBoolean("bool", true);
+    assertEquals(true, bean.getBoolean("bool"));
+    assertEquals(Boolean.TRUE, bean.get("bool"));
+    bean.setByte("byte", (byte) -3);
+    assertEquals((byte) -3, bean.getByte("byte"));
+    assertEquals(Byte.valueOf((byte) -3), bean.get("byte"));
+    bean.setShort("short", (short) 1000);
+    assertEquals((short) 1000, bean.getShort("short"));
+    bean.setInt("int", -123);
+    assertEquals(-123, bean.getInt("int"));
+    assertEquals(-123, bean.get("int"));
+    assertEquals(-123, bean.getProperty("int").getIntValue());
+    bean.setLong("long", Long.MIN_VALUE);
+    assertEquals(Long.MIN_VALUE, bean.getLong("long"));
+    assertEquals(Long.MIN_VALUE, bean.get("long"));
+    bean.setFloat("float", 1.5f);
+    assertEquals(1.5f, bean.getFloat("float"), 0);
+    assertEquals(1.5f, bean.get("float"));
+    bean.setDouble("double", -0.25);
+    assertEquals(-0.25, bean.getDouble("double"), 0);
+    assertEquals(-0.25, bean.get("double"));
+
+    //  mixing the boxed and primitive accessors
+    bean.set("int", 456);
+    assertEquals(456, bean.getInt("int"));
+    bean.getProperty("int").setIntValue(789);
+    assertEquals(789, bean.get("int"));
+    bean.set("int", null);
+    assertEquals(null, bean.get("int"));
+    try {
+      bean.getInt("int");
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+    try {
+      bean.getInt("long");
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    try {
+      bean.setDouble("str", 1.0);
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    try {
+      bean.setInt("ints", 1);
+      fail("should throw");
+    } catch (final InvalidPropertyKindException e) {
+      // pass
+    }
+    try {
+      bean.getInt("xxx");
+      fail("should throw");
+    } catch (final PropertyNotExistException e) {
+      // pass
+    }
+    try {
+      bean.setInt(null, 1);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+  }
+
+  protected void testPrimitiveIndexedOperations(final Bean bean) {
+    assertEquals(IntList.class,
+        bean.getProperty("ints").getRawValue().getClass());
+    bean.addInt("ints", 1);
+    bean.addInt("ints", 2);
+    bean.add("ints", 3);
+    assertEquals(3, bean.getSize("ints"));
+    assertEquals(2, bean.getInt("ints", 1));
+    assertEquals(3, bean.get("ints", 2));
+    bean.setInt("ints", 0, -1);
+    assertArrayEquals(new int[] { -1, 2, 3 }, bean.getIntArray("ints"));
+    bean.setIntArray("ints", new int[] { 4, 5 });
+    assertEquals(Arrays.asList(4, 5), bean.getProperty("ints").getIndexedValue());
+    bean.add("ints", 0, null);
+    try {
+      bean.getInt("ints", 0);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+    try {
+      bean.getIntArray("ints");
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+    bean.setInt("ints", 0, 3);
+    assertArrayEquals(new int[] { 3, 4, 5 }, bean.getIntArray("ints"));
+    try {
+      bean.getInt("ints", 3);
+      fail("should throw");
+    } catch (final IndexOutOfBoundsException e) {
+      // pass
+    }
+
+    bean.addLong("longs", Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, bean.getLong("longs", 0));
+    assertArrayEquals(new long[] { Long.MAX_VALUE }, bean.getLongArray("longs"));
+
+    bean.setDoubleArray("doubles", new double[] { 0.5, 1.5 });
+    bean.addDouble("doubles", 2.5);
+    bean.setDouble("doubles", 0, -0.5);
+    assertEquals(1.5, bean.getDouble("doubles", 1), 0);
+    assertArrayEquals(new double[] { -0.5, 1.5, 2.5 },
+        bean.getDoubleArray("doubles"), 0);
+    assertEquals(2.5, bean.get("doubles", 2));
+
+    try {
+      bean.addInt("doubles", 1);
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    try {
+      bean.getInt("int", 0);
+      fail("should throw");
+    } catch (final InvalidPropertyKindException e) {
+      // pass
+    }
+    try {
+      bean.setIntArray("ints", null);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+  }
+
+  protected void testReset(final Bean bean, final Bean newBean) {
+    assertEquals(newBean, bean);
+    bean.reset();
+    assertEquals(newBean, bean);
+    bean.setInt("int", 1);
+    bean.setDouble("double", 2.5);
+    bean.set("str", "hello");
+    bean.addInt("ints", 1);
+    bean.addInt("ints", 2);
+    bean.addDouble("doubles", 0.5);
+    final Object ints = bean.getProperty("ints").getRawValue();
+    assertNotEquals(newBean, bean);
+    bean.reset();
+    assertEquals(newBean, bean);
+    assertEquals(newBean.hashCode(), bean.hashCode());
+    assertNull(bean.get("int"));
+    assertNull(bean.get("str"));
+    assertEquals(0, bean.getSize("ints"));
+    if (bean instanceof ConcurrentBean) {
+      //  a concurrent bean returns the snapshots of its containers
+      assertEquals(Arrays.asList(1, 2), ints);
+    } else {
+      assertSame(ints, bean.getProperty("ints").getRawValue());
+    }
+    bean.addInt("ints", 3);
+    assertArrayEquals(new int[] { 3 }, bean.getIntArray("ints"));
+  }
+
+  private static BitSet slots(final Bean bean, final String ... names) {
+    final BitSet result = new BitSet();
+    for (final String name : names) {
+      result.set(bean.getBeanClass().getPropertyIndex(name));
+    }
+    return result;
+  }
+
+  protected void testDirtyProperties(final Bean bean) {
+    assertEquals(new BitSet(), bean.getDirtyProperties());
+    bean.get("int");
+    bean.getIntArray("ints");
+    bean.getSize("doubles");
+    assertEquals(new BitSet(), bean.getDirtyProperties());
+
+    bean.setInt("int", 1);
+    bean.set("str", "hello");
+    assertEquals(slots(bean, "int", "str"), bean.getDirtyProperties());
+    bean.addInt("ints", 1);
+    bean.setDouble("double", 0.5);
+    assertEquals(slots(bean, "int", "str", "ints", "double"),
+        bean.getDirtyProperties());
+
+    //  the returned bitset is a copy
+    bean.getDirtyProperties().clear();
+    assertEquals(slots(bean, "int", "str", "ints", "double"),
+        bean.getDirtyProperties());
+
+    bean.clearDirty();
+    assertEquals(new BitSet(), bean.getDirtyProperties());
+    bean.remove("ints", 0);
+    assertEquals(slots(bean, "ints"), bean.getDirtyProperties());
+    bean.addDouble("doubles", 0.5);
+    bean.clearDirty();
+    bean.clear("doubles");
+    assertEquals(slots(bean, "doubles"), bean.getDirtyProperties());
+    bean.clearDirty();
+    bean.setLongArray("longs", new long[] { 1L, 2L });
+    assertEquals(slots(bean, "longs"), bean.getDirtyProperties());
+
+    //  a failed write does not mark a property dirty
+    bean.clearDirty();
+    try {
+      bean.set("str", 1);
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    try {
+      bean.set("nonexist", 1);
+      fail("should throw");
+    } catch (final PropertyNotExistException e) {
+      // pass
+    }
+    bean.setInt("int", 2);
+    bean.reset();
+    assertEquals(new BitSet(), bean.getDirtyProperties());
+  }
+
+  /**
+   * Tests that the failed or ineffective writes do not mark the properties
+   * dirty. The bean must be of the bean class returned by
+   * {@link #getDefaultBeanClass3()}.
+   */
+  protected void testFailedWritesNotDirty(final Bean bean) {
+    bean.clearDirty();
+    try {
+      bean.add("_prop2", "str");
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    try {
+      bean.set("_prop2", 5, 1);
+      fail("should throw");
+    } catch (final IndexOutOfBoundsException e) {
+      // pass
+    }
+    try {
+      bean.remove("_prop2", 0);
+      fail("should throw");
+    } catch (final IndexOutOfBoundsException e) {
+      // pass
+    }
+    try {
+      bean.set("prop-3", "key1", "str");
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    assertEquals(null, bean.remove("prop-3", "key1"));
+    bean.clear("_prop2");
+    bean.clear("prop-3");
+    assertEquals(new BitSet(), bean.getDirtyProperties());
+
+    bean.add("_prop2", 1);
+    bean.set("prop-3", "key1", true);
+    bean.clearDirty();
+    assertEquals(true, bean.remove("prop-3", "key1"));
+    assertEquals(slots(bean, "prop-3"), bean.getDirtyProperties());
+    bean.clear("_prop2");
+    assertEquals(slots(bean, "_prop2", "prop-3"), bean.getDirtyProperties());
+  }
+
+  private static Object[] valuesOf(final Bean bean, final Object ... pairs) {
+    final Object[] values = new Object[
+        bean.getBeanClass().getPropertyDescriptors().length];
+    for (int i = 0; i < pairs.length; i += 2) {
+      values[bean.getBeanClass().getPropertyIndex((String) pairs[i])] =
+          pairs[i + 1];
+    }
+    return values;
+  }
+
+  /**
+   * Tests that setting back the raw values returned by a bean keeps them,
+   * even if they are the containers of the bean itself.
+   *
+   * @param bean
+   *          a bean of the class returned by {@link #getDefaultBeanClass4()}.
+   */
+  protected void testBulkRoundTrip(final Bean bean) {
+    bean.set("prop1", "hello");
+    bean.add("_prop2", 1);
+    bean.set("prop-3", "key", true);
+    bean.add("prop5", 1.5f);
+    final Object[] values =
+        new Object[bean.getBeanClass().getPropertyDescriptors().length];
+    bean.getAll(values);
+    bean.setAll(values);
+    assertEquals("hello", bean.get("prop1"));
+    assertArrayEquals(new int[] { 1 }, bean.getIntArray("_prop2"));
+    assertEquals(1, bean.getSize("prop-3"));
+    assertEquals(true, bean.get("prop-3", "key"));
+    assertEquals(1, bean.getSize("prop5"));
+    assertEquals(1.5f, bean.get("prop5", 0));
+
+    final Property mapped = bean.getProperty("prop-3");
+    mapped.setRawValue(mapped.getRawValue());
+    mapped.setMappedValue(mapped.getMappedValue());
+    assertEquals(true, bean.get("prop-3", "key"));
+    final Property indexed = bean.getProperty("prop5");
+    indexed.setRawValue(indexed.getRawValue());
+    indexed.setIndexedValue(indexed.getIndexedValue());
+    assertEquals(1, bean.getSize("prop5"));
+    assertEquals(1.5f, bean.get("prop5", 0));
+  }
+
+  protected void testBulkOperations(final Bean bean, final Bean newBean) {
+    final Object[] values = valuesOf(bean,
+        "bool", true, "byte", (byte) 1, "short", (short) 2, "int", 3,
+        "long", 4L, "float", 5.5f, "double", 6.5, "str", "hello",
+        "ints", Arrays.asList(1, 2, 3), "longs", Arrays.asList(4L),
+        "doubles", Collections.emptyList());
+    bean.setAll(values);
+    assertEquals(true, bean.getBoolean("bool"));
+    assertEquals(3, bean.getInt("int"));
+    assertEquals(6.5, bean.getDouble("double"), 0.0);
+    assertEquals("hello", bean.get("str"));
+    assertArrayEquals(new int[] { 1, 2, 3 }, bean.getIntArray("ints"));
+    assertArrayEquals(new long[] { 4L }, bean.getLongArray("longs"));
+    assertEquals(0, bean.getSize("doubles"));
+    assertEquals(bean.getBeanClass().getPropertyDescriptors().length,
+        bean.getDirtyProperties().cardinality());
+
+    final Object[] actual = new Object[values.length];
+    bean.getAll(actual);
+    for (int i = 0; i < values.length; ++i) {
+      assertEquals(values[i], actual[i]);
+    }
+    newBean.setAll(actual);
+    assertEquals(bean, newBean);
+    //  setting back the containers returned by getAll() keeps their contents
+    bean.setAll(actual);
+    assertEquals(newBean, bean);
+
+    try {
+      bean.setAll(new Object[values.length + 1]);
+      fail("should throw");
+    } catch (final IllegalArgumentException e) {
+      // pass
+    }
+    try {
+      bean.getAll(new Object[values.length - 1]);
+      fail("should throw");
+    } catch (final IllegalArgumentException e) {
+      // pass
+    }
+    try {
+      bean.setAll(null);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+    final int intSlot = bean.getBeanClass().getPropertyIndex("int");
+    values[intSlot] = "str";
+    try {
+      bean.setAll(values);
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    assertEquals(3, bean.getInt("int"));
+    values[intSlot] = 3;
+    values[bean.getBeanClass().getPropertyIndex("ints")] = null;
+    try {
+      bean.setAll(values);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+  }
+
+  protected void testSlotOperations(final SlotBean bean4) {
+    final BeanClass cls4 = bean4.getBeanClass();
+    final int slot1 = cls4.getPropertyIndex("prop1");
+    final int slot2 = cls4.getPropertyIndex("_prop2");
+    final int slot3 = cls4.getPropertyIndex("prop-3");
+    assertEquals(0, slot1);
+    assertEquals(1, slot2);
+    assertEquals(2, slot3);
+    assertEquals(-1, cls4.getPropertyIndex("xxx"));
+
+    bean4.set(slot1, "str1");
+    assertEquals("str1", bean4.get("prop1"));
+    bean4.add(slot2, 1);
+    bean4.add(slot2, 2);
+    assertEquals(2, bean4.getSize("_prop2"));
+    assertEquals(2, bean4.get("_prop2", 1));
+    bean4.set(slot3, "key1", true);
+    assertEquals(true, bean4.get("prop-3", "key1"));
+    assertEquals(bean4.getProperty("prop1"), bean4.getProperty(slot1));
+
+    try {
+      bean4.get(slot2);
+      fail("should throw");
+    } catch (final InvalidPropertyKindException e) {
+      // pass
+    }
+    try {
+      bean4.set(slot1, 123);
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    try {
+      bean4.getProperty(100);
+      fail("should throw");
+    } catch (final IndexOutOfBoundsException e) {
+      // pass
+    }
+  }
+
+  protected void testCopy(final Bean bean) {
+    final BeanClass cls = bean.getBeanClass();
+    bean.setInt("int", 1);
+    bean.set("str", "hello");
+    bean.setIntArray("ints", new int[] { 1, 2, 3 });
+    bean.add("longs", 4L);
+
+    final Bean copy = bean.copy();
+    assertNotSame(bean, copy);
+    assertSame(bean.getClass(), copy.getClass());
+    assertSame(cls, copy.getBeanClass());
+    assertEquals(bean, copy);
+    assertTrue(copy.getDirtyProperties().isEmpty());
+    //  the copy has its own lists
+    copy.setInt("ints", 0, 10);
+    copy.add("longs", 5L);
+    copy.set("str", "world");
+    assertArrayEquals(new int[] { 1, 2, 3 }, bean.getIntArray("ints"));
+    assertEquals(1, bean.getSize("longs"));
+    assertEquals("hello", bean.get("str"));
+    assertArrayEquals(new int[] { 10, 2, 3 }, copy.getIntArray("ints"));
+
+    final Bean deepCopy = bean.deepCopy();
+    assertNotSame(bean, deepCopy);
+    assertEquals(bean, deepCopy);
+    assertTrue(deepCopy.getDirtyProperties().isEmpty());
+
+    final Bean instance = cls.newInstance(bean);
+    assertNotSame(bean, instance);
+    assertEquals(bean, instance);
+    assertSame(cls, instance.getBeanClass());
+    try {
+      cls.newInstance(null);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+    try {
+      cls.newInstance(new DefaultBean(new DefaultBeanClass("other",
+          new PropertyDescriptor[0])));
+      fail("should throw");
+    } catch (final IllegalArgumentException e) {
+      // pass
+    }
+  }
+
+  protected void testDeepCopy(final Class<? extends Bean> beanType) {
+    final DefaultBeanClass cls = new DefaultBeanClass("nested-bean",
+        new PropertyDescriptor[] {
+          new PropertyDescriptor("name", String.class),
+          new PropertyDescriptor("child", Bean.class),
+          new PropertyDescriptor("children", Bean.class, PropertyKind.INDEXED),
+          new PropertyDescriptor("named", Bean.class, PropertyKind.MAPPED), },
+        beanType);
+    final Bean child = cls.newInstance();
+    child.set("name", "child");
+    final Bean bean = cls.newInstance();
+    bean.set("name", "parent");
+    bean.set("child", child);
+    bean.add("children", child);
+    bean.set("named", "key", child);
+
+    final Bean copy = bean.copy();
+    assertEquals(bean, copy);
+    assertSame(child, copy.get("child"));
+    assertSame(child, copy.get("children", 0));
+    assertSame(child, copy.get("named", "key"));
+
+    final Bean deepCopy = bean.deepCopy();
+    assertEquals(bean, deepCopy);
+    for (final Object value : new Object[] { deepCopy.get("child"),
+        deepCopy.get("children", 0), deepCopy.get("named", "key") }) {
+      assertNotSame(child, value);
+      assertEquals(child, value);
+    }
+    ((Bean) deepCopy.get("child")).set("name", "changed");
+    assertEquals("child", child.get("name"));
+  }
+
+  protected static DefaultBeanClass getVisitedBeanClass() {
+    return new DefaultBeanClass("visited-bean", new PropertyDescriptor[] {
+        new PropertyDescriptor("int", Integer.class),
+        new PropertyDescriptor("str", String.class),
+        new PropertyDescriptor("ints", Integer.class, PropertyKind.INDEXED),
+        new PropertyDescriptor("small", String.class, PropertyKind.MAPPED),
+        new PropertyDescriptor("large", Integer.class, PropertyKind.MAPPED), });
+  }
+
+  protected void testForEach(final Bean bean) {
+    bean.setInt("int", 1);
+    bean.setIntArray("ints", new int[] { 1, 2 });
+    bean.set("small", "a", "x");
+    bean.set("small", "b", null);
+    final Map<String, Object> large = new HashMap<>();
+    for (int i = 0; i <= CompactMap.THRESHOLD; ++i) {
+      bean.set("large", "key" + i, i);
+      large.put("key" + i, i);
+    }
+    bean.clearDirty();
+
+    final StringBuilder builder = new StringBuilder();
+    final Map<String, Object> visited = new HashMap<>();
+    bean.forEach(new PropertyVisitor() {
+      @Override
+      public void visitSimple(final PropertyDescriptor descriptor,
+          final int slot, final Object value) {
+        builder.append("simple:").append(slot).append(':')
+               .append(descriptor.getName()).append('=').append(value)
+               .append(';');
+      }
+
+      @Override
+      public void visitIndexed(final PropertyDescriptor descriptor,
+          final int slot, final List<?> values) {
+        builder.append("indexed:").append(slot).append(':')
+               .append(descriptor.getName()).append('=').append(values)
+               .append(';');
+      }
+
+      @Override
+      public void visitMapped(final PropertyDescriptor descriptor,
+          final int slot, final EntryCursor cursor) {
+        builder.append("mapped:").append(slot).append(':')
+               .append(descriptor.getName()).append('(')
+               .append(cursor.size()).append(')');
+        if (descriptor.getName().equals("large")) {
+          while (cursor.next()) {
+            visited.put(cursor.getKey(), cursor.getValue());
+          }
+        } else {
+          while (cursor.next()) {
+            builder.append(cursor.getKey()).append('=')
+                   .append(cursor.getValue()).append(',');
+          }
+        }
+        builder.append(';');
+      }
+    });
+    assertEquals("simple:0:int=1;simple:1:str=null;indexed:2:ints=[1, 2];"
+        + "mapped:3:small(2)a=x,b=null,;mapped:4:large(9);",
+        builder.toString());
+    assertEquals(large, visited);
+    assertTrue(bean.getDirtyProperties().isEmpty());
+    try {
+      bean.forEach(null);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+  }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test for the {@link ClassResolver} class.
+ *
+ * @author Haixing Hu
+ */
+public class ClassResolverTest {
+
+  /**
+   * A class loader counting the lookups of each name.
+   */
+  private static final class CountingClassLoader extends ClassLoader {
+    final Map<String, Integer> counts = new HashMap<>();
+
+    CountingClassLoader() {
+      super(ClassResolverTest.class.getClassLoader());
+    }
+
+    @Override
+    protected synchronized Class<?> loadClass(final String name,
+        final boolean resolve) throws ClassNotFoundException {
+      final Integer count = counts.get(name);
+      counts.put(name, (count == null ? 1 : count + 1));
+      return super.loadClass(name, resolve);
+    }
+
+    int getCount(final String name) {
+      final Integer count = counts.get(name);
+      return (count == null ? 0 : count);
+    }
+  }
+
+  @Test
+  public void testResolve() throws Exception {
+    assertSame(String.class, ClassResolver.resolve("java.lang.String"));
+    assertSame(int.class, ClassResolver.resolve("int"));
+    assertSame(String[].class, ClassResolver.resolve("java.lang.String[]"));
+    assertSame(MyBean.class, ClassResolver.resolve(MyBean.class.getName()));
+    try {
+      ClassResolver.resolve(null);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testCache() throws Exception {
+    final CountingClassLoader loader = new CountingClassLoader();
+    final String name = MyBean.class.getName();
+    assertSame(MyBean.class, ClassResolver.resolve(loader, name));
+    final int count = loader.getCount(name);
+    assertSame(MyBean.class, ClassResolver.resolve(loader, name));
+    assertSame(MyBean.class, ClassResolver.resolve(loader, name));
+    assertEquals(count, loader.getCount(name));
+
+    //  a different class loader has its own cache
+    final CountingClassLoader loader2 = new CountingClassLoader();
+    assertSame(MyBean.class, ClassResolver.resolve(loader2, name));
+    assertEquals(count, loader2.getCount(name));
+    assertSame(MyBean.class, ClassResolver.resolve(loader, name));
+    assertEquals(count, loader.getCount(name));
+  }
+
+  @Test
+  public void testCacheFailures() throws Exception {
+    final CountingClassLoader loader = new CountingClassLoader();
+    final String name = "com.github.haixing_hu.bean.NoSuchClass";
+    for (int i = 0; i < 3; ++i) {
+      try {
+        ClassResolver.resolve(loader, name);
+        fail("should throw");
+      } catch (final ClassNotFoundException e) {
+        // pass
+      }
+    }
+    final int count = loader.getCount(name);
+    assertEquals(1, count);
+
+    ClassResolver.clear();
+    try {
+      ClassResolver.resolve(loader, name);
+      fail("should throw");
+    } catch (final ClassNotFoundException e) {
+      // pass
+    }
+    assertEquals(count + 1, loader.getCount(name));
+  }
+  @Test
+  public void testForget() throws Exception {
+    final CountingClassLoader loader = new CountingClassLoader();
+    final String name = "com.github.haixing_hu.bean.NoSuchClass";
+    try {
+      ClassResolver.resolve(loader, name);
+      fail("should throw");
+    } catch (final ClassNotFoundException e) {
+      // pass
+    }
+    assertEquals(1, loader.getCount(name));
+    ClassResolver.forget(name);
+    try {
+      ClassResolver.resolve(loader, name);
+      fail("should throw");
+    } catch (final ClassNotFoundException e) {
+      // pass
+    }
+    assertEquals(2, loader.getCount(name));
+
+    final String other = MyBean.class.getName();
+    assertSame(MyBean.class, ClassResolver.resolve(loader, other));
+    ClassResolver.forget(other);
+    assertSame(MyBean.class, ClassResolver.resolve(loader, other));
+    try {
+      ClassResolver.forget(null);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testFailureLimit() throws Exception {
+    final CountingClassLoader loader = new CountingClassLoader();
+    final String prefix = "com.github.haixing_hu.bean.NoSuchClass";
+    for (int i = 0; i <= ClassResolver.MAX_FAILURES; ++i) {
+      try {
+        ClassResolver.resolve(loader, prefix + i);
+        fail("should throw");
+      } catch (final ClassNotFoundException e) {
+        // pass
+      }
+    }
+    //  the failures cached before the limit was reached are discarded
+    try {
+      ClassResolver.resolve(loader, prefix + 0);
+      fail("should throw");
+    } catch (final ClassNotFoundException e) {
+      // pass
+    }
+    assertEquals(2, loader.getCount(prefix + 0));
+    //  the failure cached after the limit was reached is kept
+    final String last = prefix + ClassResolver.MAX_FAILURES;
+    try {
+      ClassResolver.resolve(loader, last);
+      fail("should throw");
+    } catch (final ClassNotFoundException e) {
+      // pass
+    }
+    assertEquals(1, loader.getCount(last));
+  }
+}
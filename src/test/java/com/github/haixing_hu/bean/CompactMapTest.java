@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test of the {@link CompactMap} class.
+ *
+ * @author Haixing Hu
+ */
+public class CompactMapTest {
+
+  @Test
+  public void testMapOperations() {
+    final CompactMap map = new CompactMap();
+    assertTrue(map.isEmpty());
+    assertNull(map.get("a"));
+    assertNull(map.put("a", 1));
+    assertNull(map.put("b", null));
+    assertNull(map.put("c", 3));
+    assertEquals(3, map.size());
+    assertEquals(1, map.get("a"));
+    assertTrue(map.containsKey("b"));
+    assertNull(map.get("b"));
+    assertFalse(map.containsKey("d"));
+    assertEquals(1, map.put("a", 10));
+    assertEquals(10, map.get("a"));
+    assertEquals(3, map.remove("c"));
+    assertNull(map.remove("c"));
+    assertEquals(2, map.size());
+    assertEquals(Arrays.asList("a", "b"), new ArrayList<>(map.keySet()));
+    assertFalse(map.isHashed());
+  }
+
+  @Test
+  public void testIteratorRemove() {
+    final CompactMap map = new CompactMap();
+    for (int i = 0; i < 5; ++i) {
+      map.put("k" + i, i);
+    }
+    final Iterator<Map.Entry<String, Object>> iter = map.entrySet().iterator();
+    while (iter.hasNext()) {
+      final Map.Entry<String, Object> entry = iter.next();
+      if (((Integer) entry.getValue()) % 2 == 0) {
+        iter.remove();
+      } else {
+        entry.setValue(- (Integer) entry.getValue());
+      }
+    }
+    assertEquals(2, map.size());
+    assertEquals(-1, map.get("k1"));
+    assertEquals(-3, map.get("k3"));
+    assertFalse(map.containsKey("k0"));
+  }
+
+  @Test
+  public void testThreshold() {
+    final CompactMap map = new CompactMap();
+    final HashMap<String, Object> expected = new HashMap<>();
+    for (int i = 0; i < CompactMap.THRESHOLD; ++i) {
+      map.put("k" + i, i);
+      expected.put("k" + i, i);
+    }
+    assertFalse(map.isHashed());
+    assertEquals(expected, map);
+    assertEquals(expected.hashCode(), map.hashCode());
+    map.put("x", null);
+    expected.put("x", null);
+    assertTrue(map.isHashed());
+    assertEquals(expected, map);
+    assertEquals(map, expected);
+    assertEquals(expected.hashCode(), map.hashCode());
+    map.clear();
+    assertFalse(map.isHashed());
+    assertTrue(map.isEmpty());
+    map.put("y", 1);
+    assertEquals(1, map.size());
+    assertFalse(map.isHashed());
+  }
+
+  @Test
+  public void testNullKey() {
+    final CompactMap map = new CompactMap();
+    try {
+      map.put(null, 1);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      //  pass
+    }
+    assertNull(map.get(null));
+    assertFalse(map.containsKey(null));
+  }
+
+  @Test
+  public void testCopyConstructor() {
+    for (final int n : new int[] { 0, 3, CompactMap.THRESHOLD + 1 }) {
+      final CompactMap map = new CompactMap();
+      for (int i = 0; i < n; ++i) {
+        map.put("key" + i, i);
+      }
+      final CompactMap copy = new CompactMap(map);
+      assertEquals(map, copy);
+      assertEquals(map.isHashed(), copy.isHashed());
+      copy.put("new", -1);
+      copy.remove("key0");
+      assertEquals(n, map.size());
+      assertFalse(map.containsKey("new"));
+      assertEquals((n == 0 ? null : 0), map.get("key0"));
+    }
+  }
+}
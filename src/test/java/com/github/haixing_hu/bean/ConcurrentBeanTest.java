@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test for the {@link ConcurrentBean} class.
+ *
+ * @author Haixing Hu
+ */
+public class ConcurrentBeanTest extends BeanTestBase {
+
+  private static final int THREADS = 8;
+  private static final int ITERATIONS = 1000;
+
+  @Override
+  protected Property newProperty(final PropertyDescriptor descriptor) {
+    if (descriptor == null) {
+      return null;
+    } else {
+      final BeanClass cls = new DefaultBeanClass("bean",
+          new PropertyDescriptor[] { descriptor }, ConcurrentBean.class);
+      return new ConcurrentBean(cls).getProperty(descriptor.getName());
+    }
+  }
+
+  @Test
+  public void testConstructor() {
+    final BeanClass cls = getPrimitiveBeanClass();
+    final ConcurrentBean bean = new ConcurrentBean(cls);
+    testBeanConstructor(cls, bean);
+    assertEquals(cls.getPropertyDescriptors().length, bean.getStripes());
+    assertEquals(4, new ConcurrentBean(cls, 4).getStripes());
+    assertEquals(cls.getPropertyDescriptors().length,
+        new ConcurrentBean(cls, 1000).getStripes());
+    assertEquals(1, new ConcurrentBean(getDefaultBeanClass0()).getStripes());
+    try {
+      new ConcurrentBean(cls, 0);
+      fail("should throw");
+    } catch (final IllegalArgumentException e) {
+      // pass
+    }
+    try {
+      new ConcurrentBean(null);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+    final DefaultBeanClass concurrentClass = new DefaultBeanClass("concurrent",
+        cls.getPropertyDescriptors(), ConcurrentBean.class);
+    assertTrue(concurrentClass.newInstance() instanceof ConcurrentBean);
+  }
+
+  @Test
+  public void testBeanOperations() {
+    for (final BeanClass cls : new BeanClass[] { getDefaultBeanClass0(),
+        getDefaultBeanClass1(), getDefaultBeanClass2(),
+        getDefaultBeanClass3(), getDefaultBeanClass4() }) {
+      testBeanGetProperty(cls, new ConcurrentBean(cls));
+      testSimplePropertyOperations(cls, new ConcurrentBean(cls));
+      testIndexedPropertyOperations(cls, new ConcurrentBean(cls));
+      testMappedPropertyOperations(cls, new ConcurrentBean(cls, 2));
+    }
+  }
+
+  @Test
+  public void testPrimitiveOperations() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    final ConcurrentBean bean1 = new ConcurrentBean(cls);
+    testPrimitiveOperations(bean1);
+
+    final ConcurrentBean bean2 = new ConcurrentBean(cls, 3);
+    assertNotEquals(bean1, bean2);
+    bean2.set("bool", true);
+    bean2.set("byte", (byte) -3);
+    bean2.set("short", (short) 1000);
+    bean2.setLong("long", Long.MIN_VALUE);
+    bean2.set("float", 1.5f);
+    bean2.setDouble("double", -0.25);
+    assertEquals(bean1, bean2);
+    assertEquals(bean1.hashCode(), bean2.hashCode());
+    assertEquals(bean1.toString().replaceAll("@[0-9a-f]+", ""),
+        bean2.toString().replaceAll("@[0-9a-f]+", ""));
+  }
+
+  @Test
+  public void testPrimitiveIndexedOperations() {
+    testPrimitiveIndexedOperations(
+        new ConcurrentBean(getPrimitiveBeanClass()));
+  }
+
+  @Test
+  public void testReset() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    testReset(new ConcurrentBean(cls), new ConcurrentBean(cls));
+  }
+
+  @Test
+  public void testDirtyProperties() {
+    testDirtyProperties(new ConcurrentBean(getPrimitiveBeanClass()));
+  }
+
+  @Test
+  public void testFailedWritesNotDirty() {
+    testFailedWritesNotDirty(new ConcurrentBean(getDefaultBeanClass3()));
+  }
+
+  @Test
+  public void testBulkOperations() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    testBulkOperations(new ConcurrentBean(cls), new ConcurrentBean(cls));
+  }
+  @Test
+  public void testBulkRoundTrip() {
+    testBulkRoundTrip(new ConcurrentBean(getDefaultBeanClass4()));
+  }
+
+
+  @Test
+  public void testCopy() {
+    testCopy(new ConcurrentBean(getPrimitiveBeanClass()));
+    testDeepCopy(ConcurrentBean.class);
+  }
+
+  @Test
+  public void testForEach() {
+    testForEach(new ConcurrentBean(getVisitedBeanClass()));
+  }
+
+  @Test
+  public void testKeySetSnapshot() {
+    final ConcurrentBean bean = new ConcurrentBean(getVisitedBeanClass());
+    bean.set("small", "a", "x");
+    final Set<String> keys = bean.getKeySet("small");
+    bean.set("small", "b", "y");
+    assertEquals(1, keys.size());
+    try {
+      keys.add("c");
+      fail("should throw");
+    } catch (final UnsupportedOperationException e) {
+      // pass
+    }
+  }
+
+  private static void runConcurrently(final Runnable ... tasks)
+      throws InterruptedException {
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Throwable> errors = new ArrayList<>();
+    final List<Thread> threads = new ArrayList<>();
+    for (final Runnable task : tasks) {
+      final Thread thread = new Thread() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+            task.run();
+          } catch (final Throwable e) {
+            synchronized (errors) {
+              errors.add(e);
+            }
+          }
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(errors.toString(), errors.isEmpty());
+  }
+
+  @Test
+  public void testConcurrentUpdates() throws InterruptedException {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    final ConcurrentBean bean = new ConcurrentBean(cls);
+    final Runnable[] tasks = new Runnable[THREADS];
+    for (int t = 0; t < THREADS; ++t) {
+      final int id = t;
+      tasks[t] = new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < ITERATIONS; ++i) {
+            bean.addInt("ints", id);
+            bean.addLong("longs", i);
+            if (id == 0) {
+              bean.setInt("int", i);
+            } else if (id == 1) {
+              bean.setLong("long", i);
+            } else {
+              bean.getDirtyProperties();
+              bean.getIntArray("ints");
+            }
+          }
+        }
+      };
+    }
+    runConcurrently(tasks);
+    assertEquals(THREADS * ITERATIONS, bean.getSize("ints"));
+    assertEquals(THREADS * ITERATIONS, bean.getSize("longs"));
+    assertEquals(ITERATIONS - 1, bean.getInt("int"));
+    assertEquals(ITERATIONS - 1, bean.getLong("long"));
+    final int[] counts = new int[THREADS];
+    for (final int id : bean.getIntArray("ints")) {
+      ++counts[id];
+    }
+    for (final int count : counts) {
+      assertEquals(ITERATIONS, count);
+    }
+    assertEquals(4, bean.getDirtyProperties().cardinality());
+  }
+
+  @Test
+  public void testConcurrentMappedUpdates() throws InterruptedException {
+    final ConcurrentBean bean = new ConcurrentBean(getVisitedBeanClass(), 1);
+    final Runnable[] tasks = new Runnable[THREADS];
+    for (int t = 0; t < THREADS; ++t) {
+      final int id = t;
+      tasks[t] = new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < ITERATIONS; ++i) {
+            bean.set("large", id + "-" + i, i);
+            bean.getKeySet("large");
+            if (i % 100 == 0) {
+              bean.copy();
+            }
+          }
+        }
+      };
+    }
+    runConcurrently(tasks);
+    assertEquals(THREADS * ITERATIONS, bean.getSize("large"));
+    assertEquals(bean, bean.copy());
+  }
+  @Test
+  public void testIterateWhileModifying() throws InterruptedException {
+    final ConcurrentBean bean = new ConcurrentBean(getVisitedBeanClass());
+    final Property list = bean.getProperty("ints");
+    final Property large = bean.getProperty("large");
+    final Runnable writer = new Runnable() {
+      @Override
+      public void run() {
+        for (int i = 0; i < ITERATIONS; ++i) {
+          bean.add("ints", i);
+          bean.set("large", "key-" + i, i);
+          if (i % 3 == 0) {
+            bean.remove("ints", 0);
+            bean.remove("large", "key-" + i);
+          }
+        }
+      }
+    };
+    final Runnable reader = new Runnable() {
+      @Override
+      public void run() {
+        for (int i = 0; i < ITERATIONS; ++i) {
+          for (final Object item : list.getIndexedValue()) {
+            assertTrue(item instanceof Integer);
+          }
+          for (final Object value : large.getMappedValue().values()) {
+            assertTrue(value instanceof Integer);
+          }
+          list.hashCode();
+          large.toString();
+          assertEquals(list, list);
+        }
+      }
+    };
+    runConcurrently(writer, reader, reader);
+    //  the snapshots are detached from the bean
+    final List<Object> snapshot = list.getIndexedValue();
+    snapshot.clear();
+    assertEquals(ITERATIONS - (ITERATIONS + 2) / 3, bean.getSize("ints"));
+  }
+}
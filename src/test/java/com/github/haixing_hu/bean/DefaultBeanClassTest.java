@@ -20,6 +20,8 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 /**
@@ -369,4 +371,69 @@ public class DefaultBeanClassTest extends BeanClassTestBase {
     final String xml4 = getDefaultBeanClass4Xml();
     testXmlUnmarshal(DefaultBeanClass.class, xml4, cls4);
   }
+
+  @Test
+  public void testUnmarshalledState() throws Exception {
+    final DefaultBeanClass cls4 = getDefaultBeanClass4();
+    testUnmarshalledBeanClass(cls4,
+        unmarshal(DefaultBeanClass.class, getDefaultBeanClass4Xml()));
+  }
+
+  @Test
+  public void testSetDescriptors() {
+    final DefaultBeanClass cls = getDefaultBeanClass3();
+    final int hash = cls.hashCode();
+    final PropertyDescriptor[] descriptors =
+        getDefaultBeanClass4().getPropertyDescriptors();
+    cls.setDescriptors(descriptors);
+    assertSame(descriptors, cls.getPropertyDescriptors());
+    assertNotEquals(hash, cls.hashCode());
+    for (int i = 0; i < descriptors.length; ++i) {
+      final String name = descriptors[i].getName();
+      assertEquals(i, cls.getPropertyIndex(name));
+      assertSame(descriptors[i], cls.getPropertyDescriptor(name));
+      assertSame(descriptors[i], cls.getPropertyHandle(name).getDescriptor());
+    }
+
+    //  changing the bean type keeps the lookups of the descriptors
+    final PropertyHandle handle = cls.getPropertyHandle(
+        descriptors[0].getName());
+    cls.setBeanType(ArrayBean.class);
+    assertSame(ArrayBean.class, cls.getBeanType());
+    assertSame(ArrayBean.class, cls.newInstance().getClass());
+    assertSame(descriptors, cls.getPropertyDescriptors());
+    assertSame(handle, cls.getPropertyHandle(descriptors[0].getName()));
+  }
+
+  @Test
+  public void testIntern() {
+    final DefaultBeanClass cls4 = getDefaultBeanClass4();
+    final DefaultBeanClass cls4c = getDefaultBeanClass4();
+    final DefaultBeanClass cls3 = getDefaultBeanClass3();
+    assertNotSame(cls4, cls4c);
+
+    final DefaultBeanClass interned = cls4.intern();
+    assertSame(interned, cls4c.intern());
+    assertSame(interned, interned.intern());
+    assertEquals(cls4, interned);
+    assertNotSame(interned, cls3.intern());
+    //  the beans of the interned bean class share the same bean class
+    assertSame(interned.newInstance().getBeanClass(),
+        cls4c.intern().newInstance().getBeanClass());
+  }
+
+  @Test
+  public void testCachedHashCode() {
+    final DefaultBeanClass cls3 = getDefaultBeanClass3();
+    final DefaultBeanClass cls4 = getDefaultBeanClass4();
+    final int hash3 = cls3.hashCode();
+    assertEquals(hash3, cls3.hashCode());
+    //  the cached hash code must be recomputed after the modification
+    cls3.setDescriptors(cls4.getPropertyDescriptors());
+    cls3.setBeanType(cls4.getBeanType());
+    final DefaultBeanClass expected = new DefaultBeanClass(cls3.getName(),
+        cls4.getPropertyDescriptors(), cls4.getBeanType());
+    assertEquals(expected.hashCode(), cls3.hashCode());
+    assertEquals(expected, cls3);
+  }
 }
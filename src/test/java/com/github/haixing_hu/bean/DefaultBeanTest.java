@@ -304,4 +304,77 @@ public class DefaultBeanTest extends BeanTestBase {
     assertNotEquals(bean4.toString(), bean2.toString());
     assertNotEquals(bean4.toString(), bean3.toString());
   }
+
+  @Test
+  public void testSlotOperations() {
+    testSlotOperations(new DefaultBean(getDefaultBeanClass4()));
+  }
+
+  @Test
+  public void testPrimitiveOperations() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    final DefaultBean bean1 = new DefaultBean(cls);
+    testPrimitiveOperations(bean1);
+
+    final DefaultBean bean2 = new DefaultBean(cls);
+    assertNotEquals(bean1, bean2);
+    bean2.set("bool", true);
+    bean2.set("byte", (byte) -3);
+    bean2.set("short", (short) 1000);
+    bean2.setLong("long", Long.MIN_VALUE);
+    bean2.set("float", 1.5f);
+    bean2.setDouble("double", -0.25);
+    assertEquals(bean1, bean2);
+    assertEquals(bean1.hashCode(), bean2.hashCode());
+  }
+
+  @Test
+  public void testPrimitiveIndexedOperations() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    final DefaultBean bean1 = new DefaultBean(cls);
+    testPrimitiveIndexedOperations(bean1);
+
+    final DefaultBean bean2 = new DefaultBean(cls);
+    bean2.getProperty("ints").setRawValue(
+        bean1.getProperty("ints").getRawValue());
+    assertEquals(bean1.getProperty("ints"), bean2.getProperty("ints"));
+  }
+
+  @Test
+  public void testReset() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    testReset(new DefaultBean(cls), new DefaultBean(cls));
+  }
+
+  @Test
+  public void testDirtyProperties() {
+    testDirtyProperties(new DefaultBean(getPrimitiveBeanClass()));
+  }
+
+  @Test
+  public void testFailedWritesNotDirty() {
+    testFailedWritesNotDirty(new DefaultBean(getDefaultBeanClass3()));
+  }
+
+  @Test
+  public void testBulkOperations() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    testBulkOperations(new DefaultBean(cls), new DefaultBean(cls));
+  }
+  @Test
+  public void testBulkRoundTrip() {
+    testBulkRoundTrip(new DefaultBean(getDefaultBeanClass4()));
+  }
+
+
+  @Test
+  public void testCopy() {
+    testCopy(new DefaultBean(getPrimitiveBeanClass()));
+    testDeepCopy(DefaultBean.class);
+  }
+
+  @Test
+  public void testForEach() {
+    testForEach(new DefaultBean(getVisitedBeanClass()));
+  }
 }
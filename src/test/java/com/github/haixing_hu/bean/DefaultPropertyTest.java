@@ -16,10 +16,17 @@
  */
 package com.github.haixing_hu.bean;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 /**
@@ -276,4 +283,89 @@ public class DefaultPropertyTest extends PropertyTestBase {
     assertNotEquals(prop1.toString(), prop3.toString());
   }
 
+  @Test
+  public void testLazyContainers() {
+    final DefaultProperty prop2 = new DefaultProperty(getPropertyDescriptor2());
+    final DefaultProperty prop3 = new DefaultProperty(getPropertyDescriptor3());
+    final Object emptyList = prop2.value;
+    final Object emptyMap = prop3.value;
+    assertSame(emptyList, new DefaultProperty(getPropertyDescriptor5()).value);
+    assertSame(emptyMap, new DefaultProperty(getPropertyDescriptor6()).value);
+
+    //  reads, sizes and clears do not allocate
+    assertEquals(0, prop2.getSize());
+    assertArrayEquals(new int[0], prop2.getIntArrayValue());
+    try {
+      prop2.getIndexedValue(0);
+      fail("should throw");
+    } catch (final IndexOutOfBoundsException e) {
+      // pass
+    }
+    try {
+      prop2.getIntValue(0);
+      fail("should throw");
+    } catch (final IndexOutOfBoundsException e) {
+      // pass
+    }
+    prop2.clear();
+    prop2.setIndexedValue(new ArrayList<Object>());
+    assertEquals(0, prop3.getSize());
+    assertEquals(false, prop3.containsKey("key"));
+    assertEquals(null, prop3.getMappedValue("key"));
+    assertEquals(null, prop3.removeMappedValue("key"));
+    assertEquals(Collections.emptySet(), prop3.getKeySet());
+    prop3.clear();
+    assertSame(emptyList, prop2.value);
+    assertSame(emptyMap, prop3.value);
+    assertEquals(new DefaultProperty(getPropertyDescriptor2()), prop2);
+    assertEquals(prop2, new DefaultProperty(getPropertyDescriptor2()));
+
+    //  the first write materializes the container
+    prop2.addIntValue(1);
+    assertEquals(IntList.class, prop2.value.getClass());
+    assertEquals(Arrays.asList(1), prop2.getIndexedValue());
+    prop3.setMappedValue("key", true);
+    assertEquals(CompactMap.class, prop3.value.getClass());
+    assertEquals(true, prop3.getMappedValue("key"));
+
+    //  handing out the container materializes it
+    final DefaultProperty prop5 = new DefaultProperty(getPropertyDescriptor5());
+    prop5.getIndexedValue().add(1.0f);
+    assertEquals(1.0f, prop5.getIndexedValue(0));
+    final DefaultProperty prop6 = new DefaultProperty(getPropertyDescriptor6());
+    assertNotSame(emptyMap, prop6.getRawValue());
+    assertNotSame(emptyMap, prop6.value);
+  }
+
+  @Test
+  public void testReset() {
+    final DefaultProperty prop1 = new DefaultProperty(getPropertyDescriptor1());
+    final DefaultProperty prop2 = new DefaultProperty(getPropertyDescriptor2());
+    final DefaultProperty prop3 = new DefaultProperty(getPropertyDescriptor3());
+    prop1.reset();
+    prop2.reset();
+    prop3.reset();
+    assertEquals(new DefaultProperty(getPropertyDescriptor2()), prop2);
+    assertEquals(new DefaultProperty(getPropertyDescriptor3()), prop3);
+
+    prop1.setSimpleValue("value");
+    prop2.addIntValue(1);
+    prop3.setMappedValue("key", true);
+    final Object list = prop2.value;
+    final Object map = prop3.value;
+    prop1.reset();
+    prop2.reset();
+    prop3.reset();
+    assertEquals(new DefaultProperty(getPropertyDescriptor1()), prop1);
+    assertEquals(new DefaultProperty(getPropertyDescriptor2()), prop2);
+    assertEquals(new DefaultProperty(getPropertyDescriptor3()), prop3);
+    assertSame(list, prop2.value);
+    assertSame(map, prop3.value);
+
+    final DefaultProperty prop = new DefaultProperty(
+        new PropertyDescriptor("int", Integer.class));
+    prop.setIntValue(3);
+    prop.reset();
+    assertEquals(null, prop.getSimpleValue());
+  }
 }
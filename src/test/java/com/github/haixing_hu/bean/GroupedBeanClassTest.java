@@ -21,6 +21,8 @@ import org.junit.Test;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 /**
@@ -395,4 +397,40 @@ public class GroupedBeanClassTest extends BeanClassTestBase {
     final String xml4 = getGroupedBeanClass4Xml();
     testXmlUnmarshal(GroupedBeanClass.class, xml4, cls4);
   }
+
+  @Test
+  public void testUnmarshalledState() throws Exception {
+    final GroupedBeanClass cls4 = getGroupedBeanClass4();
+    testUnmarshalledBeanClass(cls4,
+        unmarshal(GroupedBeanClass.class, getGroupedBeanClass4Xml()));
+  }
+
+  @Test
+  public void testIntern() {
+    final GroupedBeanClass cls4 = getGroupedBeanClass4();
+    final GroupedBeanClass cls4c = getGroupedBeanClass4();
+    final GroupedBeanClass cls3 = getGroupedBeanClass3();
+    assertNotSame(cls4, cls4c);
+
+    final GroupedBeanClass interned = cls4.intern();
+    assertSame(interned, cls4c.intern());
+    assertSame(interned, interned.intern());
+    assertEquals(cls4, interned);
+    assertNotSame(interned, cls3.intern());
+  }
+
+  @Test
+  public void testCachedHashCode() {
+    final GroupedBeanClass cls3 = getGroupedBeanClass3();
+    final GroupedBeanClass cls4 = getGroupedBeanClass4();
+    final int hash3 = cls3.hashCode();
+    assertEquals(hash3, cls3.hashCode());
+    //  the cached hash code must be recomputed after the modification
+    cls3.setDescriptorGroups(cls4.getPropertyDescriptorGroups());
+    cls3.setBeanType(cls4.getBeanType());
+    final GroupedBeanClass expected = new GroupedBeanClass(cls3.getName(),
+        cls4.getPropertyDescriptorGroups(), cls4.getBeanType());
+    assertEquals(expected.hashCode(), cls3.hashCode());
+    assertEquals(expected, cls3);
+  }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test of the {@link MapEntryCursor} class.
+ *
+ * @author Haixing Hu
+ */
+public class MapEntryCursorTest {
+
+  private static Map<String, Object> traverse(final MapEntryCursor cursor) {
+    final Map<String, Object> result = new HashMap<>();
+    while (cursor.next()) {
+      result.put(cursor.getKey(), cursor.getValue());
+    }
+    return result;
+  }
+
+  private static void assertNotPositioned(final MapEntryCursor cursor) {
+    try {
+      cursor.getKey();
+      fail("should throw");
+    } catch (final IllegalStateException e) {
+      // pass
+    }
+    try {
+      cursor.getValue();
+      fail("should throw");
+    } catch (final IllegalStateException e) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testCursor() {
+    final MapEntryCursor cursor = new MapEntryCursor();
+    for (final int n : new int[] { 0, 2, CompactMap.THRESHOLD + 1 }) {
+      final CompactMap compact = new CompactMap();
+      final Map<String, Object> hashed = new HashMap<>();
+      for (int i = 0; i < n; ++i) {
+        compact.put("key" + i, (i == 0 ? null : i));
+        hashed.put("key" + i, (i == 0 ? null : i));
+      }
+      final List<Map<String, Object>> maps = new ArrayList<>();
+      maps.add(compact);
+      maps.add(hashed);
+      for (final Map<String, Object> map : maps) {
+        assertSame(cursor, cursor.reset(map));
+        assertEquals(n, cursor.size());
+        assertNotPositioned(cursor);
+        assertEquals(hashed, traverse(cursor));
+        assertNotPositioned(cursor);
+        assertFalse(cursor.next());
+      }
+    }
+    cursor.reset(Collections.<String, Object>emptyMap());
+    assertEquals(0, cursor.size());
+    assertFalse(cursor.next());
+  }
+
+  @Test
+  public void testCompactOrder() {
+    final CompactMap map = new CompactMap();
+    map.put("b", 1);
+    map.put("a", 2);
+    final MapEntryCursor cursor = new MapEntryCursor().reset(map);
+    assertTrue(cursor.next());
+    assertEquals("b", cursor.getKey());
+    assertEquals(1, cursor.getValue());
+    assertTrue(cursor.next());
+    assertEquals("a", cursor.getKey());
+    assertEquals(2, cursor.getValue());
+    assertFalse(cursor.next());
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test of the {@link MultiPropertyHandle} class.
+ *
+ * @author Haixing Hu
+ */
+public class MultiPropertyHandleTest extends BeanClassTestBase {
+
+  private static final String[] NAMES = { "str", "int", "ints", "map" };
+
+  private DefaultBeanClass getBeanClass() {
+    return new DefaultBeanClass("handle-bean", new PropertyDescriptor[] {
+        new PropertyDescriptor("bool", Boolean.class),
+        new PropertyDescriptor("int", Integer.class),
+        new PropertyDescriptor("str", String.class),
+        new PropertyDescriptor("map", Double.class, PropertyKind.MAPPED),
+        new PropertyDescriptor("ints", Integer.class, PropertyKind.INDEXED), });
+  }
+
+  private void testSetAllGetAll(final MultiPropertyHandle handle,
+      final Bean bean) {
+    final Map<String, Object> map = new HashMap<>();
+    map.put("x", 1.5);
+    final Object[] values = { "hello", 42, Arrays.asList(1, 2, 3), map };
+    handle.setAll(bean, values);
+    assertEquals("hello", bean.get("str"));
+    assertEquals(42, bean.getInt("int"));
+    assertArrayEquals(new int[] { 1, 2, 3 }, bean.getIntArray("ints"));
+    assertEquals(1.5, bean.get("map", "x"));
+    assertEquals(null, bean.get("bool"));
+
+    final BitSet dirty = new BitSet();
+    for (final String name : NAMES) {
+      dirty.set(bean.getBeanClass().getPropertyIndex(name));
+    }
+    assertEquals(dirty, bean.getDirtyProperties());
+
+    final Object[] actual = new Object[NAMES.length];
+    handle.getAll(bean, actual);
+    assertArrayEquals(values, actual);
+    //  setting back the containers of the bean itself keeps their contents
+    handle.setAll(bean, actual);
+    assertArrayEquals(new int[] { 1, 2, 3 }, bean.getIntArray("ints"));
+    assertEquals(1.5, bean.get("map", "x"));
+
+    //  the containers are replaced by the new contents
+    handle.setAll(bean, new Object[] { null, 0, Collections.emptyList(),
+        Collections.emptyMap() });
+    assertEquals(null, bean.get("str"));
+    assertEquals(0, bean.getSize("ints"));
+    assertEquals(0, bean.getSize("map"));
+
+    try {
+      handle.setAll(bean, new Object[] { "a", 1, Arrays.asList("x"),
+          map });
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    assertEquals(0, bean.getSize("ints"));
+    try {
+      handle.setAll(bean, new Object[] { 1, 1, Collections.emptyList(),
+          map });
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    assertEquals("a", bean.get("str"));
+    try {
+      handle.setAll(bean, new Object[] { "a", 1, null, map });
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+    try {
+      handle.setAll(bean, new Object[] { "a", 1, map, map });
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    try {
+      handle.setAll(bean, new Object[3]);
+      fail("should throw");
+    } catch (final IllegalArgumentException e) {
+      // pass
+    }
+    try {
+      handle.getAll(bean, new Object[5]);
+      fail("should throw");
+    } catch (final IllegalArgumentException e) {
+      // pass
+    }
+  }
+
+  /**
+   * Wraps a bean in a proxy implementing only the {@link Bean} interface, so
+   * that the handle accesses it through the name based functions.
+   */
+  private static Bean wrap(final Bean bean) {
+    return (Bean) Proxy.newProxyInstance(Bean.class.getClassLoader(),
+        new Class<?>[] { Bean.class }, new InvocationHandler() {
+          @Override
+          public Object invoke(final Object proxy, final Method method,
+              final Object[] args) throws Throwable {
+            try {
+              return method.invoke(bean, args);
+            } catch (final InvocationTargetException e) {
+              throw e.getCause();
+            }
+          }
+        });
+  }
+
+  @Test
+  public void testGenericBean() {
+    final DefaultBeanClass cls = getBeanClass();
+    final MultiPropertyHandle handle = new MultiPropertyHandle(cls, NAMES);
+    final Bean bean = wrap(new DefaultBean(cls));
+    assertFalse(bean instanceof SlotBean);
+    testSetAllGetAll(handle, bean);
+
+    bean.set("map", "x", 2.5);
+    final Map<Object, Object> badKeys = new HashMap<>();
+    badKeys.put(1, 1.5);
+    try {
+      handle.setAll(bean, new Object[] { "b", 2, Collections.emptyList(),
+          badKeys });
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    assertEquals(1, bean.getSize("map"));
+    assertEquals(2.5, bean.get("map", "x"));
+  }
+
+  @Test
+  public void testConstructor() {
+    final DefaultBeanClass cls = getBeanClass();
+    final MultiPropertyHandle handle = new MultiPropertyHandle(cls, NAMES);
+    assertSame(cls, handle.getBeanClass());
+    assertEquals(NAMES.length, handle.size());
+    for (int i = 0; i < NAMES.length; ++i) {
+      assertSame(cls.getPropertyDescriptor(NAMES[i]), handle.getDescriptor(i));
+    }
+    try {
+      new MultiPropertyHandle(cls, "str", "nonexist");
+      fail("should throw");
+    } catch (final PropertyNotExistException e) {
+      // pass
+    }
+    try {
+      new MultiPropertyHandle(cls, "str", null);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testSlotBean() {
+    final DefaultBeanClass cls = getBeanClass();
+    final MultiPropertyHandle handle = new MultiPropertyHandle(cls, NAMES);
+    testSetAllGetAll(handle, new ArrayBean(cls));
+    testSetAllGetAll(handle, new DefaultBean(cls));
+  }
+
+  @Test
+  public void testOtherBeanClass() {
+    final DefaultBeanClass cls = getBeanClass();
+    final MultiPropertyHandle handle = new MultiPropertyHandle(cls, NAMES);
+    //  a slot bean of another bean class resolves the names on each call
+    testSetAllGetAll(handle, new ArrayBean(getBeanClass()));
+    testSetAllGetAll(handle, new DefaultBean(getBeanClass()));
+    final DefaultBeanClass other = new DefaultBeanClass("other",
+        new PropertyDescriptor[] { new PropertyDescriptor("str",
+            String.class), });
+    try {
+      handle.setAll(new DefaultBean(other), new Object[NAMES.length]);
+      fail("should throw");
+    } catch (final PropertyNotExistException e) {
+      // pass
+    }
+  }
+}
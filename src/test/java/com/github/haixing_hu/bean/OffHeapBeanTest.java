@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test of the {@link OffHeapBean} class.
+ *
+ * @author Haixing Hu
+ */
+public class OffHeapBeanTest extends BeanClassTestBase {
+
+  private DefaultBeanClass getFixedWidthBeanClass() {
+    return new DefaultBeanClass("fixed", new PropertyDescriptor[] {
+        new PropertyDescriptor("bool", Boolean.class),
+        new PropertyDescriptor("byte", Byte.class),
+        new PropertyDescriptor("short", Short.class),
+        new PropertyDescriptor("int", Integer.class),
+        new PropertyDescriptor("long", Long.class),
+        new PropertyDescriptor("float", Float.class),
+        new PropertyDescriptor("double", Double.class), });
+  }
+
+  @Test
+  public void testLayout() {
+    final OffHeapLayout layout = new OffHeapLayout(getFixedWidthBeanClass());
+    //  bitmap at 0, bytes at 1 and 2, short at 4, ints at 8 and 12,
+    //  longs at 16 and 24
+    assertEquals(32, layout.getRecordSize());
+    assertEquals(PrimitiveType.SHORT, layout.getType(2));
+    try {
+      new OffHeapLayout(getPrimitiveBeanClass());
+      fail("should throw");
+    } catch (final IllegalArgumentException e) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testOperations() {
+    final DefaultBeanClass cls = getFixedWidthBeanClass();
+    try (final OffHeapArena arena = new OffHeapArena()) {
+      final OffHeapBean bean = new OffHeapBean(cls, arena);
+      assertEquals(cls, bean.getBeanClass());
+      for (final PropertyDescriptor pd : cls.getPropertyDescriptors()) {
+        assertEquals(null, bean.get(pd.getName()));
+      }
+      bean.setBoolean("bool", true);
+      bean.setByte("byte", (byte) -1);
+      bean.setShort("short", Short.MIN_VALUE);
+      bean.setInt("int", -123456);
+      bean.setLong("long", Long.MIN_VALUE);
+      bean.setFloat("float", -1.5f);
+      bean.setDouble("double", Math.PI);
+      assertEquals(true, bean.getBoolean("bool"));
+      assertEquals((byte) -1, bean.getByte("byte"));
+      assertEquals(Short.MIN_VALUE, bean.getShort("short"));
+      assertEquals(-123456, bean.getInt("int"));
+      assertEquals(Long.MIN_VALUE, bean.getLong("long"));
+      assertEquals(-1.5f, bean.getFloat("float"), 0);
+      assertEquals(Math.PI, bean.getDouble("double"), 0);
+      assertEquals(Boolean.TRUE, bean.get("bool"));
+      assertEquals(Byte.valueOf((byte) -1), bean.get("byte"));
+      assertEquals(-123456, bean.get("int"));
+      assertEquals(-1.5f, bean.get("float"));
+
+      bean.set("int", 7);
+      assertEquals(7, bean.getInt("int"));
+      bean.set("int", null);
+      assertEquals(null, bean.get("int"));
+      try {
+        bean.getInt("int");
+        fail("should throw");
+      } catch (final NullPointerException e) {
+        // pass
+      }
+      try {
+        bean.set("long", 1);
+        fail("should throw");
+      } catch (final ClassCastException e) {
+        // pass
+      }
+
+      final OffHeapBean other = new OffHeapBean(cls, arena);
+      assertNotEquals(bean, other);
+      for (final PropertyDescriptor pd : cls.getPropertyDescriptors()) {
+        other.set(pd.getName(), bean.get(pd.getName()));
+      }
+      assertEquals(bean, other);
+      assertEquals(bean.hashCode(), other.hashCode());
+      assertEquals(64, arena.getAllocatedBytes());
+    }
+  }
+
+  @Test
+  public void testArena() {
+    final DefaultBeanClass cls = getFixedWidthBeanClass();
+    final OffHeapArena arena = new OffHeapArena(100);
+    final OffHeapBean[] beans = new OffHeapBean[100];
+    for (int i = 0; i < beans.length; ++i) {
+      beans[i] = new OffHeapBean(cls, arena);
+      beans[i].setInt("int", i);
+      beans[i].setDouble("double", i * 2.0);
+    }
+    for (int i = 0; i < beans.length; ++i) {
+      assertEquals(i, beans[i].getInt("int"));
+      assertEquals(i * 2.0, beans[i].getDouble("double"), 0);
+      assertEquals(null, beans[i].get("long"));
+    }
+    arena.close();
+    assertTrue(arena.isClosed());
+    try {
+      beans[0].getInt("int");
+      fail("should throw");
+    } catch (final IllegalStateException e) {
+      // pass
+    }
+    try {
+      new OffHeapBean(cls, arena);
+      fail("should throw");
+    } catch (final IllegalStateException e) {
+      // pass
+    }
+    arena.close();
+  }
+
+  @Test
+  public void testCopy() {
+    final DefaultBeanClass cls = getFixedWidthBeanClass();
+    try (final OffHeapArena arena = new OffHeapArena()) {
+      final OffHeapBean bean = new OffHeapBean(cls, arena);
+      bean.setInt("int", 42);
+      bean.setDouble("double", Math.E);
+      final long allocated = arena.getAllocatedBytes();
+      final Bean copy = bean.copy();
+      assertTrue(copy instanceof OffHeapBean);
+      assertSame(arena, ((OffHeapBean) copy).getArena());
+      assertTrue(arena.getAllocatedBytes() > allocated);
+      assertEquals(bean, copy);
+      assertEquals(null, copy.get("long"));
+      assertTrue(copy.getDirtyProperties().isEmpty());
+      copy.setInt("int", 0);
+      assertEquals(42, bean.getInt("int"));
+      assertEquals(bean, bean.deepCopy());
+      assertEquals(bean, cls.newInstance(bean));
+    }
+  }
+  @Test
+  public void testMoveTo() {
+    final DefaultBeanClass cls = getFixedWidthBeanClass();
+    final OffHeapArena arena = new OffHeapArena(100);
+    final long[] addresses = new long[10];
+    for (int i = 0; i < addresses.length; ++i) {
+      addresses[i] = arena.allocate(cls);
+    }
+    assertEquals(addresses.length * 32, arena.getAllocatedBytes());
+    final OffHeapBean cursor = new OffHeapBean(cls, arena, addresses[0]);
+    assertEquals(addresses[0], cursor.getAddress());
+    assertEquals(null, cursor.get("int"));
+    for (int i = 0; i < addresses.length; ++i) {
+      cursor.moveTo(addresses[i]);
+      assertEquals(addresses[i], cursor.getAddress());
+      cursor.setInt("int", i);
+      cursor.setLong("long", -i);
+    }
+    assertEquals(addresses.length * 32, arena.getAllocatedBytes());
+    assertEquals(2, cursor.getDirtyProperties().cardinality());
+    cursor.moveTo(addresses[3]);
+    assertTrue(cursor.getDirtyProperties().isEmpty());
+    assertEquals(3, cursor.getInt("int"));
+    assertEquals(-3L, cursor.getLong("long"));
+    assertEquals(null, cursor.get("double"));
+
+    final OffHeapBean bean = new OffHeapBean(cls, arena);
+    bean.setInt("int", 7);
+    cursor.moveTo(bean.getAddress());
+    assertEquals(bean, cursor);
+    cursor.setInt("int", 8);
+    assertEquals(8, bean.getInt("int"));
+
+    final long[] invalid = { addresses[0] + 4, -1L, 1L << 40,
+        bean.getAddress() + 32 };
+    for (final long address : invalid) {
+      try {
+        cursor.moveTo(address);
+        fail("should throw");
+      } catch (final IllegalArgumentException e) {
+        // pass
+      }
+      try {
+        new OffHeapBean(cls, arena, address);
+        fail("should throw");
+      } catch (final IllegalArgumentException e) {
+        // pass
+      }
+    }
+    assertEquals(bean.getAddress(), cursor.getAddress());
+    arena.close();
+    try {
+      cursor.moveTo(addresses[0]);
+      fail("should throw");
+    } catch (final IllegalStateException e) {
+      // pass
+    }
+    try {
+      arena.allocate(cls);
+      fail("should throw");
+    } catch (final IllegalStateException e) {
+      // pass
+    }
+  }
+}
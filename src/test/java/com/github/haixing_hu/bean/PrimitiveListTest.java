@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test of the {@link PrimitiveList} class and its subclasses.
+ *
+ * @author Haixing Hu
+ */
+public class PrimitiveListTest {
+
+  @Test
+  public void testCreate() {
+    assertEquals(IntList.class, PrimitiveList.create(Integer.class).getClass());
+    assertEquals(LongList.class, PrimitiveList.create(Long.class).getClass());
+    assertEquals(DoubleList.class, PrimitiveList.create(Double.class).getClass());
+    assertEquals(ArrayList.class, PrimitiveList.create(Float.class).getClass());
+    assertEquals(ArrayList.class, PrimitiveList.create(String.class).getClass());
+  }
+
+  @Test
+  public void testListOperations() {
+    final IntList list = new IntList();
+    final ArrayList<Object> expected = new ArrayList<>();
+    for (int i = 0; i < 100; ++i) {
+      list.add(i);
+      expected.add(i);
+    }
+    list.add(50, null);
+    expected.add(50, null);
+    list.add(0, -1);
+    expected.add(0, -1);
+    assertEquals(expected, list);
+    assertEquals(expected.hashCode(), list.hashCode());
+    assertTrue(list.isNull(51));
+    assertFalse(list.isNull(50));
+
+    assertEquals(null, list.remove(51));
+    expected.remove(51);
+    assertEquals(expected, list);
+    assertEquals(3, list.set(4, null));
+    expected.set(4, null);
+    assertEquals(expected, list);
+    list.setInt(4, 3);
+    expected.set(4, 3);
+    assertEquals(expected, list);
+    assertArrayEquals(new int[] { -1, 0, 1, 2, 3 },
+        Arrays.copyOf(list.toIntArray(), 5));
+
+    list.subList(10, 20).clear();
+    expected.subList(10, 20).clear();
+    assertEquals(expected, list);
+
+    list.clear();
+    assertEquals(0, list.size());
+    list.addInt(7);
+    assertEquals(Arrays.asList(7), list);
+    try {
+      list.get(1);
+      fail("should throw");
+    } catch (final IndexOutOfBoundsException e) {
+      // pass
+    }
+    try {
+      list.add("str");
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testCopyFrom() {
+    final DoubleList list1 = new DoubleList();
+    list1.setAll(new double[] { 1.0, 2.0, 3.0 });
+    list1.add(null);
+    final DoubleList list2 = new DoubleList(1);
+    assertTrue(list2.copyFrom(list1));
+    assertEquals(list1, list2);
+    assertTrue(list2.isNull(3));
+    list1.setDouble(0, 0.0);
+    assertEquals(1.0, list2.getDouble(0), 0);
+
+    assertTrue(list2.copyFrom(list2));
+    assertEquals(4, list2.size());
+    assertFalse(list2.copyFrom(new LongList()));
+    assertFalse(list2.copyFrom(Arrays.asList(1.0)));
+    assertEquals(4, list2.size());
+  }
+
+  @Test
+  public void testLongList() {
+    final LongList list = new LongList(2);
+    list.addLong(Long.MIN_VALUE);
+    list.addLong(Long.MAX_VALUE);
+    list.addLong(0);
+    assertEquals(Long.MAX_VALUE, list.get(1));
+    assertArrayEquals(new long[] { Long.MIN_VALUE, Long.MAX_VALUE, 0 },
+        list.toLongArray());
+    list.add(1, null);
+    try {
+      list.getLong(1);
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+    list.setAll(new long[] { 1 });
+    assertEquals(Arrays.asList(1L), list);
+  }
+  @Test
+  public void testAddWrongType() {
+    final IntList list = new IntList(2);
+    list.addInt(1);
+    list.add(null);
+    list.addInt(2);
+    final ArrayList<Object> expected = new ArrayList<>(list);
+    try {
+      list.add(0, "x");
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    assertEquals(expected, list);
+    assertTrue(list.isNull(1));
+    try {
+      list.add("x");
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    assertEquals(expected, list);
+    assertEquals(3, list.size());
+    try {
+      list.set(0, 1L);
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    assertEquals(expected, list);
+  }
+}
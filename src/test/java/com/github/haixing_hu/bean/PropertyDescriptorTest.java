@@ -20,6 +20,8 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 /**
@@ -223,4 +225,51 @@ public class PropertyDescriptorTest extends BeanClassTestBase {
     final String xml6 = getPropertyDescriptor6Xml();
     testXmlUnmarshal(PropertyDescriptor.class, xml6, desp6);
   }
+
+  @Test
+  public void testIntern() {
+    final PropertyDescriptor desp1 = getPropertyDescriptor1();
+    final PropertyDescriptor desp1c = getPropertyDescriptor1();
+    final PropertyDescriptor desp2 = getPropertyDescriptor2();
+    assertNotSame(desp1, desp1c);
+
+    final PropertyDescriptor interned = desp1.intern();
+    assertSame(interned, desp1c.intern());
+    assertSame(interned, interned.intern());
+    assertEquals(desp1, interned);
+    assertEquals(desp1.hashCode(), interned.hashCode());
+    assertNotSame(interned, desp2.intern());
+    assertEquals(desp2, desp2.intern());
+  }
+
+  @Test
+  public void testAccepts() {
+    final PropertyDescriptor str = new PropertyDescriptor("str", String.class);
+    assertEquals(true, str.accepts(null));
+    assertEquals(true, str.accepts("abc"));
+    assertEquals(false, str.accepts(1));
+    assertEquals(false, str.accepts(new StringBuilder()));
+    assertEquals(true, str.accepts("def"));
+
+    final PropertyDescriptor num = new PropertyDescriptor("num", Number.class,
+        PropertyKind.INDEXED);
+    for (int i = 0; i < 3; ++i) {
+      assertEquals(true, num.accepts(1));
+      assertEquals(true, num.accepts(1.5));
+      assertEquals(true, num.accepts(2L));
+      assertEquals(false, num.accepts("1"));
+      assertEquals(false, num.accepts(Boolean.TRUE));
+    }
+    //  the decisions are shared by the descriptors of the same type
+    final PropertyDescriptor num2 = new PropertyDescriptor("num2",
+        Number.class);
+    assertEquals(true, num2.accepts(1.5f));
+    assertEquals(false, num2.accepts('c'));
+
+    final PropertyDescriptor seq = new PropertyDescriptor("seq",
+        CharSequence.class);
+    assertEquals(true, seq.accepts("abc"));
+    assertEquals(true, seq.accepts(new StringBuilder()));
+    assertEquals(false, seq.accepts(new Object()));
+  }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test of the {@link PropertyHandle} class.
+ *
+ * @author Haixing Hu
+ */
+public class PropertyHandleTest extends BeanClassTestBase {
+
+  @Test
+  public void testGetPropertyHandle() {
+    final DefaultBeanClass cls4 = getDefaultBeanClass4();
+    final PropertyHandle h1 = cls4.getPropertyHandle("prop1");
+    assertSame(cls4, h1.getBeanClass());
+    assertEquals("prop1", h1.getName());
+    assertEquals(getPropertyDescriptor1(), h1.getDescriptor());
+    assertEquals(0, h1.getSlot());
+    assertSame(h1, cls4.getPropertyHandle("prop1"));
+    assertEquals(5, cls4.getPropertyHandle("prop6").getSlot());
+
+    final GroupedBeanClass gcls4 = getGroupedBeanClass4();
+    assertEquals(2, gcls4.getPropertyHandle("prop-3").getSlot());
+
+    try {
+      cls4.getPropertyHandle("xxx");
+      fail("should throw");
+    } catch (final PropertyNotExistException e) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testSlotBean() {
+    final DefaultBeanClass cls = getDefaultBeanClass3();
+    testHandles(cls, new ArrayBean(cls));
+  }
+
+  @Test
+  public void testDefaultBean() {
+    final DefaultBeanClass cls = getDefaultBeanClass3();
+    testHandles(cls, new DefaultBean(cls));
+    //  a bean of another bean class falls back to the name based access
+    testHandles(cls, new ArrayBean(getDefaultBeanClass3()));
+  }
+
+  private void testHandles(final BeanClass cls, final Bean bean) {
+    final PropertyHandle h1 = cls.getPropertyHandle("prop1");
+    final PropertyHandle h2 = cls.getPropertyHandle("_prop2");
+    final PropertyHandle h3 = cls.getPropertyHandle("prop-3");
+
+    assertEquals(null, h1.get(bean));
+    h1.set(bean, "str1");
+    assertEquals("str1", h1.get(bean));
+    assertEquals("str1", bean.get("prop1"));
+    try {
+      h1.set(bean, 123);
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+    try {
+      h1.getSize(bean);
+      fail("should throw");
+    } catch (final InvalidPropertyKindException e) {
+      // pass
+    }
+
+    assertEquals(0, h2.getSize(bean));
+    h2.addIndexed(bean, 1);
+    h2.addIndexed(bean, 0, 0);
+    h2.addIndexed(bean, 3);
+    h2.setIndexed(bean, 2, 2);
+    assertEquals(3, h2.getSize(bean));
+    assertEquals(0, h2.getIndexed(bean, 0));
+    assertEquals(1, h2.getIndexed(bean, 1));
+    assertEquals(2, bean.get("_prop2", 2));
+    assertEquals(0, h2.removeIndexed(bean, 0));
+    assertEquals(2, h2.getSize(bean));
+    h2.clear(bean);
+    assertEquals(0, h2.getSize(bean));
+    try {
+      h2.get(bean);
+      fail("should throw");
+    } catch (final InvalidPropertyKindException e) {
+      // pass
+    }
+
+    assertEquals(Collections.emptySet(), h3.getKeySet(bean));
+    h3.setMapped(bean, "key1", true);
+    assertEquals(true, h3.containsKey(bean, "key1"));
+    assertEquals(false, h3.containsKey(bean, "key2"));
+    assertEquals(true, h3.getMapped(bean, "key1"));
+    assertEquals(true, bean.get("prop-3", "key1"));
+    assertEquals(true, h3.removeMapped(bean, "key1"));
+    assertEquals(0, h3.getSize(bean));
+    try {
+      h3.setMapped(bean, "key1", "str");
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testPrimitiveHandles() {
+    final DefaultBeanClass cls = getPrimitiveBeanClass();
+    final PropertyHandle hi = cls.getPropertyHandle("int");
+    final PropertyHandle hd = cls.getPropertyHandle("double");
+    final Bean[] beans = { new ArrayBean(cls), new DefaultBean(cls) };
+    for (final Bean bean : beans) {
+      hi.setInt(bean, 42);
+      assertEquals(42, hi.getInt(bean));
+      assertEquals(42, bean.get("int"));
+      hd.setDouble(bean, 0.5);
+      assertEquals(0.5, hd.getDouble(bean), 0);
+      try {
+        hi.getLong(bean);
+        fail("should throw");
+      } catch (final ClassCastException e) {
+        // pass
+      }
+    }
+  }
+}
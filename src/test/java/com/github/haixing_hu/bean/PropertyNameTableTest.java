@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test for the {@link PropertyNameTable} class.
+ *
+ * @author Haixing Hu
+ */
+public class PropertyNameTableTest {
+
+  private void testLookup(final String[] names, final PropertyNameTable table) {
+    assertEquals(names.length, table.size());
+    for (int i = 0; i < names.length; ++i) {
+      assertEquals(i, table.indexOf(names[i]));
+      //  a different instance of the same name
+      assertEquals(i, table.indexOf(new String(names[i])));
+      assertTrue(table.contains(names[i]));
+    }
+    assertEquals(-1, table.indexOf("xxx"));
+    assertEquals(-1, table.indexOf(""));
+    assertEquals(-1, table.indexOf(null));
+    assertFalse(table.contains(null));
+  }
+
+  @Test
+  public void testEmpty() {
+    final PropertyNameTable table = new PropertyNameTable(new String[0]);
+    testLookup(new String[0], table);
+  }
+
+  @Test
+  public void testPerfectHash() {
+    final String[] names = { "prop1", "prop2", "prop3", "name", "age",
+        "tags", "bool", "byte", "short", "int", "long", "float", "double" };
+    final PropertyNameTable table = new PropertyNameTable(names);
+    assertTrue(table.isPerfect());
+    testLookup(names, table);
+  }
+
+  @Test
+  public void testManyNames() {
+    final String[] names = new String[1000];
+    for (int i = 0; i < names.length; ++i) {
+      names[i] = "property" + i;
+    }
+    testLookup(names, new PropertyNameTable(names));
+  }
+
+  @Test
+  public void testCollidingHashCodes() {
+    //  "Aa" and "BB" have the same hash code
+    final String[] names = { "Aa", "BB", "AaAa", "BBBB", "AaBB", "c" };
+    final PropertyNameTable table = new PropertyNameTable(names);
+    assertFalse(table.isPerfect());
+    testLookup(names, table);
+  }
+
+  @Test
+  public void testDuplicatedNames() {
+    final String[] names = { "a", "b", "a" };
+    final PropertyNameTable table = new PropertyNameTable(names);
+    assertTrue(table.isPerfect());
+    assertEquals(2, table.indexOf("a"));
+    assertEquals(1, table.indexOf("b"));
+    assertEquals(-1, table.indexOf("c"));
+  }
+
+  @Test
+  public void testCreate() {
+    final PropertyNameTable table = PropertyNameTable.create(
+        new PropertyDescriptor[] {
+          new PropertyDescriptor("x", String.class),
+          new PropertyDescriptor("y", Integer.class, PropertyKind.INDEXED), });
+    assertEquals(0, table.indexOf("x"));
+    assertEquals(1, table.indexOf("y"));
+    try {
+      new PropertyNameTable(new String[] { "a", null });
+      fail("should throw");
+    } catch (final NullPointerException e) {
+      // pass
+    }
+  }
+}
@@ -47,7 +47,7 @@ public class PropertyTestBase extends PropertyDescriptorTestBase {
     assertEquals(PropertyKind.INDEXED, prop2.getKind());
     assertEquals(getPropertyDescriptor2(), prop2.getDescriptor());
     assertNotNull(prop2.getRawValue());
-    assertEquals(0, ((ArrayList<?>) prop2.getRawValue()).size());
+    assertEquals(0, ((List<?>) prop2.getRawValue()).size());
   }
 
   protected void testProperty3(final Property prop3) {
@@ -56,7 +56,7 @@ public class PropertyTestBase extends PropertyDescriptorTestBase {
     assertEquals(PropertyKind.MAPPED, prop3.getKind());
     assertEquals(getPropertyDescriptor3(), prop3.getDescriptor());
     assertNotNull(prop3.getRawValue());
-    assertEquals(0, ((HashMap<?,?>) prop3.getRawValue()).size());
+    assertEquals(0, ((Map<?,?>) prop3.getRawValue()).size());
   }
 
   protected void testProperty4(final Property prop4) {
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2014  Haixing Hu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.github.haixing_hu.bean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.haixing_hu.reflect.ReflectionException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test for the {@link ReflectiveBeanClass} and {@link ReflectiveBean}
+ * classes.
+ *
+ * @author Haixing Hu
+ */
+public class ReflectiveBeanClassTest {
+
+  public static class Person {
+    private String name;
+    private int age;
+    private Double score;
+    private final long id = 42;
+    private List<Integer> scores = new ArrayList<>();
+    private List<String> tags;
+    private Map<String, String> attributes;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(final String name) {
+      this.name = name;
+    }
+
+    public int getAge() {
+      return age;
+    }
+
+    public void setAge(final int age) {
+      this.age = age;
+    }
+
+    public Double getScore() {
+      return score;
+    }
+
+    public void setScore(final Double score) {
+      this.score = score;
+    }
+
+    public long getId() {
+      return id;
+    }
+
+    public List<Integer> getScores() {
+      return scores;
+    }
+
+    public void setScores(final List<Integer> scores) {
+      this.scores = scores;
+    }
+
+    public List<String> getTags() {
+      return tags;
+    }
+
+    public void setTags(final List<String> tags) {
+      this.tags = tags;
+    }
+
+    public Map<String, String> getAttributes() {
+      return attributes;
+    }
+
+    public void setAttributes(final Map<String, String> attributes) {
+      this.attributes = attributes;
+    }
+  }
+
+  public static class Letter {
+    private char value = 'a';
+
+    public char getValue() {
+      return value;
+    }
+
+    public void setValue(final char value) {
+      this.value = value;
+    }
+  }
+
+  public static class NoDefaultConstructor {
+    public NoDefaultConstructor(final int value) {}
+
+    public int getValue() {
+      return 0;
+    }
+  }
+
+  @Test
+  public void testDescriptors() {
+    final ReflectiveBeanClass cls = new ReflectiveBeanClass(Person.class);
+    assertEquals(Person.class.getName(), cls.getName());
+    assertSame(Person.class, cls.getType());
+    assertSame(ReflectiveBean.class, cls.getBeanType());
+    assertEquals(7, cls.getPropertyDescriptors().length);
+    assertEquals(new PropertyDescriptor("name", String.class),
+        cls.getPropertyDescriptor("name"));
+    assertEquals(new PropertyDescriptor("age", Integer.class),
+        cls.getPropertyDescriptor("age"));
+    assertEquals(new PropertyDescriptor("id", Long.class),
+        cls.getPropertyDescriptor("id"));
+    assertEquals(new PropertyDescriptor("scores", Integer.class,
+        PropertyKind.INDEXED), cls.getPropertyDescriptor("scores"));
+    assertEquals(new PropertyDescriptor("tags", String.class,
+        PropertyKind.INDEXED), cls.getPropertyDescriptor("tags"));
+    assertEquals(new PropertyDescriptor("attributes", String.class,
+        PropertyKind.MAPPED), cls.getPropertyDescriptor("attributes"));
+    assertFalse(cls.hasProperty("class"));
+    assertEquals(-1, cls.getPropertyIndex("xxx"));
+    final int slot = cls.getPropertyIndex("age");
+    assertEquals(slot, cls.getPropertyHandle("age").getSlot());
+    try {
+      cls.getPropertyHandle("xxx");
+      fail("should throw");
+    } catch (final PropertyNotExistException e) {
+      // pass
+    }
+    assertEquals(cls, new ReflectiveBeanClass(Person.class));
+    assertEquals(cls.hashCode(),
+        new ReflectiveBeanClass(Person.class).hashCode());
+  }
+
+  @Test
+  public void testSimpleProperties() {
+    final ReflectiveBeanClass cls = new ReflectiveBeanClass(Person.class);
+    final Person person = new Person();
+    final ReflectiveBean bean = cls.wrap(person);
+    assertSame(person, bean.getTarget());
+    bean.set("name", "Alice");
+    assertEquals("Alice", person.getName());
+    person.setAge(30);
+    assertEquals(30, bean.getInt("age"));
+    assertEquals(30, bean.get("age"));
+    bean.setInt("age", 31);
+    assertEquals(31, person.getAge());
+    bean.set("age", null);
+    assertEquals(0, person.getAge());
+    assertNull(bean.get("score"));
+    bean.setDouble("score", 1.5);
+    assertEquals(Double.valueOf(1.5), person.getScore());
+    assertEquals(42L, bean.getLong("id"));
+    cls.getPropertyHandle("name").set(bean, "Bob");
+    assertEquals("Bob", person.getName());
+    try {
+      bean.set("id", 1L);
+      fail("should throw");
+    } catch (final UnsupportedOperationException e) {
+      // pass
+    }
+    try {
+      bean.set("name", 1);
+      fail("should throw");
+    } catch (final ClassCastException e) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testIndexedAndMappedProperties() {
+    final ReflectiveBeanClass cls = new ReflectiveBeanClass(Person.class);
+    final Person person = new Person();
+    final Bean bean = cls.wrap(person);
+
+    //  the primitive accessors on a list which is not a PrimitiveList
+    bean.addInt("scores", 1);
+    bean.add("scores", 2);
+    assertEquals(Arrays.asList(1, 2), person.getScores());
+    assertEquals(2, bean.getInt("scores", 1));
+    bean.setInt("scores", 0, 3);
+    assertArrayEquals(new int[] { 3, 2 }, bean.getIntArray("scores"));
+    bean.setIntArray("scores", new int[] { 4, 5, 6 });
+    assertEquals(Arrays.asList(4, 5, 6), person.getScores());
+
+    //  the null containers are created on demand
+    assertNull(person.getTags());
+    bean.add("tags", "a");
+    assertEquals(Arrays.asList("a"), person.getTags());
+    bean.set("attributes", "key", "value");
+    assertNotNull(person.getAttributes());
+    assertEquals("value", person.getAttributes().get("key"));
+    assertEquals("value", bean.get("attributes", "key"));
+
+    bean.reset();
+    assertNull(person.getName());
+    assertEquals(0, person.getAge());
+    assertTrue(person.getScores().isEmpty());
+    assertTrue(person.getTags().isEmpty());
+    assertTrue(person.getAttributes().isEmpty());
+    assertEquals(42L, person.getId());
+  }
+
+  @Test
+  public void testNewInstance() {
+    final ReflectiveBeanClass cls = new ReflectiveBeanClass(Person.class);
+    final Bean bean = cls.newInstance();
+    assertTrue(bean instanceof ReflectiveBean);
+    assertTrue(((ReflectiveBean) bean).getTarget() instanceof Person);
+    assertSame(cls, bean.getBeanClass());
+    try {
+      new ReflectiveBeanClass(NoDefaultConstructor.class).newInstance();
+      fail("should throw");
+    } catch (final ReflectionException e) {
+      // pass
+    }
+    try {
+      cls.wrap("not a person");
+      fail("should throw");
+    } catch (final IllegalArgumentException e) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testCharProperty() {
+    final ReflectiveBeanClass cls = new ReflectiveBeanClass(Letter.class);
+    assertEquals(new PropertyDescriptor("value", Character.class),
+        cls.getPropertyDescriptor("value"));
+    final Letter letter = new Letter();
+    final Bean bean = cls.wrap(letter);
+    assertEquals('a', bean.get("value"));
+    bean.set("value", 'b');
+    assertEquals('b', letter.getValue());
+    bean.set("value", null);
+    assertEquals('\0', letter.getValue());
+  }
+
+  @Test
+  public void testEquals() {
+    final ReflectiveBeanClass cls = new ReflectiveBeanClass(Person.class);
+    final Person person = new Person();
+    assertEquals(cls.wrap(person), cls.wrap(person));
+    assertEquals(cls.wrap(person).hashCode(), cls.wrap(person).hashCode());
+    assertFalse(cls.wrap(person).equals(cls.wrap(new Person())));
+  }
+
+  @Test
+  public void testCopy() {
+    final ReflectiveBeanClass cls = new ReflectiveBeanClass(Person.class);
+    final Person person = new Person();
+    person.setName("Alice");
+    person.setAge(30);
+    final Bean bean = cls.wrap(person);
+    bean.add("scores", 1);
+    bean.set("attributes", "key", "value");
+
+    final Bean copy = cls.newInstance(bean);
+    final Person copied = (Person) ((ReflectiveBean) copy).getTarget();
+    assertNotSame(person, copied);
+    assertEquals("Alice", copied.getName());
+    assertEquals(30, copied.getAge());
+    assertEquals(42L, copied.getId());
+    assertEquals(Arrays.asList(1), copied.getScores());
+    assertNotSame(person.getScores(), copied.getScores());
+    assertEquals("value", copied.getAttributes().get("key"));
+    assertTrue(copy.getDirtyProperties().isEmpty());
+    assertEquals("Alice", ((ReflectiveBean) bean.deepCopy()).get("name"));
+  }
+}
@@ -17,9 +17,14 @@
  */
 package com.github.haixing_hu.bean;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
 /**
@@ -77,4 +82,44 @@ public class TypeAliasRegistryTest {
     }
   }
 
+  @Test
+  public void testConcurrentRegisterAndLookup() throws Exception {
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    final List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; ++i) {
+      final int id = i;
+      threads.add(new Thread() {
+        @Override
+        public void run() {
+          try {
+            for (int j = 0; j < 1000; ++j) {
+              assertEquals("int", TypeAliasRegistry.getAlias(Integer.class));
+              assertEquals(String.class, TypeAliasRegistry.getType("string"));
+              if (j % 100 == 0) {
+                final String alias = "concurrent-" + id + "-" + j;
+                TypeAliasRegistry.register(alias, MyBean.class);
+                assertEquals(MyBean.class, TypeAliasRegistry.getType(alias));
+              }
+            }
+          } catch (final Throwable e) {
+            error.set(e);
+          }
+        }
+      });
+    }
+    for (final Thread thread : threads) {
+      thread.start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+    assertNull(error.get());
+    for (int i = 0; i < 4; ++i) {
+      for (int j = 0; j < 1000; j += 100) {
+        assertEquals(MyBean.class,
+            TypeAliasRegistry.getType("concurrent-" + i + "-" + j));
+      }
+    }
+    TypeAliasRegistry.register("my-bean", MyBean.class);
+  }
 }